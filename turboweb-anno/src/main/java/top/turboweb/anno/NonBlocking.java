@@ -0,0 +1,18 @@
+package top.turboweb.anno;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 标记路由不会阻塞，直接在IO线程中执行。
+ * <p>
+ * 适用于只访问内存的简单处理器，例如缓存查询、健康检查、固定的 json 响应，省去创建虚拟线程与切换回IO线程写出响应的开销。
+ * 处理器中不能有任何阻塞操作（数据库访问、远程调用、锁等待、读写文件等），否则会阻塞同一IO线程上的所有连接。
+ * 在IO线程中执行超过阈值的路由会被记录，多次超过后改为在虚拟线程中执行。不能与 {@link StreamingBody} 同时使用。
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface NonBlocking {
+}
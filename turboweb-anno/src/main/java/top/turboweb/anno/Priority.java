@@ -0,0 +1,42 @@
+package top.turboweb.anno;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 标记路由在调度器限流时的优先级。
+ * <p>
+ * 开启调度器的优先级排队后，没有获取到许可的请求按优先级进入不同的等待队列，
+ * 优先级越高的队列按权重获得越多的许可。标注在类上时对类中所有的路由生效，方法上的注解优先。
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Priority {
+
+    /**
+     * 优先级
+     *
+     * @return 优先级
+     */
+    Level value();
+
+    /**
+     * 请求的优先级
+     */
+    enum Level {
+        /**
+         * 关键请求，例如健康检查、下单
+         */
+        CRITICAL,
+        /**
+         * 普通请求，未标记的路由默认为该优先级
+         */
+        NORMAL,
+        /**
+         * 批量请求，例如导出
+         */
+        BULK
+    }
+}
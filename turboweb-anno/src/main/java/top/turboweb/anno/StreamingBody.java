@@ -0,0 +1,18 @@
+package top.turboweb.anno;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 标记路由以流的方式接收请求体。
+ * <p>
+ * 标记的路由在请求头解析完成后立即执行，请求体不再聚合到内存中，
+ * 而是由处理器通过 {@code HttpContext#bodyStream()} 边接收边读取，multipart 上传的文件超过阈值后写入磁盘。
+ * 仅对 HTTP/1.1 生效。
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface StreamingBody {
+}
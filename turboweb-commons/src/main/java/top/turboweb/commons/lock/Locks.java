@@ -9,6 +9,9 @@ public class Locks {
 
     /**
      * session操作的读写锁
+     * <p>
+     * 仅对声明需要全局锁的会话管理器生效，内置的会话管理器已不再使用该锁。
+     * </p>
      */
     public static final ReentrantReadWriteLock SESSION_LOCK = new ReentrantReadWriteLock(true);
 }
@@ -1,8 +1,15 @@
 package top.turboweb.commons.serializer;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
 import com.fasterxml.jackson.databind.Module;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.fasterxml.jackson.datatype.jsr310.deser.InstantDeserializer;
 import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateDeserializer;
@@ -14,6 +21,13 @@ import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateTimeSerializer;
 import com.fasterxml.jackson.datatype.jsr310.ser.LocalTimeSerializer;
 import top.turboweb.commons.exception.TurboSerializableException;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -21,13 +35,20 @@ import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 基于jackson的json序列化器
+ * <p>
+ * 每个类型的 {@link ObjectReader} 与 {@link ObjectWriter} 在首次使用或 {@link #prepare(Class)} 时创建并缓存，
+ * 之后的序列化与反序列化不再查找根类型的序列化器。
+ * </p>
  */
 public class JacksonJsonSerializer implements JsonSerializer {
 
     private final ObjectMapper objectMapper;
+    private final Map<Class<?>, ObjectReader> readers = new ConcurrentHashMap<>();
+    private final Map<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
 
     /**
      * 创建一个基于jackson的json序列化器
@@ -73,6 +94,61 @@ public class JacksonJsonSerializer implements JsonSerializer {
         return objectMapper.convertValue(map, beanClass);
     }
 
+    @Override
+    public <T> T paramsToBean(Map<String, List<String>> params, Class<T> beanClass) {
+        // 直接构建节点树，不经过 convertValue 的序列化与 TokenBuffer
+        ObjectNode node = objectMapper.createObjectNode();
+        params.forEach((key, values) -> {
+            if (values.size() == 1) {
+                node.put(key, values.getFirst());
+            } else {
+                ArrayNode arrayNode = node.putArray(key);
+                values.forEach(arrayNode::add);
+            }
+        });
+        try {
+            return reader(beanClass).readValue(node);
+        } catch (IOException e) {
+            throw new TurboSerializableException(e);
+        }
+    }
+
+    @Override
+    public void prepare(Class<?> type) {
+        reader(type);
+        writer(type);
+    }
+
+    /**
+     * 获取类型的 {@link ObjectReader}，根类型的反序列化器在创建时解析
+     *
+     * @param type 类型
+     * @return ObjectReader
+     */
+    private ObjectReader reader(Class<?> type) {
+        return readers.computeIfAbsent(type, objectMapper::readerFor);
+    }
+
+    /**
+     * 获取类型的 {@link ObjectWriter}，根类型的序列化器在创建时解析
+     *
+     * @param type 类型
+     * @return ObjectWriter
+     */
+    private ObjectWriter writer(Class<?> type) {
+        return writers.computeIfAbsent(type, objectMapper::writerFor);
+    }
+
+    /**
+     * 获取对象运行时类型的 {@link ObjectWriter}
+     *
+     * @param bean 对象
+     * @return ObjectWriter
+     */
+    private ObjectWriter writerFor(Object bean) {
+        return bean == null ? objectMapper.writer() : writer(bean.getClass());
+    }
+
     @Override
     public Map<?, ?> beanToMap(Object bean) {
         return objectMapper.convertValue(bean, Map.class);
@@ -81,21 +157,53 @@ public class JacksonJsonSerializer implements JsonSerializer {
     @Override
     public String beanToJson(Object bean) {
         try {
-            return objectMapper.writeValueAsString(bean);
+            return writerFor(bean).writeValueAsString(bean);
         } catch (JsonProcessingException e) {
             throw new TurboSerializableException(e);
         }
     }
 
+    @Override
+    public void writeTo(Object bean, ByteBuf buf, Charset charset) {
+        OutputStream outputStream = new ByteBufOutputStream(buf);
+        try {
+            if (StandardCharsets.UTF_8.equals(charset)) {
+                // jackson 直接输出 UTF-8 字节
+                writerFor(bean).writeValue(outputStream, bean);
+            } else {
+                writerFor(bean).writeValue(new OutputStreamWriter(outputStream, charset), bean);
+            }
+        } catch (IOException e) {
+            throw new TurboSerializableException(e);
+        }
+    }
+
     @Override
     public <T> T jsonToBean(String json, Class<T> beanClass) {
         try {
-            return objectMapper.readValue(json, beanClass);
+            return reader(beanClass).readValue(json);
         } catch (JsonProcessingException e) {
             throw new TurboSerializableException(e);
         }
     }
 
+    @Override
+    public <T> T readFrom(ByteBuf buf, Charset charset, Class<T> beanClass) {
+        try {
+            ObjectReader reader = reader(beanClass);
+            if (charset.name().startsWith("UTF-")) {
+                // jackson 根据字节内容识别 UTF-8/UTF-16/UTF-32，不需要解码为字符串
+                if (buf.hasArray()) {
+                    return reader.readValue(buf.array(), buf.arrayOffset() + buf.readerIndex(), buf.readableBytes());
+                }
+                return reader.readValue((InputStream) new ByteBufInputStream(buf.duplicate()));
+            }
+            return reader.readValue(new InputStreamReader(new ByteBufInputStream(buf.duplicate()), charset));
+        } catch (IOException e) {
+            throw new TurboSerializableException(e);
+        }
+    }
+
     @Override
     public Map<?, ?> jsonToMap(String json) {
         return jsonToBean(json, Map.class);
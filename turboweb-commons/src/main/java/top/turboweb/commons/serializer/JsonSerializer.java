@@ -1,5 +1,10 @@
 package top.turboweb.commons.serializer;
 
+import io.netty.buffer.ByteBuf;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -17,6 +22,41 @@ public interface JsonSerializer {
      */
     <T> T mapToBean(Map<String, Object> map, Class<T> beanClass);
 
+    /**
+     * 将查询参数或表单参数映射为 JavaBean。
+     * <p>
+     * 只有一个值的参数映射为单个值，多个值的参数映射为列表。
+     * 默认实现先转换为 {@code Map<String, Object>} 再调用 {@link #mapToBean(Map, Class)}，实现类可以直接从参数绑定。
+     * </p>
+     *
+     * @param params    参数，每个参数名对应一个或多个值
+     * @param beanClass JavaBean 的 Class 对象
+     * @return 映射后的 JavaBean 对象
+     */
+    default <T> T paramsToBean(Map<String, List<String>> params, Class<T> beanClass) {
+        Map<String, Object> map = new HashMap<>();
+        params.forEach((key, values) -> {
+            if (values.size() == 1) {
+                map.put(key, values.getFirst());
+            } else {
+                map.put(key, values);
+            }
+        });
+        return mapToBean(map, beanClass);
+    }
+
+    /**
+     * 预先准备类型的序列化与反序列化信息。
+     * <p>
+     * 在启动阶段对路由绑定的请求模型和返回值类型调用，避免首次请求时再解析类型。
+     * 默认实现不做任何处理。
+     * </p>
+     *
+     * @param type 类型
+     */
+    default void prepare(Class<?> type) {
+    }
+
     /**
      * 将 JavaBean 映射为 Map。
      *
@@ -33,6 +73,31 @@ public interface JsonSerializer {
      */
     String beanToJson(Object bean);
 
+    /**
+     * 将 JavaBean 转换为 UTF-8 编码的 JSON 并写入缓冲区。
+     *
+     * @param bean 要转换的 JavaBean 对象
+     * @param buf  目标缓冲区
+     */
+    default void writeTo(Object bean, ByteBuf buf) {
+        writeTo(bean, buf, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 将 JavaBean 转换为 JSON 并按指定字符集写入缓冲区。
+     * <p>
+     * 默认实现先生成字符串再编码，实现类可以直接将序列化结果写入缓冲区，避免中间的字符串与字节数组。
+     * 写入失败时缓冲区中可能残留部分内容，由调用方释放。
+     * </p>
+     *
+     * @param bean    要转换的 JavaBean 对象
+     * @param buf     目标缓冲区
+     * @param charset 字符集
+     */
+    default void writeTo(Object bean, ByteBuf buf, Charset charset) {
+        buf.writeCharSequence(beanToJson(bean), charset);
+    }
+
     /**
      * 将 JSON 字符串转换为 JavaBean。
      *
@@ -42,6 +107,21 @@ public interface JsonSerializer {
      */
     <T> T jsonToBean(String json, Class<T> beanClass);
 
+    /**
+     * 从缓冲区中的 JSON 转换为 JavaBean，不修改缓冲区的读索引。
+     * <p>
+     * 默认实现先解码为字符串，实现类可以直接从字节解析。
+     * </p>
+     *
+     * @param buf       JSON 内容
+     * @param charset   JSON 内容的字符集
+     * @param beanClass JavaBean 的 Class 对象
+     * @return 转换后的 JavaBean 对象
+     */
+    default <T> T readFrom(ByteBuf buf, Charset charset, Class<T> beanClass) {
+        return jsonToBean(buf.toString(charset), beanClass);
+    }
+
     /**
      * 将 JSON 字符串转换为 Map。
      *
@@ -0,0 +1,254 @@
+package top.turboweb.commons.struct.trie;
+
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+/**
+ * 路径参数类型。
+ *
+ * <p>支持以下类型：
+ * <ul>
+ *     <li>str —— 任意字符串</li>
+ *     <li>num —— 数值（支持小数）</li>
+ *     <li>int —— 整数</li>
+ *     <li>bool —— 布尔值（true/false）</li>
+ *     <li>date —— 日期（yyyy-MM-dd）</li>
+ *     <li>ipv4 —— IPv4 地址</li>
+ *     <li>regex=xxx —— 自定义正则表达式，在解析类型时编译</li>
+ * </ul>
+ *
+ * <p>校验直接作用于字符串的某个区间，路由匹配时无需截取路径片段。
+ * 内置类型均为手写的逐字符校验，不使用正则表达式，也不分配对象；
+ * 自定义正则在解析类型时编译一次，之后的匹配复用同一个 {@link Pattern}。
+ */
+public final class PathParamType {
+
+    public static final PathParamType STR = new PathParamType("str", null);
+    public static final PathParamType NUM = new PathParamType("num", null);
+    public static final PathParamType INT = new PathParamType("int", null);
+    public static final PathParamType BOOL = new PathParamType("bool", null);
+    public static final PathParamType DATE = new PathParamType("date", null);
+    public static final PathParamType IPV4 = new PathParamType("ipv4", null);
+
+    /**
+     * {@link #parseLong(String, int, int)} 无法解析时的返回值，{@link Long#MIN_VALUE} 本身也按无法解析处理
+     */
+    public static final long NOT_A_LONG = Long.MIN_VALUE;
+
+    private final String name;
+    private final Pattern pattern;
+
+    private PathParamType(String name, Pattern pattern) {
+        this.name = name;
+        this.pattern = pattern;
+    }
+
+    /**
+     * 解析参数类型。
+     *
+     * @param s 类型名（如 "int"、"regex=[a-z]+"），为 null 时表示 str
+     * @return 参数类型
+     * @throws IllegalArgumentException 类型不支持或正则表达式不合法时抛出
+     */
+    public static PathParamType parse(String s) {
+        if (s == null) return STR;
+        return switch (s.toLowerCase()) {
+            case "num" -> NUM;
+            case "bool" -> BOOL;
+            case "str" -> STR;
+            case "int" -> INT;
+            case "date" -> DATE;
+            case "ipv4" -> IPV4;
+            default -> {
+                if (s.startsWith("regex=")) {
+                    yield new PathParamType("regex=" + s.substring(6), Pattern.compile(s.substring(6)));
+                }
+                throw new IllegalArgumentException("Unsupported param type: " + s);
+            }
+        };
+    }
+
+    /**
+     * 判断字符串是否符合该类型。
+     *
+     * @param value 参数值
+     * @return 是否符合
+     */
+    public boolean matches(String value) {
+        return matches(value, 0, value.length());
+    }
+
+    /**
+     * 判断字符串的指定区间是否符合该类型。
+     *
+     * @param s     字符串
+     * @param start 起始下标（包含）
+     * @param end   结束下标（不包含）
+     * @return 是否符合
+     */
+    public boolean matches(String s, int start, int end) {
+        if (this == STR) {
+            return true;
+        } else if (this == INT) {
+            return isInt(s, start, end);
+        } else if (this == NUM) {
+            return isNum(s, start, end);
+        } else if (this == BOOL) {
+            int len = end - start;
+            return (len == 4 && s.regionMatches(true, start, "true", 0, 4))
+                    || (len == 5 && s.regionMatches(true, start, "false", 0, 5));
+        } else if (this == DATE) {
+            return isDate(s, start, end);
+        } else if (this == IPV4) {
+            return isIpv4(s, start, end);
+        }
+        return pattern.matcher(s).region(start, end).matches();
+    }
+
+    /**
+     * 将已通过 int 类型校验的区间解析为 long。
+     *
+     * @param s     字符串
+     * @param start 起始下标（包含）
+     * @param end   结束下标（不包含）
+     * @return 解析结果，无法用 long 表示时返回 {@link #NOT_A_LONG}
+     */
+    public static long parseLong(String s, int start, int end) {
+        boolean negative = s.charAt(start) == '-';
+        int i = negative ? start + 1 : start;
+        // 以负数累加，避免正数溢出
+        long result = 0;
+        for (; i < end; i++) {
+            int digit = s.charAt(i) - '0';
+            if (result < Long.MIN_VALUE / 10) {
+                return NOT_A_LONG;
+            }
+            result *= 10;
+            if (result < Long.MIN_VALUE + digit) {
+                return NOT_A_LONG;
+            }
+            result -= digit;
+        }
+        if (result == Long.MIN_VALUE) {
+            return NOT_A_LONG;
+        }
+        return negative ? result : -result;
+    }
+
+    /**
+     * -?\d+
+     */
+    private static boolean isInt(String s, int start, int end) {
+        if (start < end && s.charAt(start) == '-') {
+            start++;
+        }
+        return digits(s, start, end) == end && start < end;
+    }
+
+    /**
+     * -?\d+(\.\d+)?
+     */
+    private static boolean isNum(String s, int start, int end) {
+        if (start < end && s.charAt(start) == '-') {
+            start++;
+        }
+        int i = digits(s, start, end);
+        if (i == start) {
+            return false;
+        }
+        if (i == end) {
+            return true;
+        }
+        if (s.charAt(i) != '.') {
+            return false;
+        }
+        int fractionStart = i + 1;
+        return digits(s, fractionStart, end) == end && fractionStart < end;
+    }
+
+    /**
+     * \d{4}-(0[1-9]|1[0-2])-(0[1-9]|[12]\d|3[01])
+     */
+    private static boolean isDate(String s, int start, int end) {
+        if (end - start != 10 || digits(s, start, start + 4) != start + 4
+                || s.charAt(start + 4) != '-' || s.charAt(start + 7) != '-'
+                || digits(s, start + 5, start + 7) != start + 7 || digits(s, start + 8, end) != end) {
+            return false;
+        }
+        int month = (s.charAt(start + 5) - '0') * 10 + (s.charAt(start + 6) - '0');
+        int day = (s.charAt(start + 8) - '0') * 10 + (s.charAt(start + 9) - '0');
+        return month >= 1 && month <= 12 && day >= 1 && day <= 31;
+    }
+
+    /**
+     * 四段 0~255 的十进制数，除 0 以外不允许前导 0
+     */
+    private static boolean isIpv4(String s, int start, int end) {
+        int i = start;
+        for (int part = 0; part < 4; part++) {
+            if (part > 0) {
+                if (i >= end || s.charAt(i) != '.') {
+                    return false;
+                }
+                i++;
+            }
+            int partEnd = digits(s, i, Math.min(end, i + 3));
+            int len = partEnd - i;
+            if (len == 0 || (len > 1 && s.charAt(i) == '0')) {
+                return false;
+            }
+            int value = 0;
+            for (int j = i; j < partEnd; j++) {
+                value = value * 10 + (s.charAt(j) - '0');
+            }
+            if (value > 255) {
+                return false;
+            }
+            i = partEnd;
+        }
+        return i == end;
+    }
+
+    /**
+     * 从 start 开始跳过连续的数字
+     *
+     * @return 第一个非数字字符的下标，或 end
+     */
+    private static int digits(String s, int start, int end) {
+        int i = start;
+        while (i < end) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') {
+                break;
+            }
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * 获取类型名，自定义正则类型包含正则表达式，可作为类型的唯一标识。
+     *
+     * @return 类型名
+     */
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof PathParamType that)) return false;
+        return name.equals(that.name);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name);
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -2,8 +2,6 @@ package top.turboweb.commons.struct.trie;
 
 import java.util.*;
 import java.util.List;
-import java.util.function.Function;
-import java.util.regex.Pattern;
 
 /**
  * 基于 REST 风格 URL 的前缀树（Trie）实现。
@@ -25,111 +23,14 @@ import java.util.regex.Pattern;
  */
 public class RestUrlTrie<T> extends UrlTrie<T, RestUrlTrie.MatchResult<T>> {
 
-    /**
-     * 默认参数匹配正则表达式
-     */
-    private static class REGEX_PATTERN {
-        static final Pattern NUM = Pattern.compile("^-?\\d+(\\.\\d+)?$");
-        static final Pattern INT = Pattern.compile("^-?\\d+$");
-        static final Pattern DATE = Pattern.compile("^\\d{4}-(0[1-9]|1[0-2])-(0[1-9]|[12]\\d|3[01])$");
-        static final Pattern IPV4 = Pattern.compile("^((25[0-5]|2[0-4]\\d|1\\d{2}|[1-9]?\\d)\\.){3}(25[0-5]|2[0-4]\\d|1\\d{2}|[1-9]?\\d)$");
-    }
-
-    /**
-     * 路径参数类型。
-     *
-     * <p>支持以下内置类型：
-     * <ul>
-     *     <li>str —— 任意字符串</li>
-     *     <li>num —— 数值（支持小数）</li>
-     *     <li>int —— 整数</li>
-     *     <li>bool —— 布尔值（true/false）</li>
-     *     <li>date —— 日期（yyyy-MM-dd）</li>
-     *     <li>ipv4 —— IPv4 地址</li>
-     *     <li>regex=xxx —— 自定义正则表达式</li>
-     * </ul>
-     */
-    private final static class ParamType {
-        static final ParamType STR = new ParamType("str");
-        static final ParamType NUM = new ParamType("num");
-        static final ParamType INT = new ParamType("int");
-        static final ParamType BOOL = new ParamType("bool");
-        static final ParamType DATE = new ParamType("date");
-        static final ParamType IPV4 = new ParamType("ipv4");
-
-        final String regex;
-        final String name;
-
-        /**
-         * 类型匹配策略。
-         * 定义每种类型对应的匹配函数。
-         */
-        static final Map<ParamType, Function<String, Boolean>> STRATEGY = Map.of(
-                NUM, value -> REGEX_PATTERN.NUM.matcher(value).matches(),
-                INT, value -> REGEX_PATTERN.INT.matcher(value).matches(),
-                BOOL, value -> "true".equalsIgnoreCase(value) || "false".equalsIgnoreCase(value),
-                DATE, value -> REGEX_PATTERN.DATE.matcher(value).matches(),
-                IPV4, value -> REGEX_PATTERN.IPV4.matcher(value).matches(),
-                STR, value -> true
-        );
-
-        ParamType(String name) {
-            this.regex = null;
-            this.name = name;
-        }
-
-        ParamType(String name, String regex) {
-            Objects.requireNonNull(regex);
-            this.regex = regex;
-            this.name = name;
-        }
-
-        static ParamType fromString(String s) {
-            if (s == null) return STR;
-            return switch (s.toLowerCase()) {
-                case "num" -> NUM;
-                case "bool" -> BOOL;
-                case "str" -> STR;
-                case "int" -> INT;
-                case "date" -> DATE;
-                case "ipv4" -> IPV4;
-                default -> {
-                    if (s.startsWith("regex=")) {
-                        s = s.substring(6);
-                        yield new ParamType("regex", s);
-                    }
-                    throw new IllegalArgumentException("Unsupported param type: " + s);
-                }
-            };
-        }
-
-        boolean match(String value) {
-            Function<String, Boolean> function = STRATEGY.get(this);
-            if (function == null) {
-                // 判断正则表达式是否是空
-                if (this.regex == null) {
-                    return false;
-                }
-                // 匹配
-                return value.matches(this.regex);
-            } else {
-                return function.apply(value);
-            }
-        }
-
-        String name() {
-            return this.name;
-        }
-    }
-
     /**
      * 参数信息
      */
     private static class ParamInfo  {
         final String name;
-        final ParamType type;
+        final PathParamType type;
 
-        private ParamInfo(String name, ParamType type) {
+        private ParamInfo(String name, PathParamType type) {
             this.name = name;
             this.type = type;
         }
@@ -188,9 +89,10 @@ public class RestUrlTrie<T> extends UrlTrie<T, RestUrlTrie.MatchResult<T>> {
         String inner = seg.substring(1, seg.length() - 1);
         String[] parts = inner.split(":");
         String name = parts[0];
-        ParamType type = ParamType.STR;
+        PathParamType type = PathParamType.STR;
         if (parts.length > 1) {
-            type = ParamType.fromString(parts[1]);
+            // 自定义正则在此处编译，匹配时复用
+            type = PathParamType.parse(parts[1]);
         }
         return new ParamInfo(name, type);
     }
@@ -243,7 +145,7 @@ public class RestUrlTrie<T> extends UrlTrie<T, RestUrlTrie.MatchResult<T>> {
                 // 检测类型是否支持
                 if (typeName != null) {
                     try {
-                        ParamType.fromString(typeName);
+                        PathParamType.parse(typeName);
                     } catch (IllegalArgumentException ex) {
                         throw new IllegalArgumentException("Unsupported parameter type '" + typeName + "' in path: " + key);
                     }
@@ -313,7 +215,7 @@ public class RestUrlTrie<T> extends UrlTrie<T, RestUrlTrie.MatchResult<T>> {
                     while (it.hasNext()) {
                         Node<T> n = it.next();
                         ParamDetails details = n.details(ParamDetails.class);
-                        if (details != null && details.paramInfo.type.match(seg)) {
+                        if (details != null && details.paramInfo.type.matches(seg)) {
                             candidates.add(n);
                         }
                     }
@@ -346,7 +248,7 @@ public class RestUrlTrie<T> extends UrlTrie<T, RestUrlTrie.MatchResult<T>> {
             List<Node<T>> candidates = new ArrayList<>();
             for (Node<T> n : subNodes.values()) {
                 ParamDetails details = n.details(ParamDetails.class);
-                if (details != null && details.paramInfo.type.match(seg)) {
+                if (details != null && details.paramInfo.type.matches(seg)) {
                     candidates.add(n);
                 }
             }
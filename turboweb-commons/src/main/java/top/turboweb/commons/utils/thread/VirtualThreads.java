@@ -1,7 +1,10 @@
 package top.turboweb.commons.utils.thread;
 
+import java.lang.reflect.Constructor;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 
 /**
  * 虚拟线程工具类
@@ -17,6 +20,25 @@ public final class VirtualThreads {
     private VirtualThreads() {
     }
 
+    /**
+     * 延迟加载可以指定调度器的虚拟线程构建器的构造器
+     */
+    private static final class SchedulerBuilderHolder {
+
+        private static final Constructor<?> CONSTRUCTOR = lookup();
+
+        private static Constructor<?> lookup() {
+            try {
+                Class<?> builderClass = Class.forName("java.lang.ThreadBuilders$VirtualThreadBuilder");
+                Constructor<?> constructor = builderClass.getDeclaredConstructor(Executor.class);
+                constructor.setAccessible(true);
+                return constructor;
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                return null;
+            }
+        }
+    }
+
     /**
      * 创建虚拟线程并执行任务
      *
@@ -27,6 +49,38 @@ public final class VirtualThreads {
         Thread.ofVirtual().name(name).start(task);
     }
 
+    /**
+     * 判断是否可以为虚拟线程指定调度器（载体线程）。
+     * <p>
+     * JDK 没有公开指定虚拟线程调度器的接口，需要通过反射调用 {@code java.lang.ThreadBuilders.VirtualThreadBuilder} 的内部构造器，
+     * 启动时需要添加 {@code --add-opens java.base/java.lang=ALL-UNNAMED}。
+     *
+     * @return 是否可以指定
+     */
+    public static boolean isCustomSchedulerSupported() {
+        return SchedulerBuilderHolder.CONSTRUCTOR != null;
+    }
+
+    /**
+     * 创建由指定调度器运行的虚拟线程工厂，虚拟线程每次被挂起后都由该调度器恢复执行
+     *
+     * @param scheduler 调度器，执行虚拟线程的载体任务
+     * @param name      线程名称
+     * @return 线程工厂，不支持指定调度器时返回null
+     */
+    public static ThreadFactory schedulerFactory(Executor scheduler, String name) {
+        Constructor<?> constructor = SchedulerBuilderHolder.CONSTRUCTOR;
+        if (constructor == null) {
+            return null;
+        }
+        try {
+            Thread.Builder.OfVirtual builder = (Thread.Builder.OfVirtual) constructor.newInstance(scheduler);
+            return builder.name(name).factory();
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
     /**
      * 获取线程池
      *
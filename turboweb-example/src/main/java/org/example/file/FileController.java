@@ -5,6 +5,7 @@ import io.netty.handler.codec.http.multipart.FileUpload;
 import top.turboweb.anno.method.Get;
 import top.turboweb.anno.method.Post;
 import top.turboweb.anno.RequestPath;
+import top.turboweb.anno.StreamingBody;
 import top.turboweb.anno.param.binder.Upload;
 import top.turboweb.http.context.HttpContext;
 import top.turboweb.http.response.AsyncFileResponse;
@@ -44,6 +45,27 @@ public class FileController {
         return "upload";
     }
 
+    @Post("/upload4")
+    @StreamingBody
+    public String upload04(@Upload("file") FileUpload file) {
+        // 超过16KB的文件边接收边写入临时文件
+        System.out.println(file.getFilename() + ", size: " + file.length() + ", inMemory: " + file.isInMemory());
+        return "upload";
+    }
+
+    @Post("/stream")
+    @StreamingBody
+    public String stream(InputStream body) throws IOException {
+        // 边接收边读取请求体
+        byte[] buf = new byte[8192];
+        long total = 0;
+        int n;
+        while ((n = body.read(buf)) != -1) {
+            total += n;
+        }
+        return "received: " + total;
+    }
+
     @Get("/download1")
     public HttpFileResult download01(HttpContext context) throws IOException {
         File file = new File("E:\\tmp\\logo.png");
@@ -0,0 +1,176 @@
+package org.example.limiter;
+
+import top.turboweb.http.scheduler.limit.ConcurrencyLimiter;
+import top.turboweb.http.scheduler.limit.FixedConcurrencyLimiter;
+import top.turboweb.http.scheduler.limit.GradientConcurrencyLimiter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 对比固定并发数与自适应并发数的模拟压测。
+ * <p>
+ * 以固定的速率（开环）提交请求，每个请求在虚拟线程中按调度器的规则获取许可：
+ * 没有许可时挂起等待，挂起数达到上限或等待超时则拒绝。请求访问一个模拟的慢依赖，
+ * 依赖同时只能处理 {@code capacity} 个请求，超出的请求排队，因此并发过高时耗时会持续上升。
+ * </p>
+ * <p>
+ * 压测分为三个阶段：正常、依赖变慢（单次耗时变为5倍）、依赖恢复，分别统计每个阶段的成功数、拒绝数、
+ * 端到端耗时（含挂起等待）、执行耗时（访问依赖）的分位数和阶段结束时的许可数量。
+ * </p>
+ * <p>
+ * 运行方式：java org.example.limiter.AdaptiveLimiterBenchmark [每秒请求数] [每阶段秒数]
+ * </p>
+ */
+public class AdaptiveLimiterBenchmark {
+
+    private static final int CAPACITY = 50;
+    private static final long BASE_MILLIS = 10;
+    private static final int MAX_LIMIT = 1000;
+    private static final int MAX_SUSPEND = 2000;
+    private static final long TIMEOUT_MILLIS = 1000;
+    private static final String[] PHASES = {"正常", "依赖变慢", "依赖恢复"};
+
+    /**
+     * 模拟的慢依赖
+     */
+    private static class SlowDependency {
+        private final Semaphore slots = new Semaphore(CAPACITY, true);
+        private volatile long serviceMillis = BASE_MILLIS;
+
+        void call() throws InterruptedException {
+            slots.acquire();
+            try {
+                Thread.sleep(serviceMillis);
+            } finally {
+                slots.release();
+            }
+        }
+    }
+
+    /**
+     * 单个阶段的统计
+     */
+    private static class PhaseStats {
+        private final LongAdder success = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        private final List<Long> rtts = Collections.synchronizedList(new ArrayList<>());
+        private int limitAtEnd;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int rate = args.length > 0 ? Integer.parseInt(args[0]) : 3000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        System.out.printf("依赖容量:%d, 单次耗时:%dms(变慢时%dms), 请求速率:%d/s, 每阶段%ds%n",
+                CAPACITY, BASE_MILLIS, BASE_MILLIS * 5, rate, seconds);
+        run("固定并发数", new FixedConcurrencyLimiter(MAX_LIMIT), rate, seconds);
+        run("自适应并发数", new GradientConcurrencyLimiter(20, MAX_LIMIT), rate, seconds);
+    }
+
+    private static void run(String name, ConcurrencyLimiter limiter, int rate, int seconds) throws InterruptedException {
+        SlowDependency dependency = new SlowDependency();
+        AtomicInteger suspended = new AtomicInteger();
+        PhaseStats[] stats = new PhaseStats[PHASES.length];
+        long perMillis = Math.max(1, rate / 1000);
+        for (int phase = 0; phase < PHASES.length; phase++) {
+            PhaseStats phaseStats = new PhaseStats();
+            stats[phase] = phaseStats;
+            dependency.serviceMillis = phase == 1 ? BASE_MILLIS * 5 : BASE_MILLIS;
+            long start = System.nanoTime();
+            long end = start + TimeUnit.SECONDS.toNanos(seconds);
+            long next = start;
+            while (next < end) {
+                for (int i = 0; i < perMillis; i++) {
+                    submit(limiter, dependency, suspended, phaseStats);
+                }
+                next += TimeUnit.MILLISECONDS.toNanos(1);
+                LockSupport.parkNanos(next - System.nanoTime());
+            }
+            phaseStats.limitAtEnd = limiter.getLimit();
+        }
+        // 等待最后一批请求结束
+        Thread.sleep(TIMEOUT_MILLIS + BASE_MILLIS * 5);
+        System.out.println("== " + name);
+        for (int phase = 0; phase < PHASES.length; phase++) {
+            PhaseStats phaseStats = stats[phase];
+            List<Long> latencies = sorted(phaseStats.latencies);
+            List<Long> rtts = sorted(phaseStats.rtts);
+            System.out.printf("%-6s 成功:%7d  拒绝:%7d  p50:%6.1fms  p99:%7.1fms  执行p99:%7.1fms  阶段末许可数:%d%n",
+                    PHASES[phase],
+                    phaseStats.success.sum(),
+                    phaseStats.rejected.sum(),
+                    percentile(latencies, 0.50),
+                    percentile(latencies, 0.99),
+                    percentile(rtts, 0.99),
+                    phaseStats.limitAtEnd);
+        }
+    }
+
+    /**
+     * 按调度器的规则提交一个请求
+     */
+    private static void submit(ConcurrencyLimiter limiter, SlowDependency dependency, AtomicInteger suspended, PhaseStats stats) {
+        long begin = System.nanoTime();
+        boolean acquired = limiter.tryAcquire();
+        if (!acquired && suspended.get() >= MAX_SUSPEND) {
+            stats.rejected.increment();
+            return;
+        }
+        if (!acquired) {
+            suspended.incrementAndGet();
+        }
+        Thread.ofVirtual().start(() -> {
+            if (!acquired) {
+                try {
+                    if (!limiter.tryAcquire(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                        stats.rejected.increment();
+                        return;
+                    }
+                } catch (InterruptedException e) {
+                    stats.rejected.increment();
+                    return;
+                } finally {
+                    suspended.decrementAndGet();
+                }
+            }
+            long executeStart = System.nanoTime();
+            long rtt = 0;
+            try {
+                dependency.call();
+                long now = System.nanoTime();
+                rtt = now - executeStart;
+                stats.success.increment();
+                stats.latencies.add(now - begin);
+                stats.rtts.add(rtt);
+            } catch (InterruptedException e) {
+                stats.rejected.increment();
+            } finally {
+                limiter.release(rtt == 0 ? System.nanoTime() - executeStart : rtt);
+            }
+        });
+    }
+
+    private static List<Long> sorted(List<Long> values) {
+        List<Long> copy;
+        synchronized (values) {
+            copy = new ArrayList<>(values);
+        }
+        Collections.sort(copy);
+        return copy;
+    }
+
+    private static double percentile(List<Long> sorted, double p) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.min(sorted.size() - 1, Math.ceil(sorted.size() * p) - 1);
+        return sorted.get(Math.max(0, index)) / 1_000_000.0;
+    }
+}
@@ -0,0 +1,90 @@
+package org.example.router;
+
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpVersion;
+import top.turboweb.anno.param.binder.Param;
+import top.turboweb.anno.param.binder.Query;
+import top.turboweb.commons.serializer.JacksonJsonSerializer;
+import top.turboweb.http.context.FullHttpContext;
+import top.turboweb.http.context.HttpContext;
+import top.turboweb.http.middleware.router.info.AutoBindRouterDefinition;
+import top.turboweb.http.middleware.router.info.MethodRouterDefinition;
+import top.turboweb.http.middleware.router.info.RouterDefinition;
+import top.turboweb.http.middleware.router.info.RouterInvokerGenerator;
+import top.turboweb.http.middleware.router.info.autobind.*;
+import top.turboweb.http.session.BackHoleSessionManager;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 对比方法句柄调用与生成的调用器调用控制器方法的耗时及内存分配。
+ * <p>
+ * method：未开启自动绑定，方法参数只有 HttpContext；
+ * autoBind：开启自动绑定，方法参数为路径参数、查询参数与 HttpContext。
+ * </p>
+ * <p>
+ * 运行方式：java org.example.router.RouterInvokeBenchmark
+ * </p>
+ */
+public class RouterInvokeBenchmark {
+
+    private static final int ROUNDS = 20_000_000;
+
+    public static class Controller {
+
+        public Object hello(HttpContext ctx) {
+            return ctx;
+        }
+
+        public Object user(@Param("id") long id, @Query("name") String name, HttpContext ctx) {
+            return id == 42 && name != null ? ctx : null;
+        }
+    }
+
+    public static void main(String[] args) throws Throwable {
+        Controller controller = new Controller();
+        Method hello = Controller.class.getMethod("hello", HttpContext.class);
+        Method user = Controller.class.getMethod("user", long.class, String.class, HttpContext.class);
+        List<ParameterInfoParser> parsers = List.of(
+                new InternTypeParamInfoParser(), new RestParameterInfoParser(), new QueryParameterInfoParser()
+        );
+        FullHttpContext ctx = new FullHttpContext(
+                new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "/user/42?name=turbo", Unpooled.EMPTY_BUFFER),
+                new BackHoleSessionManager(), null, new JacksonJsonSerializer()
+        );
+        ctx.injectPathParam(Map.of("id", "42"));
+
+        RouterDefinition methodHandle = new MethodRouterDefinition(controller, hello);
+        RouterDefinition methodGenerated = RouterInvokerGenerator.generate(controller, hello, new ParameterBinder[1]);
+        RouterDefinition autoBindHandle = new AutoBindRouterDefinition(parsers, controller, user);
+        RouterDefinition autoBindGenerated = RouterInvokerGenerator.generate(
+                controller, user, AutoBindRouterDefinition.parseBinders(parsers, user)
+        );
+        for (int i = 0; i < 3; i++) {
+            measure("method/handle", methodHandle, ctx);
+            measure("method/generated", methodGenerated, ctx);
+            measure("autoBind/handle", autoBindHandle, ctx);
+            measure("autoBind/generated", autoBindGenerated, ctx);
+        }
+    }
+
+    private static void measure(String name, RouterDefinition definition, HttpContext ctx) throws Throwable {
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+        long checksum = 0;
+        long beforeBytes = threadMXBean.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            checksum += definition.invoke(ctx) == ctx ? 1 : 0;
+        }
+        long cost = System.nanoTime() - start;
+        long bytes = threadMXBean.getThreadAllocatedBytes(threadId) - beforeBytes;
+        System.out.printf("[%s] %.2f ns/op, %d bytes/op (checksum %d)%n",
+                name, (double) cost / ROUNDS, bytes / ROUNDS, checksum);
+    }
+}
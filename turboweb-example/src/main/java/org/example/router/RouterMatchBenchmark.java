@@ -0,0 +1,109 @@
+package org.example.router;
+
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpVersion;
+import top.turboweb.commons.serializer.JacksonJsonSerializer;
+import top.turboweb.http.context.FullHttpContext;
+import top.turboweb.http.middleware.router.container.CompiledRouterTable;
+import top.turboweb.http.middleware.router.container.DefaultRouterContainer;
+import top.turboweb.http.middleware.router.container.RouterContainer;
+import top.turboweb.http.middleware.router.info.LambdaRouterDefinition;
+import top.turboweb.http.middleware.router.info.RouterDefinition;
+import top.turboweb.http.session.BackHoleSessionManager;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * 对比前缀树匹配与编译后路由表匹配的延迟及内存分配。
+ * <p>
+ * 路由表中70%为静态路由（/api/s{i}/items），30%为模板路由（/api/p{i}/{id:int}/detail），
+ * 请求交替访问两种路由。
+ * </p>
+ * <p>
+ * 运行方式：java org.example.router.RouterMatchBenchmark
+ * </p>
+ */
+public class RouterMatchBenchmark {
+
+    private static final int ROUNDS = 2_000_000;
+
+    /**
+     * 大路由表下前缀树匹配的耗时与路由数量成正比，减少执行次数
+     */
+    private static final int LARGE_TABLE_ROUNDS = 50_000;
+
+    public static void main(String[] args) {
+        for (int routes : new int[]{10, 1_000, 50_000}) {
+            run(routes);
+        }
+    }
+
+    private static void run(int routes) {
+        DefaultRouterContainer container = new DefaultRouterContainer();
+        RouterDefinition definition = new LambdaRouterDefinition(ctx -> null);
+        int paramRoutes = Math.max(1, routes * 3 / 10);
+        int staticRoutes = routes - paramRoutes;
+        for (int i = 0; i < staticRoutes; i++) {
+            container.getExactRouterInfo().addRouter("GET", "/api/s" + i + "/items", definition);
+        }
+        for (int i = 0; i < paramRoutes; i++) {
+            container.getTrieRouterInfo().addRouter("GET", "/api/p" + i + "/{id:int}/detail", definition);
+        }
+        String[] uris = new String[1024];
+        for (int i = 0; i < uris.length; i++) {
+            uris[i] = (i & 1) == 0
+                    ? "/api/s" + (i * 7919 % staticRoutes) + "/items?page=1"
+                    : "/api/p" + (i * 7919 % paramRoutes) + "/" + i + "/detail";
+        }
+        int rounds = routes > 10_000 ? LARGE_TABLE_ROUNDS : ROUNDS;
+        CompiledRouterTable table = container.getCompiledTable();
+        FullHttpContext ctx = new FullHttpContext(
+                new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "/", Unpooled.EMPTY_BUFFER),
+                new BackHoleSessionManager(), null, new JacksonJsonSerializer()
+        );
+        for (int i = 0; i < 2; i++) {
+            measure("trie", routes, rounds, () -> {
+                long checksum = 0;
+                for (int r = 0; r < rounds; r++) {
+                    checksum += matchTrie(container, uris[r & 1023]) == definition ? 1 : 0;
+                }
+                return checksum;
+            });
+            measure("compiled", routes, rounds, () -> {
+                long checksum = 0;
+                for (int r = 0; r < rounds; r++) {
+                    checksum += table.match(HttpMethod.GET, uris[r & 1023], ctx) == definition ? 1 : 0;
+                }
+                return checksum;
+            });
+        }
+    }
+
+    private static RouterDefinition matchTrie(RouterContainer container, String uri) {
+        RouterDefinition definition = container.exactMatch("GET", uri);
+        if (definition != null) {
+            return definition;
+        }
+        RouterContainer.TrieMatchResult result = container.trieMatch("GET", uri);
+        return result == null ? null : result.definition();
+    }
+
+    private static void measure(String name, int routes, int rounds, Task task) {
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+        long beforeBytes = threadMXBean.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        long checksum = task.run();
+        long cost = System.nanoTime() - start;
+        long bytes = threadMXBean.getThreadAllocatedBytes(threadId) - beforeBytes;
+        System.out.printf("[%s] routes: %d, %d ns/op, %d bytes/op (matched %d)%n",
+                name, routes, cost / rounds, bytes / rounds, checksum);
+    }
+
+    @FunctionalInterface
+    private interface Task {
+        long run();
+    }
+}
@@ -0,0 +1,194 @@
+package org.example.scheduler;
+
+import top.turboweb.anno.RequestPath;
+import top.turboweb.anno.method.Get;
+import top.turboweb.core.server.BootStrapTurboWebServer;
+import top.turboweb.core.server.TurboWebServer;
+import top.turboweb.http.context.HttpContext;
+import top.turboweb.http.middleware.router.AnnoRouterManager;
+
+import java.io.*;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 对比虚拟线程默认载体线程与IO线程载体线程（载体线程亲和）的本地压测。
+ * <p>
+ * /hello 返回短字符串，/json 返回一个小对象，/park 在处理器中休眠1毫秒，测试虚拟线程挂起后恢复执行的开销。
+ * 载体线程亲和只有在IO线程数与CPU核心数较多时才能体现减少跨核心缓存同步的效果，核心数较少时结果主要反映调度开销。
+ * </p>
+ * <p>
+ * 运行方式：java org.example.scheduler.CarrierAffinityBenchmark [IO线程数] [连接数] [秒数]，
+ * 两种模式分别在独立的 JVM 中启动服务器并压测（自动添加 --add-opens java.base/java.lang=ALL-UNNAMED）；
+ * 也可以通过 java --add-opens java.base/java.lang=ALL-UNNAMED org.example.scheduler.CarrierAffinityBenchmark default|affinity [IO线程数] [连接数] [秒数] 只压测一种。
+ * </p>
+ */
+public class CarrierAffinityBenchmark {
+
+    private static final int PORT = 18081;
+
+    @RequestPath
+    public static class BenchController {
+
+        @Get("/hello")
+        public String hello(HttpContext ctx) {
+            return "Hello World";
+        }
+
+        @Get("/json")
+        public Map<String, Object> json(HttpContext ctx) {
+            return Map.of("id", 1, "name", "turboweb", "tags", List.of("a", "b", "c"));
+        }
+
+        @Get("/park")
+        public String park(HttpContext ctx) throws InterruptedException {
+            Thread.sleep(1);
+            return "parked";
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && !Character.isDigit(args[0].charAt(0))) {
+            boolean affinity = "affinity".equalsIgnoreCase(args[0]);
+            int ioThreads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+            int connections = args.length > 2 ? Integer.parseInt(args[2]) : 64;
+            int seconds = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+            runSingle(affinity, ioThreads, connections, seconds);
+            return;
+        }
+        String ioThreads = args.length > 0 ? args[0] : String.valueOf(Runtime.getRuntime().availableProcessors());
+        String connections = args.length > 1 ? args[1] : "64";
+        String seconds = args.length > 2 ? args[2] : "10";
+        for (String mode : List.of("default", "affinity")) {
+            // 每种模式使用独立的 JVM，避免相互影响
+            Process process = new ProcessBuilder(
+                    ProcessHandle.current().info().command().orElse("java"),
+                    "--add-opens", "java.base/java.lang=ALL-UNNAMED",
+                    "-cp", System.getProperty("java.class.path"),
+                    CarrierAffinityBenchmark.class.getName(),
+                    mode, ioThreads, connections, seconds
+            ).redirectErrorStream(true).start();
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.startsWith("[bench]")) {
+                        System.out.println(line);
+                    }
+                }
+            }
+            process.waitFor();
+        }
+    }
+
+    private static void runSingle(boolean affinity, int ioThreads, int connections, int seconds) throws Exception {
+        AnnoRouterManager routerManager = new AnnoRouterManager();
+        routerManager.addController(new BenchController());
+        TurboWebServer server = BootStrapTurboWebServer.create(ioThreads)
+                .http().routerManager(routerManager)
+                .and()
+                .configServer(config -> {
+                    config.setShowRequestLog(false);
+                    config.setVirtualThreadCarrierAffinity(affinity);
+                });
+        server.start("127.0.0.1", PORT).sync();
+        String mode = affinity ? "affinity" : "default";
+        try {
+            // 预热
+            load("/hello", connections, 2);
+            load("/json", connections, 2);
+            for (String path : List.of("/hello", "/json", "/park")) {
+                report(mode, path, connections, load(path, connections, seconds));
+            }
+        } finally {
+            server.shutdown();
+        }
+        System.exit(0);
+    }
+
+    private static void report(String mode, String path, int connections, long[] result) {
+        long requests = result[0];
+        double seconds = result[1] / 1e9;
+        System.out.printf("[bench] %-8s %-6s connections=%d requests=%d rps=%.0f avgLatency=%.1fus errors=%d%n",
+                mode, path, connections, requests, requests / seconds,
+                requests == 0 ? 0 : result[2] / 1e3 / requests, result[3]);
+    }
+
+    /**
+     * 压测指定路径
+     *
+     * @return 请求数、耗时、总延迟、错误数
+     */
+    private static long[] load(String path, int connections, int seconds) throws InterruptedException {
+        byte[] request = ("GET " + path + " HTTP/1.1\r\nHost: 127.0.0.1\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+        LongAdder requests = new LongAdder();
+        LongAdder latency = new LongAdder();
+        LongAdder errors = new LongAdder();
+        AtomicBoolean running = new AtomicBoolean(true);
+        CountDownLatch latch = new CountDownLatch(connections);
+        List<Thread> threads = new ArrayList<>(connections);
+        for (int i = 0; i < connections; i++) {
+            threads.add(Thread.ofPlatform().daemon().start(() -> {
+                try (Socket socket = new Socket("127.0.0.1", PORT)) {
+                    socket.setTcpNoDelay(true);
+                    OutputStream out = socket.getOutputStream();
+                    InputStream in = new BufferedInputStream(socket.getInputStream(), 16 * 1024);
+                    while (running.get()) {
+                        long start = System.nanoTime();
+                        out.write(request);
+                        out.flush();
+                        readResponse(in);
+                        latency.add(System.nanoTime() - start);
+                        requests.increment();
+                    }
+                } catch (IOException e) {
+                    errors.increment();
+                } finally {
+                    latch.countDown();
+                }
+            }));
+        }
+        long start = System.nanoTime();
+        Thread.sleep(seconds * 1000L);
+        running.set(false);
+        long nanos = System.nanoTime() - start;
+        latch.await();
+        return new long[]{requests.sum(), nanos, latency.sum(), errors.sum()};
+    }
+
+    /**
+     * 读取一个 Content-Length 格式的响应
+     */
+    private static void readResponse(InputStream in) throws IOException {
+        int contentLength = 0;
+        String line;
+        while (!(line = readLine(in)).isEmpty()) {
+            int index = line.indexOf(':');
+            if (index > 0 && line.substring(0, index).trim().equalsIgnoreCase("content-length")) {
+                contentLength = Integer.parseInt(line.substring(index + 1).trim());
+            }
+        }
+        if (in.readNBytes(contentLength).length < contentLength) {
+            throw new EOFException();
+        }
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        int b;
+        while ((b = in.read()) != '\n') {
+            if (b < 0) {
+                throw new EOFException();
+            }
+            if (b != '\r') {
+                sb.append((char) b);
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,64 @@
+package org.example.session;
+
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpVersion;
+import top.turboweb.commons.serializer.JacksonJsonSerializer;
+import top.turboweb.commons.serializer.JsonSerializer;
+import top.turboweb.http.context.FullHttpContext;
+import top.turboweb.http.session.MemorySessionManager;
+import top.turboweb.http.session.SessionManager;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * 统计一次不访问Cookie和Session的JSON GET请求在创建上下文时的内存分配量。
+ * <p>
+ * eager：按照旧的处理流程，在执行中间件前解析Cookie、查找并续期Session；
+ * lazy：Cookie与Session延迟到首次访问时才创建，处理器仅创建上下文。
+ * </p>
+ * <p>
+ * 运行方式：java org.example.session.LazySessionBenchmark
+ * </p>
+ */
+public class LazySessionBenchmark {
+
+    private static final int ROUNDS = 1_000_000;
+
+    public static void main(String[] args) {
+        SessionManager sessionManager = new MemorySessionManager();
+        sessionManager.createSessionMap("8d6f3c1a2b7e4f5a9c0d1e2f3a4b5c6d");
+        JsonSerializer jsonSerializer = new JacksonJsonSerializer();
+        FullHttpRequest request = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "/user/info", Unpooled.EMPTY_BUFFER);
+        request.headers().set(HttpHeaderNames.ACCEPT, "application/json");
+        request.headers().set(HttpHeaderNames.COOKIE,
+                "JSESSIONID=8d6f3c1a2b7e4f5a9c0d1e2f3a4b5c6d; theme=dark; lang=zh-CN; _ga=GA1.1.123456789.1700000000; _gid=GA1.1.987654321.1700000000");
+        for (int i = 0; i < 2; i++) {
+            run("eager", request, sessionManager, jsonSerializer, true);
+            run("lazy", request, sessionManager, jsonSerializer, false);
+        }
+    }
+
+    private static void run(String name, FullHttpRequest request, SessionManager sessionManager, JsonSerializer jsonSerializer, boolean eager) {
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+        long checksum = 0;
+        long beforeBytes = threadMXBean.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            FullHttpContext context = new FullHttpContext(request, sessionManager, null, jsonSerializer);
+            if (eager) {
+                context.cookie();
+                context.httpSession().expireAt();
+            }
+            checksum += context.loadedSession() == null ? 0 : 1;
+        }
+        long cost = System.nanoTime() - start;
+        long bytes = threadMXBean.getThreadAllocatedBytes(threadId) - beforeBytes;
+        System.out.printf("[%s] alloc: %d bytes/req, time: %d ns/req (checksum %d)%n",
+                name, bytes / ROUNDS, cost / ROUNDS, checksum);
+    }
+}
@@ -0,0 +1,64 @@
+package org.example.session;
+
+import top.turboweb.http.session.MemorySessionManager;
+import top.turboweb.http.session.OffHeapSessionManager;
+import top.turboweb.http.session.SessionManager;
+
+import java.util.UUID;
+
+/**
+ * 对比{@link MemorySessionManager}与{@link OffHeapSessionManager}的堆内存占用及读写延迟。
+ * <p>
+ * 运行方式：java -Xmx4g org.example.session.SessionManagerBenchmark [会话数量]
+ * </p>
+ */
+public class SessionManagerBenchmark {
+
+    private static final int ROUNDS = 1_000_000;
+
+    public static void main(String[] args) {
+        int sessionNum = args.length > 0 ? Integer.parseInt(args[0]) : 500_000;
+        String[] ids = new String[sessionNum];
+        for (int i = 0; i < sessionNum; i++) {
+            ids[i] = UUID.randomUUID().toString().replace("-", "");
+        }
+        run("memory", new MemorySessionManager(), ids);
+        run("off-heap", new OffHeapSessionManager(), ids);
+    }
+
+    private static void run(String name, SessionManager sessionManager, String[] ids) {
+        long before = usedHeap();
+        for (String id : ids) {
+            sessionManager.createSessionMap(id);
+            sessionManager.setAttr(id, "userId", 10086L);
+            sessionManager.setAttr(id, "role", "admin");
+        }
+        long after = usedHeap();
+        System.out.printf("[%s] sessions: %d, heap: %d MB, heap per session: %d bytes%n",
+                name, ids.length, (after - before) >> 20, (after - before) / ids.length);
+        // 预热
+        loop(sessionManager, ids);
+        long start = System.nanoTime();
+        long checksum = loop(sessionManager, ids);
+        long cost = System.nanoTime() - start;
+        System.out.printf("[%s] get+set: %d ns/op (checksum %d)%n", name, cost / (ROUNDS * 2L), checksum);
+    }
+
+    private static long loop(SessionManager sessionManager, String[] ids) {
+        long checksum = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            String id = ids[i % ids.length];
+            sessionManager.setAttr(id, "userId", (long) i);
+            checksum += sessionManager.getAttr(id, "userId", Long.class);
+        }
+        return checksum;
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
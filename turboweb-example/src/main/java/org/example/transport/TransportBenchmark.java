@@ -0,0 +1,224 @@
+package org.example.transport;
+
+import top.turboweb.anno.RequestPath;
+import top.turboweb.anno.method.Get;
+import top.turboweb.core.channel.TransportType;
+import top.turboweb.core.server.BootStrapTurboWebServer;
+import top.turboweb.core.server.TurboWebServer;
+import top.turboweb.http.context.HttpContext;
+import top.turboweb.http.middleware.router.AnnoRouterManager;
+import top.turboweb.http.response.ZeroCopyResponse;
+
+import java.io.*;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 对比不同传输层的本地压测（类似 wrk）。
+ * <p>
+ * 每个连接使用一个线程，在 keep-alive 连接上循环发送请求并读取完整响应，统计吞吐量与平均延迟。
+ * /hello 测试小响应，/file 测试零拷贝文件响应（NIO 使用零拷贝线程池，epoll 使用 sendfile）。
+ * </p>
+ * <p>
+ * 运行方式：java org.example.transport.TransportBenchmark [连接数] [秒数]，
+ * 每种可用的传输层在独立的 JVM 中启动服务器并压测；
+ * 也可以通过 java org.example.transport.TransportBenchmark nio|epoll [连接数] [秒数] 只压测一种。
+ * </p>
+ */
+public class TransportBenchmark {
+
+    private static final int PORT = 18080;
+
+    @RequestPath
+    public static class BenchController {
+
+        private final File file;
+
+        public BenchController(File file) {
+            this.file = file;
+        }
+
+        @Get("/hello")
+        public String hello(HttpContext ctx) {
+            return "Hello World";
+        }
+
+        @Get("/file")
+        public ZeroCopyResponse file(HttpContext ctx) {
+            return new ZeroCopyResponse(file);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && !Character.isDigit(args[0].charAt(0))) {
+            TransportType transportType = TransportType.valueOf(args[0].toUpperCase());
+            int connections = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+            int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+            runSingle(transportType, connections, seconds);
+            return;
+        }
+        String connections = args.length > 0 ? args[0] : "64";
+        String seconds = args.length > 1 ? args[1] : "10";
+        for (TransportType transportType : List.of(TransportType.NIO, TransportType.EPOLL)) {
+            if (!transportType.isAvailable()) {
+                System.out.println(transportType + ": unavailable on this platform");
+                continue;
+            }
+            // 每种传输层使用独立的 JVM，避免相互影响
+            Process process = new ProcessBuilder(
+                    ProcessHandle.current().info().command().orElse("java"),
+                    "-cp", System.getProperty("java.class.path"),
+                    TransportBenchmark.class.getName(),
+                    transportType.name(), connections, seconds
+            ).redirectErrorStream(true).start();
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.startsWith("[bench]")) {
+                        System.out.println(line);
+                    }
+                }
+            }
+            process.waitFor();
+        }
+    }
+
+    private static void runSingle(TransportType transportType, int connections, int seconds) throws Exception {
+        File file = File.createTempFile("turboweb-bench", ".bin");
+        file.deleteOnExit();
+        Files.write(file.toPath(), new byte[64 * 1024]);
+
+        AnnoRouterManager routerManager = new AnnoRouterManager();
+        routerManager.addController(new BenchController(file));
+        TurboWebServer server = BootStrapTurboWebServer.create(Runtime.getRuntime().availableProcessors(), transportType)
+                .http().routerManager(routerManager)
+                .and()
+                .configServer(config -> config.setShowRequestLog(false));
+        server.start("127.0.0.1", PORT).sync();
+        try {
+            // 预热
+            load("/hello", connections, 2);
+            report(transportType, "/hello", connections, load("/hello", connections, seconds));
+            report(transportType, "/file", connections, load("/file", connections, seconds));
+        } finally {
+            server.shutdown();
+        }
+        System.exit(0);
+    }
+
+    private static void report(TransportType transportType, String path, int connections, long[] result) {
+        long requests = result[0];
+        long nanos = result[1];
+        double seconds = nanos / 1e9;
+        System.out.printf("[bench] %-5s %-6s connections=%d requests=%d rps=%.0f avgLatency=%.1fus errors=%d%n",
+                transportType, path, connections, requests, requests / seconds,
+                requests == 0 ? 0 : result[2] / 1e3 / requests, result[3]);
+    }
+
+    /**
+     * 压测指定路径
+     *
+     * @return 请求数、耗时、总延迟、错误数
+     */
+    private static long[] load(String path, int connections, int seconds) throws InterruptedException {
+        byte[] request = ("GET " + path + " HTTP/1.1\r\nHost: 127.0.0.1\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+        LongAdder requests = new LongAdder();
+        LongAdder latency = new LongAdder();
+        LongAdder errors = new LongAdder();
+        AtomicBoolean running = new AtomicBoolean(true);
+        CountDownLatch latch = new CountDownLatch(connections);
+        List<Thread> threads = new ArrayList<>(connections);
+        for (int i = 0; i < connections; i++) {
+            threads.add(Thread.ofPlatform().daemon().start(() -> {
+                try (Socket socket = new Socket("127.0.0.1", PORT)) {
+                    socket.setTcpNoDelay(true);
+                    OutputStream out = socket.getOutputStream();
+                    InputStream in = new BufferedInputStream(socket.getInputStream(), 64 * 1024);
+                    while (running.get()) {
+                        long start = System.nanoTime();
+                        out.write(request);
+                        out.flush();
+                        readResponse(in);
+                        latency.add(System.nanoTime() - start);
+                        requests.increment();
+                    }
+                } catch (IOException e) {
+                    errors.increment();
+                } finally {
+                    latch.countDown();
+                }
+            }));
+        }
+        long start = System.nanoTime();
+        Thread.sleep(seconds * 1000L);
+        running.set(false);
+        long nanos = System.nanoTime() - start;
+        latch.await();
+        return new long[]{requests.sum(), nanos, latency.sum(), errors.sum()};
+    }
+
+    /**
+     * 读取一个响应，支持 Content-Length 与 chunked 两种格式
+     */
+    private static void readResponse(InputStream in) throws IOException {
+        long contentLength = -1;
+        boolean chunked = false;
+        String line;
+        while (!(line = readLine(in)).isEmpty()) {
+            int index = line.indexOf(':');
+            if (index < 0) {
+                continue;
+            }
+            String name = line.substring(0, index).trim();
+            String value = line.substring(index + 1).trim();
+            if (name.equalsIgnoreCase("content-length")) {
+                contentLength = Long.parseLong(value);
+            } else if (name.equalsIgnoreCase("transfer-encoding") && value.equalsIgnoreCase("chunked")) {
+                chunked = true;
+            }
+        }
+        if (chunked) {
+            long size;
+            while ((size = Long.parseLong(readLine(in).trim(), 16)) > 0) {
+                skip(in, size);
+                readLine(in);
+            }
+            readLine(in);
+        } else if (contentLength > 0) {
+            skip(in, contentLength);
+        }
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        int b;
+        while ((b = in.read()) != '\n') {
+            if (b < 0) {
+                throw new EOFException();
+            }
+            if (b != '\r') {
+                sb.append((char) b);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static void skip(InputStream in, long n) throws IOException {
+        while (n > 0) {
+            long skipped = in.skip(n);
+            if (skipped <= 0) {
+                if (in.read() < 0) {
+                    throw new EOFException();
+                }
+                skipped = 1;
+            }
+            n -= skipped;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package top.turboweb.core.channel;
+
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import top.turboweb.commons.exception.TurboServerInitException;
+
+/**
+ * 服务器使用的网络传输层。
+ * <p>
+ * {@link #NIO} 基于 JDK 的 Selector，所有平台可用，零拷贝文件由独立线程池写出；
+ * {@link #EPOLL} 基于 Linux 原生 epoll（边缘触发），零拷贝文件直接由内核 sendfile 写出，
+ * 并支持 {@code EpollChannelOption} 中的 SO_REUSEPORT、TCP_FASTOPEN 等选项；
+ * {@link #AUTO} 在原生 epoll 可用时使用 epoll，否则使用 NIO。
+ * </p>
+ */
+public enum TransportType {
+
+    AUTO,
+    NIO,
+    EPOLL;
+
+    /**
+     * 判断当前平台是否支持该传输层
+     *
+     * @return 是否支持
+     */
+    public boolean isAvailable() {
+        return this != EPOLL || epollAvailable();
+    }
+
+    /**
+     * 解析为实际使用的传输层
+     *
+     * @return {@link #NIO} 或 {@link #EPOLL}
+     * @throws TurboServerInitException 指定的传输层在当前平台不可用时抛出
+     */
+    public TransportType resolve() {
+        return switch (this) {
+            case AUTO -> epollAvailable() ? EPOLL : NIO;
+            case NIO -> NIO;
+            case EPOLL -> {
+                if (!epollAvailable()) {
+                    throw new TurboServerInitException("epoll transport is unavailable", Epoll.unavailabilityCause());
+                }
+                yield EPOLL;
+            }
+        };
+    }
+
+    /**
+     * 创建传输层对应的线程组
+     *
+     * @param nThreads 线程数
+     * @return 线程组
+     */
+    public EventLoopGroup newEventLoopGroup(int nThreads) {
+        return switch (resolve()) {
+            case EPOLL -> new EpollEventLoopGroup(nThreads);
+            default -> new NioEventLoopGroup(nThreads);
+        };
+    }
+
+    private static boolean epollAvailable() {
+        try {
+            return Epoll.isAvailable();
+        } catch (LinkageError e) {
+            // 未引入原生库
+            return false;
+        }
+    }
+}
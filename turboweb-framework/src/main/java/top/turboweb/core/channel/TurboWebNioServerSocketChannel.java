@@ -9,14 +9,13 @@ import org.slf4j.LoggerFactory;
 
 import java.nio.channels.SocketChannel;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
 
 public class TurboWebNioServerSocketChannel extends NioServerSocketChannel {
 
-    private final ExecutorService zeroCopyPool;
+    private final ZeroCopyTransferEngine zeroCopyEngine;
 
-    public TurboWebNioServerSocketChannel(ExecutorService zeroCopyPool) {
-        this.zeroCopyPool = zeroCopyPool;
+    public TurboWebNioServerSocketChannel(ZeroCopyTransferEngine zeroCopyEngine) {
+        this.zeroCopyEngine = zeroCopyEngine;
     }
 
     private static final Logger log = LoggerFactory.getLogger(TurboWebNioServerSocketChannel.class);
@@ -26,7 +25,7 @@ public class TurboWebNioServerSocketChannel extends NioServerSocketChannel {
         SocketChannel ch = SocketUtils.accept(javaChannel());
         try {
             if (ch != null) {
-                buf.add(new TurboWebNioSocketChannel(this, ch, zeroCopyPool));
+                buf.add(new TurboWebNioSocketChannel(this, ch, zeroCopyEngine));
                 return 1;
             }
         } catch (Throwable t) {
@@ -40,10 +39,4 @@ public class TurboWebNioServerSocketChannel extends NioServerSocketChannel {
         }
         return 0;
     }
-
-    @Override
-    protected void doClose() throws Exception {
-        super.doClose();
-        zeroCopyPool.shutdown();
-    }
 }
@@ -5,21 +5,39 @@ import io.netty.channel.socket.nio.NioSocketChannel;
 
 import java.nio.ByteBuffer;
 import java.nio.channels.SocketChannel;
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import static io.netty.channel.internal.ChannelUtils.MAX_BYTES_PER_GATHERING_WRITE_ATTEMPTED_LOW_THRESHOLD;
-import static io.netty.channel.internal.ChannelUtils.WRITE_STATUS_SNDBUF_FULL;
 
 
+/**
+ * 支持将零拷贝文件传输交给 {@link ZeroCopyTransferEngine} 的 NIO 连接。
+ * <p>
+ * 传输线程只执行 {@link FileRegion#transferTo}，结果交回 EventLoop 后再更新 {@link ChannelOutboundBuffer}，
+ * 出站缓冲区始终只在 EventLoop 中访问。
+ * </p>
+ */
 public class TurboWebNioSocketChannel extends NioSocketChannel {
 
-    private final ExecutorService zeroCopyPool;
-    private volatile boolean isWriting = false;
+    /**
+     * 传输队列已满时重新提交的延迟（毫秒）
+     */
+    private static final long RETRY_DELAY_MILLIS = 1;
+
+    private final ZeroCopyTransferEngine zeroCopyEngine;
+    /**
+     * 是否有分片正在传输，仅在 EventLoop 中访问
+     */
+    private boolean transferring = false;
+    /**
+     * 是否已经安排了重新提交，仅在 EventLoop 中访问
+     */
+    private boolean retryScheduled = false;
     private int maxBytesPerGatheringWrite = Integer.MAX_VALUE;
 
-    public TurboWebNioSocketChannel(Channel parent, SocketChannel socket, ExecutorService pool) {
+    public TurboWebNioSocketChannel(Channel parent, SocketChannel socket, ZeroCopyTransferEngine zeroCopyEngine) {
         super(parent, socket);
-        this.zeroCopyPool = pool;
+        this.zeroCopyEngine = zeroCopyEngine;
     }
 
     private void adjustMaxBytesPerGatheringWrite(int attempted, int written, int oldMaxBytesPerGatheringWrite) {
@@ -37,7 +55,8 @@ public class TurboWebNioSocketChannel extends NioSocketChannel {
 
     @Override
     protected void doWrite(ChannelOutboundBuffer in) throws Exception {
-        if (isWriting) {
+        if (transferring || retryScheduled) {
+            // 等待传输结果或重新提交后继续写出
             return;
         }
         SocketChannel ch = javaChannel();
@@ -62,21 +81,19 @@ public class TurboWebNioSocketChannel extends NioSocketChannel {
                     // We have something else beside ByteBuffers to write so fallback to normal writes.
                     // 判断当前写入是否是零拷贝
                     Object current = in.current();
-                    if (current instanceof FileRegion) {
-                        isWriting = true;
-                        zeroCopyPool.execute(() -> {
-                            boolean isFull = false;
-                            try {
-                                int code = doWrite0(in);
-                                isFull = code == WRITE_STATUS_SNDBUF_FULL;
-                            } catch (Exception e) {
-                                this.close();
-                            } finally {
-                                isWriting = false;
-                                // 刷新缓冲区
-                                incompleteWrite(isFull);
-                            }
-                        });
+                    if (current instanceof FileRegion region && region.transferred() < region.count()) {
+                        // 等待传输期间不关注写事件，避免 selector 空转
+                        clearOpWrite();
+                        if (zeroCopyEngine.submit(eventLoop(), () -> transferChunk(region))) {
+                            transferring = true;
+                        } else {
+                            // 队列已满，稍后重新提交
+                            retryScheduled = true;
+                            eventLoop().schedule(() -> {
+                                retryScheduled = false;
+                                incompleteWrite(false);
+                            }, RETRY_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+                        }
                         return;
                     }
                     writeSpinCount -= doWrite0(in);
@@ -119,4 +136,61 @@ public class TurboWebNioSocketChannel extends NioSocketChannel {
 
         incompleteWrite(writeSpinCount < 0);
     }
+
+    /**
+     * 传输一个文件分片，在传输线程中执行
+     *
+     * @param region 文件区域
+     */
+    private void transferChunk(FileRegion region) {
+        long written = 0;
+        Throwable cause = null;
+        try {
+            // 非阻塞 socket 上的一次 transferTo 最多写满发送缓冲区
+            written = region.transferTo(javaChannel(), region.transferred());
+        } catch (Throwable e) {
+            cause = e;
+        }
+        zeroCopyEngine.complete(written);
+        long finalWritten = written;
+        Throwable finalCause = cause;
+        try {
+            eventLoop().execute(() -> transferComplete(region, finalWritten, finalCause));
+        } catch (Throwable e) {
+            // EventLoop 已关闭，连接随之关闭
+        }
+    }
+
+    /**
+     * 处理分片的传输结果，在 EventLoop 中执行
+     *
+     * @param region  文件区域
+     * @param written 传输的字节数
+     * @param cause   传输异常
+     */
+    private void transferComplete(FileRegion region, long written, Throwable cause) {
+        transferring = false;
+        ChannelOutboundBuffer in = unsafe().outboundBuffer();
+        if (!isOpen() || in == null || in.current() != region) {
+            // 连接已关闭，出站缓冲区中的消息已被释放
+            return;
+        }
+        if (cause != null) {
+            in.remove(cause);
+            close();
+            return;
+        }
+        if (written > 0) {
+            in.progress(written);
+        }
+        if (region.transferred() >= region.count()) {
+            in.remove();
+        } else if (written <= 0) {
+            // 发送缓冲区已满，等待可写后继续
+            setOpWrite();
+            return;
+        }
+        // 继续写出剩余分片或后续消息，剩余分片会排到其他连接的分片之后
+        incompleteWrite(false);
+    }
 }
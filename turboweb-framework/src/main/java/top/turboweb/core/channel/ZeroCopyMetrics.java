@@ -0,0 +1,21 @@
+package top.turboweb.core.channel;
+
+/**
+ * 零拷贝传输引擎的运行指标快照。
+ *
+ * @param queueDepth     等待执行的传输分片数
+ * @param inFlight       正在执行的传输分片数
+ * @param totalBytes     累计传输的字节数
+ * @param bytesPerSecond 距上一次获取快照以来的平均传输速率（字节/秒）
+ * @param stalls         因 socket 发送缓冲区已满而暂停传输的次数
+ * @param rejected       因队列已满而延迟提交的次数
+ */
+public record ZeroCopyMetrics(
+        int queueDepth,
+        int inFlight,
+        long totalBytes,
+        long bytesPerSecond,
+        long stalls,
+        long rejected
+) {
+}
@@ -0,0 +1,129 @@
+package top.turboweb.core.channel;
+
+import io.netty.channel.EventLoop;
+
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 零拷贝文件传输引擎。
+ * <p>
+ * NIO 传输层下 {@code FileChannel.transferTo} 可能因读取磁盘而阻塞，因此文件分片的传输交给独立的线程执行。
+ * 引擎由多条通道（lane）组成，每条通道一个线程和一个有界队列，每个 EventLoop 固定使用一条通道。
+ * 每次提交只传输一个分片（一次非阻塞的 transferTo，长度受 socket 发送缓冲区限制），
+ * 结果交回 EventLoop 处理后再提交下一个分片，排在同一通道中其他连接的分片之后，保证连接之间的公平性。
+ * </p>
+ * <p>
+ * 队列已满时提交失败，由调用方稍后重试，等待传输的分片数量不会无限增长。
+ * </p>
+ */
+public class ZeroCopyTransferEngine {
+
+    private final ThreadPoolExecutor[] lanes;
+    private final Map<EventLoop, ThreadPoolExecutor> loopLanes = new ConcurrentHashMap<>();
+    private final AtomicInteger nextLane = new AtomicInteger();
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder totalBytes = new LongAdder();
+    private final LongAdder stalls = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * 上一次获取快照时的时间与字节数，用于计算传输速率
+     */
+    private final AtomicLong lastSnapshotNanos = new AtomicLong(System.nanoTime());
+    private final AtomicLong lastSnapshotBytes = new AtomicLong();
+
+    /**
+     * 创建传输引擎
+     *
+     * @param laneNum       通道数量（线程数）
+     * @param queueCapacity 每条通道的队列容量
+     */
+    public ZeroCopyTransferEngine(int laneNum, int queueCapacity) {
+        if (laneNum < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("laneNum and queueCapacity must be greater than or equal to 1");
+        }
+        this.lanes = new ThreadPoolExecutor[laneNum];
+        for (int i = 0; i < laneNum; i++) {
+            String name = "zero-copy-thread-" + i;
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                    1, 1, 60, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity),
+                    r -> {
+                        Thread thread = new Thread(r, name);
+                        thread.setDaemon(true);
+                        return thread;
+                    },
+                    new ThreadPoolExecutor.AbortPolicy()
+            );
+            // 允许核心线程过期
+            executor.allowCoreThreadTimeOut(true);
+            lanes[i] = executor;
+        }
+    }
+
+    /**
+     * 提交一个分片的传输任务
+     *
+     * @param eventLoop 连接所属的 EventLoop
+     * @param task      传输任务
+     * @return 队列已满或引擎已关闭时返回 false
+     */
+    boolean submit(EventLoop eventLoop, Runnable task) {
+        ThreadPoolExecutor lane = loopLanes.computeIfAbsent(eventLoop, k -> lanes[Math.floorMod(nextLane.getAndIncrement(), lanes.length)]);
+        inFlight.incrementAndGet();
+        try {
+            lane.execute(task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            inFlight.decrementAndGet();
+            rejected.increment();
+            return false;
+        }
+    }
+
+    /**
+     * 记录一个分片的传输结果，由传输线程调用
+     *
+     * @param written 传输的字节数
+     */
+    void complete(long written) {
+        inFlight.decrementAndGet();
+        if (written > 0) {
+            totalBytes.add(written);
+        } else {
+            stalls.increment();
+        }
+    }
+
+    /**
+     * 获取运行指标
+     *
+     * @return 指标快照
+     */
+    public ZeroCopyMetrics metrics() {
+        int queueDepth = 0;
+        for (ThreadPoolExecutor lane : lanes) {
+            queueDepth += lane.getQueue().size();
+        }
+        long now = System.nanoTime();
+        long bytes = totalBytes.sum();
+        long elapsed = now - lastSnapshotNanos.getAndSet(now);
+        long delta = bytes - lastSnapshotBytes.getAndSet(bytes);
+        long bytesPerSecond = elapsed > 0 ? (long) (delta * 1e9 / elapsed) : 0;
+        return new ZeroCopyMetrics(queueDepth, inFlight.get(), bytes, bytesPerSecond, stalls.sum(), rejected.sum());
+    }
+
+    /**
+     * 关闭传输引擎
+     */
+    public void shutdown() {
+        for (ThreadPoolExecutor lane : lanes) {
+            lane.shutdown();
+        }
+    }
+}
@@ -1,5 +1,13 @@
 package top.turboweb.core.config;
 
+import top.turboweb.anno.Priority;
+import top.turboweb.http.scheduler.accesslog.AccessLogFormat;
+import top.turboweb.http.scheduler.accesslog.AccessLogger;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 /**
  * 服务器初始化配置类
  */
@@ -10,11 +18,46 @@ public class HttpServerConfig {
      */
     private int maxContentLength = 1024 * 1024 * 10;
 
+    /**
+     * 流式请求体在每个连接中最多缓存的字节数
+     */
+    private int requestStreamBufferSize = 1024 * 256;
+
     /**
      * 是否显示请求日志
      */
     private boolean showRequestLog = true;
 
+    /**
+     * 请求日志的格式
+     */
+    private AccessLogFormat accessLogFormat = AccessLogFormat.CONSOLE;
+
+    /**
+     * 请求日志文件，为null时输出到控制台
+     */
+    private String accessLogFile;
+
+    /**
+     * 请求日志文件的最大字节数，超过后滚动
+     */
+    private long accessLogMaxFileSize = 1024 * 1024 * 100;
+
+    /**
+     * 保留的请求日志历史文件数
+     */
+    private int accessLogMaxHistory = 7;
+
+    /**
+     * 成功请求的日志采样率
+     */
+    private double accessLogSampleRate = 1;
+
+    /**
+     * 请求日志缓冲区可容纳的日志条数
+     */
+    private int accessLogBufferSize = AccessLogger.DEFAULT_BUFFER_SIZE;
+
     /**
      * session检查时间间隔
      */
@@ -30,6 +73,16 @@ public class HttpServerConfig {
      */
     private long sessionCheckThreshold = 256;
 
+    /**
+     * session快照文件路径，为null时不开启快照
+     */
+    private String sessionSnapshotPath;
+
+    /**
+     * session增量快照的间隔
+     */
+    private long sessionSnapshotInterval = 1000;
+
     /**
      * 备用线程池缓存队列大小
      */
@@ -55,6 +108,61 @@ public class HttpServerConfig {
      */
     private long httpSchedulerLimitTimeout = 500;
 
+    /**
+     * 调度器是否根据请求耗时自适应调整并发数，开启后 httpSchedulerLimitCount 作为最大并发数
+     */
+    private boolean httpSchedulerAdaptiveLimit = false;
+
+    /**
+     * 自适应限流的最小并发数，也是初始并发数
+     */
+    private int httpSchedulerMinLimit = 20;
+
+    /**
+     * 调度器是否按优先级排队等待许可
+     */
+    private boolean httpSchedulerPriorityQueue = false;
+
+    /**
+     * 各优先级的权重，按 CRITICAL、NORMAL、BULK 的顺序排列
+     */
+    private int[] httpSchedulerPriorityWeights = {8, 4, 1};
+
+    /**
+     * 按路径指定的优先级
+     */
+    private final Map<String, Priority.Level> httpSchedulerPriorityRules = new LinkedHashMap<>();
+
+    /**
+     * 队列出现积压时允许的最长排队时间（毫秒）
+     */
+    private long httpSchedulerQueueTarget = 10;
+
+    /**
+     * 队列持续不为空多久视为积压（毫秒）
+     */
+    private long httpSchedulerQueueInterval = 100;
+
+    /**
+     * 传递客户端剩余超时时间（毫秒）的请求头
+     */
+    private String httpSchedulerDeadlineHeader = "X-Request-Timeout";
+
+    /**
+     * 非阻塞路由在IO线程中执行的耗时阈值（毫秒）
+     */
+    private long nonBlockingThreshold = 10;
+
+    /**
+     * 非阻塞路由允许超过耗时阈值的次数，达到后改为在虚拟线程中执行
+     */
+    private int nonBlockingMaxBlockingTimes = 3;
+
+    /**
+     * 虚拟线程是否以连接所在的IO线程作为载体线程（实验性）
+     */
+    private boolean virtualThreadCarrierAffinity = false;
+
     /**
      * 备用线程池核心队列大小
      */
@@ -80,6 +188,26 @@ public class HttpServerConfig {
      */
     private boolean serializePerConnection = true;
 
+    /**
+     * 是否通过 SO_REUSEPORT 为每个IO线程绑定一个监听套接字
+     */
+    private boolean reusePort = false;
+
+    /**
+     * 开启每连接串行化时，每个连接同时处理的流水线请求数
+     */
+    private int maxPipelinedRequests = 8;
+
+    /**
+     * 是否合并虚拟线程写出的响应
+     */
+    private boolean flushConsolidation = false;
+
+    /**
+     * 合并写出时每批最多写出的消息数
+     */
+    private int flushConsolidationBatch = 32;
+
     public long getSessionCheckThreshold() {
         return sessionCheckThreshold;
     }
@@ -109,6 +237,22 @@ public class HttpServerConfig {
     }
 
 
+    public int getRequestStreamBufferSize() {
+        return requestStreamBufferSize;
+    }
+
+    /**
+     * 设置流式请求体在每个连接中最多缓存的字节数，超过后暂停读取连接
+     *
+     * @param requestStreamBufferSize 缓存字节数
+     */
+    public void setRequestStreamBufferSize(int requestStreamBufferSize) {
+        if (requestStreamBufferSize < 8192) {
+            throw new IllegalArgumentException("requestStreamBufferSize必须大于等于8192");
+        }
+        this.requestStreamBufferSize = requestStreamBufferSize;
+    }
+
     public boolean isShowRequestLog() {
         return showRequestLog;
     }
@@ -122,6 +266,99 @@ public class HttpServerConfig {
         this.showRequestLog = showRequestLog;
     }
 
+    public AccessLogFormat getAccessLogFormat() {
+        return accessLogFormat;
+    }
+
+    /**
+     * 设置请求日志的格式
+     *
+     * @param accessLogFormat 日志格式
+     */
+    public void setAccessLogFormat(AccessLogFormat accessLogFormat) {
+        if (accessLogFormat == null) {
+            throw new IllegalArgumentException("accessLogFormat can not be null");
+        }
+        this.accessLogFormat = accessLogFormat;
+    }
+
+    public String getAccessLogFile() {
+        return accessLogFile;
+    }
+
+    /**
+     * 设置请求日志文件，按大小滚动，为null时输出到控制台
+     *
+     * @param accessLogFile 文件路径
+     */
+    public void setAccessLogFile(String accessLogFile) {
+        this.accessLogFile = accessLogFile;
+    }
+
+    public long getAccessLogMaxFileSize() {
+        return accessLogMaxFileSize;
+    }
+
+    /**
+     * 设置请求日志文件的最大字节数，超过后滚动
+     *
+     * @param accessLogMaxFileSize 字节数
+     */
+    public void setAccessLogMaxFileSize(long accessLogMaxFileSize) {
+        if (accessLogMaxFileSize < 1024) {
+            throw new IllegalArgumentException("accessLogMaxFileSize must be greater than or equal to 1024");
+        }
+        this.accessLogMaxFileSize = accessLogMaxFileSize;
+    }
+
+    public int getAccessLogMaxHistory() {
+        return accessLogMaxHistory;
+    }
+
+    /**
+     * 设置保留的请求日志历史文件数
+     *
+     * @param accessLogMaxHistory 文件数
+     */
+    public void setAccessLogMaxHistory(int accessLogMaxHistory) {
+        if (accessLogMaxHistory < 0) {
+            throw new IllegalArgumentException("accessLogMaxHistory must be greater than or equal to 0");
+        }
+        this.accessLogMaxHistory = accessLogMaxHistory;
+    }
+
+    public double getAccessLogSampleRate() {
+        return accessLogSampleRate;
+    }
+
+    /**
+     * 设置成功请求的日志采样率，发送失败与状态码大于等于500的请求总是记录
+     *
+     * @param accessLogSampleRate 采样率，取值 (0, 1]
+     */
+    public void setAccessLogSampleRate(double accessLogSampleRate) {
+        if (!(accessLogSampleRate > 0 && accessLogSampleRate <= 1)) {
+            throw new IllegalArgumentException("accessLogSampleRate must be in (0, 1]");
+        }
+        this.accessLogSampleRate = accessLogSampleRate;
+    }
+
+    public int getAccessLogBufferSize() {
+        return accessLogBufferSize;
+    }
+
+    /**
+     * 设置请求日志缓冲区可容纳的日志条数，缓冲区已满时丢弃新的日志
+     *
+     * @param accessLogBufferSize 日志条数
+     */
+    public void setAccessLogBufferSize(int accessLogBufferSize) {
+        if (accessLogBufferSize < 1024) {
+            throw new IllegalArgumentException("accessLogBufferSize must be greater than or equal to 1024");
+        }
+        this.accessLogBufferSize = accessLogBufferSize;
+    }
+
     public long getSessionCheckTime() {
         return sessionCheckTime;
     }
@@ -151,6 +388,35 @@ public class HttpServerConfig {
         this.sessionMaxNotUseTime = sessionMaxNotUseTime;
     }
 
+    public String getSessionSnapshotPath() {
+        return sessionSnapshotPath;
+    }
+
+    /**
+     * 设置session快照文件路径，服务器启动时从该文件恢复session，运行期间周期性写入变化的session
+     *
+     * @param sessionSnapshotPath 快照文件路径，为null时不开启快照
+     */
+    public void setSessionSnapshotPath(String sessionSnapshotPath) {
+        this.sessionSnapshotPath = sessionSnapshotPath;
+    }
+
+    public long getSessionSnapshotInterval() {
+        return sessionSnapshotInterval;
+    }
+
+    /**
+     * 设置session增量快照的间隔
+     *
+     * @param sessionSnapshotInterval 快照间隔，单位ms
+     */
+    public void setSessionSnapshotInterval(long sessionSnapshotInterval) {
+        if (sessionSnapshotInterval < 10) {
+            throw new IllegalArgumentException("sessionSnapshotInterval不能小于10");
+        }
+        this.sessionSnapshotInterval = sessionSnapshotInterval;
+    }
+
     public int getDiskOpeThreadCacheQueue() {
         return diskOpeThreadCacheQueue;
     }
@@ -239,6 +505,166 @@ public class HttpServerConfig {
         this.httpSchedulerLimitTimeout = httpSchedulerLimitTimeout;
     }
 
+    public boolean isHttpSchedulerAdaptiveLimit() {
+        return httpSchedulerAdaptiveLimit;
+    }
+
+    public void setHttpSchedulerAdaptiveLimit(boolean httpSchedulerAdaptiveLimit) {
+        this.httpSchedulerAdaptiveLimit = httpSchedulerAdaptiveLimit;
+    }
+
+    public int getHttpSchedulerMinLimit() {
+        return httpSchedulerMinLimit;
+    }
+
+    public void setHttpSchedulerMinLimit(int httpSchedulerMinLimit) {
+        if (httpSchedulerMinLimit < 1) {
+            throw new IllegalArgumentException("httpSchedulerMinLimit must be greater than or equal to 1");
+        }
+        this.httpSchedulerMinLimit = httpSchedulerMinLimit;
+    }
+
+    public boolean isHttpSchedulerPriorityQueue() {
+        return httpSchedulerPriorityQueue;
+    }
+
+    /**
+     * 设置是否按优先级排队等待许可，需要开启调度器限流。
+     * 路由的优先级通过 {@link Priority} 注解或 {@link #addHttpSchedulerPriorityRule(String, Priority.Level)} 指定
+     *
+     * @param httpSchedulerPriorityQueue true开启
+     */
+    public void setHttpSchedulerPriorityQueue(boolean httpSchedulerPriorityQueue) {
+        this.httpSchedulerPriorityQueue = httpSchedulerPriorityQueue;
+    }
+
+    public int[] getHttpSchedulerPriorityWeights() {
+        return httpSchedulerPriorityWeights.clone();
+    }
+
+    /**
+     * 设置各优先级分配许可的权重
+     *
+     * @param critical CRITICAL 的权重
+     * @param normal   NORMAL 的权重
+     * @param bulk     BULK 的权重
+     */
+    public void setHttpSchedulerPriorityWeights(int critical, int normal, int bulk) {
+        if (critical < 1 || normal < 1 || bulk < 1) {
+            throw new IllegalArgumentException("httpSchedulerPriorityWeights must be greater than or equal to 1");
+        }
+        this.httpSchedulerPriorityWeights = new int[]{critical, normal, bulk};
+    }
+
+    public Map<String, Priority.Level> getHttpSchedulerPriorityRules() {
+        return Collections.unmodifiableMap(httpSchedulerPriorityRules);
+    }
+
+    /**
+     * 按路径指定优先级，优先于路由上的注解，路径支持 {@code *} 与 {@code **}
+     *
+     * @param path  路径
+     * @param level 优先级
+     */
+    public void addHttpSchedulerPriorityRule(String path, Priority.Level level) {
+        if (path == null || path.isEmpty() || level == null) {
+            throw new IllegalArgumentException("path and level can not be empty");
+        }
+        httpSchedulerPriorityRules.put(path, level);
+    }
+
+    public long getHttpSchedulerQueueTarget() {
+        return httpSchedulerQueueTarget;
+    }
+
+    /**
+     * 设置队列出现积压时允许的最长排队时间，超过的请求出队时直接拒绝
+     *
+     * @param httpSchedulerQueueTarget 时间（毫秒）
+     */
+    public void setHttpSchedulerQueueTarget(long httpSchedulerQueueTarget) {
+        if (httpSchedulerQueueTarget < 1) {
+            throw new IllegalArgumentException("httpSchedulerQueueTarget must be greater than or equal to 1");
+        }
+        this.httpSchedulerQueueTarget = httpSchedulerQueueTarget;
+    }
+
+    public long getHttpSchedulerQueueInterval() {
+        return httpSchedulerQueueInterval;
+    }
+
+    /**
+     * 设置队列持续不为空多久视为积压
+     *
+     * @param httpSchedulerQueueInterval 时间（毫秒）
+     */
+    public void setHttpSchedulerQueueInterval(long httpSchedulerQueueInterval) {
+        if (httpSchedulerQueueInterval < 1) {
+            throw new IllegalArgumentException("httpSchedulerQueueInterval must be greater than or equal to 1");
+        }
+        this.httpSchedulerQueueInterval = httpSchedulerQueueInterval;
+    }
+
+    public String getHttpSchedulerDeadlineHeader() {
+        return httpSchedulerDeadlineHeader;
+    }
+
+    /**
+     * 设置传递客户端剩余超时时间（毫秒）的请求头，超过该时间的请求不再等待许可
+     *
+     * @param httpSchedulerDeadlineHeader 请求头名称，为null时不读取
+     */
+    public void setHttpSchedulerDeadlineHeader(String httpSchedulerDeadlineHeader) {
+        this.httpSchedulerDeadlineHeader = httpSchedulerDeadlineHeader;
+    }
+
+    public long getNonBlockingThreshold() {
+        return nonBlockingThreshold;
+    }
+
+    /**
+     * 设置 {@link top.turboweb.anno.NonBlocking} 路由在IO线程中执行的耗时阈值，超过时输出警告
+     *
+     * @param nonBlockingThreshold 时间（毫秒）
+     */
+    public void setNonBlockingThreshold(long nonBlockingThreshold) {
+        if (nonBlockingThreshold < 1) {
+            throw new IllegalArgumentException("nonBlockingThreshold must be greater than or equal to 1");
+        }
+        this.nonBlockingThreshold = nonBlockingThreshold;
+    }
+
+    public int getNonBlockingMaxBlockingTimes() {
+        return nonBlockingMaxBlockingTimes;
+    }
+
+    /**
+     * 设置 {@link top.turboweb.anno.NonBlocking} 路由允许超过耗时阈值的次数，达到后该路由改为在虚拟线程中执行
+     *
+     * @param nonBlockingMaxBlockingTimes 次数
+     */
+    public void setNonBlockingMaxBlockingTimes(int nonBlockingMaxBlockingTimes) {
+        if (nonBlockingMaxBlockingTimes < 1) {
+            throw new IllegalArgumentException("nonBlockingMaxBlockingTimes must be greater than or equal to 1");
+        }
+        this.nonBlockingMaxBlockingTimes = nonBlockingMaxBlockingTimes;
+    }
+
+    public boolean isVirtualThreadCarrierAffinity() {
+        return virtualThreadCarrierAffinity;
+    }
+
+    /**
+     * 设置处理请求的虚拟线程是否以连接所在的IO线程作为载体线程（实验性），
+     * 需要添加启动参数 --add-opens java.base/java.lang=ALL-UNNAMED，不支持时使用默认的载体线程。
+     * 开启后处理器中会固定载体线程的调用（在 synchronized 中阻塞、等待 Netty 的 Future 等）会阻塞甚至挂起IO线程
+     *
+     * @param virtualThreadCarrierAffinity true开启
+     */
+    public void setVirtualThreadCarrierAffinity(boolean virtualThreadCarrierAffinity) {
+        this.virtualThreadCarrierAffinity = virtualThreadCarrierAffinity;
+    }
+
     public int getCpuNum() {
         return cpuNum;
     }
@@ -268,4 +694,64 @@ public class HttpServerConfig {
     public void setSerializePerConnection(boolean serializePerConnection) {
         this.serializePerConnection = serializePerConnection;
     }
+
+    public int getMaxPipelinedRequests() {
+        return maxPipelinedRequests;
+    }
+
+    /**
+     * 设置每个连接同时处理的流水线请求数，响应仍按请求顺序返回，只有 GET、HEAD、OPTIONS 请求会同时处理
+     *
+     * @param maxPipelinedRequests 请求数
+     */
+    public void setMaxPipelinedRequests(int maxPipelinedRequests) {
+        if (maxPipelinedRequests < 1) {
+            throw new IllegalArgumentException("maxPipelinedRequests must be greater than or equal to 1");
+        }
+        this.maxPipelinedRequests = maxPipelinedRequests;
+    }
+
+    public boolean isReusePort() {
+        return reusePort;
+    }
+
+    /**
+     * 设置是否通过 SO_REUSEPORT 为每个IO线程绑定一个监听套接字，由内核在多个线程之间分配新连接，
+     * 适用于大量短连接的场景，需要操作系统支持 SO_REUSEPORT
+     *
+     * @param reusePort true开启
+     */
+    public void setReusePort(boolean reusePort) {
+        this.reusePort = reusePort;
+    }
+
+    public boolean isFlushConsolidation() {
+        return flushConsolidation;
+    }
+
+    /**
+     * 设置是否合并写出，开启后同一IO线程上的响应由一个任务批量写出，每个连接每批只刷新一次，
+     * 适用于大量小响应的场景
+     *
+     * @param flushConsolidation true开启
+     */
+    public void setFlushConsolidation(boolean flushConsolidation) {
+        this.flushConsolidation = flushConsolidation;
+    }
+
+    public int getFlushConsolidationBatch() {
+        return flushConsolidationBatch;
+    }
+
+    /**
+     * 设置合并写出时每批最多写出的消息数，达到后立即刷新
+     *
+     * @param flushConsolidationBatch 消息数
+     */
+    public void setFlushConsolidationBatch(int flushConsolidationBatch) {
+        if (flushConsolidationBatch < 1) {
+            throw new IllegalArgumentException("flushConsolidationBatch must be greater than or equal to 1");
+        }
+        this.flushConsolidationBatch = flushConsolidationBatch;
+    }
 }
@@ -6,6 +6,7 @@ import io.netty.handler.codec.http.FullHttpRequest;
 import io.netty.handler.codec.http.HttpHeaderNames;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import top.turboweb.core.handler.RequestSerializerHandler;
 import top.turboweb.http.connect.InternalConnectSession;
 import top.turboweb.http.scheduler.HttpScheduler;
 import top.turboweb.websocket.PathWebSocketPreInit;
@@ -49,8 +50,11 @@ public class HttpProtocolDispatcher extends SimpleChannelInboundHandler<FullHttp
         }
         // 增加引用，防止被房前处理器给释放内存
         fullHttpRequest.retain();
-        // 封装连接的会话对象
-        InternalConnectSession connectSession = new InternalConnectSession(channelHandlerContext.channel());
+        // 封装连接的会话对象，开启每连接序列化时携带请求序号
+        Channel channel = channelHandlerContext.channel();
+        InternalConnectSession connectSession = channel.hasAttr(RequestSerializerHandler.SEQUENCE)
+                ? new InternalConnectSession(channel, channel.attr(RequestSerializerHandler.SEQUENCE).get())
+                : new InternalConnectSession(channel);
         // 执行异步任务
         httpScheduler.execute(fullHttpRequest, connectSession);
     }
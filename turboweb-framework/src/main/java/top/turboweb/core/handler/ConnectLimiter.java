@@ -3,13 +3,15 @@ package top.turboweb.core.handler;
 import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.util.concurrent.FastThreadLocal;
 
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * 连接限流器
+ * <p>
+ * 单个 IO 线程时直接计数，多个 IO 线程时使用分段计数器，在全局范围内限制最大连接数。
+ * </p>
  */
 @ChannelHandler.Sharable
 public class ConnectLimiter extends ChannelInboundHandlerAdapter {
@@ -40,7 +42,11 @@ public class ConnectLimiter extends ChannelInboundHandlerAdapter {
 
         @Override
         public boolean increase() {
-            return count++ < maxCount;
+            if (count >= maxCount) {
+                return false;
+            }
+            count++;
+            return true;
         }
 
         @Override
@@ -49,57 +55,90 @@ public class ConnectLimiter extends ChannelInboundHandlerAdapter {
         }
     }
 
-    private static class CasCounter implements Counter {
-
-        private final int maxCount;
-        private final AtomicInteger count = new AtomicInteger(0);
+    /**
+     * 分段计数器
+     * <p>
+     * 连接许可总数固定为最大连接数，分散在全局池与每个 IO 线程的分段中。
+     * 分段只由所属的 IO 线程频繁访问，借还许可按批进行，
+     * 全局池不足时再从其他分段中窃取，因此多个 IO 线程（及多个 boss 线程）同时接入连接时不会竞争同一个计数。
+     * </p>
+     */
+    private static class StripedCounter implements Counter {
+
+        private final AtomicInteger global;
+        private final Stripe[] stripes;
+        private final int batch;
+        private final AtomicInteger nextStripe = new AtomicInteger();
+        private final FastThreadLocal<Stripe> localStripe = new FastThreadLocal<>() {
+            @Override
+            protected Stripe initialValue() {
+                return stripes[Math.floorMod(nextStripe.getAndIncrement(), stripes.length)];
+            }
+        };
 
-        public CasCounter(int maxCount) {
-            this.maxCount = maxCount;
+        public StripedCounter(int maxCount, int stripeNum) {
+            this.global = new AtomicInteger(maxCount);
+            this.stripes = new Stripe[stripeNum];
+            for (int i = 0; i < stripeNum; i++) {
+                stripes[i] = new Stripe();
+            }
+            // 每个分段最多缓存的许可数，保证大部分许可仍在全局池中
+            this.batch = Math.max(1, Math.min(64, maxCount / (stripeNum * 4)));
         }
 
         @Override
         public boolean increase() {
-            return count.getAndIncrement() < maxCount;
+            Stripe stripe = localStripe.get();
+            if (stripe.tryAcquire(1)) {
+                return true;
+            }
+            // 从全局池借一批许可
+            int permits = global.get();
+            while (permits > 0) {
+                int n = Math.min(permits, batch);
+                if (global.compareAndSet(permits, permits - n)) {
+                    if (n > 1) {
+                        stripe.addAndGet(n - 1);
+                    }
+                    return true;
+                }
+                permits = global.get();
+            }
+            // 全局池已空，从其他分段窃取
+            for (Stripe other : stripes) {
+                if (other != stripe && other.tryAcquire(1)) {
+                    return true;
+                }
+            }
+            return false;
         }
 
         @Override
         public void decrease() {
-            count.decrementAndGet();
+            Stripe stripe = localStripe.get();
+            // 分段缓存的许可过多时归还一批到全局池
+            if (stripe.incrementAndGet() > batch << 1 && stripe.tryAcquire(batch)) {
+                global.addAndGet(batch);
+            }
         }
     }
 
-    private static class LockCounter implements Counter {
-
-        private final int maxCount;
-        private int count = 0;
-        private final Lock lock = new ReentrantLock();
+    /**
+     * 计数器的分段，填充字段避免与相邻分段伪共享
+     */
+    @SuppressWarnings("unused")
+    private static class Stripe extends AtomicInteger {
 
-        public LockCounter(int maxCount) {
-            this.maxCount = maxCount;
-        }
+        private long p1, p2, p3, p4, p5, p6, p7;
 
-        @Override
-        public boolean increase() {
-            if (count >= maxCount) {
-                return false;
-            }
-            lock.lock();
-            try {
-                return count++ < maxCount;
-            } finally {
-                lock.unlock();
-            }
-        }
-
-        @Override
-        public void decrease() {
-            lock.lock();
-            try {
-                count--;
-            } finally {
-                lock.unlock();
+        boolean tryAcquire(int n) {
+            int permits;
+            while ((permits = get()) >= n) {
+                if (compareAndSet(permits, permits - n)) {
+                    return true;
+                }
             }
+            return false;
         }
     }
 
@@ -111,10 +150,8 @@ public class ConnectLimiter extends ChannelInboundHandlerAdapter {
         }
         if (ioThreadNum == 1) {
             counter = new NoLockCounter(maxConnect);
-        } else if (ioThreadNum <= cpuNum) {
-            counter = new CasCounter(maxConnect);
         } else {
-            counter = new LockCounter(maxConnect);
+            counter = new StripedCounter(maxConnect, ioThreadNum);
         }
     }
 
@@ -122,7 +159,10 @@ public class ConnectLimiter extends ChannelInboundHandlerAdapter {
     @Override
     public void channelActive(ChannelHandlerContext ctx) throws Exception {
         if (!counter.increase()) {
+            // 没有获得许可，关闭时不归还
+            ctx.pipeline().remove(this);
             ctx.close();
+            return;
         }
         super.channelActive(ctx);
     }
@@ -4,80 +4,249 @@ import io.netty.channel.ChannelDuplexHandler;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelPromise;
 import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.HttpMethod;
 import io.netty.handler.codec.http.LastHttpContent;
+import io.netty.util.AttributeKey;
+import io.netty.util.ReferenceCountUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import top.turboweb.commons.utils.thread.ThreadAssert;
+import top.turboweb.http.connect.PipelinedMessage;
 
-import java.util.LinkedList;
+import java.nio.channels.ClosedChannelException;
+import java.util.ArrayDeque;
 import java.util.Queue;
 
 /**
  * 保证HTTP请求的顺序
+ * <p>
+ * 同一连接上流水线发送的请求最多 {@code maxPipelined} 个同时交给调度器处理，
+ * 响应消息携带请求序号（{@link PipelinedMessage}），先完成的响应暂存在按序号索引的环形缓冲区中，
+ * 前面的响应写完后再按请求顺序写出，一批暂存的响应只刷新一次。
+ * 超过并发数的请求进入等待队列，队列满时暂停读取连接，直到等待的请求全部分发。
+ * </p>
+ * <p>
+ * 只有 GET、HEAD、OPTIONS 请求会被同时处理。其他请求可能产生副作用（RFC 9112 §9.3.2），
+ * 需要等前面的请求全部完成后单独处理，处理完成前后续的请求都在等待队列中。
+ * </p>
+ * <p>
+ * 所有状态只在连接所属的 EventLoop 中访问。
+ * </p>
  */
 public class RequestSerializerHandler extends ChannelDuplexHandler {
 
+    /**
+     * 当前分发的请求的序号，由分发器在同一次调用中读取
+     */
+    public static final AttributeKey<Integer> SEQUENCE = AttributeKey.valueOf("turboweb.pipelineSequence");
+
     private static final Logger log = LoggerFactory.getLogger(RequestSerializerHandler.class);
-    private final Queue<FullHttpRequest> cacheRequest = new LinkedList<>();
-    private boolean isProcessing = false;
+
+    private final int maxPipelined;
+
+    /**
+     * 按序号暂存的响应消息，下标为序号对 maxPipelined 取模
+     */
+    private final ArrayDeque<PendingWrite>[] slots;
+
+    /**
+     * 超过并发数后等待分发的请求
+     */
+    private final Queue<FullHttpRequest> cacheRequest = new ArrayDeque<>();
+
+    /**
+     * 下一个请求的序号
+     */
+    private int readSequence;
+
+    /**
+     * 当前允许写出响应的请求序号
+     */
+    private int writeSequence;
+
+    /**
+     * 正在处理的请求中是否有需要单独处理的请求
+     */
+    private boolean exclusive;
+
+    /**
+     * 是否因等待的请求过多暂停了读取
+     */
+    private boolean paused;
+
+    public RequestSerializerHandler() {
+        this(8);
+    }
+
+    /**
+     * 创建处理器
+     *
+     * @param maxPipelined 每个连接同时处理的最大请求数
+     */
+    @SuppressWarnings("unchecked")
+    public RequestSerializerHandler(int maxPipelined) {
+        if (maxPipelined < 1) {
+            throw new IllegalArgumentException("maxPipelined must be greater than or equal to 1");
+        }
+        this.maxPipelined = maxPipelined;
+        this.slots = new ArrayDeque[maxPipelined];
+    }
 
     @Override
     public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
         ThreadAssert.assertIsEventLoop(ctx.channel().eventLoop());
         if (msg instanceof FullHttpRequest fullHttpRequest) {
-            // 判断当前连接是否有请求正在处理
-            if (isProcessing) {
-                int maxCacheRequestNum = 8;
-                if (cacheRequest.size() >= maxCacheRequestNum) {
-                    log.warn("RequestSerializerHandler cacheRequest is full");
-                    ctx.close();
-                }
+            // 判断是否有请求在等待，以及当前请求能否与正在处理的请求同时处理
+            if (!cacheRequest.isEmpty() || !canDispatch(fullHttpRequest)) {
                 cacheRequest.add(fullHttpRequest);
+                // 等待的请求过多时暂停读取连接，已经读取的数据仍会被解码
+                if (cacheRequest.size() >= maxPipelined && ctx.channel().config().isAutoRead()) {
+                    log.debug("RequestSerializerHandler cacheRequest is full, pause reading");
+                    ctx.channel().config().setAutoRead(false);
+                    paused = true;
+                }
                 // 中断对后续处理器的调用
                 return;
             }
+            dispatch(ctx, fullHttpRequest);
+            return;
         }
-        isProcessing = true;
         super.channelRead(ctx, msg);
     }
 
+    /**
+     * 判断请求能否立即分发
+     *
+     * @param request 请求
+     * @return 是否可以分发
+     */
+    private boolean canDispatch(FullHttpRequest request) {
+        int inFlight = readSequence - writeSequence;
+        if (inFlight == 0) {
+            return true;
+        }
+        return !exclusive && inFlight < maxPipelined && isSafe(request.method());
+    }
+
+    /**
+     * 判断请求方式是否可以与其他请求同时处理
+     *
+     * @param method 请求方式
+     * @return 是否为安全的请求方式
+     */
+    private static boolean isSafe(HttpMethod method) {
+        return HttpMethod.GET.equals(method) || HttpMethod.HEAD.equals(method) || HttpMethod.OPTIONS.equals(method);
+    }
+
+    /**
+     * 分配序号并交给后续处理器
+     *
+     * @param ctx     上下文
+     * @param request 请求
+     */
+    private void dispatch(ChannelHandlerContext ctx, FullHttpRequest request) {
+        exclusive = !isSafe(request.method());
+        ctx.channel().attr(SEQUENCE).set(readSequence++);
+        ctx.fireChannelRead(request);
+    }
+
     @Override
     public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
-        try {
+        if (!(msg instanceof PipelinedMessage pipelinedMessage)) {
             super.write(ctx, msg, promise);
-        } finally {
-            // 判断当前消息的类型是否是结束信号
-            if (msg instanceof LastHttpContent) {
-                ctx.channel().eventLoop().execute(() -> {
-                    isProcessing = false;
-                    // 判断是否有缓冲的消息
-                    if (cacheRequest.isEmpty()) {
-                        return;
-                    }
-                    // 获取缓冲的请求
-                    FullHttpRequest request = cacheRequest.poll();
-                    // 恢复当前请求
-                    try {
-                        this.channelRead(ctx, request);
-                    } catch (Exception e) {
-                        log.error("RequestSerializerHandler error", e);
-                        ctx.close();
-                    }
-                });
+            return;
+        }
+        int sequence = pipelinedMessage.sequence();
+        Object message = pipelinedMessage.message();
+        // 已经结束的响应和当前的响应直接写出
+        if (sequence - writeSequence <= 0) {
+            ctx.write(message, promise);
+            if (sequence == writeSequence && message instanceof LastHttpContent) {
+                completeCurrent(ctx);
             }
+            return;
+        }
+        // 前面的响应没有写完，暂存
+        int index = Math.floorMod(sequence, maxPipelined);
+        ArrayDeque<PendingWrite> slot = slots[index];
+        if (slot == null) {
+            slot = new ArrayDeque<>();
+            slots[index] = slot;
         }
+        slot.add(new PendingWrite(message, promise));
     }
 
+    /**
+     * 当前响应写完，写出后续已经暂存的响应并分发等待的请求
+     *
+     * @param ctx 上下文
+     */
+    private void completeCurrent(ChannelHandlerContext ctx) {
+        writeSequence++;
+        boolean written = false;
+        while (true) {
+            ArrayDeque<PendingWrite> slot = slots[Math.floorMod(writeSequence, maxPipelined)];
+            if (slot == null || slot.isEmpty()) {
+                break;
+            }
+            boolean finished = false;
+            PendingWrite pendingWrite;
+            while ((pendingWrite = slot.poll()) != null) {
+                ctx.write(pendingWrite.message, pendingWrite.promise);
+                written = true;
+                if (pendingWrite.message instanceof LastHttpContent) {
+                    finished = true;
+                    break;
+                }
+            }
+            if (!finished) {
+                break;
+            }
+            writeSequence++;
+        }
+        if (written) {
+            ctx.flush();
+        }
+        // 分发等待的请求
+        while (!cacheRequest.isEmpty() && canDispatch(cacheRequest.peek())) {
+            dispatch(ctx, cacheRequest.poll());
+        }
+        if (paused && cacheRequest.isEmpty()) {
+            paused = false;
+            ctx.channel().config().setAutoRead(true);
+        }
+    }
 
     @Override
     public void channelInactive(ChannelHandlerContext ctx) throws Exception {
         // 释放资源
-        while (!cacheRequest.isEmpty()) {
-            try {
-                FullHttpRequest httpRequest = cacheRequest.poll();
-                httpRequest.release();
-            } catch (Exception ignore) {
+        FullHttpRequest httpRequest;
+        while ((httpRequest = cacheRequest.poll()) != null) {
+            httpRequest.release();
+        }
+        ClosedChannelException cause = null;
+        for (ArrayDeque<PendingWrite> slot : slots) {
+            if (slot == null) {
+                continue;
+            }
+            PendingWrite pendingWrite;
+            while ((pendingWrite = slot.poll()) != null) {
+                ReferenceCountUtil.release(pendingWrite.message);
+                if (cause == null) {
+                    cause = new ClosedChannelException();
+                }
+                pendingWrite.promise.tryFailure(cause);
             }
         }
+        super.channelInactive(ctx);
+    }
+
+    /**
+     * 暂存的写操作
+     *
+     * @param message 消息
+     * @param promise 写入结果
+     */
+    private record PendingWrite(Object message, ChannelPromise promise) {
     }
 }
@@ -0,0 +1,113 @@
+package top.turboweb.core.handler;
+
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.http.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import top.turboweb.http.context.content.RequestBodyStream;
+import top.turboweb.http.context.content.StreamingFullHttpRequest;
+
+import java.util.function.Predicate;
+
+/**
+ * 支持流式请求体的聚合器。
+ * <p>
+ * 对于命中流式路由的请求，在请求头解析完成后立即向后传递 {@link StreamingFullHttpRequest}，
+ * 之后收到的请求体分片写入 {@link RequestBodyStream}，不在内存中聚合；
+ * 其余请求仍由 {@link HttpObjectAggregator} 聚合为完整请求。
+ * </p>
+ */
+public class StreamingHttpObjectAggregator extends HttpObjectAggregator {
+
+    private static final Logger log = LoggerFactory.getLogger(StreamingHttpObjectAggregator.class);
+
+    private final Predicate<HttpRequest> streamingMatcher;
+    private final int streamBufferSize;
+
+    /**
+     * 当前正在接收的流式请求体
+     */
+    private RequestBodyStream currentStream;
+
+    /**
+     * 创建聚合器
+     *
+     * @param maxContentLength 非流式请求的最大请求体长度
+     * @param streamingMatcher 判断请求是否以流的方式接收请求体
+     * @param streamBufferSize 流式请求体在每个连接中最多缓存的字节数
+     */
+    public StreamingHttpObjectAggregator(int maxContentLength, Predicate<HttpRequest> streamingMatcher, int streamBufferSize) {
+        super(maxContentLength);
+        this.streamingMatcher = streamingMatcher;
+        this.streamBufferSize = streamBufferSize;
+    }
+
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+        if (currentStream != null && msg instanceof HttpContent content) {
+            RequestBodyStream stream = currentStream;
+            if (content.decoderResult().isFailure()) {
+                currentStream = null;
+                content.release();
+                stream.fail(content.decoderResult().cause());
+                return;
+            }
+            // 分片的所有权转移给请求体流
+            stream.offer(content.content());
+            if (content instanceof LastHttpContent) {
+                currentStream = null;
+                stream.complete();
+            }
+            return;
+        }
+        if (msg instanceof HttpRequest request && !(msg instanceof FullHttpRequest) && isStreaming(request)) {
+            if (HttpUtil.is100ContinueExpected(request)) {
+                ctx.writeAndFlush(new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.CONTINUE, Unpooled.EMPTY_BUFFER));
+                request.headers().remove(HttpHeaderNames.EXPECT);
+            }
+            RequestBodyStream stream = new RequestBodyStream(ctx.channel(), streamBufferSize);
+            currentStream = stream;
+            ctx.fireChannelRead(new StreamingFullHttpRequest(request, stream, maxContentLength()));
+            return;
+        }
+        super.channelRead(ctx, msg);
+    }
+
+    /**
+     * 判断请求是否以流的方式接收请求体
+     *
+     * @param request 请求头
+     * @return 是否流式接收
+     */
+    private boolean isStreaming(HttpRequest request) {
+        if (!request.decoderResult().isSuccess()) {
+            return false;
+        }
+        try {
+            return streamingMatcher.test(request);
+        } catch (Exception e) {
+            log.debug("streaming matcher failed: {}", request.uri(), e);
+            return false;
+        }
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+        failCurrentStream();
+        super.channelInactive(ctx);
+    }
+
+    @Override
+    public void handlerRemoved(ChannelHandlerContext ctx) throws Exception {
+        failCurrentStream();
+        super.handlerRemoved(ctx);
+    }
+
+    private void failCurrentStream() {
+        if (currentStream != null) {
+            currentStream.channelInactive();
+            currentStream = null;
+        }
+    }
+}
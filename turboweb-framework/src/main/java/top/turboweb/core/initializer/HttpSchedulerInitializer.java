@@ -3,6 +3,7 @@ package top.turboweb.core.initializer;
 import top.turboweb.core.config.HttpServerConfig;
 import top.turboweb.http.handler.ExceptionHandlerMatcher;
 import top.turboweb.http.middleware.Middleware;
+import top.turboweb.http.middleware.router.RouterManager;
 import top.turboweb.http.processor.Processor;
 import top.turboweb.http.scheduler.HttpScheduler;
 import top.turboweb.http.session.SessionManagerHolder;
@@ -23,4 +24,20 @@ public interface HttpSchedulerInitializer {
             Processor processorChain,
             HttpServerConfig config
     );
+
+    /**
+     * 初始化http调度器
+     *
+     * @param processorChain 内核处理器链
+     * @param routerManager  路由管理器，用于按路由注解确定请求的优先级，可能为null
+     * @param config         服务器配置
+     * @return http调度器
+     */
+    default HttpScheduler init(
+            Processor processorChain,
+            RouterManager routerManager,
+            HttpServerConfig config
+    ) {
+        return init(processorChain, config);
+    }
 }
@@ -15,6 +15,13 @@ public interface MiddlewareInitializer {
      */
     void routerManager(RouterManager routerManager);
 
+    /**
+     * 获取路由管理器
+     *
+     * @return 路由管理器
+     */
+    RouterManager getRouterManager();
+
     /**
      * 添加中间件对象
      *
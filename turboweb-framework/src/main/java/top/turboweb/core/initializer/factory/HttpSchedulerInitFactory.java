@@ -105,6 +105,15 @@ public class HttpSchedulerInitFactory implements HttpSchedulerInitBuilder {
         return server;
     }
 
+    /**
+     * 获取路由管理器，用于在请求头解析阶段判断请求是否以流的方式接收请求体
+     *
+     * @return 路由管理器
+     */
+    public RouterManager getRouterManager() {
+        return middlewareInitializer.getRouterManager();
+    }
+
     /**
      * 初始化http调度器
      *
@@ -123,6 +132,7 @@ public class HttpSchedulerInitFactory implements HttpSchedulerInitBuilder {
         // 初始化Http调度器
         return httpSchedulerInitializer.init(
                 processor,
+                getRouterManager(),
                 config
         );
     }
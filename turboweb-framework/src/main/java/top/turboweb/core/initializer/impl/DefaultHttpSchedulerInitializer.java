@@ -3,12 +3,29 @@ package top.turboweb.core.initializer.impl;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import top.turboweb.commons.exception.TurboServerInitException;
+import top.turboweb.commons.utils.thread.VirtualThreads;
 import top.turboweb.core.config.HttpServerConfig;
+import top.turboweb.http.middleware.router.RouterManager;
 import top.turboweb.http.processor.Processor;
 import top.turboweb.http.scheduler.HttpScheduler;
+import top.turboweb.http.scheduler.HybridHttpScheduler;
 import top.turboweb.http.scheduler.VirtualThreadHttpScheduler;
+import top.turboweb.http.scheduler.accesslog.AccessLogFormat;
+import top.turboweb.http.scheduler.accesslog.AccessLogSink;
+import top.turboweb.http.scheduler.accesslog.AccessLogger;
+import top.turboweb.http.scheduler.accesslog.ConsoleAccessLogSink;
+import top.turboweb.http.scheduler.accesslog.RollingFileAccessLogSink;
+import top.turboweb.http.scheduler.admission.AdmissionQueue;
+import top.turboweb.http.scheduler.admission.RoutePriorityClassifier;
+import top.turboweb.http.scheduler.limit.ConcurrencyLimiter;
+import top.turboweb.http.scheduler.limit.FixedConcurrencyLimiter;
+import top.turboweb.http.scheduler.limit.GradientConcurrencyLimiter;
 import top.turboweb.core.initializer.HttpSchedulerInitializer;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
 /**
  * 默认的http调度器初始化器
  */
@@ -18,7 +35,12 @@ public class DefaultHttpSchedulerInitializer implements HttpSchedulerInitializer
 
     @Override
     public HttpScheduler init(Processor processorChain, HttpServerConfig config) {
-        HttpScheduler scheduler;
+        return init(processorChain, null, config);
+    }
+
+    @Override
+    public HttpScheduler init(Processor processorChain, RouterManager routerManager, HttpServerConfig config) {
+        VirtualThreadHttpScheduler scheduler;
         if (!config.isEnableHttpSchedulerLimit()) {
             scheduler = new VirtualThreadHttpScheduler(
                     processorChain
@@ -31,22 +53,154 @@ public class DefaultHttpSchedulerInitializer implements HttpSchedulerInitializer
             if (config.getHttpSchedulerLimitTimeout() < 1) {
                 throw new TurboServerInitException("httpSchedulerLimitTimeout 必须大于 0");
             }
-            scheduler = new VirtualThreadHttpScheduler(
-                    processorChain,
-                    true,
-                    config.getHttpSchedulerLimitCount(),
-                    config.getHttpSchedulerLimitCacheThread(),
-                    config.getHttpSchedulerLimitTimeout()
-            );
-            log.info(
-                    "二级限流已开启: [并发线程数:{}, 缓存线程数:{}, 缓存时间:{}ms]",
-                    config.getHttpSchedulerLimitCount(),
-                    config.getHttpSchedulerLimitCacheThread(),
-                    config.getHttpSchedulerLimitTimeout()
-                    );
+            ConcurrencyLimiter limiter;
+            if (config.isHttpSchedulerAdaptiveLimit()) {
+                if (config.getHttpSchedulerMinLimit() > config.getHttpSchedulerLimitCount()) {
+                    throw new TurboServerInitException("httpSchedulerMinLimit 不能大于 httpSchedulerLimitCount");
+                }
+                limiter = new GradientConcurrencyLimiter(config.getHttpSchedulerMinLimit(), config.getHttpSchedulerLimitCount());
+                log.info(
+                        "二级限流已开启(自适应): [并发线程数:{}~{}, 缓存线程数:{}, 缓存时间:{}ms]",
+                        config.getHttpSchedulerMinLimit(),
+                        config.getHttpSchedulerLimitCount(),
+                        config.getHttpSchedulerLimitCacheThread(),
+                        config.getHttpSchedulerLimitTimeout()
+                );
+            } else {
+                limiter = new FixedConcurrencyLimiter(config.getHttpSchedulerLimitCount());
+                log.info(
+                        "二级限流已开启: [并发线程数:{}, 缓存线程数:{}, 缓存时间:{}ms]",
+                        config.getHttpSchedulerLimitCount(),
+                        config.getHttpSchedulerLimitCacheThread(),
+                        config.getHttpSchedulerLimitTimeout()
+                );
+            }
+            if (config.isHttpSchedulerPriorityQueue()) {
+                scheduler = new VirtualThreadHttpScheduler(
+                        processorChain,
+                        createAdmissionQueue(limiter, routerManager, config),
+                        config.getHttpSchedulerLimitCacheThread(),
+                        config.getHttpSchedulerLimitTimeout()
+                );
+            } else {
+                scheduler = new VirtualThreadHttpScheduler(
+                        processorChain,
+                        limiter,
+                        config.getHttpSchedulerLimitCacheThread(),
+                        config.getHttpSchedulerLimitTimeout()
+                );
+            }
         }
         scheduler.setShowRequestLog(config.isShowRequestLog());
+        if (config.isShowRequestLog()) {
+            scheduler.setAccessLogger(createAccessLogger(config));
+        }
+        if (config.isVirtualThreadCarrierAffinity()) {
+            if (VirtualThreads.isCustomSchedulerSupported()) {
+                scheduler.setCarrierAffinity(true);
+                log.info("虚拟线程将以连接所在的IO线程作为载体线程(实验性)");
+            } else {
+                log.warn("当前JDK无法指定虚拟线程的载体线程，需要添加启动参数 --add-opens java.base/java.lang=ALL-UNNAMED，使用默认的载体线程");
+            }
+        }
+        if (routerManager != null && routerManager.hasNonBlockingRoutes()) {
+            log.info(
+                    "非阻塞路由将在IO线程中执行: [耗时阈值:{}ms, 允许超时次数:{}]",
+                    config.getNonBlockingThreshold(),
+                    config.getNonBlockingMaxBlockingTimes()
+            );
+            log.info("http调度器初始化成功");
+            return new HybridHttpScheduler(
+                    scheduler,
+                    routerManager,
+                    config.getNonBlockingThreshold(),
+                    config.getNonBlockingMaxBlockingTimes()
+            );
+        }
         log.info("http调度器初始化成功");
         return scheduler;
     }
+
+    /**
+     * 创建记录请求日志的访问日志
+     *
+     * @param config 服务器配置
+     * @return 访问日志
+     */
+    private AccessLogger createAccessLogger(HttpServerConfig config) {
+        AccessLogSink sink;
+        if (config.getAccessLogFile() == null) {
+            sink = new ConsoleAccessLogSink();
+        } else {
+            try {
+                sink = new RollingFileAccessLogSink(
+                        Path.of(config.getAccessLogFile()),
+                        config.getAccessLogMaxFileSize(),
+                        config.getAccessLogMaxHistory()
+                );
+            } catch (IOException e) {
+                throw new TurboServerInitException("请求日志文件创建失败: " + config.getAccessLogFile(), e);
+            }
+        }
+        AccessLogger accessLogger;
+        try {
+            accessLogger = new AccessLogger(
+                    config.getAccessLogFormat(),
+                    sink,
+                    config.getAccessLogSampleRate(),
+                    config.getAccessLogBufferSize()
+            );
+        } catch (IllegalArgumentException e) {
+            try {
+                sink.close();
+            } catch (IOException ignore) {
+            }
+            throw new TurboServerInitException(e);
+        }
+        if (config.getAccessLogFormat() != AccessLogFormat.CONSOLE || config.getAccessLogFile() != null || config.getAccessLogSampleRate() < 1) {
+            log.info(
+                    "请求日志: [格式:{}, 输出:{}, 采样率:{}]",
+                    config.getAccessLogFormat(),
+                    config.getAccessLogFile() == null ? "控制台" : config.getAccessLogFile(),
+                    config.getAccessLogSampleRate()
+            );
+        }
+        return accessLogger;
+    }
+
+    /**
+     * 创建按优先级排队的准入队列
+     *
+     * @param limiter       并发限制器
+     * @param routerManager 路由管理器
+     * @param config        服务器配置
+     * @return 准入队列
+     */
+    private AdmissionQueue createAdmissionQueue(ConcurrencyLimiter limiter, RouterManager routerManager, HttpServerConfig config) {
+        if (config.getHttpSchedulerQueueTarget() > config.getHttpSchedulerQueueInterval()) {
+            throw new TurboServerInitException("httpSchedulerQueueTarget 不能大于 httpSchedulerQueueInterval");
+        }
+        RoutePriorityClassifier classifier = new RoutePriorityClassifier(routerManager);
+        try {
+            config.getHttpSchedulerPriorityRules().forEach(classifier::addRule);
+        } catch (IllegalArgumentException e) {
+            throw new TurboServerInitException(e);
+        }
+        AdmissionQueue admissionQueue = new AdmissionQueue(
+                limiter,
+                classifier,
+                config.getHttpSchedulerPriorityWeights(),
+                config.getHttpSchedulerQueueTarget(),
+                config.getHttpSchedulerQueueInterval(),
+                config.getHttpSchedulerDeadlineHeader()
+        );
+        log.info(
+                "调度器优先级排队已开启: [权重:{}, 路径规则数:{}, 积压时排队时间:{}ms, 积压判定时间:{}ms]",
+                Arrays.toString(config.getHttpSchedulerPriorityWeights()),
+                config.getHttpSchedulerPriorityRules().size(),
+                config.getHttpSchedulerQueueTarget(),
+                config.getHttpSchedulerQueueInterval()
+        );
+        return admissionQueue;
+    }
 }
@@ -27,6 +27,11 @@ public class DefaultMiddlewareInitializer implements MiddlewareInitializer {
         this.routerManager = routerManager;
     }
 
+    @Override
+    public RouterManager getRouterManager() {
+        return routerManager;
+    }
+
     @Override
     public void addMiddleware(Middleware... middlewares) {
         for (Middleware middleware : middlewares) {
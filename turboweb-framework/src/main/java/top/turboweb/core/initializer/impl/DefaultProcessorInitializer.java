@@ -7,6 +7,7 @@ import top.turboweb.commons.serializer.JsonSerializer;
 import top.turboweb.core.initializer.ProcessorInitializer;
 import top.turboweb.http.handler.ExceptionHandlerMatcher;
 import top.turboweb.http.middleware.Middleware;
+import top.turboweb.http.middleware.router.RouterManager;
 import top.turboweb.http.processor.CorsProcessor;
 import top.turboweb.http.processor.ExceptionHandlerProcessor;
 import top.turboweb.http.processor.MiddlewareInvokeProcessor;
@@ -29,6 +30,7 @@ public class DefaultProcessorInitializer implements ProcessorInitializer {
 
     @Override
     public Processor init(Middleware chain, SessionManagerHolder sessionManagerHolder, ExceptionHandlerMatcher matcher) {
+        prepareBindTypes(chain);
         // 初始化剩余内核处理器
         MiddlewareInvokeProcessor middlewareInvokeProcessor = initMiddlewareInvokerProcessor(chain, sessionManagerHolder);
         ExceptionHandlerProcessor exceptionHandlerProcessor = initExceptionHandlerProcessor(middlewareInvokeProcessor, matcher);
@@ -49,6 +51,26 @@ public class DefaultProcessorInitializer implements ProcessorInitializer {
         this.jsonSerializer = jsonSerializer;
     }
 
+    /**
+     * 为路由绑定的请求模型与返回值类型预先准备json序列化器
+     *
+     * @param chain 已初始化的中间件链
+     */
+    private void prepareBindTypes(Middleware chain) {
+        int count = 0;
+        for (Middleware ptr = chain; ptr != null; ptr = ptr.getNext()) {
+            if (ptr instanceof RouterManager routerManager) {
+                for (Class<?> type : routerManager.getBindTypes()) {
+                    jsonSerializer.prepare(type);
+                    count++;
+                }
+            }
+        }
+        if (count > 0) {
+            log.info("json serializer prepared for {} bind types", count);
+        }
+    }
+
     /**
      * 初始化中间件调用的处理器
      *
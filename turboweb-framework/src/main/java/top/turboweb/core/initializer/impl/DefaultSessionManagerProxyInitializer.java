@@ -8,6 +8,8 @@ import top.turboweb.http.session.DefaultSessionManagerHolder;
 import top.turboweb.http.session.SessionManagerHolder;
 import top.turboweb.core.initializer.SessionManagerProxyInitializer;
 
+import java.nio.file.Path;
+
 /**
  * 默认的session管理器初始化器
  */
@@ -29,7 +31,31 @@ public class DefaultSessionManagerProxyInitializer implements SessionManagerProx
             config.getSessionMaxNotUseTime(),
             config.getSessionCheckThreshold()
         );
+        initSnapshot(config);
         log.info("session管理器初始化完成");
         return proxy;
     }
+
+    /**
+     * 从快照中恢复session，并开启周期性的增量快照
+     *
+     * @param config 服务器配置
+     */
+    private void initSnapshot(HttpServerConfig config) {
+        String path = config.getSessionSnapshotPath();
+        if (path == null) {
+            return;
+        }
+        if (!(sessionManager instanceof SnapshotSessionManager snapshotSessionManager)) {
+            log.warn("session管理器{}不支持快照，忽略快照配置", sessionManager.sessionManagerName());
+            return;
+        }
+        SessionSnapshotter snapshotter = new SessionSnapshotter(
+            snapshotSessionManager,
+            Path.of(path),
+            config.getSessionSnapshotInterval()
+        );
+        snapshotter.restore();
+        snapshotter.start();
+    }
 }
@@ -3,6 +3,7 @@ package top.turboweb.core.server;
 import io.netty.channel.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import top.turboweb.core.channel.TransportType;
 import top.turboweb.core.config.HttpServerConfig;
 import top.turboweb.core.handler.ChannelHandlerFactory;
 import top.turboweb.core.initializer.CommonSourceInitializer;
@@ -13,7 +14,11 @@ import top.turboweb.core.initializer.factory.HttpSchedulerInitFactory;
 import top.turboweb.core.dispatch.HttpProtocolDispatcher;
 import top.turboweb.core.initializer.impl.DefaultCommonSourceInitializer;
 import top.turboweb.gateway.GatewayChannelHandler;
+import top.turboweb.http.middleware.router.RouterManager;
 import top.turboweb.http.scheduler.HttpScheduler;
+import top.turboweb.http.scheduler.HybridHttpScheduler;
+import top.turboweb.http.scheduler.VirtualThreadHttpScheduler;
+import top.turboweb.http.scheduler.limit.LimitMetrics;
 import top.turboweb.core.listener.TurboWebListener;
 
 import java.util.ArrayList;
@@ -84,6 +89,11 @@ public class BootStrapTurboWebServer extends CoreTurboWebServer {
      */
     private boolean executeDefaultListener = true;
 
+    /**
+     * 启动时创建的 HTTP 调度器。
+     */
+    private HttpScheduler httpScheduler;
+
 
     {
         httpSchedulerInitFactory = new HttpSchedulerInitFactory(this);
@@ -117,6 +127,17 @@ public class BootStrapTurboWebServer extends CoreTurboWebServer {
         super(ioThreadNum, zeroCopyThreadNum);
     }
 
+    /**
+     * 构造方法。
+     *
+     * @param ioThreadNum       I/O 线程数（Netty Worker Group）
+     * @param zeroCopyThreadNum 零拷贝线程数（仅 NIO 传输层使用）
+     * @param transportType     传输层类型
+     */
+    public BootStrapTurboWebServer(int ioThreadNum, int zeroCopyThreadNum, TransportType transportType) {
+        super(ioThreadNum, zeroCopyThreadNum, transportType);
+    }
+
     /**
      * 构造方法。
      *
@@ -268,12 +289,61 @@ public class BootStrapTurboWebServer extends CoreTurboWebServer {
         // 初始化公共资源
         commonSourceInitializer.init(serverConfig);
         // 创建http调度器
-        HttpScheduler httpScheduler = httpSchedulerInitFactory.createHttpScheduler(serverConfig);
+        httpScheduler = httpSchedulerInitFactory.createHttpScheduler(serverConfig);
         // 创建http协议分发器
         HttpProtocolDispatcher httpProtocolDispatcher = httpProtocolDispatcherInitFactory.createDispatcher(httpScheduler, workers());
+        // 流式请求体的匹配器
+        RouterManager routerManager = httpSchedulerInitFactory.getRouterManager();
+        if (routerManager != null) {
+            super.streamingRequest(request -> routerManager.isStreamingRequest(request.method(), request.uri()), serverConfig.getRequestStreamBufferSize());
+        }
+        super.maxPipelinedRequests(serverConfig.getMaxPipelinedRequests());
+        if (serverConfig.isReusePort()) {
+            super.reusePort();
+        }
+        if (serverConfig.isFlushConsolidation()) {
+            super.flushConsolidation(serverConfig.getFlushConsolidationBatch());
+        }
         super.initPipeline(httpProtocolDispatcher, serverConfig.getMaxContentLength(), serverConfig.getCpuNum(), serverConfig.getMaxConnections(), serverConfig.isSerializePerConnection());
     }
 
+    /**
+     * 获取调度器限流的运行指标（当前许可数、正在执行与挂起等待的请求数、累计拒绝数）。
+     *
+     * @return 指标快照，服务器未启动、未开启调度器限流或使用了自定义调度器时返回 null
+     */
+    public LimitMetrics limitMetrics() {
+        VirtualThreadHttpScheduler scheduler = virtualThreadHttpScheduler();
+        return scheduler != null ? scheduler.limitMetrics() : null;
+    }
+
+    /**
+     * 关闭服务器，并写出缓冲区中剩余的请求日志。
+     */
+    @Override
+    public void shutdown() {
+        super.shutdown();
+        VirtualThreadHttpScheduler scheduler = virtualThreadHttpScheduler();
+        if (scheduler != null && scheduler.getAccessLogger() != null) {
+            scheduler.getAccessLogger().close();
+        }
+    }
+
+    /**
+     * 获取内置的虚拟线程调度器
+     *
+     * @return 调度器，服务器未启动或使用了自定义调度器时返回 null
+     */
+    private VirtualThreadHttpScheduler virtualThreadHttpScheduler() {
+        HttpScheduler scheduler = httpScheduler instanceof HybridHttpScheduler hybridHttpScheduler
+                ? hybridHttpScheduler.getDelegate()
+                : httpScheduler;
+        if (scheduler instanceof VirtualThreadHttpScheduler virtualThreadHttpScheduler) {
+            return virtualThreadHttpScheduler;
+        }
+        return null;
+    }
+
     public static void printBanner() {
         String banner = """
                  _______         _       __          __  _    \s
@@ -349,6 +419,27 @@ public class BootStrapTurboWebServer extends CoreTurboWebServer {
         return new BootStrapTurboWebServer(ioThreadNum, zeroCopyThreadNum);
     }
 
+    /**
+     * 创建TurboWebServer
+     *
+     * @param transportType 传输层类型
+     * @return TurboWebServer
+     */
+    public static TurboWebServer create(TransportType transportType) {
+        return new BootStrapTurboWebServer(0, 0, transportType);
+    }
+
+    /**
+     * 创建TurboWebServer
+     *
+     * @param ioThreadNum       IO线程数
+     * @param transportType     传输层类型
+     * @return TurboWebServer
+     */
+    public static TurboWebServer create(int ioThreadNum, TransportType transportType) {
+        return new BootStrapTurboWebServer(ioThreadNum, 0, transportType);
+    }
+
     /**
      * 创建TurboWebServer
      *
@@ -3,17 +3,23 @@ package top.turboweb.core.server;
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.bootstrap.ServerBootstrapConfig;
 import io.netty.channel.*;
-import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.epoll.EpollChannelOption;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.socket.nio.NioChannelOption;
 import io.netty.channel.socket.nio.NioServerSocketChannel;
-import io.netty.channel.socket.nio.NioSocketChannel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import top.turboweb.commons.exception.TurboServerInitException;
+import top.turboweb.core.channel.TransportType;
 import top.turboweb.core.channel.TurboWebNioServerSocketChannel;
-import top.turboweb.core.channel.TurboWebNioSocketChannel;
+import top.turboweb.core.channel.ZeroCopyMetrics;
+import top.turboweb.core.channel.ZeroCopyTransferEngine;
 
+import java.net.StandardSocketOptions;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
-import java.util.concurrent.*;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
 /**
@@ -22,8 +28,9 @@ import java.util.function.Consumer;
  * <p>该类封装了 {@link ServerBootstrap} 的初始化逻辑，包括：</p>
  * <ul>
  *     <li>主从线程组（boss/workers）的创建与生命周期管理</li>
- *     <li>基于零拷贝的独立线程池 {@link ThreadPoolExecutor} 管理</li>
+ *     <li>NIO 传输层下零拷贝传输引擎 {@link ZeroCopyTransferEngine} 的管理</li>
  *     <li>自定义 {@link ChannelFactory} 支持 TurboWeb 特有的 Channel 类型</li>
+ *     <li>按 {@link TransportType} 选择 NIO 或 Linux 原生 epoll 传输层</li>
  *     <li>统一的 pipeline 初始化入口</li>
  * </ul>
  *
@@ -42,9 +49,10 @@ public class CoreNettyServer {
 
 	/**
 	 * Boss 线程组。
-	 * <p>用于接收客户端连接请求（默认仅一个线程即可应对高并发连接接入）。</p>
+	 * <p>用于接收客户端连接请求（默认仅一个线程即可应对高并发连接接入），
+	 * 未指定自定义通道时在启动时按监听套接字数量创建。</p>
 	 */
-	private final EventLoopGroup boss = new NioEventLoopGroup(1);
+	private EventLoopGroup boss;
 
 	/**
 	 * Worker 线程组。
@@ -57,21 +65,24 @@ public class CoreNettyServer {
 	private final ServerChannel serverChannel;
 
 	/**
-	 * 自定义零拷贝线程工厂。
-	 * <p>用于命名线程并确保后台守护进程模式。</p>
+	 * 实际使用的传输层，使用自定义通道时为 null。
 	 */
-	private static class ZeroCopyThreadFactory implements ThreadFactory {
+	private final TransportType transportType;
 
-		private final AtomicLong count = new AtomicLong();
+	/**
+	 * 监听套接字的数量，大于 1 时通过 SO_REUSEPORT 绑定多个监听套接字，每个套接字使用独立的 boss 线程。
+	 */
+	private int acceptorNum = 1;
 
-		@Override
-		public Thread newThread(Runnable r) {
-			count.compareAndSet(Long.MAX_VALUE, 0);
-			Thread thread = new Thread(r, "zero-copy-thread-" + count.getAndIncrement());
-			thread.setDaemon(true);
-			return thread;
-		}
-	}
+	/**
+	 * 每条零拷贝传输通道的队列容量。
+	 */
+	private static final int ZERO_COPY_QUEUE_CAPACITY = 1024;
+
+	/**
+	 * 零拷贝传输引擎，仅 NIO 传输层且未开启 SSL 时创建。
+	 */
+	private ZeroCopyTransferEngine zeroCopyEngine;
 
 	/**
 	 * 构造方法。
@@ -80,11 +91,20 @@ public class CoreNettyServer {
 	 * @param zeroCopyThreadNum  零拷贝任务线程数（建议为 CPU 核心数的 2 倍）
 	 */
 	public CoreNettyServer(int ioThreadNum, int zeroCopyThreadNum) {
-		this.workers = new NioEventLoopGroup(ioThreadNum);
-		serverBootstrap.group(
-			boss,
-			workers
-		);
+		this(ioThreadNum, zeroCopyThreadNum, TransportType.NIO);
+	}
+
+	/**
+	 * 构造方法。
+	 *
+	 * @param ioThreadNum        I/O 工作线程数（建议与 CPU 核心数接近）
+	 * @param zeroCopyThreadNum  零拷贝任务线程数（仅 NIO 传输层使用）
+	 * @param transportType      传输层类型
+	 */
+	public CoreNettyServer(int ioThreadNum, int zeroCopyThreadNum, TransportType transportType) {
+		Objects.requireNonNull(transportType, "transportType cannot be null");
+		this.transportType = transportType.resolve();
+		this.workers = this.transportType.newEventLoopGroup(ioThreadNum);
 		this.zeroCopyThreadNum = zeroCopyThreadNum;
 		this.serverChannel = null;
 	}
@@ -95,6 +115,8 @@ public class CoreNettyServer {
 		Objects.requireNonNull(workers, "workers cannot be null");
 		this.zeroCopyThreadNum = 0;
 		this.serverChannel = serverChannel;
+		this.transportType = null;
+		this.boss = boss;
 		this.workers = workers;
 		// 设置线程组
 		serverBootstrap.group(boss, workers);
@@ -129,39 +151,33 @@ public class CoreNettyServer {
 	 * @param consumer 管道初始化逻辑（用于配置业务 Handler 链）
 	 */
 	public void childChannelInitPipeline(boolean ssl, Consumer<Channel> consumer) {
-		if (ssl) {
-			this.initChannel(new NioServerSocketChannel(), consumer);
+		if (transportType == TransportType.EPOLL) {
+			// epoll 通过 sendfile 在 IO 线程中写出文件，不需要零拷贝线程池
+			this.initChannel(EpollServerSocketChannel::new, consumer);
+		}
+		else if (ssl) {
+			this.initChannel(NioServerSocketChannel::new, consumer);
 		}
 		else {
-			// 创建专门用于零拷贝的线程池
-			ThreadPoolExecutor zeroCopyExecutor = new ThreadPoolExecutor(
-					this.zeroCopyThreadNum,
-					this.zeroCopyThreadNum,
-					60,
-					TimeUnit.SECONDS,
-					new LinkedBlockingQueue<>(),
-					new ZeroCopyThreadFactory()
-			);
-
-			// 允许核心线程过期
-			zeroCopyExecutor.allowCoreThreadTimeOut(true);
-			// 设置专用的零拷贝增强通道
-			this.initChannel(new TurboWebNioServerSocketChannel(zeroCopyExecutor), consumer);
+			// 创建零拷贝传输引擎，所有监听套接字共享
+			ZeroCopyTransferEngine engine = new ZeroCopyTransferEngine(this.zeroCopyThreadNum, ZERO_COPY_QUEUE_CAPACITY);
+			this.zeroCopyEngine = engine;
+			this.initChannel(() -> new TurboWebNioServerSocketChannel(engine), consumer);
 		}
 	}
 
 	/**
 	 * 注册子通道（每个客户端连接）的 pipeline 逻辑。
 	 *
-	 * @param serverChannel 专有通道类型
+	 * @param channelFactory 专有通道类型的工厂，每个监听套接字创建一个通道
 	 * @param consumer 管道初始化逻辑（用于配置业务 Handler 链）
 	 */
-	private void initChannel(ServerChannel serverChannel, Consumer<Channel> consumer) {
+	private void initChannel(ChannelFactory<ServerChannel> channelFactory, Consumer<Channel> consumer) {
 		// 判断构造时是否指定了channel类型
 		if (this.serverChannel != null) {
 			serverBootstrap.channelFactory(() -> this.serverChannel);
 		} else {
-			serverBootstrap.channelFactory(() -> serverChannel);
+			serverBootstrap.channelFactory(channelFactory);
 		}
 		serverBootstrap.childHandler(new ChannelInitializer<Channel>() {
 			@Override
@@ -171,6 +187,23 @@ public class CoreNettyServer {
 		});
 	}
 
+	/**
+	 * 设置监听套接字的数量。
+	 * <p>大于 1 时通过 SO_REUSEPORT 在同一端口绑定多个监听套接字，由内核在多个 boss 线程之间分配新连接，
+	 * 适用于大量短连接的场景。需要在启动前调用，且不支持构造时指定的自定义通道。</p>
+	 *
+	 * @param acceptorNum 监听套接字数量
+	 */
+	public void acceptors(int acceptorNum) {
+		if (acceptorNum < 1) {
+			throw new IllegalArgumentException("acceptorNum must be greater than or equal to 1");
+		}
+		if (acceptorNum > 1 && serverChannel != null) {
+			throw new TurboServerInitException("SO_REUSEPORT is not supported with a custom server channel");
+		}
+		this.acceptorNum = acceptorNum;
+	}
+
 	/**
 	 * 获取当前 {@link ServerBootstrap} 的运行配置。
 	 *
@@ -198,7 +231,60 @@ public class CoreNettyServer {
 	 * @return 启动结果的异步 {@link ChannelFuture}
 	 */
 	public ChannelFuture start(String host, int port) {
-		return serverBootstrap.bind(host, port);
+		if (transportType == null) {
+			return serverBootstrap.bind(host, port);
+		}
+		log.info("server transport: {}, acceptors: {}", transportType, acceptorNum);
+		boss = transportType.newEventLoopGroup(acceptorNum);
+		serverBootstrap.group(boss, workers);
+		if (acceptorNum == 1) {
+			return serverBootstrap.bind(host, port);
+		}
+		serverBootstrap.option(reusePortOption(), true);
+		// 每次绑定都会创建新的监听套接字，并按顺序注册到不同的 boss 线程
+		List<ChannelFuture> futures = new ArrayList<>(acceptorNum);
+		for (int i = 0; i < acceptorNum; i++) {
+			futures.add(serverBootstrap.bind(host, port));
+		}
+		ChannelPromise promise = futures.getFirst().channel().newPromise();
+		AtomicInteger remaining = new AtomicInteger(acceptorNum);
+		for (ChannelFuture future : futures) {
+			future.addListener(f -> {
+				if (!f.isSuccess()) {
+					promise.tryFailure(f.cause());
+				} else if (remaining.decrementAndGet() == 0) {
+					promise.trySuccess();
+				}
+			});
+		}
+		promise.addListener(future -> {
+			// 任意一个绑定失败时关闭全部监听套接字
+			if (!future.isSuccess()) {
+				futures.forEach(f -> f.channel().close());
+			}
+		});
+		return promise;
+	}
+
+	/**
+	 * 获取传输层对应的 SO_REUSEPORT 选项
+	 *
+	 * @return 通道选项
+	 */
+	private ChannelOption<Boolean> reusePortOption() {
+		if (transportType == TransportType.EPOLL) {
+			return EpollChannelOption.SO_REUSEPORT;
+		}
+		return NioChannelOption.of(StandardSocketOptions.SO_REUSEPORT);
+	}
+
+	/**
+	 * 获取实际使用的传输层。
+	 *
+	 * @return 传输层类型，使用自定义通道时返回 null
+	 */
+	public TransportType transportType() {
+		return transportType;
 	}
 
 	/**
@@ -210,11 +296,27 @@ public class CoreNettyServer {
 		return workers;
 	}
 
+	/**
+	 * 获取零拷贝传输引擎的运行指标。
+	 *
+	 * @return 指标快照，未使用零拷贝传输引擎（epoll 传输层、SSL 或自定义通道）时返回 null
+	 */
+	public ZeroCopyMetrics zeroCopyMetrics() {
+		return zeroCopyEngine == null ? null : zeroCopyEngine.metrics();
+	}
+
 	/**
 	 * 优雅关闭服务器。
-	 * <p>包括 boss 与 worker 线程组的优雅释放。</p>
+	 * <p>包括 boss 与 worker 线程组的优雅释放以及零拷贝传输引擎的关闭。</p>
 	 */
 	public void shutdown() {
+		if (zeroCopyEngine != null) {
+			zeroCopyEngine.shutdown();
+		}
+		if (boss == null) {
+			workers.shutdownGracefully();
+			return;
+		}
 		// 关闭boss线程
 		boss.shutdownGracefully().addListener(
 				future -> {
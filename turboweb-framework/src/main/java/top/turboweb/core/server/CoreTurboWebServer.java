@@ -2,6 +2,7 @@ package top.turboweb.core.server;
 
 import io.netty.channel.*;
 import io.netty.handler.codec.http.HttpObjectAggregator;
+import io.netty.handler.codec.http.HttpRequest;
 import io.netty.handler.codec.http.HttpServerCodec;
 import io.netty.handler.codec.http2.Http2FrameCodec;
 import io.netty.handler.codec.http2.Http2FrameCodecBuilder;
@@ -11,23 +12,30 @@ import io.netty.handler.ssl.SslContext;
 import io.netty.handler.ssl.SslHandler;
 import io.netty.util.concurrent.EventExecutor;
 import top.turboweb.commons.exception.TurboServerInitException;
+import top.turboweb.core.channel.TransportType;
+import top.turboweb.core.channel.ZeroCopyMetrics;
 import top.turboweb.core.dispatch.HttpProtocolDispatcher;
 import top.turboweb.core.handler.ConnectLimiter;
 import top.turboweb.core.handler.ChannelHandlerFactory;
 import top.turboweb.core.handler.Http2FrameAdaptorHandler;
 import top.turboweb.core.handler.RequestSerializerHandler;
+import top.turboweb.core.handler.StreamingHttpObjectAggregator;
 import top.turboweb.gateway.GatewayChannelHandler;
 import top.turboweb.gateway.client.ReactorHttpClientFactory;
+import top.turboweb.http.connect.WriteCoalescer;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
 
 /**
  * TurboWeb 核心服务抽象类。
  *
  * <p>该类封装了 TurboWeb 的服务器核心启动逻辑，包括：
  * <ul>
- *   <li>Netty 服务端的初始化与启动</li>
+ *   <li>Netty 服务端的初始化与启动（NIO 或 Linux 原生 epoll 传输层）</li>
  *   <li>Pipeline 的动态构建</li>
  *   <li>SSL/TLS 支持（HTTPS）</li>
  *   <li>连接数限制与序列化控制</li>
@@ -99,6 +107,34 @@ public abstract class CoreTurboWebServer implements TurboWebServer {
 	 */
 	private boolean enableHttp2;
 
+	/**
+	 * 流式请求体的匹配器（可选）。
+	 *
+	 * <p>命中的 HTTP/1.1 请求在请求头解析完成后立即分发，请求体以流的方式交给处理器，
+	 * 未设置时所有请求都聚合为完整请求。</p>
+	 */
+	private Predicate<HttpRequest> streamingMatcher;
+
+	/**
+	 * 流式请求体在每个连接中最多缓存的字节数。
+	 */
+	private int streamBufferSize;
+
+	/**
+	 * 开启每连接序列化时，每个连接同时处理的流水线请求数。
+	 */
+	private int maxPipelinedRequests = 8;
+
+	/**
+	 * 合并写出时每批最多写出的消息数，0 表示不合并。
+	 */
+	private int flushConsolidationBatch;
+
+	/**
+	 * 每个 EventLoop 的合并写出器。
+	 */
+	private final Map<EventLoop, WriteCoalescer> writeCoalescers = new ConcurrentHashMap<>();
+
 	private static final String HTTP11 = "HTTP/1.1";
 	private static final String HTTP2 = "h2";
 
@@ -109,13 +145,24 @@ public abstract class CoreTurboWebServer implements TurboWebServer {
 	 * @param zeroCopyThreadNum 零拷贝线程数量（若 ≤ 0 则使用 CPU 核心数 × 2）
 	 */
 	public CoreTurboWebServer(int ioThreadNum, int zeroCopyThreadNum) {
+		this(ioThreadNum, zeroCopyThreadNum, TransportType.AUTO);
+	}
+
+	/**
+	 * 构造核心 TurboWeb 服务器，并指定传输层。
+	 *
+	 * @param ioThreadNum       I/O 线程数量（若 ≤ 0 则默认为 1）
+	 * @param zeroCopyThreadNum 零拷贝线程数量（若 ≤ 0 则使用 CPU 核心数 × 2，仅 NIO 传输层使用）
+	 * @param transportType     传输层类型，{@link TransportType#AUTO} 表示在 Linux 上优先使用 epoll
+	 */
+	public CoreTurboWebServer(int ioThreadNum, int zeroCopyThreadNum, TransportType transportType) {
 		if (ioThreadNum <= 0) {
 			ioThreadNum = 1;
 		}
 		if (zeroCopyThreadNum <= 0) {
 			zeroCopyThreadNum = Runtime.getRuntime().availableProcessors() * 2;
 		}
-		this.coreNettyServer = new CoreNettyServer(ioThreadNum, zeroCopyThreadNum);
+		this.coreNettyServer = new CoreNettyServer(ioThreadNum, zeroCopyThreadNum, transportType);
 		coreNettyServer.childOption(ChannelOption.SO_KEEPALIVE, true);
 		this.ioThreadNum = ioThreadNum;
 	}
@@ -222,6 +269,51 @@ public abstract class CoreTurboWebServer implements TurboWebServer {
 		return this;
 	}
 
+	/**
+	 * 设置流式请求体的匹配器。
+	 *
+	 * @param streamingMatcher 判断请求是否以流的方式接收请求体
+	 * @param streamBufferSize 流式请求体在每个连接中最多缓存的字节数
+	 */
+	protected void streamingRequest(Predicate<HttpRequest> streamingMatcher, int streamBufferSize) {
+		this.streamingMatcher = streamingMatcher;
+		this.streamBufferSize = streamBufferSize;
+	}
+
+	/**
+	 * 开启多监听套接字模式。
+	 *
+	 * <p>通过 SO_REUSEPORT 为每个 I/O 线程绑定一个监听套接字，由内核在多个 boss 线程之间分配新连接，
+	 * 连接数仍由 {@link ConnectLimiter} 在全局范围内限制。</p>
+	 */
+	protected void reusePort() {
+		coreNettyServer.acceptors(ioThreadNum);
+	}
+
+	/**
+	 * 设置每个连接同时处理的流水线请求数。
+	 *
+	 * @param maxPipelinedRequests 请求数，响应仍按请求顺序返回
+	 */
+	protected void maxPipelinedRequests(int maxPipelinedRequests) {
+		this.maxPipelinedRequests = maxPipelinedRequests;
+	}
+
+	/**
+	 * 开启合并写出模式。
+	 *
+	 * <p>虚拟线程写出的响应按 EventLoop 合并为一个任务批量写出，每个连接每批只刷新一次，
+	 * 减少跨线程任务与系统调用的次数。</p>
+	 *
+	 * @param maxBatch 每批最多写出的消息数，达到后刷新并让出 EventLoop
+	 */
+	protected void flushConsolidation(int maxBatch) {
+		if (maxBatch < 1) {
+			throw new IllegalArgumentException("maxBatch must be greater than or equal to 1");
+		}
+		this.flushConsolidationBatch = maxBatch;
+	}
+
 	@Override
 	public TurboWebServer enableHttp2() {
 		this.enableHttp2 = true;
@@ -235,7 +327,7 @@ public abstract class CoreTurboWebServer implements TurboWebServer {
 	 * <ul>
 	 *   <li>连接数限制器 {@link ConnectLimiter}</li>
 	 *   <li>SSL/TLS 加密层 {@link SslHandler}</li>
-	 *   <li>HTTP 编解码器与聚合器</li>
+	 *   <li>HTTP 编解码器与聚合器（设置了流式匹配器时使用 {@link StreamingHttpObjectAggregator}）</li>
 	 *   <li>可选的网关转发与序列化控制</li>
 	 *   <li>核心的协议分发器 {@link HttpProtocolDispatcher}</li>
 	 * </ul>
@@ -282,7 +374,11 @@ public abstract class CoreTurboWebServer implements TurboWebServer {
 	 */
 	private void registerHandler4Http11(ChannelPipeline pipeline, int maxContentLen, boolean serForPerConn, HttpProtocolDispatcher dispatcherHandler) {
 		pipeline.addLast(new HttpServerCodec());
-		pipeline.addLast(new HttpObjectAggregator(maxContentLen));
+		if (streamingMatcher != null) {
+			pipeline.addLast(new StreamingHttpObjectAggregator(maxContentLen, streamingMatcher, streamBufferSize));
+		} else {
+			pipeline.addLast(new HttpObjectAggregator(maxContentLen));
+		}
 		registerDefaultHandlers(pipeline, serForPerConn, dispatcherHandler);
 	}
 
@@ -340,7 +436,13 @@ public abstract class CoreTurboWebServer implements TurboWebServer {
 			pipeline.addLast(gatewayChannelHandler);
 		}
 		if (serForPerConn) {
-			pipeline.addLast(new RequestSerializerHandler());
+			pipeline.addLast(new RequestSerializerHandler(maxPipelinedRequests));
+		}
+		if (flushConsolidationBatch > 0) {
+			// 同一 EventLoop 上的连接共享合并写出器
+			Channel channel = pipeline.channel();
+			WriteCoalescer coalescer = writeCoalescers.computeIfAbsent(channel.eventLoop(), loop -> new WriteCoalescer(loop, flushConsolidationBatch));
+			channel.attr(WriteCoalescer.ATTRIBUTE).set(coalescer);
 		}
 		pipeline.addLast(dispatcherHandler);
 	}
@@ -358,6 +460,15 @@ public abstract class CoreTurboWebServer implements TurboWebServer {
 		this.gatewayChannelHandler = gatewayChannelHandler;
 	}
 
+	/**
+	 * 获取零拷贝传输的运行指标（队列深度、传输速率、发送缓冲区满导致的暂停次数等）。
+	 *
+	 * @return 指标快照，未使用零拷贝传输引擎（epoll 传输层、SSL 或自定义通道）时返回 null
+	 */
+	public ZeroCopyMetrics zeroCopyMetrics() {
+		return coreNettyServer.zeroCopyMetrics();
+	}
+
 	/**
 	 * 优雅关闭服务器。
 	 *
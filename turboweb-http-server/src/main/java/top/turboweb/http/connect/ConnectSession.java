@@ -6,11 +6,16 @@ import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.handler.codec.http.*;
 import io.netty.util.CharsetUtil;
+import top.turboweb.commons.serializer.JsonSerializer;
 
 /**
  * sse的回话对象
  */
 public class ConnectSession {
+
+    private static final byte[] DATA_PREFIX = "data: ".getBytes(CharsetUtil.UTF_8);
+    private static final byte[] EVENT_SUFFIX = "\n\n".getBytes(CharsetUtil.UTF_8);
+
     protected final Channel channel;
 
     public ConnectSession(Channel channel) {
@@ -26,7 +31,36 @@ public class ConnectSession {
         String msg = "data: " + message + "\n\n";
         ByteBuf buf = Unpooled.copiedBuffer(msg, CharsetUtil.UTF_8);
         DefaultHttpContent content = new DefaultHttpContent(buf); // 发送 chunked 数据
-        return channel.writeAndFlush(content);
+        return writeAndFlush(content);
+    }
+
+    /**
+     * 将对象序列化为 json 后向浏览器写入，序列化结果直接写入池化的直接内存
+     *
+     * @param data           数据
+     * @param jsonSerializer json序列化器
+     */
+    public ChannelFuture send(Object data, JsonSerializer jsonSerializer) {
+        ByteBuf buf = channel.alloc().directBuffer();
+        try {
+            buf.writeBytes(DATA_PREFIX);
+            jsonSerializer.writeTo(data, buf);
+            buf.writeBytes(EVENT_SUFFIX);
+        } catch (Throwable e) {
+            buf.release();
+            throw e;
+        }
+        return writeAndFlush(new DefaultHttpContent(buf));
+    }
+
+    /**
+     * 写入消息并刷新
+     *
+     * @param message 消息
+     * @return 写入结果
+     */
+    protected ChannelFuture writeAndFlush(Object message) {
+        return channel.writeAndFlush(message);
     }
 
     /**
@@ -54,7 +88,7 @@ public class ConnectSession {
             // 刷新数据
             channel.flush();
             // 发送结束信号
-            channel.writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT).addListener(future -> {
+            writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT).addListener(future -> {
                 channel.close();
             });
         });
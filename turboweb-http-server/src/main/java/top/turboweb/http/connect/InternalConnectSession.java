@@ -1,12 +1,19 @@
 package top.turboweb.http.connect;
 
 import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelPromise;
 import io.netty.channel.EventLoop;
 
 import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * 服务器内部使用的连接会话
+ * <p>
+ * 响应需要通过会话的写入方法写出，开启每连接序列化时消息会携带请求的序号，
+ * 以保证流水线请求的响应按请求顺序返回。
+ * 连接设置了 {@link WriteCoalescer} 时，写入交给合并写出器批量写出。
+ * </p>
  */
 public class InternalConnectSession extends ConnectSession{
 
@@ -15,8 +22,18 @@ public class InternalConnectSession extends ConnectSession{
      */
     public final ReentrantLock channelLock = new ReentrantLock();
 
+    /**
+     * 请求在连接中的序号，小于0表示不需要排序
+     */
+    private final int sequence;
+
     public InternalConnectSession(Channel channel) {
+        this(channel, -1);
+    }
+
+    public InternalConnectSession(Channel channel, int sequence) {
         super(channel);
+        this.sequence = sequence;
     }
 
     public Channel getChannel() {
@@ -26,4 +43,48 @@ public class InternalConnectSession extends ConnectSession{
     public EventLoop getExecutor() {
         return channel.eventLoop();
     }
+
+    /**
+     * 写入消息，不刷新
+     *
+     * @param message 消息
+     * @return 写入结果
+     */
+    public ChannelFuture write(Object message) {
+        return write(wrap(message), channel.newPromise(), false);
+    }
+
+    /**
+     * 写入消息并刷新
+     *
+     * @param message 消息
+     * @return 写入结果
+     */
+    @Override
+    public ChannelFuture writeAndFlush(Object message) {
+        return write(wrap(message), channel.newPromise(), true);
+    }
+
+    /**
+     * 写入消息并刷新
+     *
+     * @param message 消息
+     * @param promise 写入结果
+     * @return 写入结果
+     */
+    public ChannelFuture writeAndFlush(Object message, ChannelPromise promise) {
+        return write(wrap(message), promise, true);
+    }
+
+    private ChannelFuture write(Object message, ChannelPromise promise, boolean flush) {
+        WriteCoalescer coalescer = channel.attr(WriteCoalescer.ATTRIBUTE).get();
+        if (coalescer != null) {
+            return coalescer.write(channel, message, promise, flush);
+        }
+        return flush ? channel.writeAndFlush(message, promise) : channel.write(message, promise);
+    }
+
+    private Object wrap(Object message) {
+        return sequence < 0 ? message : new PipelinedMessage(sequence, message);
+    }
 }
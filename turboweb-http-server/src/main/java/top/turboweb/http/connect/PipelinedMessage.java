@@ -0,0 +1,14 @@
+package top.turboweb.http.connect;
+
+/**
+ * 携带请求序号的出站消息。
+ * <p>
+ * 开启每连接序列化后，同一连接上的请求会被并发处理，
+ * 响应消息携带所属请求的序号，由序列化处理器按请求顺序写出。
+ * </p>
+ *
+ * @param sequence 请求在连接中的序号
+ * @param message  原始消息
+ */
+public record PipelinedMessage(int sequence, Object message) {
+}
@@ -0,0 +1,117 @@
+package top.turboweb.http.connect;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.EventLoop;
+import io.netty.util.AttributeKey;
+import io.netty.util.ReferenceCountUtil;
+import io.netty.util.internal.PlatformDependent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 合并写出器，每个 EventLoop 一个实例。
+ * <p>
+ * 虚拟线程写出响应时，每次 writeAndFlush 都会向 EventLoop 提交一个任务并执行一次系统调用。
+ * 合并写出器将同一 EventLoop 上所有连接的写出放入同一个队列，由一个任务批量写出，
+ * 每个连接在一批中只刷新一次，每写出 maxBatch 条消息刷新一次并让出 EventLoop。
+ * </p>
+ */
+public class WriteCoalescer {
+
+    /**
+     * 连接使用的合并写出器，未设置时直接写出
+     */
+    public static final AttributeKey<WriteCoalescer> ATTRIBUTE = AttributeKey.valueOf("turboweb.writeCoalescer");
+
+    private final EventLoop eventLoop;
+    private final int maxBatch;
+    private final Queue<PendingWrite> queue = PlatformDependent.newMpscQueue();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final Runnable drainTask = this::drain;
+    /**
+     * 本批次需要刷新的连接，仅在 EventLoop 中访问
+     */
+    private final List<Channel> flushChannels = new ArrayList<>();
+
+    private record PendingWrite(Channel channel, Object message, ChannelPromise promise, boolean flush) {
+    }
+
+    /**
+     * 创建合并写出器
+     *
+     * @param eventLoop 所属的 EventLoop
+     * @param maxBatch  每批最多写出的消息数
+     */
+    public WriteCoalescer(EventLoop eventLoop, int maxBatch) {
+        if (maxBatch < 1) {
+            throw new IllegalArgumentException("maxBatch must be greater than or equal to 1");
+        }
+        this.eventLoop = eventLoop;
+        this.maxBatch = maxBatch;
+    }
+
+    /**
+     * 写出消息
+     *
+     * @param channel 连接
+     * @param message 消息
+     * @param promise 写入结果
+     * @param flush   是否需要刷新
+     * @return 写入结果
+     */
+    public ChannelFuture write(Channel channel, Object message, ChannelPromise promise, boolean flush) {
+        if (eventLoop.inEventLoop() && queue.isEmpty()) {
+            // 在 EventLoop 中不需要跨线程提交
+            return flush ? channel.writeAndFlush(message, promise) : channel.write(message, promise);
+        }
+        queue.offer(new PendingWrite(channel, message, promise, flush));
+        schedule();
+        return promise;
+    }
+
+    private void schedule() {
+        if (!scheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            eventLoop.execute(drainTask);
+        } catch (Throwable e) {
+            // EventLoop 已关闭
+            PendingWrite pendingWrite;
+            while ((pendingWrite = queue.poll()) != null) {
+                ReferenceCountUtil.release(pendingWrite.message);
+                pendingWrite.promise.tryFailure(e);
+            }
+        }
+    }
+
+    /**
+     * 批量写出队列中的消息，在 EventLoop 中执行
+     */
+    private void drain() {
+        // 先清除标记，之后提交的消息由新的任务处理，不会遗漏
+        scheduled.set(false);
+        PendingWrite pendingWrite;
+        int count = 0;
+        while (count < maxBatch && (pendingWrite = queue.poll()) != null) {
+            pendingWrite.channel.write(pendingWrite.message, pendingWrite.promise);
+            if (pendingWrite.flush && !flushChannels.contains(pendingWrite.channel)) {
+                flushChannels.add(pendingWrite.channel);
+            }
+            count++;
+        }
+        for (Channel channel : flushChannels) {
+            channel.flush();
+        }
+        flushChannels.clear();
+        if (!queue.isEmpty()) {
+            // 达到批次上限，让出 EventLoop 处理 IO 事件后继续
+            schedule();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package top.turboweb.http.context;
 
+import io.netty.buffer.ByteBufInputStream;
 import io.netty.handler.codec.http.DefaultHttpHeaders;
 import io.netty.handler.codec.http.FullHttpRequest;
 import io.netty.handler.codec.http.HttpMethod;
@@ -8,13 +9,18 @@ import top.turboweb.commons.serializer.JsonSerializer;
 import top.turboweb.http.connect.ConnectSession;
 import top.turboweb.http.context.respmeta.DefaultResponseMeta;
 import top.turboweb.http.context.respmeta.ResponseMeta;
+import top.turboweb.http.cookie.DefaultHttpCookieManager;
 import top.turboweb.http.cookie.HttpCookieManager;
 import top.turboweb.http.context.content.HttpContent;
+import top.turboweb.http.context.content.StreamingFullHttpRequest;
 import top.turboweb.http.response.SseResponse;
 import top.turboweb.http.response.InternalSseEmitter;
 import top.turboweb.http.response.SseEmitter;
+import top.turboweb.http.session.DefaultHttpSession;
 import top.turboweb.http.session.HttpSession;
+import top.turboweb.http.session.SessionManager;
 
+import java.io.InputStream;
 import java.util.function.Consumer;
 
 
@@ -32,6 +38,7 @@ import java.util.function.Consumer;
  * <ul>
  *   <li>负责维护一次 HTTP 请求的上下文状态。</li>
  *   <li>提供基础的 SSE 创建、Session 管理、Cookie 管理等能力。</li>
+ *   <li>Cookie 与 Session 在首次访问时才解析请求头、查找会话，未使用它们的请求不产生额外开销。</li>
  * </ul>
  *
  * <h2>线程模型</h2>
@@ -47,17 +54,26 @@ import java.util.function.Consumer;
  */
 public abstract class CoreHttpContext implements HttpContext{
 
+	/** 保存 sessionId 的 Cookie 名称 */
+	public static final String SESSION_COOKIE_NAME = "JSESSIONID";
+
 	/** 原始 Netty HTTP 请求对象 */
 	protected final FullHttpRequest request;
 
-	/** 当前请求关联的会话对象 */
-	protected final HttpSession session;
+	/** 会话管理器，用于在首次访问时创建会话对象 */
+	protected final SessionManager sessionManager;
+
+	/** 当前请求关联的会话对象，首次调用 {@link #httpSession()} 时创建 */
+	protected HttpSession session;
+
+	/** 请求中携带的 sessionId，会话对象创建时读取 */
+	protected String originSessionId;
 
 	/** 当前请求的连接会话 */
 	protected final ConnectSession connectSession;
 
-	/** Cookie 管理器 */
-	protected final HttpCookieManager httpCookieManager;
+	/** Cookie 管理器，首次调用 {@link #cookie()} 时解析请求头创建 */
+	protected HttpCookieManager httpCookieManager;
 
 	/** 封装后的请求内容对象 */
 	protected final HttpContent httpContent;
@@ -72,21 +88,18 @@ public abstract class CoreHttpContext implements HttpContext{
 	 * 构造方法，用于初始化请求上下文的核心依赖。
 	 *
 	 * @param request         当前请求对象
-	 * @param httpSession     HTTP 会话对象
-	 * @param cookieManager   Cookie 管理器
+	 * @param sessionManager  会话管理器
 	 * @param connectSession  当前连接会话
 	 * @param jsonSerializer  JSON 序列化器
 	 */
 	protected CoreHttpContext(
 			FullHttpRequest request,
-			HttpSession httpSession,
-			HttpCookieManager cookieManager,
+			SessionManager sessionManager,
 			ConnectSession connectSession,
 			JsonSerializer jsonSerializer
 	) {
 		this.request = request;
-		this.session = httpSession;
-		this.httpCookieManager = cookieManager;
+		this.sessionManager = sessionManager;
 		this.connectSession = connectSession;
 		HttpMethod method = request.method();
 		if (HttpMethod.GET == method || HttpMethod.HEAD == method) {
@@ -105,6 +118,17 @@ public abstract class CoreHttpContext implements HttpContext{
 		return this.request;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public InputStream bodyStream() {
+		if (request instanceof StreamingFullHttpRequest streamingRequest) {
+			return streamingRequest.bodyStream().inputStream();
+		}
+		return new ByteBufInputStream(request.content());
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -143,6 +167,10 @@ public abstract class CoreHttpContext implements HttpContext{
 	 */
 	@Override
 	public HttpSession httpSession() {
+		if (this.session == null) {
+			this.originSessionId = cookie().getCookie(SESSION_COOKIE_NAME);
+			this.session = new DefaultHttpSession(sessionManager, originSessionId);
+		}
 		return this.session;
 	}
 
@@ -151,6 +179,36 @@ public abstract class CoreHttpContext implements HttpContext{
 	 */
 	@Override
 	public HttpCookieManager cookie() {
+		if (this.httpCookieManager == null) {
+			this.httpCookieManager = new DefaultHttpCookieManager(request.headers());
+		}
+		return this.httpCookieManager;
+	}
+
+	/**
+	 * 获取已创建的会话对象，不会触发会话的创建。
+	 *
+	 * @return 会话对象，本次请求未访问会话时返回 null
+	 */
+	public HttpSession loadedSession() {
+		return this.session;
+	}
+
+	/**
+	 * 获取请求中携带的 sessionId。
+	 *
+	 * @return sessionId，会话对象未创建或请求中未携带时返回 null
+	 */
+	public String originSessionId() {
+		return this.originSessionId;
+	}
+
+	/**
+	 * 获取已创建的 Cookie 管理器，不会触发请求头的解析。
+	 *
+	 * @return Cookie 管理器，本次请求未访问 Cookie 时返回 null
+	 */
+	public HttpCookieManager loadedCookieManager() {
 		return this.httpCookieManager;
 	}
 
@@ -4,8 +4,7 @@ import io.netty.handler.codec.http.FullHttpRequest;
 import io.netty.handler.codec.http.multipart.FileUpload;
 import top.turboweb.commons.serializer.JsonSerializer;
 import top.turboweb.http.connect.ConnectSession;
-import top.turboweb.http.cookie.HttpCookieManager;
-import top.turboweb.http.session.HttpSession;
+import top.turboweb.http.session.SessionManager;
 
 import java.util.List;
 
@@ -30,19 +29,17 @@ public abstract class FileHttpContext extends CoreHttpContext {
 	 * 构造文件 HTTP 上下文。
 	 *
 	 * @param request        HTTP 请求对象
-	 * @param httpSession    会话对象
-	 * @param cookieManager  Cookie 管理器
+	 * @param sessionManager 会话管理器
 	 * @param connectSession 连接会话对象，用于 WebSocket/SSE 等场景
 	 * @param jsonSerializer JSON 序列化器
 	 */
 	protected FileHttpContext(
 			FullHttpRequest request,
-			HttpSession httpSession,
-			HttpCookieManager cookieManager,
+			SessionManager sessionManager,
 			ConnectSession connectSession,
 			JsonSerializer jsonSerializer
 	) {
-		super(request, httpSession, cookieManager, connectSession, jsonSerializer);
+		super(request, sessionManager, connectSession, jsonSerializer);
 	}
 
 	/**
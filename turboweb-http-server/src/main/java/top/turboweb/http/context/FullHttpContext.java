@@ -1,20 +1,15 @@
 package top.turboweb.http.context;
 
+import io.netty.buffer.ByteBuf;
 import io.netty.handler.codec.http.FullHttpRequest;
-import org.apache.hc.core5.http.NameValuePair;
-import org.apache.hc.core5.net.URIBuilder;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import top.turboweb.commons.serializer.JsonSerializer;
 import top.turboweb.http.connect.ConnectSession;
-import top.turboweb.http.cookie.HttpCookieManager;
+import top.turboweb.http.middleware.router.container.PathParams;
+import top.turboweb.http.session.SessionManager;
 import top.turboweb.commons.exception.TurboArgsValidationException;
 import top.turboweb.commons.exception.TurboParamParseException;
 import top.turboweb.commons.utils.base.ValidationUtils;
-import top.turboweb.http.session.HttpSession;
 import java.time.LocalDate;
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -38,35 +33,31 @@ import java.util.Map;
  */
 public class FullHttpContext extends FileHttpContext implements HttpContext{
 
-	private static final Logger log = LoggerFactory.getLogger(FullHttpContext.class);
-
 	/**
 	 * 路径参数映射（如 /user/{id} -> id）
 	 */
 	private Map<String, String> pathParams;
 
 	/**
-	 * 查询参数映射（来自 URL 中 ?key=value 的部分）
+	 * 查询参数（来自 URL 中 ?key=value 的部分），首次读取时解析
 	 */
-	private Map<String, List<String>> queryParams;
+	private QueryParams queryParams;
 
 	/**
 	 * 构造完整的 HTTP 上下文。
 	 *
 	 * @param request        HTTP 请求对象
-	 * @param httpSession    会话对象
-	 * @param cookieManager  Cookie 管理器
+	 * @param sessionManager 会话管理器
 	 * @param connectSession 连接会话（用于 WebSocket / SSE）
 	 * @param jsonSerializer JSON 序列化器
 	 */
 	public FullHttpContext(
 			FullHttpRequest request,
-			HttpSession httpSession,
-			HttpCookieManager cookieManager,
+			SessionManager sessionManager,
 			ConnectSession connectSession,
 			JsonSerializer jsonSerializer
 	) {
-		super(request, httpSession, cookieManager, connectSession, jsonSerializer);
+		super(request, sessionManager, connectSession, jsonSerializer);
 	}
 
 	/**
@@ -131,6 +122,16 @@ public class FullHttpContext extends FileHttpContext implements HttpContext{
 	 */
 	@Override
 	public Integer paramInt(String name) {
+		// int 类型的路径参数在路由匹配时已解析，直接读取数值
+		if (pathParams instanceof PathParams params) {
+			int index = params.indexOf(name);
+			if (index >= 0 && params.hasLong(index)) {
+				long value = params.longAt(index);
+				if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+					return (int) value;
+				}
+			}
+		}
 		String param = param(name);
 		if (param == null) {
 			return null;
@@ -147,6 +148,12 @@ public class FullHttpContext extends FileHttpContext implements HttpContext{
 	 */
 	@Override
 	public Long paramLong(String name) {
+		if (pathParams instanceof PathParams params) {
+			int index = params.indexOf(name);
+			if (index >= 0 && params.hasLong(index)) {
+				return params.longAt(index);
+			}
+		}
 		String param = param(name);
 		if (param == null) {
 			return null;
@@ -195,26 +202,15 @@ public class FullHttpContext extends FileHttpContext implements HttpContext{
 	}
 
 	/**
-	 * 解析 URL 中的查询参数。
+	 * 获取查询参数，首次调用时解析 URI
 	 *
-	 * @param uri URI 字符串
-	 * @return 参数名到参数值的映射
+	 * @return 查询参数
 	 */
-	private static Map<String, List<String>> parseQueryParams(String uri) {
-		Map<String, List<String>> paramsForSearch = new HashMap<>();
-		try {
-			URIBuilder uriBuilder = new URIBuilder(uri);
-			// 获取所有的查询参数
-			List<NameValuePair> params = uriBuilder.getQueryParams();
-			for (NameValuePair param : params) {
-				paramsForSearch
-						.computeIfAbsent(param.getName(), k -> new ArrayList<>(1))
-						.add(param.getValue());
-			}
-		} catch (Exception e) {
-			log.error("解析url参数失败", e);
+	private QueryParams queryParams() {
+		if (queryParams == null) {
+			queryParams = QueryParams.parse(request.uri());
 		}
-		return paramsForSearch;
+		return queryParams;
 	}
 
 	/**
@@ -225,14 +221,7 @@ public class FullHttpContext extends FileHttpContext implements HttpContext{
 	 */
 	@Override
 	public List<String> queries(String name) {
-		if (queryParams == null) {
-			queryParams = parseQueryParams(request.uri());
-		}
-		List<String> vals = queryParams.get(name);
-		if (vals == null) {
-			return List.of();
-		}
-		return vals;
+		return queryParams().all(name);
 	}
 
 	/**
@@ -240,8 +229,7 @@ public class FullHttpContext extends FileHttpContext implements HttpContext{
 	 */
 	@Override
 	public String query(String name) {
-		List<String> vals = queries(name);
-		return vals.isEmpty() ? null : vals.getFirst();
+		return queryParams().first(name);
 	}
 
 	/**
@@ -260,14 +248,16 @@ public class FullHttpContext extends FileHttpContext implements HttpContext{
 
 	@Override
 	public Long queryLong(String name) {
-		List<Long> vals = queriesLong(name);
-		return vals.isEmpty() ? null : vals.getFirst();
+		QueryParams params = queryParams();
+		int index = params.indexOf(name);
+		return index < 0 ? null : params.longValue(index);
 	}
 
 	@Override
 	public Long queryLong(String name, long defaultValue) {
-		Long val = queryLong(name);
-		return val == null ? defaultValue : val;
+		QueryParams params = queryParams();
+		int index = params.indexOf(name);
+		return index < 0 ? defaultValue : params.longValue(index);
 	}
 
 	@Override
@@ -277,14 +267,17 @@ public class FullHttpContext extends FileHttpContext implements HttpContext{
 
 	@Override
 	public Integer queryInt(String name) {
-		List<Integer> vals = queriesInt(name);
-		return vals.isEmpty() ? null : vals.getFirst();
+		// 直接从 URI 解析第一个值，不创建 List<Integer>
+		QueryParams params = queryParams();
+		int index = params.indexOf(name);
+		return index < 0 ? null : params.intValue(index);
 	}
 
 	@Override
 	public Integer queryInt(String name, int defaultValue) {
-		Integer val = queryInt(name);
-		return val == null ? defaultValue : val;
+		QueryParams params = queryParams();
+		int index = params.indexOf(name);
+		return index < 0 ? defaultValue : params.intValue(index);
 	}
 
 	@Override
@@ -294,8 +287,9 @@ public class FullHttpContext extends FileHttpContext implements HttpContext{
 
 	@Override
 	public Boolean queryBool(String name) {
-		List<Boolean> vals = queriesBool(name);
-		return vals.isEmpty() ? null : vals.getFirst();
+		QueryParams params = queryParams();
+		int index = params.indexOf(name);
+		return index < 0 ? null : Boolean.parseBoolean(params.value(index));
 	}
 
 	@Override
@@ -311,8 +305,9 @@ public class FullHttpContext extends FileHttpContext implements HttpContext{
 
 	@Override
 	public Double queryDouble(String name) {
-		List<Double> vals = queriesDouble(name);
-		return vals.isEmpty() ? null : vals.getFirst();
+		QueryParams params = queryParams();
+		int index = params.indexOf(name);
+		return index < 0 ? null : Double.parseDouble(params.value(index));
 	}
 
 	@Override
@@ -326,13 +321,7 @@ public class FullHttpContext extends FileHttpContext implements HttpContext{
 	 */
 	@Override
 	public <T> T loadQuery(Class<T> beanType) {
-		if (queryParams == null) {
-			queryParams = parseQueryParams(request.uri());
-		}
-		// 处理map集合
-		Map<String, Object> newMap = handleParamMap(queryParams);
-		// 将集合转化为对象
-		return jsonSerializer.mapToBean(newMap, beanType);
+		return jsonSerializer.paramsToBean(queryParams().toMap(), beanType);
 	}
 
 	@Override
@@ -349,13 +338,27 @@ public class FullHttpContext extends FileHttpContext implements HttpContext{
 		return result;
 	}
 
+	/**
+	 * 获取表单参数的所有值。
+	 *
+	 * @param name 参数名
+	 * @return 值列表，若不存在则返回空列表
+	 */
+	@Override
+	public List<String> forms(String name) {
+		List<String> vals = httpContent.getFormParams().get(name);
+		if (vals == null) {
+			return List.of();
+		}
+		return vals;
+	}
+
 	/**
 	 * 加载并反序列化表单参数。
 	 */
 	@Override
 	public <T> T loadForm(Class<T> beanType) {
-		Map<String, Object> newMap = handleParamMap(httpContent.getFormParams());
-		return jsonSerializer.mapToBean(newMap, beanType);
+		return jsonSerializer.paramsToBean(httpContent.getFormParams(), beanType);
 	}
 
 	@Override
@@ -373,19 +376,20 @@ public class FullHttpContext extends FileHttpContext implements HttpContext{
 	}
 
 	/**
-	 * 反序列化 JSON 请求体为对象。
-	 *
-	 * @throws TurboParamParseException 当请求体为空时抛出
+	 * 反序列化 JSON 请求体为对象，支持顶层为对象或数组的 JSON。
+	 * <p>
+	 * 请求体不会解码为字符串，由序列化器按请求的字符集直接从缓冲区解析。
+	 * </p>
 	 */
 	@Override
 	public <T> T loadJson(Class<T> beanType) {
-		// 获取json请求体
-		String jsonContent = httpContent.getJsonContent();
-		if (jsonContent == null) {
-			throw new TurboParamParseException("json请求体为空");
+		// 获取json请求体，直接从缓冲区解析
+		ByteBuf jsonBuf = httpContent.getJsonBuf();
+		if (jsonBuf == null) {
+			// 空请求体与 "{}" 相同
+			return jsonSerializer.jsonToBean("{}", beanType);
 		}
-		// 序列化对象
-		return jsonSerializer.jsonToBean(jsonContent, beanType);
+		return jsonSerializer.readFrom(jsonBuf, httpContent.getCharset(), beanType);
 	}
 
 	@Override
@@ -402,26 +406,6 @@ public class FullHttpContext extends FileHttpContext implements HttpContext{
 		return result;
 	}
 
-	/**
-	 * 将 {@code Map<String, List<String>>} 转换为 {@code Map<String, Object>}。
-	 * <p>
-	 * 若参数值列表中仅有一个元素，则直接取第一个。
-	 *
-	 * @param oldMap 原始集合
-	 * @return 转换后的集合
-	 */
-	private Map<String, Object> handleParamMap(Map<String, List<String>> oldMap) {
-		Map<String, Object> newMap = new HashMap<>();
-		oldMap.forEach((key, value) -> {
-			if (value.size() == 1) {
-				newMap.put(key, value.getFirst());
-			} else {
-				newMap.put(key, value);
-			}
-		});
-		return newMap;
-	}
-
 	/**
 	 * 释放上下文资源。
 	 * <p>
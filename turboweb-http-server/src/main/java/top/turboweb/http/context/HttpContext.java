@@ -8,6 +8,7 @@ import top.turboweb.http.response.SseResponse;
 import top.turboweb.http.response.SseEmitter;
 import top.turboweb.http.session.HttpSession;
 
+import java.io.InputStream;
 import java.util.function.Consumer;
 
 /**
@@ -64,6 +65,17 @@ public interface HttpContext extends ParamBinder {
 	 */
 	FullHttpRequest getRequest();
 
+	/**
+	 * 获取读取请求体的输入流。
+	 * <p>
+	 * 对于标记了 {@code @StreamingBody} 的路由，请求体边接收边读取，读取时可能阻塞，应在虚拟线程中调用；
+	 * 其余请求直接读取已聚合的请求体。请求体只能被读取一次。
+	 * </p>
+	 *
+	 * @return 请求体输入流
+	 */
+	InputStream bodyStream();
+
 	/**
 	 * 获取连接会话。
 	 *
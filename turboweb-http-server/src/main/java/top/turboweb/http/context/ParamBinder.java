@@ -131,6 +131,10 @@ public interface ParamBinder {
 
     /**
      * 将查询参数封装为对象
+     * <p>
+     * 通过 json 序列化器绑定，对象中不存在的参数会导致绑定失败。
+     * 使用 {@code @QueryModel} 注解的处理器参数在能够预编译时不经过 json 序列化器，会忽略未知的参数。
+     * </p>
      *
      * @param beanType 对象类型
      * @return 对象
@@ -148,8 +152,20 @@ public interface ParamBinder {
      */
     <T> T loadValidQuery(Class<T> beanType, Class<?>... groups);
 
+    /**
+     * 获取表单参数的所有值
+     *
+     * @param name 参数名
+     * @return 参数值，不存在时返回空列表
+     */
+    List<String> forms(String name);
+
     /**
      * 将表单参数封装成对象
+     * <p>
+     * 通过 json 序列化器绑定，对象中不存在的参数会导致绑定失败。
+     * 使用 {@code @FormModel} 注解的处理器参数在能够预编译时不经过 json 序列化器，会忽略未知的参数。
+     * </p>
      *
      * @param beanType 对象类型
      * @return 对象
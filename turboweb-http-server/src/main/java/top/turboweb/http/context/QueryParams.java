@@ -0,0 +1,316 @@
+package top.turboweb.http.context;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * 查询参数解析器。
+ * <p>
+ * 对 URI 的查询部分只扫描一次，仅记录每个参数名和参数值的偏移量，不创建字符串。
+ * 参数值在首次读取时才进行 UTF-8 百分号解码并缓存，数值类型的参数在不含转义字符时直接从 URI 中解析。
+ * </p>
+ * <p>
+ * 解析规则与 {@code URIBuilder} 相同：{@code +} 不解码为空格，没有 {@code =} 的参数值为 {@code null}，
+ * 参数名为空的参数会被忽略。不合法的转义序列按原样保留。
+ * </p>
+ */
+public class QueryParams {
+
+    private static final int[] EMPTY_OFFSETS = new int[0];
+
+    private final String uri;
+    /**
+     * 每个参数占三个位置：参数名起始、参数名结束（即 {@code =} 的位置）、参数结束，
+     * 参数名结束与参数结束相同时表示参数没有值
+     */
+    private final int[] offsets;
+    private final int size;
+    /**
+     * 解码后的参数名，只记录包含转义字符的参数名
+     */
+    private final String[] decodedNames;
+    /**
+     * 解码后的参数值，首次读取时创建
+     */
+    private String[] decodedValues;
+
+    private QueryParams(String uri, int[] offsets, int size, String[] decodedNames) {
+        this.uri = uri;
+        this.offsets = offsets;
+        this.size = size;
+        this.decodedNames = decodedNames;
+    }
+
+    /**
+     * 解析 URI 中的查询参数
+     *
+     * @param uri 请求的 URI
+     * @return 查询参数
+     */
+    public static QueryParams parse(String uri) {
+        int start = uri.indexOf('?');
+        if (start < 0) {
+            return new QueryParams(uri, EMPTY_OFFSETS, 0, null);
+        }
+        int end = uri.indexOf('#', start);
+        if (end < 0) {
+            end = uri.length();
+        }
+        int[] offsets = new int[12];
+        String[] decodedNames = null;
+        int size = 0;
+        int segmentStart = start + 1;
+        int nameEnd = -1;
+        boolean nameEscaped = false;
+        for (int i = segmentStart; i <= end; i++) {
+            char c = i == end ? '&' : uri.charAt(i);
+            if (c == '=' && nameEnd < 0) {
+                nameEnd = i;
+            } else if (c == '%' && nameEnd < 0) {
+                nameEscaped = true;
+            } else if (c == '&') {
+                if (nameEnd < 0) {
+                    nameEnd = i;
+                }
+                // 忽略参数名为空的参数
+                if (nameEnd > segmentStart) {
+                    if (size * 3 == offsets.length) {
+                        offsets = Arrays.copyOf(offsets, offsets.length * 2);
+                    }
+                    offsets[size * 3] = segmentStart;
+                    offsets[size * 3 + 1] = nameEnd;
+                    offsets[size * 3 + 2] = i;
+                    if (nameEscaped) {
+                        if (decodedNames == null || decodedNames.length <= size) {
+                            decodedNames = decodedNames == null ? new String[offsets.length / 3] : Arrays.copyOf(decodedNames, offsets.length / 3);
+                        }
+                        decodedNames[size] = decode(uri, segmentStart, nameEnd);
+                    }
+                    size++;
+                }
+                segmentStart = i + 1;
+                nameEnd = -1;
+                nameEscaped = false;
+            }
+        }
+        return new QueryParams(uri, offsets, size, decodedNames);
+    }
+
+    /**
+     * 获取参数的数量
+     *
+     * @return 参数数量，同名参数分别计数
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 查找参数第一次出现的位置
+     *
+     * @param name 参数名
+     * @return 参数的下标，不存在时返回-1
+     */
+    public int indexOf(String name) {
+        return indexOf(name, 0);
+    }
+
+    /**
+     * 从指定下标开始查找参数
+     *
+     * @param name 参数名
+     * @param from 起始下标
+     * @return 参数的下标，不存在时返回-1
+     */
+    public int indexOf(String name, int from) {
+        for (int i = from; i < size; i++) {
+            if (nameEquals(i, name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private boolean nameEquals(int index, String name) {
+        if (decodedNames != null && index < decodedNames.length && decodedNames[index] != null) {
+            return decodedNames[index].equals(name);
+        }
+        int start = offsets[index * 3];
+        int length = offsets[index * 3 + 1] - start;
+        return length == name.length() && uri.regionMatches(start, name, 0, length);
+    }
+
+    /**
+     * 获取参数名
+     *
+     * @param index 参数下标
+     * @return 解码后的参数名
+     */
+    public String name(int index) {
+        if (decodedNames != null && index < decodedNames.length && decodedNames[index] != null) {
+            return decodedNames[index];
+        }
+        return uri.substring(offsets[index * 3], offsets[index * 3 + 1]);
+    }
+
+    /**
+     * 判断参数是否有值（包含 {@code =}）
+     *
+     * @param index 参数下标
+     * @return 是否有值
+     */
+    public boolean hasValue(int index) {
+        return offsets[index * 3 + 1] < offsets[index * 3 + 2];
+    }
+
+    /**
+     * 获取解码后的参数值
+     *
+     * @param index 参数下标
+     * @return 参数值，没有值时返回null
+     */
+    public String value(int index) {
+        if (!hasValue(index)) {
+            return null;
+        }
+        if (decodedValues == null) {
+            decodedValues = new String[size];
+        }
+        String value = decodedValues[index];
+        if (value == null) {
+            value = decode(uri, offsets[index * 3 + 1] + 1, offsets[index * 3 + 2]);
+            decodedValues[index] = value;
+        }
+        return value;
+    }
+
+    /**
+     * 将参数值解析为 int，不含转义字符时不创建字符串
+     *
+     * @param index 参数下标
+     * @return 参数值
+     * @throws NumberFormatException 参数没有值或格式错误时抛出
+     */
+    public int intValue(int index) {
+        int start = offsets[index * 3 + 1] + 1;
+        int end = offsets[index * 3 + 2];
+        if (hasValue(index) && !hasEscape(start, end)) {
+            return Integer.parseInt(uri, start, end, 10);
+        }
+        return Integer.parseInt(value(index));
+    }
+
+    /**
+     * 将参数值解析为 long，不含转义字符时不创建字符串
+     *
+     * @param index 参数下标
+     * @return 参数值
+     * @throws NumberFormatException 参数没有值或格式错误时抛出
+     */
+    public long longValue(int index) {
+        int start = offsets[index * 3 + 1] + 1;
+        int end = offsets[index * 3 + 2];
+        if (hasValue(index) && !hasEscape(start, end)) {
+            return Long.parseLong(uri, start, end, 10);
+        }
+        return Long.parseLong(value(index));
+    }
+
+    private boolean hasEscape(int start, int end) {
+        int index = uri.indexOf('%', start);
+        return index >= 0 && index < end;
+    }
+
+    /**
+     * 获取参数的第一个值
+     *
+     * @param name 参数名
+     * @return 参数值，参数不存在或没有值时返回null
+     */
+    public String first(String name) {
+        int index = indexOf(name);
+        return index < 0 ? null : value(index);
+    }
+
+    /**
+     * 获取参数的所有值
+     *
+     * @param name 参数名
+     * @return 参数值，参数不存在时返回空列表
+     */
+    public List<String> all(String name) {
+        int index = indexOf(name);
+        if (index < 0) {
+            return List.of();
+        }
+        int next = indexOf(name, index + 1);
+        if (next < 0) {
+            // 值可能为null，不能使用 List.of
+            return Collections.singletonList(value(index));
+        }
+        List<String> values = new ArrayList<>(4);
+        values.add(value(index));
+        for (; next >= 0; next = indexOf(name, next + 1)) {
+            values.add(value(next));
+        }
+        return values;
+    }
+
+    /**
+     * 转换为参数名到参数值的映射
+     *
+     * @return 参数映射
+     */
+    public Map<String, List<String>> toMap() {
+        Map<String, List<String>> map = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            map.computeIfAbsent(name(i), k -> new ArrayList<>(1)).add(value(i));
+        }
+        return map;
+    }
+
+    /**
+     * 对 URI 中的一段进行 UTF-8 百分号解码
+     *
+     * @param s     URI
+     * @param start 起始位置
+     * @param end   结束位置
+     * @return 解码后的字符串
+     */
+    private static String decode(String s, int start, int end) {
+        int percent = s.indexOf('%', start);
+        if (percent < 0 || percent >= end) {
+            return s.substring(start, end);
+        }
+        byte[] bytes = new byte[(end - start) * 3];
+        int length = 0;
+        int i = start;
+        while (i < end) {
+            char c = s.charAt(i);
+            if (c == '%' && i + 2 < end) {
+                int high = Character.digit(s.charAt(i + 1), 16);
+                int low = Character.digit(s.charAt(i + 2), 16);
+                if (high >= 0 && low >= 0) {
+                    bytes[length++] = (byte) ((high << 4) + low);
+                    i += 3;
+                    continue;
+                }
+            }
+            if (c < 0x80) {
+                bytes[length++] = (byte) c;
+                i++;
+                continue;
+            }
+            // URI 中未编码的非 ASCII 字符，连续的一段一起编码
+            int runEnd = i + 1;
+            while (runEnd < end && s.charAt(runEnd) >= 0x80) {
+                runEnd++;
+            }
+            byte[] encoded = s.substring(i, runEnd).getBytes(StandardCharsets.UTF_8);
+            System.arraycopy(encoded, 0, bytes, length, encoded.length);
+            length += encoded.length;
+            i = runEnd;
+        }
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+}
@@ -1,8 +1,12 @@
 package top.turboweb.http.context.content;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.handler.codec.http.DefaultHttpContent;
+import io.netty.handler.codec.http.DefaultHttpRequest;
 import io.netty.handler.codec.http.FullHttpRequest;
 import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.LastHttpContent;
 import io.netty.handler.codec.http.multipart.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -10,6 +14,7 @@ import top.turboweb.commons.exception.TurboHttpParseException;
 import top.turboweb.commons.utils.base.HttpRequestUtils;
 
 import java.io.IOException;
+import java.nio.charset.Charset;
 import java.util.*;
 
 /**
@@ -23,6 +28,8 @@ import java.util.*;
  *     <li>JSON 内容只在 Content-Type 为 {@code application/json} 时可用。</li>
  *     <li>表单参数和文件内容只在 Content-Type 为 {@code application/x-www-form-urlencoded} 或
  *         {@code multipart/form-data} 时可用。</li>
+ *     <li>对于 {@link StreamingFullHttpRequest}，JSON 请求体在首次读取时从请求体流中聚合；
+ *         表单与文件边接收边解析，超过 {@link DefaultHttpDataFactory#MINSIZE} 的数据写入临时文件。</li>
  * </ul>
  */
 public class HttpContent {
@@ -31,6 +38,11 @@ public class HttpContent {
     private final FullHttpRequest request;
     private final String contentType;
 
+    /**
+     * 从请求体流中聚合的请求体
+     */
+    private ByteBuf aggregatedContent;
+
     private boolean formIsParsed = false;
 
     /**
@@ -85,14 +97,12 @@ public class HttpContent {
      *                                 请求体内容不是有效 JSON 时抛出
      */
     public String getJsonContent() {
-        if (!HttpHeaderValues.APPLICATION_JSON.contentEquals(contentType)) {
-            throw new TurboHttpParseException("contentType is not application/json");
-        }
+        checkJsonContentType();
         // 判断请求体是否被读取
         if (jsonContent != null) {
             return jsonContent;
         }
-        ByteBuf contentBuf = request.content();
+        ByteBuf contentBuf = content();
         // 序列化为json
         String jsonContent = contentBuf.toString(HttpRequestUtils.getRequestCharset(request));
         if (jsonContent == null || jsonContent.isBlank()) {
@@ -100,13 +110,43 @@ public class HttpContent {
         } else {
             jsonContent = jsonContent.trim();
         }
-        if (jsonContent.startsWith("{") && jsonContent.endsWith("}")) {
+        if ((jsonContent.startsWith("{") && jsonContent.endsWith("}"))
+                || (jsonContent.startsWith("[") && jsonContent.endsWith("]"))) {
             this.jsonContent = jsonContent;
             return jsonContent;
         }
         throw new TurboHttpParseException("The request body is not a valid json");
     }
 
+    /**
+     * 获取 JSON 格式的请求体，不解码为字符串，供序列化器直接解析。
+     *
+     * @return 请求体（不修改读索引），请求体为空或只有空白字符时返回 null
+     * @throws TurboHttpParseException 当 Content-Type 不是 {@code application/json} 时抛出
+     */
+    public ByteBuf getJsonBuf() {
+        checkJsonContentType();
+        ByteBuf contentBuf = content();
+        // 只有空白字符时视为空请求体
+        int index = contentBuf.forEachByte(b -> b == ' ' || b == '\t' || b == '\r' || b == '\n');
+        return index < 0 ? null : contentBuf;
+    }
+
+    /**
+     * 获取请求体的字符集，未在 Content-Type 中声明时使用全局请求字符集。
+     *
+     * @return 字符集
+     */
+    public Charset getCharset() {
+        return HttpRequestUtils.getRequestCharset(request);
+    }
+
+    private void checkJsonContentType() {
+        if (!HttpHeaderValues.APPLICATION_JSON.contentEquals(contentType)) {
+            throw new TurboHttpParseException("contentType is not application/json");
+        }
+    }
+
     /**
      * 获取表单参数。
      *
@@ -143,6 +183,21 @@ public class HttpContent {
         return formFiles;
     }
 
+    /**
+     * 获取请求体，流式请求在首次调用时从请求体流中聚合
+     *
+     * @return 请求体
+     */
+    private ByteBuf content() {
+        if (!(request instanceof StreamingFullHttpRequest streamingRequest)) {
+            return request.content();
+        }
+        if (aggregatedContent == null) {
+            aggregatedContent = streamingRequest.bodyStream().readAll(streamingRequest.maxAggregateLength());
+        }
+        return aggregatedContent;
+    }
+
     /**
      * 解析表单数据，包括普通参数和文件上传。
      *
@@ -152,13 +207,18 @@ public class HttpContent {
     private void parseForm(boolean isMultiPart) {
         Map<String, List<String>> formParams = new HashMap<>();
         Map<String, List<FileUpload>> formFiles = new HashMap<>();
-        // 创建处理器
-        HttpPostRequestDecoder decoder = new HttpPostRequestDecoder(
-                new DefaultHttpDataFactory(Integer.MAX_VALUE),
-                request,
-                HttpRequestUtils.getRequestCharset(request)
-        );
-        List<InterfaceHttpData> httpDataList = decoder.getBodyHttpDatas();
+        List<InterfaceHttpData> httpDataList;
+        if (request instanceof StreamingFullHttpRequest streamingRequest) {
+            httpDataList = decodeStreaming(streamingRequest);
+        } else {
+            // 创建处理器
+            HttpPostRequestDecoder decoder = new HttpPostRequestDecoder(
+                    new DefaultHttpDataFactory(Integer.MAX_VALUE),
+                    request,
+                    HttpRequestUtils.getRequestCharset(request)
+            );
+            httpDataList = decoder.getBodyHttpDatas();
+        }
         // 解析数据
         for (InterfaceHttpData httpData : httpDataList) {
             if (httpData instanceof Attribute attribute) {
@@ -198,6 +258,46 @@ public class HttpContent {
     }
 
 
+    /**
+     * 边接收边解析流式请求的表单数据，超过阈值的字段和文件写入临时文件
+     *
+     * @param streamingRequest 流式请求
+     * @return 解析出的表单数据
+     * @throws TurboHttpParseException 当解析失败时抛出
+     */
+    private List<InterfaceHttpData> decodeStreaming(StreamingFullHttpRequest streamingRequest) {
+        DefaultHttpDataFactory factory = new DefaultHttpDataFactory(DefaultHttpDataFactory.MINSIZE);
+        // 临时文件随数据释放删除，避免长时间运行时 deleteOnExit 占用内存
+        factory.setDeleteOnExit(false);
+        // 只传入请求头，否则解码器会将空的请求内容视为请求体结束
+        HttpRequest headers = new DefaultHttpRequest(request.protocolVersion(), request.method(), request.uri(), request.headers());
+        HttpPostRequestDecoder decoder = new HttpPostRequestDecoder(factory, headers, HttpRequestUtils.getRequestCharset(request));
+        try {
+            RequestBodyStream bodyStream = streamingRequest.bodyStream();
+            ByteBuf chunk;
+            while ((chunk = bodyStream.readChunk()) != null) {
+                try {
+                    decoder.offer(new DefaultHttpContent(chunk));
+                } finally {
+                    chunk.release();
+                }
+            }
+            decoder.offer(LastHttpContent.EMPTY_LAST_CONTENT);
+            List<InterfaceHttpData> httpDataList = new ArrayList<>(decoder.getBodyHttpDatas());
+            // 数据的生命周期交由当前对象管理，解码器销毁时会释放一次全部数据
+            for (InterfaceHttpData httpData : httpDataList) {
+                decoder.removeHttpDataFromClean(httpData);
+                httpData.retain();
+            }
+            return httpDataList;
+        } catch (HttpPostRequestDecoder.ErrorDataDecoderException e) {
+            log.error("解析失败", e);
+            throw new TurboHttpParseException("解析请求体失败");
+        } finally {
+            decoder.destroy();
+        }
+    }
+
     /**
      * 创建一个空的 {@code HttpContent} 实例。
      *
@@ -214,6 +314,10 @@ public class HttpContent {
      * 调用该方法后，文件上传对象中的资源将被释放。
      */
     public void release() {
+        if (aggregatedContent != null) {
+            aggregatedContent.release();
+            aggregatedContent = null;
+        }
         if (formFiles == null || formFiles.isEmpty()) {
             return;
         }
@@ -0,0 +1,297 @@
+package top.turboweb.http.context.content;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import top.turboweb.commons.exception.TurboHttpParseException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.ClosedChannelException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 流式接收的请求体。
+ * <p>
+ * IO线程将收到的请求体分片写入队列，处理请求的虚拟线程从队列中读取。
+ * 队列中缓存的字节数超过 {@code bufferSize} 时暂停读取连接（关闭 autoRead），
+ * 被读取到一半以下时恢复，因此每个连接缓存的请求体大小与请求体总长度无关。
+ * </p>
+ * <p>
+ * 写入方法只能在连接所属的 EventLoop 中调用，读取方法只能由一个线程调用。
+ * </p>
+ */
+public class RequestBodyStream {
+
+    /**
+     * 请求体结束的标记
+     */
+    private static final ByteBuf END = Unpooled.EMPTY_BUFFER;
+
+    private final Channel channel;
+    private final LinkedBlockingQueue<ByteBuf> chunks = new LinkedBlockingQueue<>();
+    private final AtomicLong bufferedBytes = new AtomicLong();
+    private final AtomicBoolean paused = new AtomicBoolean(false);
+    private final int highWaterMark;
+    private final int lowWaterMark;
+    private volatile Throwable cause;
+    private volatile boolean closed;
+    private boolean completed;
+    private boolean finished;
+    private ChunkInputStream inputStream;
+
+    /**
+     * 创建请求体流
+     *
+     * @param channel    连接
+     * @param bufferSize 每个连接最多缓存的请求体字节数
+     */
+    public RequestBodyStream(Channel channel, int bufferSize) {
+        this.channel = channel;
+        this.highWaterMark = bufferSize;
+        this.lowWaterMark = bufferSize >> 1;
+    }
+
+    /**
+     * 写入一个请求体分片，由IO线程调用
+     *
+     * @param chunk 分片，所有权转移给请求体流
+     */
+    public void offer(ByteBuf chunk) {
+        if (closed) {
+            chunk.release();
+            return;
+        }
+        if (!chunk.isReadable()) {
+            chunk.release();
+            return;
+        }
+        long buffered = bufferedBytes.addAndGet(chunk.readableBytes());
+        chunks.offer(chunk);
+        if (buffered >= highWaterMark) {
+            paused.set(true);
+            // 其他处理器可能恢复了读取，超过高水位时总是重新暂停
+            if (channel.config().isAutoRead()) {
+                channel.config().setAutoRead(false);
+            }
+        }
+        // 读取方在入队的同时关闭时，由写入方释放残留的分片
+        if (closed) {
+            drain();
+        }
+    }
+
+    /**
+     * 请求体接收完成，由IO线程调用
+     */
+    public void complete() {
+        completed = true;
+        chunks.offer(END);
+    }
+
+    /**
+     * 请求体接收失败，由IO线程调用
+     *
+     * @param cause 失败原因
+     */
+    public void fail(Throwable cause) {
+        if (completed) {
+            return;
+        }
+        completed = true;
+        this.cause = cause;
+        chunks.offer(END);
+    }
+
+    /**
+     * 读取下一个分片，请求体没有更多数据时返回null
+     * <p>
+     * 调用方负责释放返回的分片。
+     * </p>
+     *
+     * @return 分片
+     * @throws TurboHttpParseException 请求体接收失败或读取被中断时抛出
+     */
+    public ByteBuf readChunk() {
+        if (finished) {
+            return null;
+        }
+        if (closed) {
+            throw new TurboHttpParseException("request body stream is closed");
+        }
+        ByteBuf chunk = chunks.poll();
+        if (chunk == null) {
+            // 队列已空，确保连接没有被暂停，否则永远等不到数据
+            resume();
+            try {
+                chunk = chunks.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new TurboHttpParseException("read request body interrupted");
+            }
+        }
+        if (chunk == END) {
+            finished = true;
+            Throwable cause = this.cause;
+            if (cause != null) {
+                throw new TurboHttpParseException("receive request body failed: " + cause.getMessage());
+            }
+            return null;
+        }
+        if (bufferedBytes.addAndGet(-chunk.readableBytes()) <= lowWaterMark) {
+            resume();
+        }
+        return chunk;
+    }
+
+    /**
+     * 将剩余的请求体全部读取到一个缓冲区中
+     *
+     * @param maxLength 最大长度
+     * @return 请求体
+     * @throws TurboHttpParseException 请求体超过最大长度时抛出
+     */
+    public ByteBuf readAll(int maxLength) {
+        CompositeByteBuf content = channel.alloc().compositeBuffer(Integer.MAX_VALUE);
+        try {
+            ByteBuf chunk;
+            while ((chunk = readChunk()) != null) {
+                if (content.readableBytes() + chunk.readableBytes() > maxLength) {
+                    chunk.release();
+                    throw new TurboHttpParseException("request body is too large, max length: " + maxLength);
+                }
+                content.addComponent(true, chunk);
+            }
+            return content;
+        } catch (RuntimeException e) {
+            content.release();
+            throw e;
+        }
+    }
+
+    /**
+     * 获取读取请求体的输入流，多次调用返回同一个对象
+     *
+     * @return 输入流
+     */
+    public InputStream inputStream() {
+        if (inputStream == null) {
+            inputStream = new ChunkInputStream();
+        }
+        return inputStream;
+    }
+
+    /**
+     * 关闭请求体流，释放缓存的分片，之后收到的分片会被直接丢弃
+     */
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (inputStream != null) {
+            inputStream.releaseCurrent();
+        }
+        drain();
+        resume();
+    }
+
+    /**
+     * 连接断开时调用，唤醒正在等待数据的读取方，由IO线程调用
+     */
+    public void channelInactive() {
+        fail(new ClosedChannelException());
+    }
+
+    private void drain() {
+        ByteBuf chunk;
+        while ((chunk = chunks.poll()) != null) {
+            if (chunk == END) {
+                continue;
+            }
+            bufferedBytes.addAndGet(-chunk.readableBytes());
+            chunk.release();
+        }
+    }
+
+    /**
+     * 恢复读取连接
+     */
+    private void resume() {
+        if (paused.compareAndSet(true, false)) {
+            channel.eventLoop().execute(() -> {
+                // 恢复前写入方可能再次暂停了连接
+                if (!paused.get()) {
+                    channel.config().setAutoRead(true);
+                }
+            });
+        }
+    }
+
+    /**
+     * 基于分片的输入流
+     */
+    private class ChunkInputStream extends InputStream {
+
+        private ByteBuf current;
+
+        @Override
+        public int read() throws IOException {
+            ByteBuf buf = current();
+            if (buf == null) {
+                return -1;
+            }
+            return buf.readByte() & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            ByteBuf buf = current();
+            if (buf == null) {
+                return -1;
+            }
+            int n = Math.min(len, buf.readableBytes());
+            buf.readBytes(b, off, n);
+            return n;
+        }
+
+        @Override
+        public int available() {
+            return current == null ? 0 : current.readableBytes();
+        }
+
+        @Override
+        public void close() {
+            RequestBodyStream.this.close();
+        }
+
+        private void releaseCurrent() {
+            if (current != null) {
+                current.release();
+                current = null;
+            }
+        }
+
+        private ByteBuf current() throws IOException {
+            if (current != null && current.isReadable()) {
+                return current;
+            }
+            if (current != null) {
+                current.release();
+                current = null;
+            }
+            try {
+                current = readChunk();
+            } catch (TurboHttpParseException e) {
+                throw new IOException(e.getMessage(), e);
+            }
+            return current;
+        }
+    }
+}
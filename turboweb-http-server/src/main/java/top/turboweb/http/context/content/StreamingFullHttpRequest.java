@@ -0,0 +1,69 @@
+package top.turboweb.http.context.content;
+
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import io.netty.handler.codec.http.HttpRequest;
+
+/**
+ * 以流的方式接收请求体的请求。
+ * <p>
+ * 请求头解析完成后即交给调度器执行，{@link #content()} 始终为空，请求体通过 {@link #bodyStream()} 读取。
+ * 请求的引用计数归零时关闭请求体流，尚未接收的请求体会被丢弃。
+ * </p>
+ */
+public class StreamingFullHttpRequest extends DefaultFullHttpRequest {
+
+    private final RequestBodyStream bodyStream;
+    private final int maxAggregateLength;
+
+    /**
+     * 创建流式请求
+     *
+     * @param request            请求头
+     * @param bodyStream         请求体流
+     * @param maxAggregateLength 需要将请求体聚合到内存时允许的最大长度
+     */
+    public StreamingFullHttpRequest(HttpRequest request, RequestBodyStream bodyStream, int maxAggregateLength) {
+        super(request.protocolVersion(), request.method(), request.uri(), Unpooled.buffer(0),
+                new DefaultHttpHeaders().set(request.headers()), new DefaultHttpHeaders());
+        this.bodyStream = bodyStream;
+        this.maxAggregateLength = maxAggregateLength;
+    }
+
+    /**
+     * 获取请求体流
+     *
+     * @return 请求体流
+     */
+    public RequestBodyStream bodyStream() {
+        return bodyStream;
+    }
+
+    /**
+     * 获取请求体聚合到内存时允许的最大长度
+     *
+     * @return 最大长度
+     */
+    public int maxAggregateLength() {
+        return maxAggregateLength;
+    }
+
+    @Override
+    public boolean release() {
+        boolean released = super.release();
+        if (released) {
+            bodyStream.close();
+        }
+        return released;
+    }
+
+    @Override
+    public boolean release(int decrement) {
+        boolean released = super.release(decrement);
+        if (released) {
+            bodyStream.close();
+        }
+        return released;
+    }
+}
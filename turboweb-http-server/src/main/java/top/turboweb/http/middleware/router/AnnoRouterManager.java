@@ -4,7 +4,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import top.turboweb.anno.*;
 import top.turboweb.anno.method.*;
+import top.turboweb.anno.param.binder.FormModel;
+import top.turboweb.anno.param.binder.JsonModel;
+import top.turboweb.anno.param.binder.QueryModel;
 import top.turboweb.commons.exception.TurboRouterDefinitionCreateException;
+import top.turboweb.http.context.HttpContext;
 import top.turboweb.http.middleware.Middleware;
 import top.turboweb.http.middleware.router.container.DefaultRouterContainer;
 import top.turboweb.http.middleware.router.container.PathHelper;
@@ -12,11 +16,13 @@ import top.turboweb.http.middleware.router.container.RouterContainer;
 import top.turboweb.http.middleware.router.info.AutoBindRouterDefinition;
 import top.turboweb.http.middleware.router.info.MethodRouterDefinition;
 import top.turboweb.http.middleware.router.info.RouterDefinition;
+import top.turboweb.http.middleware.router.info.RouterInvokerGenerator;
 import top.turboweb.http.middleware.router.info.TrieRouterInfo;
 import top.turboweb.http.middleware.router.info.autobind.*;
 
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
 import java.util.*;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -39,6 +45,10 @@ import java.util.concurrent.locks.ReentrantLock;
  *   <li>支持参数自动绑定（{@code autoBind = true}）。</li>
  *   <li>线程安全初始化（基于 {@link ReentrantLock}）。</li>
  *   <li>支持自定义参数解析器扩展。</li>
+ *   <li>支持为路由方法生成字节码调用器（{@link #enableInvokerGeneration()}）。</li>
+ *   <li>支持通过 {@link StreamingBody} 以流的方式接收请求体。</li>
+ *   <li>支持通过 {@link Priority} 标记路由在调度器限流时的优先级。</li>
+ *   <li>支持通过 {@link NonBlocking} 标记路由直接在IO线程中执行。</li>
  * </ul>
  *
  * <h3>生命周期说明</h3>
@@ -55,6 +65,7 @@ public class AnnoRouterManager extends RouterManager {
     private final Set<ControllerAttribute> controllers = new HashSet<>();
     private final RouterContainer routerContainer = new DefaultRouterContainer();
     private final boolean autoBind;
+    private boolean generateInvoker = false;
     private boolean isInit = false;
     private final ReentrantLock lock = new ReentrantLock();
     private final ArrayList<ParameterInfoParser> parsers = new ArrayList<>();
@@ -151,6 +162,21 @@ public class AnnoRouterManager extends RouterManager {
         return this;
     }
 
+    /**
+     * 开启路由调用器生成。
+     * <p>
+     * 开启后，初始化阶段会为每个路由方法生成一个隐藏类，直接调用控制器方法，
+     * 参数绑定器在启动时解析并内联，请求处理时不再创建参数数组。
+     * 无法生成的方法（如静态方法）会回退到默认的方法句柄调用。
+     * </p>
+     *
+     * @return 当前 {@link AnnoRouterManager} 实例
+     */
+    public AnnoRouterManager enableInvokerGeneration() {
+        this.generateInvoker = true;
+        return this;
+    }
+
     @Override
     public void init(Middleware chain) {
         super.init(chain);
@@ -163,6 +189,7 @@ public class AnnoRouterManager extends RouterManager {
                 return;
             }
             initRouterContainer();
+            routerContainer.compile();
             isInit = true;
         } finally {
             lock.unlock();
@@ -301,13 +328,84 @@ public class AnnoRouterManager extends RouterManager {
         // 获取当前实例对象
         Object instance = routerContainer.getControllerInstances().get(method.getDeclaringClass());
         // 创建路由定义信息
-        RouterDefinition routerDefinition;
+        RouterDefinition routerDefinition = generateInvoker ? generateRouterDefinition(instance, method) : null;
+        if (routerDefinition == null) {
+            if (autoBind) {
+                routerDefinition = new AutoBindRouterDefinition(parsers, instance, method);
+            } else {
+                routerDefinition = new MethodRouterDefinition(instance, method);
+            }
+        }
+        if (method.isAnnotationPresent(StreamingBody.class)) {
+            markStreaming(routerDefinition);
+        }
+        if (method.isAnnotationPresent(NonBlocking.class)) {
+            if (method.isAnnotationPresent(StreamingBody.class)) {
+                throw new TurboRouterDefinitionCreateException("@NonBlocking can not be used with @StreamingBody: " + method);
+            }
+            markNonBlocking(routerDefinition);
+        }
+        Priority priority = method.isAnnotationPresent(Priority.class)
+                ? method.getAnnotation(Priority.class)
+                : method.getDeclaringClass().getAnnotation(Priority.class);
+        if (priority != null) {
+            markPriority(routerDefinition, priority.value());
+        }
+        markBindTypes(method);
+        parsePathAndSaveDefinition(method, path, routerDefinition);
+    }
+
+    /**
+     * 记录方法绑定的请求模型与返回值类型
+     *
+     * @param method 方法信息
+     */
+    private void markBindTypes(Method method) {
+        for (Parameter parameter : method.getParameters()) {
+            if (parameter.isAnnotationPresent(JsonModel.class)
+                    || parameter.isAnnotationPresent(QueryModel.class)
+                    || parameter.isAnnotationPresent(FormModel.class)) {
+                markBindType(parameter.getType());
+            }
+        }
+        Class<?> returnType = method.getReturnType();
+        // 只记录用户定义的实体类型，框架的响应类型、JDK类型与接口由序列化器按运行时类型处理
+        if (returnType.isPrimitive() || returnType.isArray() || returnType.isInterface()
+                || Modifier.isAbstract(returnType.getModifiers())) {
+            return;
+        }
+        String name = returnType.getName();
+        if (name.startsWith("java.") || name.startsWith("javax.") || name.startsWith("top.turboweb.")
+                || name.startsWith("io.netty.") || name.startsWith("reactor.")) {
+            return;
+        }
+        markBindType(returnType);
+    }
+
+    /**
+     * 生成路由调用器
+     *
+     * @param instance 控制器实例
+     * @param method 方法信息
+     * @return 路由定义信息，无法生成时返回null
+     */
+    private RouterDefinition generateRouterDefinition(Object instance, Method method) {
+        ParameterBinder[] binders;
         if (autoBind) {
-            routerDefinition = new AutoBindRouterDefinition(parsers, instance, method);
+            binders = AutoBindRouterDefinition.parseBinders(parsers, method);
         } else {
-            routerDefinition = new MethodRouterDefinition(instance, method);
+            // 未开启自动绑定时，方法参数只能有一个HttpContext，交由MethodRouterDefinition校验
+            if (method.getParameterCount() != 1 || method.getParameterTypes()[0] != HttpContext.class) {
+                return null;
+            }
+            binders = new ParameterBinder[1];
+        }
+        try {
+            return RouterInvokerGenerator.generate(instance, method, binders);
+        } catch (TurboRouterDefinitionCreateException e) {
+            log.warn("路由调用器生成失败，使用方法句柄调用：{}", method, e);
+            return null;
         }
-        parsePathAndSaveDefinition(method, path, routerDefinition);
     }
 
     /**
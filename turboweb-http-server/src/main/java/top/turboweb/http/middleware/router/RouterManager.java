@@ -1,16 +1,24 @@
 package top.turboweb.http.middleware.router;
 
+import io.netty.handler.codec.http.HttpMethod;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import top.turboweb.anno.Priority;
 import top.turboweb.commons.exception.TurboRequestException;
 import top.turboweb.commons.exception.TurboRouterException;
 import top.turboweb.http.context.HttpContext;
 import top.turboweb.http.middleware.Middleware;
+import top.turboweb.http.middleware.router.container.CompiledRouterTable;
 import top.turboweb.http.middleware.router.container.RouterContainer;
 import top.turboweb.http.middleware.router.info.RouterDefinition;
 
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * TurboWeb用于管理controller路由的抽象类
@@ -19,6 +27,26 @@ public abstract class RouterManager extends Middleware {
 
     private static final Logger log = LoggerFactory.getLogger(RouterManager.class);
 
+    /**
+     * 以流的方式接收请求体的路由
+     */
+    private final Set<RouterDefinition> streamingDefinitions = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    /**
+     * 在IO线程中执行的路由，值为在IO线程中执行超时的次数
+     */
+    private final Map<RouterDefinition, AtomicInteger> nonBlockingDefinitions = new ConcurrentHashMap<>();
+
+    /**
+     * 标记了调度优先级的路由
+     */
+    private final Map<RouterDefinition, Priority.Level> priorities = new IdentityHashMap<>();
+
+    /**
+     * 路由绑定的请求模型与返回值类型
+     */
+    private final Set<Class<?>> bindTypes = new LinkedHashSet<>();
+
     @Override
     public Object invoke(HttpContext ctx) {
         // 匹配路由的定义信息
@@ -44,6 +72,155 @@ public abstract class RouterManager extends Middleware {
 
     protected abstract RouterContainer getRouterContainer();
 
+    /**
+     * 标记路由以流的方式接收请求体，需要在初始化阶段调用
+     *
+     * @param definition 路由定义信息
+     */
+    protected void markStreaming(RouterDefinition definition) {
+        streamingDefinitions.add(definition);
+    }
+
+    /**
+     * 标记路由直接在IO线程中执行，需要在初始化阶段调用
+     *
+     * @param definition 路由定义信息
+     */
+    protected void markNonBlocking(RouterDefinition definition) {
+        nonBlockingDefinitions.put(definition, new AtomicInteger());
+    }
+
+    /**
+     * 标记路由的调度优先级，需要在初始化阶段调用
+     *
+     * @param definition 路由定义信息
+     * @param level      优先级
+     */
+    protected void markPriority(RouterDefinition definition, Priority.Level level) {
+        priorities.put(definition, level);
+    }
+
+    /**
+     * 记录路由绑定的请求模型或返回值类型，需要在初始化阶段调用
+     *
+     * @param type 类型
+     */
+    protected void markBindType(Class<?> type) {
+        bindTypes.add(type);
+    }
+
+    /**
+     * 获取路由绑定的请求模型与返回值类型，用于在启动阶段预先准备json序列化器。
+     *
+     * @return 类型集合
+     */
+    public Set<Class<?>> getBindTypes() {
+        return Collections.unmodifiableSet(bindTypes);
+    }
+
+    /**
+     * 判断请求是否命中以流的方式接收请求体的路由。
+     * <p>
+     * 在IO线程中请求头解析完成后调用，只查找路由，不解析路径参数。
+     * </p>
+     *
+     * @param method 请求方式
+     * @param uri    请求URI
+     * @return 是否以流的方式接收请求体
+     */
+    public boolean isStreamingRequest(HttpMethod method, String uri) {
+        if (streamingDefinitions.isEmpty()) {
+            return false;
+        }
+        RouterDefinition definition = lookupDefinition(method, uri);
+        return definition != null && streamingDefinitions.contains(definition);
+    }
+
+    /**
+     * 判断是否存在在IO线程中执行的路由
+     *
+     * @return 是否存在
+     */
+    public boolean hasNonBlockingRoutes() {
+        return !nonBlockingDefinitions.isEmpty();
+    }
+
+    /**
+     * 判断请求是否命中在IO线程中执行的路由。
+     * <p>
+     * 在IO线程中调度请求时调用，只查找路由，不解析路径参数。
+     * </p>
+     *
+     * @param method 请求方式
+     * @param uri    请求URI
+     * @return 是否在IO线程中执行
+     */
+    public boolean isNonBlockingRequest(HttpMethod method, String uri) {
+        if (nonBlockingDefinitions.isEmpty()) {
+            return false;
+        }
+        RouterDefinition definition = lookupDefinition(method, uri);
+        return definition != null && nonBlockingDefinitions.containsKey(definition);
+    }
+
+    /**
+     * 记录请求命中的路由在IO线程中执行超时，超时次数达到上限后该路由改为在虚拟线程中执行
+     *
+     * @param method   请求方式
+     * @param uri      请求URI
+     * @param maxTimes 超时次数的上限
+     * @return 路由是否因此改为在虚拟线程中执行
+     */
+    public boolean reportBlocking(HttpMethod method, String uri, int maxTimes) {
+        RouterDefinition definition = lookupDefinition(method, uri);
+        if (definition == null) {
+            return false;
+        }
+        AtomicInteger times = nonBlockingDefinitions.get(definition);
+        if (times == null || times.incrementAndGet() < maxTimes) {
+            return false;
+        }
+        return nonBlockingDefinitions.remove(definition) != null;
+    }
+
+    /**
+     * 获取请求命中的路由标记的调度优先级。
+     * <p>
+     * 在调度器等待许可前调用，只查找路由，不解析路径参数。
+     * </p>
+     *
+     * @param method 请求方式
+     * @param uri    请求URI
+     * @return 优先级，路由不存在或未标记时返回null
+     */
+    public Priority.Level getPriority(HttpMethod method, String uri) {
+        if (priorities.isEmpty()) {
+            return null;
+        }
+        RouterDefinition definition = lookupDefinition(method, uri);
+        return definition == null ? null : priorities.get(definition);
+    }
+
+    /**
+     * 查找请求命中的路由，不解析路径参数
+     *
+     * @param method 请求方式
+     * @param uri    请求URI
+     * @return 路由定义信息，不存在时返回null
+     */
+    private RouterDefinition lookupDefinition(HttpMethod method, String uri) {
+        CompiledRouterTable compiledTable = getRouterContainer().getCompiledTable();
+        if (compiledTable != null) {
+            return compiledTable.lookup(method, uri);
+        }
+        RouterDefinition definition = getRouterContainer().exactMatch(method.name(), uri);
+        if (definition == null) {
+            RouterContainer.TrieMatchResult matchResult = getRouterContainer().trieMatch(method.name(), uri);
+            definition = matchResult == null ? null : matchResult.definition();
+        }
+        return definition;
+    }
+
     /**
      * 子类通过实现该方法根据自身策略匹配路由定义信息
      *
@@ -59,6 +236,11 @@ public abstract class RouterManager extends Middleware {
         if (method == null || path == null || method.isEmpty() || path.isEmpty()) {
             throw new TurboRequestException("request method and request uri is null or empty");
         }
+        // 优先使用编译后的路由表
+        CompiledRouterTable compiledTable = getRouterContainer().getCompiledTable();
+        if (compiledTable != null) {
+            return compiledTable.match(ctx.getRequest().method(), path, ctx);
+        }
         // 尝试进行精确匹配
         RouterDefinition routerDefinition = getRouterContainer().exactMatch(method, path);
         if (routerDefinition != null) {
@@ -93,5 +275,10 @@ public abstract class RouterManager extends Middleware {
         if (getNext() != null) {
             log.warn("RouterManager can not set next middleware");
         }
+        // 编译路由表
+        RouterContainer routerContainer = getRouterContainer();
+        if (routerContainer != null) {
+            routerContainer.compile();
+        }
     }
 }
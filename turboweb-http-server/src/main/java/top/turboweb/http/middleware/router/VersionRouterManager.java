@@ -1,5 +1,6 @@
 package top.turboweb.http.middleware.router;
 
+import io.netty.handler.codec.http.HttpMethod;
 import top.turboweb.commons.exception.TurboRouterException;
 import top.turboweb.http.context.HttpContext;
 import top.turboweb.http.middleware.Middleware;
@@ -154,6 +155,20 @@ public abstract class VersionRouterManager extends RouterManager{
         return null;
     }
 
+    /**
+     * 版本在请求头解析阶段无法确定，任一版本的路由管理器以流的方式接收该请求时即返回 {@code true}，
+     * 未以流的方式处理的版本在读取请求体时会将请求体聚合到内存中。
+     */
+    @Override
+    public boolean isStreamingRequest(HttpMethod method, String uri) {
+        for (String version : managers.getVersions()) {
+            if (managers.getRouterManager(version).isStreamingRequest(method, uri)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Override
     public void init(Middleware chain) {
         // 初始化所有路由管理器
@@ -0,0 +1,409 @@
+package top.turboweb.http.middleware.router.container;
+
+import io.netty.handler.codec.http.HttpMethod;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import top.turboweb.commons.exception.TurboMethodNotSupportException;
+import top.turboweb.commons.struct.trie.PathParamType;
+import top.turboweb.http.context.HttpContext;
+import top.turboweb.http.middleware.router.info.ExactRouterInfo;
+import top.turboweb.http.middleware.router.info.RouterDefinition;
+import top.turboweb.http.middleware.router.info.TrieRouterInfo;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 编译后的只读路由表。
+ * <p>
+ * 路由注册完成后，{@link ExactRouterInfo} 与 {@link TrieRouterInfo} 中的全部路由会被编译为按请求方式划分的
+ * 分段前缀树，每个节点的子节点都保存在数组中，子节点较多时额外建立开放寻址的哈希索引。
+ * </p>
+ * <p>
+ * 匹配时直接在请求URI上按下标扫描，不截取、不拆分字符串：
+ * <ul>
+ *     <li>静态路径只沿静态子节点查找，匹配过程不分配任何对象；</li>
+ *     <li>带参数的路径采用深度优先 + 回溯，同一层优先匹配静态节点，再按注册顺序匹配参数节点；</li>
+ *     <li>参数只记录在URI中的起止下标，由 {@link PathParams} 在读取时才截取和解码，int 类型的参数在匹配时直接解析为数值。</li>
+ * </ul>
+ * </p>
+ * <p>
+ * 该类是不可变的，可被多个线程并发读取。
+ * </p>
+ */
+public final class CompiledRouterTable {
+
+    private static final Logger log = LoggerFactory.getLogger(CompiledRouterTable.class);
+
+    /**
+     * 支持的请求方式，下标即路由表中的方法序号
+     */
+    private static final String[] METHODS = {"GET", "POST", "PUT", "DELETE", "PATCH"};
+
+    /**
+     * 静态子节点数量超过该值时建立哈希索引，否则线性扫描
+     */
+    private static final int LINEAR_SCAN_LIMIT = 8;
+
+    private static final String[] NO_PARAMS = new String[0];
+    private static final PathParamType[] NO_PARAM_TYPES = new PathParamType[0];
+
+    /**
+     * 编译后的前缀树节点
+     */
+    private static final class Node {
+        final String[] segments;
+        final Node[] statics;
+        final int[] index;
+        final PathParamType[] paramTypes;
+        final Node[] params;
+        final RouterDefinition definition;
+        final String[] paramNames;
+        final PathParamType[] routeParamTypes;
+
+        Node(String[] segments, Node[] statics, PathParamType[] paramTypes, Node[] params, RouterDefinition definition, String[] paramNames, PathParamType[] routeParamTypes) {
+            this.segments = segments;
+            this.statics = statics;
+            this.paramTypes = paramTypes;
+            this.params = params;
+            this.definition = definition;
+            this.paramNames = paramNames;
+            this.routeParamTypes = routeParamTypes;
+            this.index = segments.length > LINEAR_SCAN_LIMIT ? buildIndex(segments) : null;
+        }
+
+        /**
+         * 查找与URI区间相同的静态子节点
+         *
+         * @param uri   请求URI
+         * @param start 片段起始下标
+         * @param end   片段结束下标
+         * @return 子节点，不存在时返回null
+         */
+        Node findStatic(String uri, int start, int end) {
+            int len = end - start;
+            if (index == null) {
+                for (int i = 0; i < segments.length; i++) {
+                    String segment = segments[i];
+                    if (segment.length() == len && uri.regionMatches(start, segment, 0, len)) {
+                        return statics[i];
+                    }
+                }
+                return null;
+            }
+            int mask = index.length - 1;
+            int slot = spread(hash(uri, start, end)) & mask;
+            for (;;) {
+                int i = index[slot] - 1;
+                if (i < 0) {
+                    return null;
+                }
+                String segment = segments[i];
+                if (segment.length() == len && uri.regionMatches(start, segment, 0, len)) {
+                    return statics[i];
+                }
+                slot = (slot + 1) & mask;
+            }
+        }
+
+        private static int[] buildIndex(String[] segments) {
+            int[] index = new int[Integer.highestOneBit(segments.length * 2 - 1) << 1];
+            int mask = index.length - 1;
+            for (int i = 0; i < segments.length; i++) {
+                int slot = spread(segments[i].hashCode()) & mask;
+                while (index[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                index[slot] = i + 1;
+            }
+            return index;
+        }
+    }
+
+    /**
+     * 编译期使用的可变节点
+     */
+    private static final class BuildNode {
+        final Map<String, BuildNode> statics = new LinkedHashMap<>();
+        final Map<PathParamType, BuildNode> params = new LinkedHashMap<>();
+        RouterDefinition definition;
+        String[] paramNames;
+        PathParamType[] routeParamTypes;
+        String path;
+
+        Node freeze() {
+            String[] segments = statics.keySet().toArray(new String[0]);
+            Node[] staticNodes = new Node[segments.length];
+            int i = 0;
+            for (BuildNode child : statics.values()) {
+                staticNodes[i++] = child.freeze();
+            }
+            PathParamType[] paramTypes = params.keySet().toArray(new PathParamType[0]);
+            Node[] paramNodes = new Node[paramTypes.length];
+            i = 0;
+            for (BuildNode child : params.values()) {
+                paramNodes[i++] = child.freeze();
+            }
+            return new Node(segments, staticNodes, paramTypes, paramNodes, definition,
+                    paramNames == null ? NO_PARAMS : paramNames,
+                    routeParamTypes == null ? NO_PARAM_TYPES : routeParamTypes);
+        }
+    }
+
+    private final Node[] roots;
+    private final int[] maxParams;
+    private final int version;
+    private final int size;
+
+    private CompiledRouterTable(Node[] roots, int[] maxParams, int version, int size) {
+        this.roots = roots;
+        this.maxParams = maxParams;
+        this.version = version;
+        this.size = size;
+    }
+
+    /**
+     * 编译路由表
+     *
+     * @param exactRouterInfo 精确路由信息
+     * @param trieRouterInfo  模板路由信息
+     * @return 编译后的路由表
+     */
+    public static CompiledRouterTable compile(ExactRouterInfo exactRouterInfo, TrieRouterInfo trieRouterInfo) {
+        int version = versionOf(exactRouterInfo, trieRouterInfo);
+        Node[] roots = new Node[METHODS.length];
+        int[] maxParams = new int[METHODS.length];
+        int size = 0;
+        for (int i = 0; i < METHODS.length; i++) {
+            BuildNode root = new BuildNode();
+            for (Map.Entry<String, RouterDefinition> entry : exactRouterInfo.getRouterDefinition(METHODS[i]).entrySet()) {
+                // 模板路由以模板路径的形式同时存在于精确路由中，统一按模板路由编译
+                if (entry.getKey().indexOf('{') >= 0) {
+                    continue;
+                }
+                maxParams[i] = Math.max(maxParams[i], add(root, METHODS[i], entry.getKey(), entry.getValue()));
+                size++;
+            }
+            for (Map.Entry<String, RouterDefinition> entry : trieRouterInfo.getRouterPaths(METHODS[i]).entrySet()) {
+                maxParams[i] = Math.max(maxParams[i], add(root, METHODS[i], entry.getKey(), entry.getValue()));
+                size++;
+            }
+            roots[i] = root.freeze();
+        }
+        log.debug("路由表编译完成，路由数量：{}", size);
+        return new CompiledRouterTable(roots, maxParams, version, size);
+    }
+
+    /**
+     * 计算路由信息的版本，任意路由信息新增路由后版本都会变化
+     *
+     * @param exactRouterInfo 精确路由信息
+     * @param trieRouterInfo  模板路由信息
+     * @return 版本
+     */
+    static int versionOf(ExactRouterInfo exactRouterInfo, TrieRouterInfo trieRouterInfo) {
+        return exactRouterInfo.modCount() + trieRouterInfo.modCount();
+    }
+
+    /**
+     * 将路由加入编译树
+     *
+     * @return 路由的参数数量
+     */
+    private static int add(BuildNode root, String method, String path, RouterDefinition definition) {
+        BuildNode node = root;
+        List<String> names = new ArrayList<>();
+        List<PathParamType> types = new ArrayList<>();
+        for (String segment : path.split("/")) {
+            if (segment.isEmpty()) {
+                continue;
+            }
+            if (segment.startsWith("{") && segment.endsWith("}")) {
+                String inner = segment.substring(1, segment.length() - 1).trim();
+                int colonIndex = inner.indexOf(':');
+                String name = colonIndex > 0 ? inner.substring(0, colonIndex).trim() : inner;
+                PathParamType type = PathParamType.parse(colonIndex > 0 ? inner.substring(colonIndex + 1).trim() : null);
+                node = node.params.computeIfAbsent(type, k -> new BuildNode());
+                names.add(name);
+                types.add(type);
+            } else {
+                node = node.statics.computeIfAbsent(segment, k -> new BuildNode());
+            }
+        }
+        if (node.definition != null) {
+            log.warn("路由 {} {} 与 {} 冲突，请求将匹配到先注册的路由", method, path, node.path);
+            return names.size();
+        }
+        node.definition = definition;
+        node.paramNames = names.toArray(new String[0]);
+        node.routeParamTypes = types.toArray(new PathParamType[0]);
+        node.path = path;
+        return names.size();
+    }
+
+    /**
+     * 只查找路由定义，不解析路径参数，不支持的请求方式返回null
+     *
+     * @param method 请求方式
+     * @param uri    请求URI
+     * @return 路由定义，未匹配时返回null
+     */
+    public RouterDefinition lookup(HttpMethod method, String uri) {
+        if (methodIndex(method) < 0) {
+            return null;
+        }
+        return match(method, uri, null);
+    }
+
+    /**
+     * 匹配路由，带参数的路由会将路径参数注入上下文
+     *
+     * @param method 请求方式
+     * @param uri    请求URI
+     * @param ctx    请求上下文，为null时不注入路径参数
+     * @return 路由定义，未匹配时返回null
+     */
+    public RouterDefinition match(HttpMethod method, String uri, HttpContext ctx) {
+        int methodIndex = methodIndex(method);
+        if (methodIndex < 0) {
+            throw new TurboMethodNotSupportException("不支持的方法:" + method.name());
+        }
+        int end = uri.indexOf('?');
+        if (end < 0) {
+            end = uri.length();
+        }
+        if (end == 0 || uri.charAt(0) != '/') {
+            return null;
+        }
+        // 去除首尾的/
+        int start = 1;
+        while (start < end && uri.charAt(start) == '/') {
+            start++;
+        }
+        while (end > start && uri.charAt(end - 1) == '/') {
+            end--;
+        }
+        Node root = roots[methodIndex];
+        // 静态路径：只沿静态节点查找
+        Node node = root;
+        int pos = start;
+        while (node != null && pos < end) {
+            int segEnd = segmentEnd(uri, pos, end);
+            node = node.findStatic(uri, pos, segEnd);
+            pos = segEnd + 1;
+        }
+        if (node != null && node.definition != null) {
+            return node.definition;
+        }
+        if (maxParams[methodIndex] == 0) {
+            return null;
+        }
+        // 模板路径：回溯匹配
+        int[] bounds = new int[maxParams[methodIndex] << 1];
+        Node found = find(root, uri, start, end, 0, bounds);
+        if (found == null) {
+            return null;
+        }
+        if (ctx == null) {
+            return found.definition;
+        }
+        ctx.injectPathParam(found.paramNames.length == 0 ? Map.of() : new PathParams(uri, found.paramNames, found.routeParamTypes, bounds));
+        return found.definition;
+    }
+
+    private static Node find(Node node, String uri, int pos, int end, int depth, int[] bounds) {
+        if (pos >= end) {
+            return node.definition != null ? node : null;
+        }
+        int segEnd = segmentEnd(uri, pos, end);
+        // 优先匹配静态节点
+        Node child = node.findStatic(uri, pos, segEnd);
+        if (child != null) {
+            Node found = find(child, uri, segEnd + 1, end, depth, bounds);
+            if (found != null) {
+                return found;
+            }
+        }
+        if (segEnd == pos) {
+            return null;
+        }
+        // 按注册顺序匹配参数节点
+        PathParamType[] paramTypes = node.paramTypes;
+        for (int i = 0; i < paramTypes.length; i++) {
+            if (paramTypes[i].matches(uri, pos, segEnd)) {
+                bounds[depth << 1] = pos;
+                bounds[(depth << 1) + 1] = segEnd;
+                Node found = find(node.params[i], uri, segEnd + 1, end, depth + 1, bounds);
+                if (found != null) {
+                    return found;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static int segmentEnd(String uri, int pos, int end) {
+        int index = uri.indexOf('/', pos, end);
+        return index < 0 ? end : index;
+    }
+
+    private static int hash(String s, int start, int end) {
+        int h = 0;
+        for (int i = start; i < end; i++) {
+            h = 31 * h + s.charAt(i);
+        }
+        return h;
+    }
+
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * 获取请求方式在路由表中的序号
+     *
+     * @param method 请求方式
+     * @return 序号，不支持的请求方式返回-1
+     */
+    private static int methodIndex(HttpMethod method) {
+        if (method == HttpMethod.GET) {
+            return 0;
+        } else if (method == HttpMethod.POST) {
+            return 1;
+        } else if (method == HttpMethod.PUT) {
+            return 2;
+        } else if (method == HttpMethod.DELETE) {
+            return 3;
+        } else if (method == HttpMethod.PATCH) {
+            return 4;
+        }
+        return switch (method.name()) {
+            case "GET" -> 0;
+            case "POST" -> 1;
+            case "PUT" -> 2;
+            case "DELETE" -> 3;
+            case "PATCH" -> 4;
+            default -> -1;
+        };
+    }
+
+    /**
+     * 获取编译时路由信息的版本
+     *
+     * @return 版本
+     */
+    int version() {
+        return version;
+    }
+
+    /**
+     * 获取路由数量
+     *
+     * @return 路由数量
+     */
+    public int size() {
+        return size;
+    }
+}
@@ -19,6 +19,7 @@ public class DefaultRouterContainer implements RouterContainer {
     private final ExactRouterInfo exactRouterInfo;
     private final TrieRouterInfo trieRouterInfo;
     private final Map<Class<?>, Object> controllerInstances;
+    private volatile CompiledRouterTable compiledTable;
 
     public DefaultRouterContainer() {
         this.exactRouterInfo = new ExactRouterInfo();
@@ -71,6 +72,30 @@ public class DefaultRouterContainer implements RouterContainer {
         return URLDecoder.decode(value, GlobalConfig.getRequestCharset());
     }
 
+    @Override
+    public synchronized void compile() {
+        compiledTable = CompiledRouterTable.compile(exactRouterInfo, trieRouterInfo);
+    }
+
+    /**
+     * 获取编译后的路由表，编译后又注册了新的路由时会重新编译
+     *
+     * @return 路由表
+     */
+    @Override
+    public CompiledRouterTable getCompiledTable() {
+        CompiledRouterTable table = compiledTable;
+        if (table == null || table.version() != CompiledRouterTable.versionOf(exactRouterInfo, trieRouterInfo)) {
+            synchronized (this) {
+                table = compiledTable;
+                if (table == null || table.version() != CompiledRouterTable.versionOf(exactRouterInfo, trieRouterInfo)) {
+                    table = compiledTable = CompiledRouterTable.compile(exactRouterInfo, trieRouterInfo);
+                }
+            }
+        }
+        return table;
+    }
+
     public ExactRouterInfo getExactRouterInfo() {
         return exactRouterInfo;
     }
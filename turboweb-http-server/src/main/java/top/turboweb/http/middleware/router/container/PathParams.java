@@ -0,0 +1,176 @@
+package top.turboweb.http.middleware.router.container;
+
+import top.turboweb.commons.config.GlobalConfig;
+import top.turboweb.commons.struct.trie.PathParamType;
+
+import java.net.URLDecoder;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * 路径参数的只读映射。
+ * <p>
+ * 路由匹配时只记录每个参数在请求URI中的起止下标，参数值在首次读取时才会截取并进行URL解码，
+ * 解码结果会被缓存。未读取的参数不会产生任何字符串。
+ * 类型为 int 的参数在创建时即解析为 long，通过 {@link #longAt(int)} 读取时无需再次解析字符串。
+ * </p>
+ */
+public final class PathParams extends AbstractMap<String, String> {
+
+    private final String uri;
+    private final String[] names;
+    private final int[] bounds;
+    private final long[] longs;
+    private String[] values;
+
+    /**
+     * 创建路径参数映射
+     *
+     * @param uri    请求URI
+     * @param names  参数名，按参数在路径中的顺序排列
+     * @param types  参数类型，与参数名一一对应
+     * @param bounds 参数的起止下标，第i个参数位于[bounds[2i], bounds[2i+1])
+     */
+    PathParams(String uri, String[] names, PathParamType[] types, int[] bounds) {
+        this.uri = uri;
+        this.names = names;
+        this.bounds = bounds;
+        long[] longs = null;
+        for (int i = 0; i < types.length; i++) {
+            if (types[i] == PathParamType.INT) {
+                if (longs == null) {
+                    longs = new long[names.length];
+                    Arrays.fill(longs, PathParamType.NOT_A_LONG);
+                }
+                longs[i] = PathParamType.parseLong(uri, bounds[i << 1], bounds[(i << 1) + 1]);
+            }
+        }
+        this.longs = longs;
+    }
+
+    /**
+     * 获取参数的下标
+     *
+     * @param name 参数名
+     * @return 下标，不存在时返回-1
+     */
+    public int indexOf(String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 判断参数是否已在匹配时解析为数值
+     *
+     * @param index 参数下标
+     * @return 是否已解析
+     */
+    public boolean hasLong(int index) {
+        return longs != null && longs[index] != PathParamType.NOT_A_LONG;
+    }
+
+    /**
+     * 获取匹配时解析出的数值，调用前需通过 {@link #hasLong(int)} 判断
+     *
+     * @param index 参数下标
+     * @return 数值
+     */
+    public long longAt(int index) {
+        return longs[index];
+    }
+
+    @Override
+    public String get(Object key) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(key)) {
+                return value(i);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 获取指定下标的参数值
+     *
+     * @param index 参数下标
+     * @return 解码后的参数值
+     */
+    public String valueAt(int index) {
+        return value(index);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        for (String name : names) {
+            if (name.equals(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * 获取第i个参数的值
+     *
+     * @param i 参数下标
+     * @return 解码后的参数值
+     */
+    private String value(int i) {
+        if (values == null) {
+            values = new String[names.length];
+        }
+        String value = values[i];
+        if (value == null) {
+            value = uri.substring(bounds[i << 1], bounds[(i << 1) + 1]);
+            if (value.indexOf('%') >= 0 || value.indexOf('+') >= 0) {
+                value = URLDecoder.decode(value, GlobalConfig.getRequestCharset());
+            }
+            values[i] = value;
+        }
+        return value;
+    }
+
+    @Override
+    public Set<Entry<String, String>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<String, String>> iterator() {
+                return new Iterator<>() {
+                    private int index;
+
+                    @Override
+                    public boolean hasNext() {
+                        return index < names.length;
+                    }
+
+                    @Override
+                    public Entry<String, String> next() {
+                        if (index >= names.length) {
+                            throw new NoSuchElementException();
+                        }
+                        int i = index++;
+                        return new SimpleImmutableEntry<>(names[i], value(i));
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return names.length;
+            }
+        };
+    }
+}
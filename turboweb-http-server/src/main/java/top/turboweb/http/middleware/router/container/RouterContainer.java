@@ -55,4 +55,19 @@ public interface RouterContainer {
      * @return 路由定义
      */
     TrieRouterInfo getTrieRouterInfo();
+
+    /**
+     * 将已注册的路由编译为只读路由表，在路由注册完成后调用
+     */
+    default void compile() {
+    }
+
+    /**
+     * 获取编译后的路由表
+     *
+     * @return 路由表，返回null时使用 {@link #exactMatch(String, String)} 与 {@link #trieMatch(String, String)} 匹配
+     */
+    default CompiledRouterTable getCompiledTable() {
+        return null;
+    }
 }
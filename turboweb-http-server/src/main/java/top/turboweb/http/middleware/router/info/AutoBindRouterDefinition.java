@@ -68,6 +68,17 @@ public class AutoBindRouterDefinition implements RouterDefinition {
      * 初始化参数绑定器
      */
     private void initBinders() {
+        this.binders = parseBinders(parsers, method);
+    }
+
+    /**
+     * 依次使用参数解析器解析方法的每个参数，无法解析的参数使用返回null的默认绑定器
+     *
+     * @param parsers 参数解析器
+     * @param method  方法
+     * @return 参数绑定器，与方法参数一一对应
+     */
+    public static ParameterBinder[] parseBinders(List<ParameterInfoParser> parsers, Method method) {
         Parameter[] parameters = method.getParameters();
         ParameterBinder[] binders = new ParameterBinder[parameters.length];
         for (int i = 0; i < parameters.length; i++) {
@@ -84,6 +95,6 @@ public class AutoBindRouterDefinition implements RouterDefinition {
             }
             binders[i] = binder;
         }
-        this.binders = binders;
+        return binders;
     }
 }
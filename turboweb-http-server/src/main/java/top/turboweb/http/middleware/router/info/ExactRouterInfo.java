@@ -12,6 +12,11 @@ public class ExactRouterInfo {
 
     private final Map<String, Map<String, RouterDefinition>> routerStrategy;
 
+    /**
+     * 路由的修改次数，用于判断编译后的路由表是否过期
+     */
+    private volatile int modCount;
+
     {
         routerStrategy = Map.of(
                 "GET", new HashMap<>(),
@@ -53,5 +58,14 @@ public class ExactRouterInfo {
             throw new TurboRouterException("路由重复: method:%s, path:%s".formatted(method, path), TurboRouterException.ROUTER_REPEAT);
         }
         stringRouterDefinitionMap.put(path, routerDefinition);
+        modCount++;
+    }
+
+    /**
+     * 获取路由的修改次数
+     * @return 修改次数
+     */
+    public int modCount() {
+        return modCount;
     }
 }
@@ -0,0 +1,433 @@
+package top.turboweb.http.middleware.router.info;
+
+import top.turboweb.commons.exception.TurboRouterDefinitionCreateException;
+import top.turboweb.http.context.HttpContext;
+import top.turboweb.http.middleware.router.info.autobind.ParameterBinder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 路由调用器生成器。
+ * <p>
+ * 为每个控制器方法生成一个隐藏类（{@link MethodHandles.Lookup#defineHiddenClassWithClassData}），
+ * 隐藏类实现 {@link RouterDefinition}，在 {@code invoke} 中依次调用参数绑定器，再直接调用控制器方法，
+ * 生成的字节码等价于：
+ * <pre>{@code
+ * public Object invoke(HttpContext ctx) {
+ *     return INSTANCE.method((Long) B0.bindParameter(ctx), ctx, (String) B2.bindParameter(ctx));
+ * }
+ * }</pre>
+ * 控制器实例与参数绑定器保存在隐藏类的 static final 字段中，JIT 会将其视为常量，
+ * 绑定器与控制器方法均可被内联，调用过程中不创建参数数组。
+ * </p>
+ * <p>
+ * 隐藏类定义在控制器所在的包中，并作为控制器的嵌套成员，可以访问私有的控制器方法及同一嵌套中的私有类型；
+ * 控制器方法必须是非静态方法，参数与返回值的类型必须能被控制器访问，
+ * 无法生成时抛出 {@link TurboRouterDefinitionCreateException}，由调用方决定是否回退到 {@link java.lang.invoke.MethodHandle} 方式。
+ * </p>
+ */
+public final class RouterInvokerGenerator {
+
+    private static final int CLASS_VERSION = 61;
+
+    private static final int ACC_PUBLIC = 0x0001;
+    private static final int ACC_PRIVATE = 0x0002;
+    private static final int ACC_STATIC = 0x0008;
+    private static final int ACC_FINAL = 0x0010;
+    private static final int ACC_SUPER = 0x0020;
+
+    private static final int ACONST_NULL = 0x01;
+    private static final int SIPUSH = 0x11;
+    private static final int LDC_W = 0x13;
+    private static final int ALOAD_0 = 0x2a;
+    private static final int ALOAD_1 = 0x2b;
+    private static final int AALOAD = 0x32;
+    private static final int ASTORE_0 = 0x4b;
+    private static final int ARETURN = 0xb0;
+    private static final int RETURN = 0xb1;
+    private static final int GETSTATIC = 0xb2;
+    private static final int PUTSTATIC = 0xb3;
+    private static final int INVOKEVIRTUAL = 0xb6;
+    private static final int INVOKESPECIAL = 0xb7;
+    private static final int INVOKESTATIC = 0xb8;
+    private static final int INVOKEINTERFACE = 0xb9;
+    private static final int CHECKCAST = 0xc0;
+
+    private static final String OBJECT = "java/lang/Object";
+    private static final String BINDER = internalName(ParameterBinder.class);
+    private static final String BINDER_DESC = ParameterBinder.class.descriptorString();
+    private static final String INVOKE_DESC = MethodType.methodType(Object.class, HttpContext.class).toMethodDescriptorString();
+    private static final String BIND_DESC = INVOKE_DESC;
+
+    private RouterInvokerGenerator() {
+    }
+
+    /**
+     * 生成路由调用器
+     *
+     * @param instance 控制器实例
+     * @param method   控制器方法
+     * @param binders  参数绑定器，与方法参数一一对应，为 null 的位置直接传入 {@link HttpContext}
+     * @return 路由定义信息
+     * @throws TurboRouterDefinitionCreateException 无法生成时抛出
+     */
+    public static RouterDefinition generate(Object instance, Method method, ParameterBinder[] binders) {
+        Class<?> owner = method.getDeclaringClass();
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        if (Modifier.isStatic(method.getModifiers())) {
+            throw new TurboRouterDefinitionCreateException("static method is not supported: " + method);
+        }
+        if (binders.length != parameterTypes.length) {
+            throw new TurboRouterDefinitionCreateException("binder count mismatch: " + method);
+        }
+        for (int i = 0; i < binders.length; i++) {
+            if (binders[i] == null && !parameterTypes[i].isAssignableFrom(HttpContext.class)) {
+                throw new TurboRouterDefinitionCreateException("parameter " + i + " can not accept HttpContext: " + method);
+            }
+        }
+        // 类数据：控制器实例 + 非空的绑定器
+        int fieldCount = 1;
+        for (ParameterBinder binder : binders) {
+            if (binder != null) {
+                fieldCount++;
+            }
+        }
+        Object[] classData = new Object[fieldCount];
+        classData[0] = instance;
+        int fieldIndex = 1;
+        for (ParameterBinder binder : binders) {
+            if (binder != null) {
+                classData[fieldIndex++] = binder;
+            }
+        }
+        if (!owner.isInstance(instance)) {
+            throw new TurboRouterDefinitionCreateException("instance is not a " + owner.getName() + ": " + method);
+        }
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(owner, MethodHandles.lookup());
+            // 隐藏类是控制器的嵌套成员，与控制器具有相同的访问权限，无法访问的类型在这里失败，而不是在第一次请求时
+            lookup.accessClass(owner);
+            for (Class<?> parameterType : parameterTypes) {
+                lookup.accessClass(parameterType);
+            }
+            lookup.accessClass(method.getReturnType());
+            byte[] bytes = generateClass(internalName(owner) + "$$TurboInvoker", owner, method, binders);
+            MethodHandles.Lookup hidden = lookup.defineHiddenClassWithClassData(bytes, classData, true, MethodHandles.Lookup.ClassOption.NESTMATE);
+            return (RouterDefinition) hidden.findConstructor(hidden.lookupClass(), MethodType.methodType(void.class)).invoke();
+        } catch (Throwable e) {
+            throw new TurboRouterDefinitionCreateException(e);
+        }
+    }
+
+    /**
+     * 生成隐藏类的字节码
+     */
+    private static byte[] generateClass(String className, Class<?> owner, Method method, ParameterBinder[] binders) throws IOException {
+        ConstantPool cp = new ConstantPool();
+        int thisClass = cp.classRef(className);
+        int superClass = cp.classRef(OBJECT);
+        int routerDefinition = cp.classRef(internalName(RouterDefinition.class));
+        int code = cp.utf8("Code");
+
+        // 字段：INSTANCE、B0..Bn
+        String ownerDesc = owner.descriptorString();
+        int instanceField = cp.fieldRef(className, "INSTANCE", ownerDesc);
+        int[] binderFields = new int[binders.length];
+        for (int i = 0; i < binders.length; i++) {
+            if (binders[i] != null) {
+                binderFields[i] = cp.fieldRef(className, "B" + i, BINDER_DESC);
+            }
+        }
+
+        ByteArrayOutputStream methods = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(methods);
+        writeConstructor(out, cp, code);
+        writeClassInit(out, cp, code, owner, instanceField, binders, binderFields);
+        writeInvoke(out, cp, code, owner, method, instanceField, binderFields);
+
+        ByteArrayOutputStream fields = new ByteArrayOutputStream();
+        DataOutputStream fieldOut = new DataOutputStream(fields);
+        writeField(fieldOut, cp, "INSTANCE", ownerDesc);
+        int fieldCount = 1;
+        for (int i = 0; i < binders.length; i++) {
+            if (binders[i] != null) {
+                writeField(fieldOut, cp, "B" + i, BINDER_DESC);
+                fieldCount++;
+            }
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream classOut = new DataOutputStream(bytes);
+        classOut.writeInt(0xCAFEBABE);
+        classOut.writeShort(0);
+        classOut.writeShort(CLASS_VERSION);
+        cp.writeTo(classOut);
+        classOut.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+        classOut.writeShort(thisClass);
+        classOut.writeShort(superClass);
+        classOut.writeShort(1);
+        classOut.writeShort(routerDefinition);
+        classOut.writeShort(fieldCount);
+        fields.writeTo(classOut);
+        classOut.writeShort(3);
+        methods.writeTo(classOut);
+        // 类属性
+        classOut.writeShort(0);
+        classOut.flush();
+        return bytes.toByteArray();
+    }
+
+    private static void writeField(DataOutputStream out, ConstantPool cp, String name, String desc) throws IOException {
+        out.writeShort(ACC_PRIVATE | ACC_STATIC | ACC_FINAL);
+        out.writeShort(cp.utf8(name));
+        out.writeShort(cp.utf8(desc));
+        out.writeShort(0);
+    }
+
+    /**
+     * public 无参构造器
+     */
+    private static void writeConstructor(DataOutputStream out, ConstantPool cp, int code) throws IOException {
+        Bytecode bc = new Bytecode();
+        bc.op(ALOAD_0);
+        bc.op(INVOKESPECIAL).u2(cp.methodRef(OBJECT, "<init>", "()V", false));
+        bc.op(RETURN);
+        writeMethod(out, cp, code, ACC_PUBLIC, "<init>", "()V", bc, 1, 1);
+    }
+
+    /**
+     * 静态初始化：从类数据中读取控制器实例与绑定器
+     */
+    private static void writeClassInit(DataOutputStream out, ConstantPool cp, int code, Class<?> owner,
+                                       int instanceField, ParameterBinder[] binders, int[] binderFields) throws IOException {
+        Bytecode bc = new Bytecode();
+        bc.op(INVOKESTATIC).u2(cp.methodRef("java/lang/invoke/MethodHandles", "lookup",
+                "()Ljava/lang/invoke/MethodHandles$Lookup;", false));
+        bc.op(LDC_W).u2(cp.string("_"));
+        bc.op(LDC_W).u2(cp.classRef("[Ljava/lang/Object;"));
+        bc.op(INVOKESTATIC).u2(cp.methodRef("java/lang/invoke/MethodHandles", "classData",
+                "(Ljava/lang/invoke/MethodHandles$Lookup;Ljava/lang/String;Ljava/lang/Class;)Ljava/lang/Object;", false));
+        bc.op(CHECKCAST).u2(cp.classRef("[Ljava/lang/Object;"));
+        bc.op(ASTORE_0);
+        bc.op(ALOAD_0).op(SIPUSH).u2(0).op(AALOAD);
+        bc.op(CHECKCAST).u2(cp.classRef(internalName(owner)));
+        bc.op(PUTSTATIC).u2(instanceField);
+        int dataIndex = 1;
+        for (int i = 0; i < binders.length; i++) {
+            if (binders[i] == null) {
+                continue;
+            }
+            bc.op(ALOAD_0).op(SIPUSH).u2(dataIndex++).op(AALOAD);
+            bc.op(CHECKCAST).u2(cp.classRef(BINDER));
+            bc.op(PUTSTATIC).u2(binderFields[i]);
+        }
+        bc.op(RETURN);
+        writeMethod(out, cp, code, ACC_STATIC, "<clinit>", "()V", bc, 3, 1);
+    }
+
+    /**
+     * 路由调用方法：绑定参数并直接调用控制器方法
+     */
+    private static void writeInvoke(DataOutputStream out, ConstantPool cp, int code, Class<?> owner, Method method,
+                                    int instanceField, int[] binderFields) throws IOException {
+        Bytecode bc = new Bytecode();
+        bc.op(GETSTATIC).u2(instanceField);
+        int stack = 1;
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        for (int i = 0; i < parameterTypes.length; i++) {
+            Class<?> type = parameterTypes[i];
+            if (binderFields[i] == 0) {
+                bc.op(ALOAD_1);
+                stack++;
+                continue;
+            }
+            bc.op(GETSTATIC).u2(binderFields[i]);
+            bc.op(ALOAD_1);
+            bc.op(INVOKEINTERFACE).u2(cp.methodRef(BINDER, "bindParameter", BIND_DESC, true)).u1(2).u1(0);
+            if (type.isPrimitive()) {
+                Class<?> wrapper = MethodType.methodType(type).wrap().returnType();
+                bc.op(CHECKCAST).u2(cp.classRef(internalName(wrapper)));
+                bc.op(INVOKEVIRTUAL).u2(cp.methodRef(internalName(wrapper), type.getName() + "Value",
+                        "()" + type.descriptorString(), false));
+                stack += type == long.class || type == double.class ? 2 : 1;
+            } else {
+                if (type != Object.class) {
+                    bc.op(CHECKCAST).u2(cp.classRef(internalName(type)));
+                }
+                stack++;
+            }
+        }
+        String desc = MethodType.methodType(method.getReturnType(), parameterTypes).toMethodDescriptorString();
+        if (owner.isInterface()) {
+            int argSlots = stack;
+            bc.op(INVOKEINTERFACE).u2(cp.methodRef(internalName(owner), method.getName(), desc, true)).u1(argSlots).u1(0);
+        } else {
+            bc.op(INVOKEVIRTUAL).u2(cp.methodRef(internalName(owner), method.getName(), desc, false));
+        }
+        Class<?> returnType = method.getReturnType();
+        if (returnType == void.class) {
+            bc.op(ACONST_NULL);
+        } else if (returnType.isPrimitive()) {
+            Class<?> wrapper = MethodType.methodType(returnType).wrap().returnType();
+            bc.op(INVOKESTATIC).u2(cp.methodRef(internalName(wrapper), "valueOf",
+                    "(" + returnType.descriptorString() + ")" + wrapper.descriptorString(), false));
+        }
+        bc.op(ARETURN);
+        // 绑定器调用时栈上额外存在绑定器与上下文
+        writeMethod(out, cp, code, ACC_PUBLIC, "invoke", INVOKE_DESC, bc, stack + 2, 2);
+    }
+
+    private static void writeMethod(DataOutputStream out, ConstantPool cp, int code, int access, String name, String desc,
+                                    Bytecode bc, int maxStack, int maxLocals) throws IOException {
+        out.writeShort(access);
+        out.writeShort(cp.utf8(name));
+        out.writeShort(cp.utf8(desc));
+        out.writeShort(1);
+        // Code属性，方法中没有分支，不需要StackMapTable
+        byte[] bytes = bc.toByteArray();
+        out.writeShort(code);
+        out.writeInt(12 + bytes.length);
+        out.writeShort(maxStack);
+        out.writeShort(maxLocals);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+        out.writeShort(0);
+        out.writeShort(0);
+    }
+
+    private static String internalName(Class<?> type) {
+        return type.isArray() ? type.descriptorString() : type.getName().replace('.', '/');
+    }
+
+    /**
+     * 方法体字节码
+     */
+    private static final class Bytecode {
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        Bytecode op(int opcode) {
+            out.write(opcode);
+            return this;
+        }
+
+        Bytecode u1(int value) {
+            out.write(value);
+            return this;
+        }
+
+        Bytecode u2(int value) {
+            out.write(value >>> 8);
+            out.write(value);
+            return this;
+        }
+
+        byte[] toByteArray() {
+            return out.toByteArray();
+        }
+    }
+
+    /**
+     * 常量池，相同的常量只写入一次
+     */
+    private static final class ConstantPool {
+        private static final int UTF8 = 1;
+        private static final int CLASS = 7;
+        private static final int STRING = 8;
+        private static final int FIELD_REF = 9;
+        private static final int METHOD_REF = 10;
+        private static final int INTERFACE_METHOD_REF = 11;
+        private static final int NAME_AND_TYPE = 12;
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final DataOutputStream out = new DataOutputStream(bytes);
+        private final Map<String, Integer> indexes = new HashMap<>();
+        private int count = 1;
+
+        int utf8(String value) throws IOException {
+            Integer index = indexes.get("U" + value);
+            if (index != null) {
+                return index;
+            }
+            out.writeByte(UTF8);
+            out.writeUTF(value);
+            return put("U" + value);
+        }
+
+        int classRef(String internalName) throws IOException {
+            Integer index = indexes.get("C" + internalName);
+            if (index != null) {
+                return index;
+            }
+            int name = utf8(internalName);
+            out.writeByte(CLASS);
+            out.writeShort(name);
+            return put("C" + internalName);
+        }
+
+        int string(String value) throws IOException {
+            Integer index = indexes.get("S" + value);
+            if (index != null) {
+                return index;
+            }
+            int utf8 = utf8(value);
+            out.writeByte(STRING);
+            out.writeShort(utf8);
+            return put("S" + value);
+        }
+
+        int fieldRef(String owner, String name, String desc) throws IOException {
+            return memberRef(FIELD_REF, owner, name, desc);
+        }
+
+        int methodRef(String owner, String name, String desc, boolean isInterface) throws IOException {
+            return memberRef(isInterface ? INTERFACE_METHOD_REF : METHOD_REF, owner, name, desc);
+        }
+
+        private int memberRef(int tag, String owner, String name, String desc) throws IOException {
+            String key = tag + owner + "." + name + desc;
+            Integer index = indexes.get(key);
+            if (index != null) {
+                return index;
+            }
+            int classIndex = classRef(owner);
+            int nameAndType = nameAndType(name, desc);
+            out.writeByte(tag);
+            out.writeShort(classIndex);
+            out.writeShort(nameAndType);
+            return put(key);
+        }
+
+        private int nameAndType(String name, String desc) throws IOException {
+            Integer index = indexes.get("N" + name + ":" + desc);
+            if (index != null) {
+                return index;
+            }
+            int nameIndex = utf8(name);
+            int descIndex = utf8(desc);
+            out.writeByte(NAME_AND_TYPE);
+            out.writeShort(nameIndex);
+            out.writeShort(descIndex);
+            return put("N" + name + ":" + desc);
+        }
+
+        private int put(String key) {
+            int index = count++;
+            indexes.put(key, index);
+            return index;
+        }
+
+        void writeTo(DataOutputStream classOut) throws IOException {
+            out.flush();
+            classOut.writeShort(count);
+            bytes.writeTo(classOut);
+        }
+    }
+}
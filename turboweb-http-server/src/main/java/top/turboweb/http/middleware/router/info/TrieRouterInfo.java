@@ -3,6 +3,8 @@ package top.turboweb.http.middleware.router.info;
 import top.turboweb.commons.exception.TurboRouterException;
 import top.turboweb.commons.struct.trie.RestUrlTrie;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
 
@@ -13,6 +15,16 @@ public class TrieRouterInfo {
 
     private final Map<String, RestUrlTrie<RouterDefinition>> routerStrategy;
 
+    /**
+     * 按注册顺序保存的路由路径，用于编译路由表
+     */
+    private final Map<String, Map<String, RouterDefinition>> routerPaths;
+
+    /**
+     * 路由的修改次数，用于判断编译后的路由表是否过期
+     */
+    private volatile int modCount;
+
     {
         routerStrategy = Map.of(
             "GET", new RestUrlTrie<>(),
@@ -21,6 +33,13 @@ public class TrieRouterInfo {
             "DELETE", new RestUrlTrie<>(),
             "PATCH", new RestUrlTrie<>()
         );
+        routerPaths = Map.of(
+            "GET", new LinkedHashMap<>(),
+            "POST", new LinkedHashMap<>(),
+            "PUT", new LinkedHashMap<>(),
+            "DELETE", new LinkedHashMap<>(),
+            "PATCH", new LinkedHashMap<>()
+        );
     }
 
     /**
@@ -43,6 +62,31 @@ public class TrieRouterInfo {
         } catch (Exception e) {
             throw new TurboRouterException(e, TurboRouterException.ROUTER_REPEAT);
         }
+        routerPaths.get(method.toUpperCase()).put(path, routerDefinition);
+        modCount++;
+    }
+
+    /**
+     * 获取指定方法按注册顺序排列的路由路径
+     *
+     * @param method 请求方法
+     * @return 路由路径与路由定义的映射（只读）
+     */
+    public Map<String, RouterDefinition> getRouterPaths(String method) {
+        Map<String, RouterDefinition> paths = routerPaths.get(method.toUpperCase());
+        if (paths == null) {
+            throw new TurboRouterException("不支持的方法:" + method, TurboRouterException.ROUTER_NOT_MATCH);
+        }
+        return Collections.unmodifiableMap(paths);
+    }
+
+    /**
+     * 获取路由的修改次数
+     *
+     * @return 修改次数
+     */
+    public int modCount() {
+        return modCount;
     }
 
     /**
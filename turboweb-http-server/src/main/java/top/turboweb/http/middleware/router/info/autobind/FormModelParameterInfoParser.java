@@ -15,25 +15,36 @@ public class FormModelParameterInfoParser extends AbstractParamInfoParser{
      */
     private record FormModelParameterBinder(
             Class<?> type,
+            ModelBinder modelBinder,
             boolean validate,
             Class<?>[] groups
     ) implements ParameterBinder {
 
         @Override
         public Object bindParameter(HttpContext ctx) {
-            if (!validate) {
-                return ctx.loadForm(type);
-            } else {
+            if (modelBinder == null) {
+                // 无法预编译的模型交给json序列化器绑定
+                if (!validate) {
+                    return ctx.loadForm(type);
+                }
                 if (groups == null || groups.length == 0) {
                     return ctx.loadValidForm(type);
                 } else {
                     return ctx.loadValidForm(type, groups);
                 }
             }
+            Object result = modelBinder.bind(ctx::forms);
+            if (validate) {
+                if (groups == null || groups.length == 0) {
+                    ctx.validate(result);
+                } else {
+                    ctx.validate(result, groups);
+                }
+            }
+            return result;
         }
     }
 
-
     @Override
     protected ParameterBinder doParse(Parameter parameter) {
         if (!parameter.isAnnotationPresent(FormModel.class)) {
@@ -42,6 +53,7 @@ public class FormModelParameterInfoParser extends AbstractParamInfoParser{
         FormModel formModel = parameter.getAnnotation(FormModel.class);
         return new FormModelParameterBinder(
                 parameter.getType(),
+                ModelBinder.compile(parameter.getType()),
                 formModel.value(),
                 formModel.groups()
         );
@@ -8,6 +8,7 @@ import top.turboweb.http.response.SseEmitter;
 import top.turboweb.http.response.SseResponse;
 import top.turboweb.http.session.HttpSession;
 
+import java.io.InputStream;
 import java.lang.reflect.Parameter;
 import java.nio.channels.Channel;
 
@@ -28,6 +29,8 @@ public class InternTypeParamInfoParser extends AbstractParamInfoParser{
     private static final ParameterBinder SSE_EMITTER_BINDER = HttpContext::createSseEmitter;
     // 连接会话绑定
     private static final ParameterBinder CONNECT_SESSION_BINDER = HttpContext::getConnectSession;
+    // 请求体输入流自动绑定
+    private static final ParameterBinder BODY_STREAM_BINDER = HttpContext::bodyStream;
     // 连接通道自动绑定
     private static final ParameterBinder CHANNEL_BINDER = ctx -> ((InternalConnectSession) ctx.getConnectSession()).getChannel() ;
 
@@ -53,6 +56,9 @@ public class InternTypeParamInfoParser extends AbstractParamInfoParser{
         if (ConnectSession.class == type) {
             return CONNECT_SESSION_BINDER;
         }
+        if (InputStream.class == type) {
+            return BODY_STREAM_BINDER;
+        }
         if (Channel.class == type) {
             return CHANNEL_BINDER;
         }
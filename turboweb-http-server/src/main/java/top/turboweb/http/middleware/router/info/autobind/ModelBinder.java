@@ -0,0 +1,386 @@
+package top.turboweb.http.middleware.router.info.autobind;
+
+import top.turboweb.commons.exception.TurboParamParseException;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.*;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * 查询模型与表单模型的预编译绑定器。
+ * <p>
+ * 在启动阶段解析模型类型，record 通过规范构造器绑定，普通类通过无参构造器与 setter（或公开字段）绑定，
+ * 属性值使用 {@link TypeConverters} 直接从参数中转换，不再经过 json 序列化器。
+ * </p>
+ * <p>
+ * 只支持属性类型为字符串、基本类型及其包装类型、枚举以及它们的 {@link List}/{@link Set} 的模型，
+ * 使用了 jackson 注解、包含其他类型属性，或者包含 jackson 能够绑定但无法通过公开 setter 或公开字段写入的属性
+ * （例如只有公开 getter 的私有字段、非公开的 setter）的模型无法编译，由调用方回退到 json 序列化器绑定。
+ * 空字符串与 json 序列化器一样绑定为包装类型的 null 或基本类型的默认值，布尔值只接受 true 与 false（不区分大小写）。
+ * 与 json 序列化器的区别：未知的参数会被忽略，单个值可以绑定到集合属性，多个值绑定到单值属性时取第一个值。
+ * </p>
+ */
+public class ModelBinder {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    /**
+     * 属性信息
+     *
+     * @param name           属性名
+     * @param converter      元素的类型转换器
+     * @param collectionType 集合类型,0 非集合, 1 list, 2 set
+     */
+    private record Property(String name, TypeConverters.Converter converter, short collectionType) {
+
+        /**
+         * 从参数中转换属性值
+         *
+         * @param values 参数的所有值
+         * @return 属性值，参数不存在时单值属性返回默认值，集合属性返回null
+         */
+        Object convert(List<String> values) {
+            if (collectionType == 0) {
+                return converter.convert(values.isEmpty() ? null : values.getFirst());
+            }
+            if (values.isEmpty()) {
+                return null;
+            }
+            if (collectionType == 1) {
+                List<Object> list = new ArrayList<>(values.size());
+                for (String value : values) {
+                    list.add(converter.convert(value));
+                }
+                return list;
+            }
+            Set<Object> set = new HashSet<>();
+            for (String value : values) {
+                set.add(converter.convert(value));
+            }
+            return set;
+        }
+    }
+
+    private final Property[] properties;
+    /**
+     * record 的规范构造器，类型为 (Object[])Object
+     */
+    private final MethodHandle recordConstructor;
+    /**
+     * 普通类的无参构造器，类型为 ()Object
+     */
+    private final MethodHandle constructor;
+    /**
+     * 普通类属性的 setter，类型为 (Object,Object)void，与属性一一对应
+     */
+    private final MethodHandle[] setters;
+
+    private ModelBinder(Property[] properties, MethodHandle recordConstructor, MethodHandle constructor, MethodHandle[] setters) {
+        this.properties = properties;
+        this.recordConstructor = recordConstructor;
+        this.constructor = constructor;
+        this.setters = setters;
+    }
+
+    /**
+     * 编译模型类型的绑定器
+     *
+     * @param type 模型类型
+     * @return 绑定器，模型无法编译时返回null
+     */
+    public static ModelBinder compile(Class<?> type) {
+        if (type.isInterface() || type.isArray() || type.isPrimitive() || Modifier.isAbstract(type.getModifiers())
+                || !Modifier.isPublic(type.getModifiers()) || hasJacksonAnnotation(type)) {
+            return null;
+        }
+        try {
+            return type.isRecord() ? compileRecord(type) : compileBean(type);
+        } catch (IllegalAccessException | NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 编译 record 的绑定器
+     */
+    private static ModelBinder compileRecord(Class<?> type) throws IllegalAccessException, NoSuchMethodException {
+        RecordComponent[] components = type.getRecordComponents();
+        Property[] properties = new Property[components.length];
+        Class<?>[] parameterTypes = new Class<?>[components.length];
+        for (int i = 0; i < components.length; i++) {
+            RecordComponent component = components[i];
+            if (hasJacksonAnnotation(component) || hasJacksonAnnotation(component.getAccessor())) {
+                return null;
+            }
+            Property property = parseProperty(component.getName(), component.getType(), component.getGenericType());
+            if (property == null) {
+                return null;
+            }
+            properties[i] = property;
+            parameterTypes[i] = component.getType();
+        }
+        Constructor<?> canonical = type.getDeclaredConstructor(parameterTypes);
+        if (!Modifier.isPublic(canonical.getModifiers()) || hasJacksonAnnotation(canonical)) {
+            return null;
+        }
+        MethodHandle handle = LOOKUP.unreflectConstructor(canonical)
+                .asType(MethodType.methodType(Object.class, parameterTypes))
+                .asSpreader(Object[].class, parameterTypes.length);
+        return new ModelBinder(properties, handle, null, null);
+    }
+
+    /**
+     * 编译普通类的绑定器，setter 优先于同名的公开字段
+     */
+    private static ModelBinder compileBean(Class<?> type) throws IllegalAccessException, NoSuchMethodException {
+        Constructor<?> noArgs = type.getConstructor();
+        if (hasJacksonAnnotation(noArgs)) {
+            return null;
+        }
+        Map<String, Property> properties = new LinkedHashMap<>();
+        Map<String, MethodHandle> setters = new HashMap<>();
+        for (Method method : type.getMethods()) {
+            if (hasJacksonAnnotation(method)) {
+                return null;
+            }
+            if (Modifier.isStatic(method.getModifiers()) || method.getParameterCount() != 1
+                    || method.getName().length() <= 3 || !method.getName().startsWith("set")) {
+                continue;
+            }
+            String name = propertyName(method.getName().substring(3));
+            Property property = parseProperty(name, method.getParameterTypes()[0], method.getGenericParameterTypes()[0]);
+            if (property == null) {
+                return null;
+            }
+            properties.put(name, property);
+            setters.put(name, LOOKUP.unreflect(method).asType(MethodType.methodType(void.class, Object.class, Object.class)));
+        }
+        for (Field field : type.getFields()) {
+            if (hasJacksonAnnotation(field)) {
+                return null;
+            }
+            int modifiers = field.getModifiers();
+            if (Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers) || Modifier.isTransient(modifiers)
+                    || properties.containsKey(field.getName())) {
+                continue;
+            }
+            Property property = parseProperty(field.getName(), field.getType(), field.getGenericType());
+            if (property == null) {
+                return null;
+            }
+            properties.put(field.getName(), property);
+            setters.put(field.getName(), LOOKUP.unreflectSetter(field).asType(MethodType.methodType(void.class, Object.class, Object.class)));
+        }
+        if (hasUnwritableProperty(type, properties.keySet())) {
+            return null;
+        }
+        Property[] propertyArray = properties.values().toArray(new Property[0]);
+        MethodHandle[] setterArray = new MethodHandle[propertyArray.length];
+        for (int i = 0; i < propertyArray.length; i++) {
+            setterArray[i] = setters.get(propertyArray[i].name);
+        }
+        MethodHandle handle = LOOKUP.unreflectConstructor(noArgs).asType(MethodType.methodType(Object.class));
+        return new ModelBinder(propertyArray, null, handle, setterArray);
+    }
+
+    /**
+     * 检查是否存在 jackson 能够绑定、但预编译绑定器无法写入的属性：非公开的 setter、带有公开 getter 的非公开字段、
+     * final 字段、只有 getter 的集合属性（jackson 通过 getter 取得集合后添加元素），以及非公开成员上的 jackson 注解
+     *
+     * @param type     模型类型
+     * @param writable 绑定器可以写入的属性名
+     * @return 存在这样的属性时返回true
+     */
+    private static boolean hasUnwritableProperty(Class<?> type, Set<String> writable) {
+        Map<String, Field> fields = new HashMap<>();
+        for (Class<?> clazz = type; clazz != null && clazz != Object.class; clazz = clazz.getSuperclass()) {
+            for (Field field : clazz.getDeclaredFields()) {
+                if (hasJacksonAnnotation(field)) {
+                    return true;
+                }
+                if (!Modifier.isStatic(field.getModifiers())) {
+                    fields.putIfAbsent(field.getName(), field);
+                }
+            }
+            for (Method method : clazz.getDeclaredMethods()) {
+                if (hasJacksonAnnotation(method)) {
+                    return true;
+                }
+                if (!Modifier.isStatic(method.getModifiers()) && !method.isSynthetic() && method.getParameterCount() == 1
+                        && method.getName().length() > 3 && method.getName().startsWith("set")
+                        && !writable.contains(propertyName(method.getName().substring(3)))) {
+                    return true;
+                }
+            }
+        }
+        for (Field field : type.getFields()) {
+            int modifiers = field.getModifiers();
+            if (!Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers) && Modifier.isFinal(modifiers)
+                    && !writable.contains(field.getName())) {
+                return true;
+            }
+        }
+        for (Method method : type.getMethods()) {
+            if (Modifier.isStatic(method.getModifiers()) || method.getParameterCount() != 0
+                    || method.getDeclaringClass() == Object.class) {
+                continue;
+            }
+            String name = method.getName();
+            String property;
+            if (name.length() > 3 && name.startsWith("get")) {
+                property = propertyName(name.substring(3));
+            } else if (name.length() > 2 && name.startsWith("is") && method.getReturnType() == boolean.class) {
+                property = propertyName(name.substring(2));
+            } else {
+                continue;
+            }
+            if (writable.contains(property)) {
+                continue;
+            }
+            Field field = fields.get(property);
+            if ((field != null && !Modifier.isTransient(field.getModifiers()))
+                    || Collection.class.isAssignableFrom(method.getReturnType())
+                    || Map.class.isAssignableFrom(method.getReturnType())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 解析属性的类型转换器
+     *
+     * @param name        属性名
+     * @param type        属性类型
+     * @param genericType 属性的泛型类型
+     * @return 属性信息，类型不支持时返回null
+     */
+    private static Property parseProperty(String name, Class<?> type, Type genericType) {
+        short collectionType = 0;
+        Class<?> elementType = type;
+        if (type == List.class || type == Set.class) {
+            collectionType = (short) (type == List.class ? 1 : 2);
+            if (!(genericType instanceof ParameterizedType parameterizedType)
+                    || !(parameterizedType.getActualTypeArguments()[0] instanceof Class<?> clazz)) {
+                return null;
+            }
+            elementType = clazz;
+        }
+        TypeConverters.Converter converter = converter(elementType);
+        if (converter == null) {
+            return null;
+        }
+        return new Property(name, converter, collectionType);
+    }
+
+    /**
+     * 获取元素类型的转换器，日期时间类型的格式由 json 序列化器决定，这里不处理
+     * <p>
+     * 与 json 序列化器保持一致：空字符串（例如未填写的表单字段）视为没有值，
+     * 包装类型与枚举绑定为 null，基本类型绑定为默认值；字符串保留空字符串。
+     *
+     * @param type 元素类型
+     * @return 转换器，不支持时返回null
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static TypeConverters.Converter converter(Class<?> type) {
+        if (type.isEnum()) {
+            Class<? extends Enum> enumType = (Class<? extends Enum>) type;
+            return value -> value == null || value.isEmpty() ? null : Enum.valueOf(enumType, value);
+        }
+        if (type.getName().startsWith("java.time.")) {
+            return null;
+        }
+        if (type == String.class) {
+            return TypeConverters.getConverter(type);
+        }
+        if (type == boolean.class || type == Boolean.class) {
+            Object defaultValue = type == boolean.class ? Boolean.FALSE : null;
+            return value -> parseBoolean(value, defaultValue);
+        }
+        TypeConverters.Converter converter = TypeConverters.getConverter(type);
+        if (converter == null) {
+            return null;
+        }
+        return value -> converter.convert(value == null || value.isEmpty() ? null : value);
+    }
+
+    /**
+     * 严格解析布尔值，{@link Boolean#parseBoolean(String)} 会把任何非 true 的值解析为 false
+     *
+     * @param value        参数值
+     * @param defaultValue 参数为空时的值
+     * @return 布尔值
+     * @throws TurboParamParseException 参数不是 true 或 false 时抛出
+     */
+    private static Object parseBoolean(String value, Object defaultValue) {
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        if ("true".equalsIgnoreCase(value)) {
+            return Boolean.TRUE;
+        }
+        if ("false".equalsIgnoreCase(value)) {
+            return Boolean.FALSE;
+        }
+        throw new TurboParamParseException("Cannot convert '" + value + "' to boolean");
+    }
+
+    /**
+     * 根据 setter 名称生成属性名，与 jackson 默认的规则相同：开头连续的大写字母转为小写
+     *
+     * @param name 去掉 set 前缀的方法名
+     * @return 属性名
+     */
+    private static String propertyName(String name) {
+        StringBuilder sb = new StringBuilder(name);
+        for (int i = 0; i < sb.length() && Character.isUpperCase(sb.charAt(i)); i++) {
+            sb.setCharAt(i, Character.toLowerCase(sb.charAt(i)));
+        }
+        return sb.toString();
+    }
+
+    private static boolean hasJacksonAnnotation(AnnotatedElement element) {
+        for (Annotation annotation : element.getAnnotations()) {
+            if (annotation.annotationType().getName().startsWith("com.fasterxml.jackson.")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 从参数中绑定模型
+     *
+     * @param values 根据参数名获取参数的所有值，参数不存在时返回空列表
+     * @return 模型对象
+     * @throws TurboParamParseException 参数转换失败时抛出
+     */
+    public Object bind(Function<String, List<String>> values) {
+        try {
+            if (recordConstructor != null) {
+                Object[] args = new Object[properties.length];
+                for (int i = 0; i < properties.length; i++) {
+                    args[i] = properties[i].convert(values.apply(properties[i].name));
+                }
+                return recordConstructor.invokeExact(args);
+            }
+            Object bean = (Object) constructor.invokeExact();
+            for (int i = 0; i < properties.length; i++) {
+                List<String> propertyValues = values.apply(properties[i].name);
+                if (!propertyValues.isEmpty()) {
+                    setters[i].invokeExact(bean, properties[i].convert(propertyValues));
+                }
+            }
+            return bean;
+        } catch (TurboParamParseException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new TurboParamParseException(e);
+        }
+    }
+}
@@ -16,25 +16,36 @@ public class QueryModelParameterInfoParser extends AbstractParamInfoParser{
      */
     private record QueryModelParameterBinder(
             Class<?> type,
+            ModelBinder modelBinder,
             boolean validate,
             Class<?>[] groups
     ) implements ParameterBinder {
 
         @Override
         public Object bindParameter(HttpContext ctx) {
-            if (!validate) {
-                return ctx.loadQuery(type);
-            } else {
+            if (modelBinder == null) {
+                // 无法预编译的模型交给json序列化器绑定
+                if (!validate) {
+                    return ctx.loadQuery(type);
+                }
                 if (groups == null || groups.length == 0) {
                     return ctx.loadValidQuery(type);
                 } else {
                     return ctx.loadValidQuery(type, groups);
                 }
             }
+            Object result = modelBinder.bind(ctx::queries);
+            if (validate) {
+                if (groups == null || groups.length == 0) {
+                    ctx.validate(result);
+                } else {
+                    ctx.validate(result, groups);
+                }
+            }
+            return result;
         }
     }
 
-
     @Override
     protected ParameterBinder doParse(Parameter parameter) {
         if (!parameter.isAnnotationPresent(QueryModel.class)) {
@@ -43,6 +54,7 @@ public class QueryModelParameterInfoParser extends AbstractParamInfoParser{
         QueryModel queryModel = parameter.getAnnotation(QueryModel.class);
         return new QueryModelParameterBinder(
                 parameter.getType(),
+                ModelBinder.compile(parameter.getType()),
                 queryModel.value(),
                 queryModel.groups()
         );
@@ -25,6 +25,42 @@ public class RestParameterInfoParser extends AbstractParamInfoParser {
         }
     }
 
+    /**
+     * 整数类型的rest参数绑定器，直接读取路由匹配时解析好的数值
+     */
+    private record RestIntegerBinder(
+            String name,
+            boolean primitive
+    ) implements ParameterBinder {
+
+        @Override
+        public Object bindParameter(HttpContext ctx) {
+            Integer value = ctx.paramInt(name);
+            if (value == null && primitive) {
+                return 0;
+            }
+            return value;
+        }
+    }
+
+    /**
+     * 长整数类型的rest参数绑定器，直接读取路由匹配时解析好的数值
+     */
+    private record RestLongBinder(
+            String name,
+            boolean primitive
+    ) implements ParameterBinder {
+
+        @Override
+        public Object bindParameter(HttpContext ctx) {
+            Long value = ctx.paramLong(name);
+            if (value == null && primitive) {
+                return 0L;
+            }
+            return value;
+        }
+    }
+
 
     @Override
     protected ParameterBinder doParse(Parameter parameter) {
@@ -41,6 +77,12 @@ public class RestParameterInfoParser extends AbstractParamInfoParser {
         Param param = parameter.getAnnotation(Param.class);
         String name = param.value();
         // 创建绑定器
+        if (type == int.class || type == Integer.class) {
+            return new RestIntegerBinder(name, type.isPrimitive());
+        }
+        if (type == long.class || type == Long.class) {
+            return new RestLongBinder(name, type.isPrimitive());
+        }
         return new RestParameterBinder(name, converter);
     }
 }
@@ -1,6 +1,7 @@
 package top.turboweb.http.processor;
 
 import io.netty.handler.codec.http.*;
+import io.netty.util.AsciiString;
 import top.turboweb.http.connect.ConnectSession;
 
 import java.util.Arrays;
@@ -21,6 +22,8 @@ import java.util.List;
  */
 public class CorsProcessor extends Processor {
 
+    private static final AsciiString TRUE = AsciiString.cached("true");
+
     private final Config config = new Config();
 
     /**
@@ -33,38 +36,71 @@ public class CorsProcessor extends Processor {
         private List<String> exposedHeaders = List.of("Content-Disposition");
         private boolean allowCredentials = false;
         private int maxAge = 3600;
+        /** 预编码的响应头，配置修改后重新生成 */
+        private volatile EncodedHeaders encodedHeaders;
 
         /** 设置允许的跨域源 */
         public void setAllowedOrigins(List<String> allowedOrigins) {
             this.allowedOrigins = allowedOrigins;
+            this.encodedHeaders = null;
         }
 
         /** 设置允许的跨域请求方法 */
         public void setAllowedMethods(List<String> allowedMethods) {
             this.allowedMethods = allowedMethods;
+            this.encodedHeaders = null;
         }
         /** 设置允许的请求头 */
 
         public void setAllowedHeaders(List<String> allowedHeaders) {
             this.allowedHeaders = allowedHeaders;
+            this.encodedHeaders = null;
         }
         /** 设置可暴露的响应头 */
 
         public void setExposedHeaders(List<String> exposedHeaders) {
             this.exposedHeaders = exposedHeaders;
+            this.encodedHeaders = null;
         }
         /** 设置是否允许携带凭证 */
 
         public void setAllowCredentials(boolean allowCredentials) {
             this.allowCredentials = allowCredentials;
+            this.encodedHeaders = null;
         }
         /** 设置预检请求缓存时间（秒） */
 
         public void setMaxAge(int maxAge) {
             this.maxAge = maxAge;
+            this.encodedHeaders = null;
+        }
+
+        /** 获取预编码的响应头 */
+        private EncodedHeaders encodedHeaders() {
+            EncodedHeaders headers = encodedHeaders;
+            if (headers == null) {
+                headers = new EncodedHeaders(
+                        encode(allowedMethods),
+                        encode(allowedHeaders),
+                        encode(exposedHeaders),
+                        AsciiString.of(String.valueOf(maxAge))
+                );
+                encodedHeaders = headers;
+            }
+            return headers;
+        }
+
+        private static AsciiString encode(List<String> values) {
+            return AsciiString.of(values.contains("*") ? "*" : String.join(",", values));
         }
     }
 
+    /**
+     * 与请求无关的 CORS 响应头
+     */
+    private record EncodedHeaders(AsciiString allowMethods, AsciiString allowHeaders, AsciiString exposeHeaders, AsciiString maxAge) {
+    }
+
     /**
      * 处理 HTTP 请求。
      * <p>
@@ -79,7 +115,7 @@ public class CorsProcessor extends Processor {
     @Override
     public HttpResponse invoke(FullHttpRequest fullHttpRequest, ConnectSession connectSession) {
         // 获取请求头中的origin
-        String origin = fullHttpRequest.headers().get("Origin");
+        String origin = fullHttpRequest.headers().get(HttpHeaderNames.ORIGIN);
         if (origin == null || origin.isEmpty()) {
             origin = "null";
         }
@@ -109,16 +145,18 @@ public class CorsProcessor extends Processor {
                 // CORS 标准禁止 Access-Control-Allow-Credentials 与 * 一起出现
                 return;
             }
-            response.headers().set("Access-Control-Allow-Credentials", "true");
+            response.headers().set(HttpHeaderNames.ACCESS_CONTROL_ALLOW_CREDENTIALS, TRUE);
         }
         // 检查是否允许跨域
         if (config.allowedOrigins.contains("*") || config.allowedOrigins.contains(origin)) {
-            // 设置 CORS 响应头
-            response.headers().set("Access-Control-Allow-Origin", origin);
-            response.headers().set("Access-Control-Allow-Methods", config.allowedMethods.contains("*")? "*": String.join(",", config.allowedMethods));
-            response.headers().set("Access-Control-Allow-Headers", config.allowedHeaders.contains("*")? "*": String.join(",", config.allowedHeaders));
-            response.headers().set("Access-Control-Expose-Headers", config.exposedHeaders.contains("*")? "*": String.join(",", config.exposedHeaders));
-            response.headers().set("Access-Control-Max-Age", String.valueOf(config.maxAge));
+            // 设置 CORS 响应头，除 Origin 外均使用预编码的值
+            EncodedHeaders encodedHeaders = config.encodedHeaders();
+            response.headers()
+                    .set(HttpHeaderNames.ACCESS_CONTROL_ALLOW_ORIGIN, origin)
+                    .set(HttpHeaderNames.ACCESS_CONTROL_ALLOW_METHODS, encodedHeaders.allowMethods)
+                    .set(HttpHeaderNames.ACCESS_CONTROL_ALLOW_HEADERS, encodedHeaders.allowHeaders)
+                    .set(HttpHeaderNames.ACCESS_CONTROL_EXPOSE_HEADERS, encodedHeaders.exposeHeaders)
+                    .set(HttpHeaderNames.ACCESS_CONTROL_MAX_AGE, encodedHeaders.maxAge);
         }
     }
 
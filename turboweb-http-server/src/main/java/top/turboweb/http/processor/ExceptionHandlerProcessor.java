@@ -3,13 +3,13 @@ package top.turboweb.http.processor;
 import io.netty.handler.codec.http.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import top.turboweb.commons.config.GlobalConfig;
 import top.turboweb.commons.exception.TurboRouterException;
 import top.turboweb.commons.utils.base.ErrorStrGenerator;
 import top.turboweb.http.connect.ConnectSession;
 import top.turboweb.http.handler.ExceptionHandlerDefinition;
 import top.turboweb.http.handler.ExceptionHandlerMatcher;
 import top.turboweb.http.processor.convertor.HttpResponseConverter;
+import top.turboweb.http.response.ResponseHeaderTemplates;
 
 import java.lang.invoke.MethodHandle;
 import java.nio.charset.StandardCharsets;
@@ -137,10 +137,6 @@ public class ExceptionHandlerProcessor extends Processor {
      * @return HTTP 响应对象
      */
     private HttpResponse buildErrResponse(String content, HttpResponseStatus status) {
-        FullHttpResponse response = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, status);
-        response.content().writeBytes(content.getBytes(GlobalConfig.getResponseCharset()));
-        response.headers().add(HttpHeaderNames.CONTENT_TYPE, "text/html;charset=" + GlobalConfig.getResponseCharset().name());
-        response.headers().add(HttpHeaderNames.CONTENT_LENGTH, response.content().readableBytes());
-        return response;
+        return ResponseHeaderTemplates.textHtml(status, content);
     }
 }
@@ -8,17 +8,18 @@ import org.apache.hc.core5.http.ContentType;
 import top.turboweb.commons.lock.Locks;
 import top.turboweb.commons.serializer.JsonSerializer;
 import top.turboweb.http.connect.ConnectSession;
+import top.turboweb.http.context.CoreHttpContext;
 import top.turboweb.http.context.FullHttpContext;
 import top.turboweb.http.context.HttpContext;
 import top.turboweb.http.context.respmeta.ResponseMetaGetter;
-import top.turboweb.http.cookie.DefaultHttpCookieManager;
 import top.turboweb.http.cookie.HttpCookieManager;
 import top.turboweb.http.middleware.Middleware;
 import top.turboweb.http.processor.convertor.HttpResponseConverter;
 import top.turboweb.http.response.HttpResult;
 import top.turboweb.http.session.BackHoleSessionManager;
-import top.turboweb.http.session.DefaultHttpSession;
 import top.turboweb.http.session.HttpSession;
+import top.turboweb.http.session.MemorySessionManager;
+import top.turboweb.http.session.SessionManager;
 import top.turboweb.http.session.SessionManagerHolder;
 
 import java.nio.charset.Charset;
@@ -33,15 +34,15 @@ import java.util.Objects;
  *     <li>初始化 {@link HttpContext}，封装请求、Session、Cookie 等信息</li>
  *     <li>执行中间件链 {@link Middleware}</li>
  *     <li>处理返回结果，将对象转换为 {@link HttpResponse}</li>
- *     <li>处理响应中的 Cookie 和 Session 信息</li>
+ *     <li>处理响应中的 Cookie 和 Session 信息，Cookie 与 Session 仅在请求中被访问时才会解析和续期</li>
  *     <li>释放上下文资源，确保请求结束后清理会话和内存</li>
  * </ul>
  * </p>
  * <p>
- * 内部会根据 SessionManager 类型决定是否加读锁：
+ * 内部会根据 {@link SessionManager#needGlobalLock()} 决定是否加读锁：
  * <ul>
- *     <li>如果使用 {@link BackHoleSessionManager}，则无需加锁</li>
- *     <li>否则对 Session 访问加读锁，确保并发安全</li>
+ *     <li>内置的 {@link MemorySessionManager}、{@link BackHoleSessionManager} 无需加锁</li>
+ *     <li>依赖全局写锁清理会话的自定义实现，对 Session 访问加读锁，确保并发安全</li>
  * </ul>
  * </p>
  */
@@ -82,7 +83,7 @@ public class MiddlewareInvokeProcessor extends Processor{
     /**
      * 执行请求。
      * <p>
-     * 根据 SessionManager 类型判断是否需要加锁，然后执行中间件链。
+     * 根据 SessionManager 是否需要全局锁判断是否需要加锁，然后执行中间件链。
      * </p>
      *
      * @param fullHttpRequest HTTP 请求对象
@@ -91,7 +92,7 @@ public class MiddlewareInvokeProcessor extends Processor{
      */
     @Override
     public HttpResponse invoke(FullHttpRequest fullHttpRequest, ConnectSession connectSession) {
-        boolean needLock = !(sessionManagerHolder.getSessionManager() instanceof BackHoleSessionManager);
+        boolean needLock = sessionManagerHolder.getSessionManager().needGlobalLock();
         if (needLock) {
             Locks.SESSION_LOCK.readLock().lock();
             try {
@@ -116,15 +117,10 @@ public class MiddlewareInvokeProcessor extends Processor{
      * @return HTTP 响应对象
      */
     private HttpResponse executeMiddleware(FullHttpRequest fullHttpRequest, ConnectSession connectSession) {
-        HttpContext context = null;
+        FullHttpContext context = null;
         try {
-            // 初始化Cookie
-            HttpCookieManager cookieManager = new DefaultHttpCookieManager(fullHttpRequest.headers());
-            // 初始化session
-            String originSessionId = cookieManager.getCookie("JSESSIONID");
-            HttpSession httpSession = new DefaultHttpSession(sessionManagerHolder.getSessionManager(), originSessionId);
-            // 创建HttpContext对象
-            context = new FullHttpContext(fullHttpRequest, httpSession, cookieManager, connectSession, jsonSerializer);
+            // 创建HttpContext对象，Cookie和session在首次访问时才会创建
+            context = new FullHttpContext(fullHttpRequest, sessionManagerHolder.getSessionManager(), connectSession, jsonSerializer);
             // 执行中间件
             Object result = chain.invoke(context);
             boolean shouldSetMeta = (!(result instanceof HttpResponse) && !(result instanceof HttpResult<?>));
@@ -134,16 +130,24 @@ public class MiddlewareInvokeProcessor extends Processor{
                 setRespMeta(response, context);
             }
             // 处理Cookie
-            cookieManager.setCookieForResponse(response);
+            HttpCookieManager cookieManager = context.loadedCookieManager();
+            if (cookieManager != null) {
+                cookieManager.setCookieForResponse(response);
+            }
             // 处理session
-            if (httpSession.sessionId() != null && (!Objects.equals(httpSession.sessionId(), originSessionId) || httpSession.pathIsUpdate())) {
-                response.headers().add("Set-Cookie", "JSESSIONID=" + httpSession.sessionId() + "; Path="+ httpSession.getPath() +"; HttpOnly");
+            HttpSession httpSession = context.loadedSession();
+            if (httpSession != null && httpSession.sessionId() != null && (!Objects.equals(httpSession.sessionId(), context.originSessionId()) || httpSession.pathIsUpdate())) {
+                response.headers().add("Set-Cookie", CoreHttpContext.SESSION_COOKIE_NAME + "=" + httpSession.sessionId() + "; Path="+ httpSession.getPath() +"; HttpOnly");
             }
             return response;
         } finally {
             if (context != null) {
                 context.release();
-                context.httpSession().expireAt();
+                // 只为本次请求访问过的session续期
+                HttpSession httpSession = context.loadedSession();
+                if (httpSession != null) {
+                    httpSession.expireAt();
+                }
             }
         }
     }
@@ -1,6 +1,7 @@
 package top.turboweb.http.processor.convertor;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
 import io.netty.buffer.Unpooled;
 import io.netty.handler.codec.http.*;
 import org.reactivestreams.Publisher;
@@ -11,6 +12,7 @@ import top.turboweb.commons.serializer.JsonSerializer;
 import top.turboweb.http.response.HttpFileResult;
 import top.turboweb.http.response.HttpResult;
 import top.turboweb.http.response.ReactorResponse;
+import top.turboweb.http.response.ResponseHeaderTemplates;
 
 import java.nio.ByteBuffer;
 
@@ -42,20 +44,18 @@ public class DefaultHttpResponseConverter implements HttpResponseConverter {
             // 处理HttpResult的类型
             case HttpResult<?> httpResult -> httpResult.createResponse(jsonSerializer);
             // 如果是字符串，按照text/html构建
-            case String string ->
-                    buildResponse(string, "text/html;charset=" + GlobalConfig.getResponseCharset().name());
+            case String string -> ResponseHeaderTemplates.textHtml(HttpResponseStatus.OK, string);
             // 处理HttpFileResult的类型
             case HttpFileResult httpFileResult -> httpFileResult.createResponse();
             // 如果是正常的反应类型，则直接返回
             case HttpResponse httpResponse -> httpResponse;
             // 如果无返回值，则返回空字符串
-            case null -> buildResponse("", "text/html;charset=" + GlobalConfig.getResponseCharset().name());
+            case null -> ResponseHeaderTemplates.textHtml(HttpResponseStatus.OK, "");
             // 如果是异步类型，则返回reactor响应对象
             case Publisher<?> publisher -> new ReactorResponse(processPublisher(publisher));
             // 按照application/json构建
             default -> {
-                String json = jsonSerializer.beanToJson(result);
-                yield buildResponse(json, "application/json;charset=" + GlobalConfig.getResponseCharset().name());
+                yield ResponseHeaderTemplates.json(HttpResponseStatus.OK, result, jsonSerializer);
             }
         };
     }
@@ -85,29 +85,16 @@ public class DefaultHttpResponseConverter implements HttpResponseConverter {
                         ByteBuf buf = Unpooled.wrappedBuffer(number.toString().getBytes(GlobalConfig.getResponseCharset()));
                         return Mono.just(buf);
                     } else {
+                        // 序列化结果直接写入池化的直接内存
+                        ByteBuf buf = ByteBufAllocator.DEFAULT.directBuffer();
                         try {
-                            String json = jsonSerializer.beanToJson(val);
-                            ByteBuf buf = Unpooled.wrappedBuffer(json.getBytes(GlobalConfig.getResponseCharset()));
+                            jsonSerializer.writeTo(val, buf, GlobalConfig.getResponseCharset());
                             return Mono.just(buf);
                         } catch (Exception e) {
+                            buf.release();
                             return Mono.error(e);
                         }
                     }
                 });
     }
-
-    /**
-     * 构建一个HttpResponse
-     *
-     * @param content     内容
-     * @param contentType 内容类型
-     * @return HttpResponse 响应对象
-     */
-    private HttpResponse buildResponse(String content, String contentType) {
-        FullHttpResponse fullHttpResponse = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK);
-        fullHttpResponse.content().writeBytes(content.getBytes(GlobalConfig.getResponseCharset()));
-        fullHttpResponse.headers().add(HttpHeaderNames.CONTENT_TYPE, contentType);
-        fullHttpResponse.headers().add(HttpHeaderNames.CONTENT_LENGTH, fullHttpResponse.content().readableBytes());
-        return fullHttpResponse;
-    }
 }
@@ -1,9 +1,10 @@
 package top.turboweb.http.response;
 
 import io.netty.handler.codec.http.*;
-import top.turboweb.commons.config.GlobalConfig;
 import top.turboweb.commons.serializer.JsonSerializer;
 
+import java.util.Iterator;
+import java.util.Map;
 import java.util.Objects;
 
 /**
@@ -11,9 +12,10 @@ import java.util.Objects;
  * <p>
  * 根据响应内容类型自动设置 Content-Type：
  * <ul>
- *     <li>如果 data 为 {@link String}，则返回 "text/html;charset=utf-8"</li>
- *     <li>如果 data 为其他对象类型，则使用 {@link JsonSerializer} 序列化为 JSON，并返回 "application/json;charset=utf-8"</li>
+ *     <li>如果 data 为 {@link String}，则返回 "text/html"</li>
+ *     <li>如果 data 为其他对象类型，则使用 {@link JsonSerializer} 序列化为 JSON，并返回 "application/json"</li>
  * </ul>
+ * 字符集均为全局响应字符集。
  * <p>
  * 提供构造方法和静态工厂方法快速创建不同状态码的响应对象。
  *
@@ -44,41 +46,23 @@ public class HttpResult <T> {
     }
 
     public HttpResponse createResponse(JsonSerializer jsonSerializer) {
-        // 创建响应对象
-        FullHttpResponse response = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, status);
-        // 设置响应头
-        response.headers().set(headers);
-        // 处理响应内容
-        String content;
-        if (data instanceof String s) {
-            content = s;
-            response.headers().set(HttpHeaderNames.CONTENT_TYPE, "text/html;charset=utf-8");
-        } else {
-            // 序列化对象
-            content = jsonSerializer.beanToJson(data);
-            response.headers().set(HttpHeaderNames.CONTENT_TYPE, "application/json;charset=utf-8");
+        // 创建响应对象，字符串按 text/html 返回，其他对象序列化后直接写入缓冲区
+        FullHttpResponse response = data instanceof String s
+                ? ResponseHeaderTemplates.textHtml(status, s)
+                : ResponseHeaderTemplates.json(status, data, jsonSerializer);
+        // 合并响应头，Content-Type 与 Content-Length 以响应内容为准
+        Iterator<Map.Entry<CharSequence, CharSequence>> iterator = headers.iteratorCharSequence();
+        while (iterator.hasNext()) {
+            Map.Entry<CharSequence, CharSequence> header = iterator.next();
+            if (HttpHeaderNames.CONTENT_TYPE.contentEqualsIgnoreCase(header.getKey())
+                    || HttpHeaderNames.CONTENT_LENGTH.contentEqualsIgnoreCase(header.getKey())) {
+                continue;
+            }
+            response.headers().add(header.getKey(), header.getValue());
         }
-        // 设置响应内容
-        setContent(response, content);
         return response;
     }
 
-    /**
-     * 设置响应体内容
-     *
-     * @param response 响应对象
-     * @param content 响应体内容
-     */
-    private void setContent(FullHttpResponse response, String content) {
-        response.content().clear();
-        if (content != null) {
-            response.content().writeBytes(content.getBytes(GlobalConfig.getResponseCharset()));
-            response.headers().set(HttpHeaderNames.CONTENT_LENGTH, response.content().readableBytes());
-        } else {
-            response.headers().set(HttpHeaderNames.CONTENT_LENGTH, 0);
-        }
-    }
-
     /**
      * 创建响应对象
      *
@@ -39,7 +39,7 @@ public class InternalSseEmitter extends SseEmitter{
 			writeLock.lock();
 			// 发送SSE响应头
 			InternalConnectSession internalConnectSession = (InternalConnectSession) session;
-			channelFuture = internalConnectSession.getChannel().writeAndFlush(this);
+			channelFuture = internalConnectSession.writeAndFlush(this);
 			// 清空缓冲区
 			cacheLock.lock();
 			try {
@@ -0,0 +1,162 @@
+package top.turboweb.http.response;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.DateFormatter;
+import io.netty.handler.codec.http.*;
+import io.netty.util.AsciiString;
+import top.turboweb.commons.config.GlobalConfig;
+import top.turboweb.commons.serializer.JsonSerializer;
+
+import java.nio.charset.Charset;
+import java.util.Date;
+
+/**
+ * 响应头模板。
+ * <p>
+ * 常用的响应头值以 {@link AsciiString} 形式预先编码，编码响应时直接复制字节，
+ * Content-Type 按全局响应字符集缓存，Date 每秒只格式化一次。
+ * </p>
+ */
+public class ResponseHeaderTemplates {
+
+    /**
+     * 按字符集缓存的 Content-Type
+     *
+     * @param charset  字符集
+     * @param textHtml text/html 的 Content-Type
+     * @param json     application/json 的 Content-Type
+     */
+    private record ContentTypes(Charset charset, AsciiString textHtml, AsciiString json) {
+
+        static ContentTypes of(Charset charset) {
+            return new ContentTypes(
+                    charset,
+                    AsciiString.cached("text/html;charset=" + charset.name()),
+                    AsciiString.cached("application/json;charset=" + charset.name())
+            );
+        }
+    }
+
+    /**
+     * 格式化后的 Date
+     *
+     * @param second 秒级时间戳
+     * @param value  Date 的值
+     */
+    private record CachedDate(long second, AsciiString value) {
+    }
+
+    private static volatile ContentTypes contentTypes = ContentTypes.of(GlobalConfig.getResponseCharset());
+    private static volatile CachedDate cachedDate = new CachedDate(-1, AsciiString.EMPTY_STRING);
+
+    private ResponseHeaderTemplates() {
+    }
+
+    /**
+     * 获取全局响应字符集下 text/html 的 Content-Type
+     *
+     * @return Content-Type
+     */
+    public static AsciiString textHtml() {
+        return contentTypes().textHtml;
+    }
+
+    /**
+     * 获取全局响应字符集下 application/json 的 Content-Type
+     *
+     * @return Content-Type
+     */
+    public static AsciiString json() {
+        return contentTypes().json;
+    }
+
+    private static ContentTypes contentTypes() {
+        ContentTypes types = contentTypes;
+        Charset charset = GlobalConfig.getResponseCharset();
+        if (types.charset != charset) {
+            // 字符集在启动时修改，重新生成
+            types = ContentTypes.of(charset);
+            contentTypes = types;
+        }
+        return types;
+    }
+
+    /**
+     * 获取当前时间的 Date 响应头，同一秒内返回同一个实例
+     *
+     * @return Date 的值
+     */
+    public static AsciiString date() {
+        long now = System.currentTimeMillis();
+        long second = now / 1000;
+        CachedDate date = cachedDate;
+        if (date.second != second) {
+            date = new CachedDate(second, new AsciiString(DateFormatter.format(new Date(second * 1000))));
+            cachedDate = date;
+        }
+        return date.value;
+    }
+
+    /**
+     * 使用常量响应头构建完整的响应
+     *
+     * @param status      响应状态码
+     * @param content     响应体
+     * @param contentType 预编码的 Content-Type
+     * @return 响应对象
+     */
+    public static FullHttpResponse newFullResponse(HttpResponseStatus status, byte[] content, AsciiString contentType) {
+        FullHttpResponse response = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, status, Unpooled.wrappedBuffer(content));
+        response.headers()
+                .set(HttpHeaderNames.CONTENT_TYPE, contentType)
+                .setInt(HttpHeaderNames.CONTENT_LENGTH, content.length);
+        return response;
+    }
+
+    /**
+     * 使用 text/html 构建完整的响应
+     *
+     * @param status  响应状态码
+     * @param content 响应内容
+     * @return 响应对象
+     */
+    public static FullHttpResponse textHtml(HttpResponseStatus status, String content) {
+        return newFullResponse(status, content.getBytes(GlobalConfig.getResponseCharset()), textHtml());
+    }
+
+    /**
+     * 使用 application/json 构建完整的响应
+     *
+     * @param status 响应状态码
+     * @param json   json 内容
+     * @return 响应对象
+     */
+    public static FullHttpResponse json(HttpResponseStatus status, String json) {
+        return newFullResponse(status, json.getBytes(GlobalConfig.getResponseCharset()), json());
+    }
+
+    /**
+     * 将对象序列化后使用 application/json 构建完整的响应，序列化结果直接写入池化的直接内存
+     *
+     * @param status         响应状态码
+     * @param bean           响应对象
+     * @param jsonSerializer json序列化器
+     * @return 响应对象
+     */
+    public static FullHttpResponse json(HttpResponseStatus status, Object bean, JsonSerializer jsonSerializer) {
+        ByteBuf buf = ByteBufAllocator.DEFAULT.directBuffer();
+        try {
+            jsonSerializer.writeTo(bean, buf, GlobalConfig.getResponseCharset());
+        } catch (Throwable e) {
+            buf.release();
+            throw e;
+        }
+        FullHttpResponse response = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, status, buf);
+        response.headers()
+                .set(HttpHeaderNames.CONTENT_TYPE, json())
+                .setInt(HttpHeaderNames.CONTENT_LENGTH, buf.readableBytes());
+        return response;
+    }
+}
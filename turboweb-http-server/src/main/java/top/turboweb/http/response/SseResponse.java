@@ -4,7 +4,6 @@ import io.netty.handler.codec.http.*;
 import top.turboweb.commons.serializer.JsonSerializer;
 import top.turboweb.http.connect.ConnectSession;
 import reactor.core.publisher.Flux;
-import reactor.core.publisher.Mono;
 
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -85,16 +84,12 @@ public class SseResponse extends DefaultHttpResponse implements InternalCallResp
 	 */
 	public <T> void setSseCallback(Flux<T> flux, Function<Throwable, String> errorHandler, Consumer<ConnectSession> onFinally) {
 		Consumer<ConnectSession> consumer = (session) -> {
-			flux.flatMap(res -> {
-					try {
-						if (res instanceof String s) {
-							return Mono.just(s);
-						} else {
-							String json = jsonSerializer.beanToJson(res);
-							return Mono.just(json);
-						}
-					} catch (Exception e) {
-						return Mono.error(e);
+			flux.doOnNext(res -> {
+					if (res instanceof String s) {
+						session.send(s);
+					} else {
+						// 序列化结果直接写入缓冲区，失败时作为错误信号交给错误处理
+						session.send(res, jsonSerializer);
 					}
 				})
 				.doFinally(signalType -> {
@@ -103,7 +98,7 @@ public class SseResponse extends DefaultHttpResponse implements InternalCallResp
 					}
 				})
 				.subscribe(
-					session::send,
+					res -> {},
 					err -> {
 						if (errorHandler != null) {
 							String errorMessage = errorHandler.apply(err);
@@ -15,6 +15,7 @@ import top.turboweb.http.connect.ConnectSession;
  * <p>典型实现包括：
  * <ul>
  *   <li>{@link top.turboweb.http.scheduler.VirtualThreadHttpScheduler}：基于虚拟线程的同步阻塞模型</li>
+ *   <li>{@link top.turboweb.http.scheduler.HybridHttpScheduler}：非阻塞路由在IO线程中执行，其他请求使用虚拟线程</li>
  * </ul>
  * </p>
  */
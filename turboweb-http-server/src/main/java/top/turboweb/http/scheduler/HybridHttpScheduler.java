@@ -0,0 +1,106 @@
+package top.turboweb.http.scheduler;
+
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.HttpMethod;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import top.turboweb.http.connect.ConnectSession;
+import top.turboweb.http.middleware.router.RouterManager;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 混合调度器：标记了 {@link top.turboweb.anno.NonBlocking} 的路由直接在IO线程中执行，其他请求交给虚拟线程调度器。
+ * <p>
+ * 对于只访问内存的简单处理器，创建虚拟线程以及从虚拟线程切换回IO线程写出响应的开销往往超过处理本身，
+ * 在IO线程中执行可以省去这两次线程切换。在IO线程中执行的请求不经过调度器限流。
+ *
+ * <h3>阻塞保护</h3>
+ * <p>
+ * 每次在IO线程中执行后检查耗时，超过 {@code blockingThreshold} 时输出警告并记录一次超时，
+ * 同一路由的超时次数达到 {@code maxBlockingTimes} 后该路由改为在虚拟线程中执行，避免一个误标记的路由持续阻塞IO线程。
+ */
+public class HybridHttpScheduler implements HttpScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(HybridHttpScheduler.class);
+
+    /** 执行其他请求的虚拟线程调度器。 */
+    private final VirtualThreadHttpScheduler delegate;
+    /** 路由管理器，用于判断请求是否命中非阻塞路由。 */
+    private final RouterManager routerManager;
+    /** 在IO线程中执行的耗时阈值（纳秒）。 */
+    private final long blockingThreshold;
+    /** 同一路由允许超过阈值的次数。 */
+    private final int maxBlockingTimes;
+
+    /**
+     * 创建混合调度器
+     *
+     * @param delegate               执行其他请求的虚拟线程调度器
+     * @param routerManager          路由管理器
+     * @param blockingThresholdMillis 在IO线程中执行的耗时阈值（毫秒）
+     * @param maxBlockingTimes       同一路由允许超过阈值的次数
+     */
+    public HybridHttpScheduler(VirtualThreadHttpScheduler delegate, RouterManager routerManager, long blockingThresholdMillis, int maxBlockingTimes) {
+        if (blockingThresholdMillis < 1) {
+            throw new IllegalArgumentException("blockingThresholdMillis must be greater than or equal to 1");
+        }
+        if (maxBlockingTimes < 1) {
+            throw new IllegalArgumentException("maxBlockingTimes must be greater than or equal to 1");
+        }
+        this.delegate = delegate;
+        this.routerManager = routerManager;
+        this.blockingThreshold = TimeUnit.MILLISECONDS.toNanos(blockingThresholdMillis);
+        this.maxBlockingTimes = maxBlockingTimes;
+    }
+
+    @Override
+    public void execute(FullHttpRequest request, ConnectSession session) {
+        if (!routerManager.isNonBlockingRequest(request.method(), request.uri())) {
+            delegate.execute(request, session);
+            return;
+        }
+        // 请求在执行后会被释放，提前保存用于阻塞检查的信息
+        HttpMethod method = request.method();
+        String uri = request.uri();
+        long start = System.nanoTime();
+        try {
+            delegate.executeInline(request, session);
+        } finally {
+            long cost = System.nanoTime() - start;
+            if (cost > blockingThreshold) {
+                onBlocking(method, uri, cost);
+            }
+        }
+    }
+
+    /**
+     * 处理在IO线程中执行超时的请求
+     *
+     * @param method  请求方式
+     * @param uri     请求URI
+     * @param cost    执行耗时（纳秒）
+     */
+    private void onBlocking(HttpMethod method, String uri, long cost) {
+        boolean demoted = routerManager.reportBlocking(method, uri, maxBlockingTimes);
+        if (demoted) {
+            log.warn("非阻塞路由在IO线程中执行超时达到{}次，之后改为在虚拟线程中执行: {} {}", maxBlockingTimes, method, uri);
+        } else {
+            log.warn("非阻塞路由在IO线程中执行了{}ms，可能存在阻塞操作: {} {}", TimeUnit.NANOSECONDS.toMillis(cost), method, uri);
+        }
+    }
+
+    @Override
+    public void setShowRequestLog(boolean showRequestLog) {
+        delegate.setShowRequestLog(showRequestLog);
+    }
+
+    /**
+     * 获取执行其他请求的虚拟线程调度器
+     *
+     * @return 虚拟线程调度器
+     */
+    public VirtualThreadHttpScheduler getDelegate() {
+        return delegate;
+    }
+}
@@ -1,12 +1,19 @@
 package top.turboweb.http.scheduler;
 
+import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
+import io.netty.channel.EventLoop;
 import io.netty.handler.codec.http.*;
-import top.turboweb.commons.constants.FontColors;
 import top.turboweb.commons.utils.thread.VirtualThreads;
 import top.turboweb.http.connect.ConnectSession;
 import top.turboweb.http.connect.InternalConnectSession;
 import top.turboweb.http.processor.Processor;
+import top.turboweb.http.response.InternalCallResponse;
+import top.turboweb.http.scheduler.accesslog.AccessLogger;
+import top.turboweb.http.scheduler.admission.AdmissionQueue;
+import top.turboweb.http.scheduler.limit.ConcurrencyLimiter;
+import top.turboweb.http.scheduler.limit.FixedConcurrencyLimiter;
+import top.turboweb.http.scheduler.limit.LimitMetrics;
 import top.turboweb.http.scheduler.strategy.ResponseStrategy;
 import top.turboweb.http.scheduler.strategy.ResponseStrategyContext;
 
@@ -14,6 +21,7 @@ import java.nio.charset.StandardCharsets;
 import java.util.Map;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * 基于虚拟线程（Virtual Thread）的同步阻塞型 HTTP 调度器。
@@ -24,24 +32,27 @@ import java.util.concurrent.atomic.AtomicInteger;
  * <h2>核心特性</h2>
  * <ul>
  *     <li><b>虚拟线程调度：</b>每个 HTTP 请求在独立的虚拟线程中处理，确保 I/O 线程永不阻塞。</li>
- *     <li><b>限流控制：</b>支持基于信号量（{@link Semaphore}）的最大并发限制和线程挂起等待机制。</li>
+ *     <li><b>限流控制：</b>支持基于并发限制器（{@link ConcurrencyLimiter}）的最大并发限制和线程挂起等待机制。</li>
  *     <li><b>自适应拒绝：</b>在并发量超过上限或挂起线程超限时自动返回 HTTP 429（Too Many Requests）。</li>
  *     <li><b>响应策略：</b>通过 {@link ResponseStrategyContext} 选择合适的响应策略并写入响应。</li>
- *     <li><b>性能日志：</b>可选输出请求耗时与状态信息，支持多种 HTTP 方法的彩色控制台输出。</li>
+ *     <li><b>访问日志：</b>可选记录请求耗时与状态信息，由 {@link AccessLogger} 在后台线程中异步格式化并输出。</li>
  * </ul>
  *
  * <h3>线程模型</h3>
  * <p>
  * 本调度器由 Netty I/O 线程触发执行，但会立即在虚拟线程中运行实际业务逻辑。
  * 因此，开发者可以像编写同步代码一样编写控制逻辑，而不会阻塞 Netty 的 I/O 事件循环。
+ * 虚拟线程默认由 JDK 的 ForkJoinPool 运行，开启载体线程亲和（{@link #setCarrierAffinity(boolean)}）后由连接所在的 I/O 线程运行。
  *
  * <h3>限流策略</h3>
  * <p>
  * 当 {@code enableLimit=true} 时，调度器启用以下机制：
  * <ul>
- *     <li>通过 {@link Semaphore} 控制最大并发线程数（{@code limit}）。</li>
+ *     <li>通过 {@link ConcurrencyLimiter} 控制最大并发线程数，许可数量可以固定，也可以根据请求耗时自适应调整。</li>
  *     <li>若无可用许可，则进入挂起队列（最多 {@code maxSuspendThreadNum} 个）。</li>
  *     <li>挂起线程在 {@code timeout} 毫秒内仍未获取许可，则返回 429 响应。</li>
+ *     <li>使用 {@link AdmissionQueue} 时，挂起的请求按优先级排队，许可按权重分配给各优先级，
+ *     排队积压时等待过久的请求与超过客户端超时时间的请求会被提前拒绝。</li>
  * </ul>
  *
  * <p><b>线程安全性：</b>本类实例通常为单例线程安全实现，可在多连接共享。</p>
@@ -50,8 +61,6 @@ public class VirtualThreadHttpScheduler implements HttpScheduler {
 
     /** 请求处理的核心执行链（核心链或业务处理链）。 */
     protected final Processor processorChain;
-    /** HTTP 方法与控制台输出颜色映射表。 */
-    private final Map<String, String> colors;
     /** 响应策略上下文，用于选择合适的响应写出方式。 */
     private final ResponseStrategyContext responseStrategyContext;
     /** 是否启用限流机制。 */
@@ -62,23 +71,23 @@ public class VirtualThreadHttpScheduler implements HttpScheduler {
     private final int maxSuspendThreadNum;
     /** 请求超时时间（毫秒）。 */
     private final long timeout;
-    /** 并发许可控制器，用于限制同时执行的虚拟线程数。 */
-    private final Semaphore permission;
+    /** 并发限制器，用于限制同时执行的虚拟线程数。 */
+    private final ConcurrencyLimiter limiter;
+    /** 按优先级排队的准入队列，为 {@code null} 时挂起的请求直接等待并发限制器。 */
+    private final AdmissionQueue admissionQueue;
+    /** 累计拒绝的请求数。 */
+    private final LongAdder rejected = new LongAdder();
+    /** 虚拟线程是否以连接所在的IO线程作为载体线程。 */
+    private boolean carrierAffinity;
+    /** 每个IO线程对应的虚拟线程工厂。 */
+    private final Map<EventLoop, ThreadFactory> carrierFactories = new ConcurrentHashMap<>();
     /** 是否打印请求日志。 */
     protected boolean showRequestLog = true;
+    /** 访问日志，为 {@code null} 时使用 {@link AccessLogger#defaultLogger()}。 */
+    private AccessLogger accessLogger;
     /** 虚拟线程命名前缀。 */
     private static final String THREAD_NAME = "turboweb-http-handler";
 
-    {
-        colors = Map.of(
-                "GET", FontColors.GREEN,
-                "POST", FontColors.YELLOW,
-                "PUT", FontColors.BLUE,
-                "DELETE", FontColors.RED,
-                "PATCH", FontColors.MAGENTA
-        );
-    }
-
     /**
      * 创建一个默认（无限流）的虚拟线程调度器。
      *
@@ -98,11 +107,40 @@ public class VirtualThreadHttpScheduler implements HttpScheduler {
      * @param timeout              挂起线程等待许可的超时时间（毫秒）
      */
     public VirtualThreadHttpScheduler(Processor processorChain, boolean enableLimit, int limit, int maxSuspendThreadNum, long timeout) {
+        this(processorChain, enableLimit ? new FixedConcurrencyLimiter(limit) : null, maxSuspendThreadNum, timeout);
+    }
+
+    /**
+     * 创建使用指定并发限制器的虚拟线程调度器。
+     *
+     * @param processorChain      请求处理链
+     * @param limiter             并发限制器，为 {@code null} 时不限流
+     * @param maxSuspendThreadNum 最大允许挂起等待的线程数
+     * @param timeout             挂起线程等待许可的超时时间（毫秒）
+     */
+    public VirtualThreadHttpScheduler(Processor processorChain, ConcurrencyLimiter limiter, int maxSuspendThreadNum, long timeout) {
+        this(processorChain, limiter, null, maxSuspendThreadNum, timeout);
+    }
+
+    /**
+     * 创建按优先级排队等待许可的虚拟线程调度器。
+     *
+     * @param processorChain      请求处理链
+     * @param admissionQueue      准入队列
+     * @param maxSuspendThreadNum 最大允许挂起等待的线程数
+     * @param timeout             挂起线程等待许可的最长时间（毫秒）
+     */
+    public VirtualThreadHttpScheduler(Processor processorChain, AdmissionQueue admissionQueue, int maxSuspendThreadNum, long timeout) {
+        this(processorChain, admissionQueue.getLimiter(), admissionQueue, maxSuspendThreadNum, timeout);
+    }
+
+    private VirtualThreadHttpScheduler(Processor processorChain, ConcurrencyLimiter limiter, AdmissionQueue admissionQueue, int maxSuspendThreadNum, long timeout) {
         this.processorChain = processorChain;
-        this.enableLimit = enableLimit;
+        this.enableLimit = limiter != null;
+        this.limiter = limiter;
+        this.admissionQueue = admissionQueue;
         this.maxSuspendThreadNum = maxSuspendThreadNum;
         this.timeout = timeout;
-        permission = new Semaphore(limit);
         responseStrategyContext = new ResponseStrategyContext(enableLimit);
     }
 
@@ -121,64 +159,171 @@ public class VirtualThreadHttpScheduler implements HttpScheduler {
     public void execute(FullHttpRequest request, ConnectSession session) {
         long startTime = System.nanoTime();
         if (!enableLimit) {
-            VirtualThreads.startThread(() -> doExecute(request, session), THREAD_NAME);
+            startThread(() -> doExecute(request, session), session);
             return;
         }
         boolean prePermission;
         // 判断是否许可耗尽，并且超过最大挂起数
-        if (!(prePermission = permission.tryAcquire()) && suspendThreads.get() >= maxSuspendThreadNum) {
-            writeResponse(session, request, toManyRequestResponse(), startTime);
+        if (!(prePermission = tryAcquire()) && suspendThreads.get() >= maxSuspendThreadNum) {
+            reject(session, request, startTime);
             return;
         }
         // 创建虚拟线程
+        startThread(() -> {
+            if (!prePermission && !acquireOrSuspend(request, startTime)) {
+                reject(session, request, startTime);
+                return;
+            }
+            long acquireTime = System.nanoTime();
+            try {
+                doExecute(request, session, startTime);
+            } finally {
+                // 释放许可并报告执行耗时
+                release(System.nanoTime() - acquireTime);
+            }
+        }, session);
+    }
+
+    /**
+     * 创建虚拟线程执行任务，开启载体线程亲和时由连接所在的IO线程运行虚拟线程。
+     *
+     * @param task    任务
+     * @param session 当前连接会话
+     */
+    private void startThread(Runnable task, ConnectSession session) {
+        if (carrierAffinity && session instanceof InternalConnectSession internalSession) {
+            ThreadFactory factory = carrierFactories.computeIfAbsent(
+                    internalSession.getExecutor(),
+                    eventLoop -> VirtualThreads.schedulerFactory(eventLoop, THREAD_NAME)
+            );
+            factory.newThread(task).start();
+            return;
+        }
+        VirtualThreads.startThread(task, THREAD_NAME);
+    }
+
+    /**
+     * 尝试立即获取许可，使用准入队列时有请求排队则不能直接获取。
+     *
+     * @return 是否获取到许可
+     */
+    private boolean tryAcquire() {
+        return admissionQueue == null ? limiter.tryAcquire() : admissionQueue.tryAcquire();
+    }
+
+    /**
+     * 归还许可，使用准入队列时将许可交给下一个排队的请求。
+     *
+     * @param rttNanos 执行耗时（纳秒）
+     */
+    private void release(long rttNanos) {
+        if (admissionQueue == null) {
+            limiter.release(rttNanos);
+        } else {
+            admissionQueue.release(rttNanos);
+        }
+    }
+
+    /**
+     * 在当前线程中执行请求，不经过限流，供 {@link HybridHttpScheduler} 在IO线程中执行非阻塞的路由。
+     * <p>
+     * 文件、SSE、反应式等响应在写出时可能阻塞，这类响应交给虚拟线程写出。
+     *
+     * @param request 完整的 HTTP 请求对象
+     * @param session 当前连接的会话上下文
+     */
+    public void executeInline(FullHttpRequest request, ConnectSession session) {
+        long startTime = System.nanoTime();
+        HttpResponse response;
+        try {
+            response = processorChain.invoke(request, session);
+        } catch (Throwable e) {
+            request.release();
+            throw e;
+        }
+        if (isSpecialResponse(response)) {
+            writeResponseDetached(session, request, response, startTime);
+            return;
+        }
+        try {
+            writeResponse(session, request, response, startTime);
+        } finally {
+            request.release();
+        }
+    }
+
+    /**
+     * 判断响应是否为文件、SSE、反应式等写出时可能阻塞的响应
+     *
+     * @param response 响应对象
+     * @return 是否为特殊响应
+     */
+    private boolean isSpecialResponse(HttpResponse response) {
+        return response instanceof InternalCallResponse internalCallResponse
+                && internalCallResponse.getType() != InternalCallResponse.InternalCallType.DEFAULT;
+    }
+
+    /**
+     * 在默认载体线程的虚拟线程中写出响应并释放请求。
+     * <p>
+     * 这类响应的写出可能长时间阻塞，或者调用会固定载体线程的方法（例如等待 Netty 的 Future），
+     * 不能在IO线程或以IO线程作为载体的虚拟线程中执行。
+     *
+     * @param session   当前连接会话
+     * @param request   请求对象
+     * @param response  响应对象
+     * @param startTime 请求开始时间
+     */
+    private void writeResponseDetached(ConnectSession session, FullHttpRequest request, HttpResponse response, long startTime) {
         VirtualThreads.startThread(() -> {
-            boolean hasPermission = prePermission;
-            long waitTime = timeout;
+            try {
+                writeResponse(session, request, response, startTime);
+            } finally {
+                request.release();
+            }
+        }, THREAD_NAME);
+    }
+
+    /**
+     * 获取许可，没有许可时在挂起数未达上限的情况下挂起等待。
+     *
+     * @param request   请求对象
+     * @param startTime 请求开始时间
+     * @return 是否获取到许可
+     */
+    private boolean acquireOrSuspend(FullHttpRequest request, long startTime) {
+        if (tryAcquire()) {
+            return true;
+        }
+        // 到达最大挂起数时再次尝试获取许可
+        if (!trySuspendedThread()) {
+            return tryAcquire();
+        }
+        if (admissionQueue != null) {
+            try {
+                long deadline = admissionQueue.deadline(request, startTime, TimeUnit.MILLISECONDS.toNanos(timeout));
+                return admissionQueue.acquire(admissionQueue.classify(request), deadline);
+            } finally {
+                activeThread();
+            }
+        }
+        try {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
             for (; ; ) {
-                if (hasPermission) {
-                    // 如果拥有凭据直接执行
-                    try {
-                        doExecute(request, session, startTime);
-                        return;
-                    } finally {
-                        // 释放凭据
-                        permission.release();
-                    }
-                } else if (permission.tryAcquire()) {
-                    hasPermission = true;
-                } else {
-                    // 判断是否到达最大挂起数
-                    if (!trySuspendedThread()) {
-                        // 再次尝试获取凭据
-                        if (permission.tryAcquire()) {
-                            hasPermission = true;
-                        } else {
-                            writeResponse(session, request, toManyRequestResponse(), startTime);
-                            return;
-                        }
-                    } else {
-                        if (waitTime <= 0) {
-                            writeResponse(session, request, toManyRequestResponse(), startTime);
-                            return;
-                        }
-                        // 挂起线程
-                        long time = System.currentTimeMillis();
-                        try {
-                            hasPermission = permission.tryAcquire(waitTime, TimeUnit.MILLISECONDS);
-                            if (!hasPermission) {
-                                // 减少挂起的线程数
-                                activeThread();
-                                // 拒绝请求
-                                writeResponse(session, request, toManyRequestResponse(), startTime);
-                            }
-                        } catch (InterruptedException e) {
-                            activeThread();
-                            waitTime = waitTime - (System.currentTimeMillis() - time);
-                        }
-                    }
+                long waitTime = deadline - System.nanoTime();
+                if (waitTime <= 0) {
+                    return false;
+                }
+                try {
+                    return limiter.tryAcquire(waitTime, TimeUnit.NANOSECONDS);
+                } catch (InterruptedException e) {
+                    // 被中断时继续等待剩余的时间
                 }
             }
-        }, THREAD_NAME);
+        } finally {
+            // 减少挂起的线程数
+            activeThread();
+        }
     }
 
     /**
@@ -225,37 +370,88 @@ public class VirtualThreadHttpScheduler implements HttpScheduler {
      * @param startTime 请求开始时间，用于性能统计
      */
     private void doExecute(FullHttpRequest request, ConnectSession session, long startTime) {
+        HttpResponse response;
+        try {
+            response = processorChain.invoke(request, session);
+        } catch (Throwable e) {
+            request.release();
+            throw e;
+        }
+        // 开启载体线程亲和时当前虚拟线程运行在IO线程上，特殊响应交给默认载体线程写出
+        if (carrierAffinity && isSpecialResponse(response)) {
+            writeResponseDetached(session, request, response, startTime);
+            return;
+        }
         try {
-            HttpResponse response = processorChain.invoke(request, session);
             writeResponse(session, request, response, startTime);
         } finally {
             request.release();
         }
     }
 
+    /**
+     * 设置虚拟线程是否以连接所在的IO线程作为载体线程（实验性）。
+     * <p>
+     * 开启后请求的虚拟线程由接收该请求的IO线程运行，请求数据与写出响应都在同一个线程中，减少跨核心的缓存同步。
+     * 文件、SSE、反应式等响应仍然在默认载体线程的虚拟线程中写出。
+     * <p>
+     * 业务代码中任何会固定载体线程的调用（在 synchronized 中阻塞、{@code Object.wait()}、
+     * 等待 Netty 的 {@code Future#get()}、{@code sync()}、{@code await()}、本地方法中阻塞等）都会阻塞该IO线程上的所有连接，
+     * 如果等待的事件需要由这个IO线程完成（例如等待同一连接的写出结果），该IO线程会永久挂起。
+     *
+     * @param carrierAffinity true开启
+     * @throws IllegalStateException 当前JDK不支持指定虚拟线程的载体线程
+     */
+    public void setCarrierAffinity(boolean carrierAffinity) {
+        if (carrierAffinity && !VirtualThreads.isCustomSchedulerSupported()) {
+            throw new IllegalStateException("custom virtual thread scheduler is not supported, add --add-opens java.base/java.lang=ALL-UNNAMED");
+        }
+        this.carrierAffinity = carrierAffinity;
+    }
+
     @Override
     public void setShowRequestLog(boolean showRequestLog) {
         this.showRequestLog = showRequestLog;
     }
 
     /**
-     * 输出请求日志。
+     * 设置记录请求日志的访问日志
      *
-     * @param request   请求对象
-     * @param time      执行耗时（纳秒）
-     * @param isSuccess 响应是否成功发送
+     * @param accessLogger 访问日志，为 {@code null} 时使用 {@link AccessLogger#defaultLogger()}
      */
-    private void log(FullHttpRequest request, long time, boolean isSuccess) {
-        String method = request.method().name();
-        if (!colors.containsKey(method)) {
-            return;
-        }
-        String color = colors.get(method);
-        String uri = request.uri();
-        if (time > 1000000) {
-            System.out.println(color + "%s  %s  耗时:%sms  state:%s".formatted(method, uri, time / 1000000, isSuccess ? "success" : "fail") + FontColors.RESET);
+    public void setAccessLogger(AccessLogger accessLogger) {
+        this.accessLogger = accessLogger;
+    }
+
+    /**
+     * 获取记录请求日志的访问日志
+     *
+     * @return 访问日志，未设置时返回 {@code null}
+     */
+    public AccessLogger getAccessLogger() {
+        return accessLogger;
+    }
+
+    /**
+     * 记录请求日志。
+     * <p>
+     * 响应已经发送完成时直接记录，否则在发送完成后记录。
+     *
+     * @param session       当前连接会话
+     * @param request       请求对象
+     * @param response      响应对象
+     * @param channelFuture 响应的发送结果
+     * @param startTime     请求起始时间
+     */
+    private void log(ConnectSession session, FullHttpRequest request, HttpResponse response, ChannelFuture channelFuture, long startTime) {
+        AccessLogger logger = accessLogger != null ? accessLogger : AccessLogger.defaultLogger();
+        Channel channel = ((InternalConnectSession) session).getChannel();
+        if (channelFuture.isDone()) {
+            logger.log(channel, request, response, System.nanoTime() - startTime, channelFuture.isSuccess());
         } else {
-            System.out.println(color + "%s  %s  耗时:%sµs  state:%s".formatted(method, uri, time / 1000, isSuccess ? "success" : "fail") + FontColors.RESET);
+            channelFuture.addListener(future -> {
+                logger.log(channel, request, response, System.nanoTime() - startTime, future.isSuccess());
+            });
         }
     }
 
@@ -263,7 +459,7 @@ public class VirtualThreadHttpScheduler implements HttpScheduler {
      * 写出响应。
      * <p>
      * 通过 {@link ResponseStrategyContext} 动态选择合适的响应策略，
-     * 并在发送完成后可选打印性能日志。
+     * 并在发送完成后可选记录访问日志。
      *
      * @param session   当前连接会话
      * @param request   请求对象
@@ -275,12 +471,38 @@ public class VirtualThreadHttpScheduler implements HttpScheduler {
         ResponseStrategy responseStrategy = responseStrategyContext.chooseStrategy(response);
         // 执行对应的策略
         ChannelFuture channelFuture = responseStrategy.handle(response, (InternalConnectSession) session);
-        // 打印性能日志
+        // 记录访问日志
         if (showRequestLog && channelFuture != null) {
-            channelFuture.addListener(future -> {
-                log(request, System.nanoTime() - startTime, future.isSuccess());
-            });
+            log(session, request, response, channelFuture, startTime);
+        }
+    }
+
+    /**
+     * 拒绝请求并返回 429 响应。
+     *
+     * @param session   当前连接会话
+     * @param request   请求对象
+     * @param startTime 请求起始时间
+     */
+    private void reject(ConnectSession session, FullHttpRequest request, long startTime) {
+        rejected.increment();
+        try {
+            writeResponse(session, request, toManyRequestResponse(), startTime);
+        } finally {
+            request.release();
+        }
+    }
+
+    /**
+     * 获取限流的运行指标（当前许可数、正在执行与挂起等待的请求数、累计拒绝数）。
+     *
+     * @return 指标快照，未开启限流时返回 null
+     */
+    public LimitMetrics limitMetrics() {
+        if (!enableLimit) {
+            return null;
         }
+        return new LimitMetrics(limiter.getLimit(), limiter.getInFlight(), suspendThreads.get(), rejected.sum());
     }
 
     /**
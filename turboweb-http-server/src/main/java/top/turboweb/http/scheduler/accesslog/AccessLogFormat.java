@@ -0,0 +1,23 @@
+package top.turboweb.http.scheduler.accesslog;
+
+/**
+ * 访问日志的输出格式
+ */
+public enum AccessLogFormat {
+
+    /**
+     * 控制台格式：按请求方式着色，输出请求方式、URI、耗时与发送结果，
+     * 例如 {@code GET  /user  耗时:12ms  state:success}
+     */
+    CONSOLE,
+
+    /**
+     * Common Log Format，例如 {@code 127.0.0.1 - - [17/Oct/2026:10:00:00 +0800] "GET /user HTTP/1.1" 200 1234}
+     */
+    COMMON,
+
+    /**
+     * 每行一个 json 对象，包含时间、客户端地址、请求方式、URI、协议、状态码、响应字节数、耗时（微秒）与发送结果
+     */
+    JSON
+}
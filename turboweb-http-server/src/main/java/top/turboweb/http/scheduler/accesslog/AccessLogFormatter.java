@@ -0,0 +1,296 @@
+package top.turboweb.http.scheduler.accesslog;
+
+import top.turboweb.commons.constants.FontColors;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * 将访问日志格式化到可复用的字节缓冲区中
+ * <p>
+ * 只由写出线程使用，时间按秒缓存格式化的结果。
+ * </p>
+ */
+class AccessLogFormatter {
+
+    private static final DateTimeFormatter COMMON_TIME = DateTimeFormatter.ofPattern("dd/MMM/yyyy:HH:mm:ss Z", Locale.ENGLISH);
+    private static final DateTimeFormatter ISO_SECOND = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss", Locale.ENGLISH);
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[][] METHOD_NAMES = new byte[AccessLogRecord.METHODS.length][];
+    private static final byte[][] METHOD_COLORS = new byte[AccessLogRecord.METHODS.length][];
+    private static final byte[] RESET = ascii(FontColors.RESET);
+    private static final byte[] SUCCESS = ascii("success");
+    private static final byte[] FAIL = ascii("fail");
+    private static final byte[] ELLIPSIS = ascii("...");
+
+    static {
+        for (int i = 0; i < METHOD_NAMES.length; i++) {
+            METHOD_NAMES[i] = ascii(AccessLogRecord.METHODS[i].name());
+        }
+        // 与之前的控制台日志保持一致，其他请求方式不着色
+        METHOD_COLORS[0] = ascii(FontColors.GREEN);
+        METHOD_COLORS[1] = ascii(FontColors.YELLOW);
+        METHOD_COLORS[2] = ascii(FontColors.BLUE);
+        METHOD_COLORS[3] = ascii(FontColors.RED);
+        METHOD_COLORS[4] = ascii(FontColors.MAGENTA);
+    }
+
+    private final AccessLogFormat format;
+    private final ZoneId zone;
+    private final byte[] cost;
+    private final byte[] millis;
+    private final byte[] micros;
+    private byte[] buffer = new byte[8192];
+    private int length;
+
+    /**
+     * 缓存的秒数以及该秒格式化后的时间
+     */
+    private long cachedSecond = Long.MIN_VALUE;
+    private byte[] commonTime;
+    private byte[] isoSecond;
+    private byte[] isoOffset;
+
+    /**
+     * 创建格式化器
+     *
+     * @param format  日志格式
+     * @param zone    时区
+     * @param charset 非 ASCII 字符的编码
+     */
+    AccessLogFormatter(AccessLogFormat format, ZoneId zone, Charset charset) {
+        this.format = format;
+        this.zone = zone;
+        this.cost = "  耗时:".getBytes(charset);
+        this.millis = "ms  state:".getBytes(charset);
+        this.micros = "µs  state:".getBytes(charset);
+    }
+
+    /**
+     * 格式化一条日志并追加到缓冲区末尾
+     *
+     * @param record 日志
+     */
+    void append(AccessLogRecord record) {
+        switch (format) {
+            case CONSOLE -> appendConsole(record);
+            case COMMON -> appendCommon(record);
+            case JSON -> appendJson(record);
+        }
+    }
+
+    byte[] buffer() {
+        return buffer;
+    }
+
+    int length() {
+        return length;
+    }
+
+    void reset() {
+        length = 0;
+    }
+
+    private void appendConsole(AccessLogRecord record) {
+        byte[] color = record.method == AccessLogRecord.UNKNOWN_METHOD ? null : METHOD_COLORS[record.method];
+        if (color != null) {
+            write(color);
+        }
+        writeMethod(record);
+        write((byte) ' ');
+        write((byte) ' ');
+        write(record.uri, 0, record.uriLength);
+        if (record.isTruncated()) {
+            write(ELLIPSIS);
+        }
+        write(cost);
+        if (record.duration > 1000000) {
+            writeLong(record.duration / 1000000);
+            write(millis);
+        } else {
+            writeLong(record.duration / 1000);
+            write(micros);
+        }
+        write(record.isSuccess() ? SUCCESS : FAIL);
+        if (color != null) {
+            write(RESET);
+        }
+        write((byte) '\n');
+    }
+
+    private void appendCommon(AccessLogRecord record) {
+        updateTime(record.timestamp);
+        writeHost(record);
+        writeAscii(" - - [");
+        write(commonTime);
+        writeAscii("] \"");
+        writeMethod(record);
+        write((byte) ' ');
+        for (int i = 0; i < record.uriLength; i++) {
+            byte b = record.uri[i];
+            if (b == '"' || b == '\\') {
+                write((byte) '\\');
+                write(b);
+            } else if ((b >= 0 && b < 0x20) || b == 0x7F) {
+                writeAscii("\\x");
+                write(HEX[b >> 4 & 0xF]);
+                write(HEX[b & 0xF]);
+            } else {
+                write(b);
+            }
+        }
+        if (record.isTruncated()) {
+            write(ELLIPSIS);
+        }
+        write((byte) ' ');
+        writeAscii(record.protocol());
+        writeAscii("\" ");
+        writeLong(record.status);
+        write((byte) ' ');
+        if (record.bytes < 0) {
+            write((byte) '-');
+        } else {
+            writeLong(record.bytes);
+        }
+        write((byte) '\n');
+    }
+
+    private void appendJson(AccessLogRecord record) {
+        updateTime(record.timestamp);
+        writeAscii("{\"time\":\"");
+        write(isoSecond);
+        write((byte) '.');
+        long milliOfSecond = Math.floorMod(record.timestamp, 1000L);
+        write((byte) ('0' + milliOfSecond / 100));
+        write((byte) ('0' + milliOfSecond / 10 % 10));
+        write((byte) ('0' + milliOfSecond % 10));
+        write(isoOffset);
+        writeAscii("\",\"remote\":\"");
+        writeHost(record);
+        writeAscii("\",\"method\":\"");
+        writeMethod(record);
+        writeAscii("\",\"uri\":\"");
+        for (int i = 0; i < record.uriLength; i++) {
+            byte b = record.uri[i];
+            if (b == '"' || b == '\\') {
+                write((byte) '\\');
+                write(b);
+            } else if (b >= 0 && b < 0x20) {
+                writeAscii("\\u00");
+                write(HEX[b >> 4 & 0xF]);
+                write(HEX[b & 0xF]);
+            } else {
+                write(b);
+            }
+        }
+        writeAscii("\",\"protocol\":\"");
+        writeAscii(record.protocol());
+        writeAscii("\",\"status\":");
+        writeLong(record.status);
+        writeAscii(",\"bytes\":");
+        if (record.bytes < 0) {
+            writeAscii("null");
+        } else {
+            writeLong(record.bytes);
+        }
+        writeAscii(",\"durationMicros\":");
+        writeLong(record.duration / 1000);
+        writeAscii(",\"success\":");
+        writeAscii(record.isSuccess() ? "true" : "false");
+        writeAscii(",\"truncated\":");
+        writeAscii(record.isTruncated() ? "true" : "false");
+        write((byte) '}');
+        write((byte) '\n');
+    }
+
+    /**
+     * 进入新的一秒时重新格式化时间
+     *
+     * @param timestamp 毫秒时间戳
+     */
+    private void updateTime(long timestamp) {
+        long second = Math.floorDiv(timestamp, 1000L);
+        if (second == cachedSecond) {
+            return;
+        }
+        ZonedDateTime time = Instant.ofEpochSecond(second).atZone(zone);
+        commonTime = ascii(COMMON_TIME.format(time));
+        isoSecond = ascii(ISO_SECOND.format(time));
+        isoOffset = ascii(time.getOffset().getId());
+        cachedSecond = second;
+    }
+
+    private void writeHost(AccessLogRecord record) {
+        if (record.hostLength == 0) {
+            write((byte) '-');
+        } else {
+            write(record.host, 0, record.hostLength);
+        }
+    }
+
+    private void writeMethod(AccessLogRecord record) {
+        if (record.method == AccessLogRecord.UNKNOWN_METHOD) {
+            write((byte) '-');
+        } else {
+            write(METHOD_NAMES[record.method]);
+        }
+    }
+
+    private void writeLong(long value) {
+        if (value < 0) {
+            write((byte) '-');
+            value = -value;
+        }
+        ensureCapacity(20);
+        int start = length;
+        do {
+            buffer[length++] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value > 0);
+        // 反转写入的数字
+        for (int i = start, j = length - 1; i < j; i++, j--) {
+            byte b = buffer[i];
+            buffer[i] = buffer[j];
+            buffer[j] = b;
+        }
+    }
+
+    private void writeAscii(String value) {
+        ensureCapacity(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            buffer[length++] = (byte) value.charAt(i);
+        }
+    }
+
+    private void write(byte b) {
+        ensureCapacity(1);
+        buffer[length++] = b;
+    }
+
+    private void write(byte[] bytes) {
+        write(bytes, 0, bytes.length);
+    }
+
+    private void write(byte[] bytes, int offset, int len) {
+        ensureCapacity(len);
+        System.arraycopy(bytes, offset, buffer, length, len);
+        length += len;
+    }
+
+    private void ensureCapacity(int len) {
+        if (length + len > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + len));
+        }
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+}
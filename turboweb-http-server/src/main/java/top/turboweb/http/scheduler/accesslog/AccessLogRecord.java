@@ -0,0 +1,96 @@
+package top.turboweb.http.scheduler.accesslog;
+
+import io.netty.handler.codec.http.HttpMethod;
+
+/**
+ * 从环形缓冲区中读出的一条访问日志
+ * <p>
+ * 写出线程只持有一个实例，每次读取时覆盖上一条日志的内容。
+ * </p>
+ */
+class AccessLogRecord {
+
+    /**
+     * 记录的URI最大字节数，超出部分被截断
+     */
+    static final int MAX_URI_LENGTH = 256;
+    /**
+     * 记录的客户端地址最大字节数
+     */
+    static final int MAX_HOST_LENGTH = 48;
+
+    static final int FLAG_SUCCESS = 1;
+    static final int FLAG_TRUNCATED = 1 << 1;
+    static final int FLAG_HTTP_1_0 = 1 << 2;
+
+    /**
+     * 未知的请求方式
+     */
+    static final int UNKNOWN_METHOD = 0xFF;
+
+    static final HttpMethod[] METHODS = {
+            HttpMethod.GET, HttpMethod.POST, HttpMethod.PUT, HttpMethod.DELETE, HttpMethod.PATCH,
+            HttpMethod.HEAD, HttpMethod.OPTIONS, HttpMethod.TRACE, HttpMethod.CONNECT
+    };
+
+    /**
+     * 结束时间（毫秒时间戳）
+     */
+    long timestamp;
+    /**
+     * 耗时（纳秒）
+     */
+    long duration;
+    /**
+     * 响应体字节数，未知时为-1
+     */
+    long bytes;
+    int status;
+    int method;
+    int flags;
+    final byte[] uri = new byte[MAX_URI_LENGTH];
+    int uriLength;
+    final byte[] host = new byte[MAX_HOST_LENGTH];
+    int hostLength;
+
+    /**
+     * 获取请求方式的编号
+     *
+     * @param method 请求方式
+     * @return 编号，不是标准的请求方式时返回 {@link #UNKNOWN_METHOD}
+     */
+    static int methodIndex(HttpMethod method) {
+        for (int i = 0; i < METHODS.length; i++) {
+            if (METHODS[i] == method) {
+                return i;
+            }
+        }
+        for (int i = 0; i < METHODS.length; i++) {
+            if (METHODS[i].equals(method)) {
+                return i;
+            }
+        }
+        return UNKNOWN_METHOD;
+    }
+
+    /**
+     * 获取请求方式的名称
+     *
+     * @return 请求方式，未知时返回 "-"
+     */
+    String methodName() {
+        return method == UNKNOWN_METHOD ? "-" : METHODS[method].name();
+    }
+
+    boolean isSuccess() {
+        return (flags & FLAG_SUCCESS) != 0;
+    }
+
+    boolean isTruncated() {
+        return (flags & FLAG_TRUNCATED) != 0;
+    }
+
+    String protocol() {
+        return (flags & FLAG_HTTP_1_0) != 0 ? "HTTP/1.0" : "HTTP/1.1";
+    }
+}
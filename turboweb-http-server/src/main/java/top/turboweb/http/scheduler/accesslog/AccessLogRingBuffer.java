@@ -0,0 +1,147 @@
+package top.turboweb.http.scheduler.accesslog;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 存放访问日志的多生产者单消费者无锁环形缓冲区
+ * <p>
+ * 每条日志占用固定大小的槽位：4个 long 存放时间、耗时、响应字节数以及状态码等打包后的字段，
+ * URI 与客户端地址按字节复制到预先分配的数组中，写入时不创建任何对象。
+ * </p>
+ * <p>
+ * 生产者通过 CAS 占用序号，写完槽位后以 release 语义发布序号；消费者按序号顺序读取已发布的槽位，读完后推进读取位置。
+ * 缓冲区已满时直接丢弃日志，不会阻塞生产者。
+ * </p>
+ */
+class AccessLogRingBuffer {
+
+    private static final int META_STRIDE = 4;
+
+    private final int capacity;
+    private final int mask;
+    private final long[] meta;
+    private final byte[] uris;
+    private final byte[] hosts;
+    /**
+     * 每个槽位已发布的序号
+     */
+    private final AtomicLongArray published;
+    /**
+     * 下一个被占用的序号
+     */
+    private final AtomicLong tail = new AtomicLong();
+    /**
+     * 下一个被读取的序号，只由消费者修改
+     */
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * 创建环形缓冲区
+     *
+     * @param capacity 容量，向上取整为2的幂
+     */
+    AccessLogRingBuffer(int capacity) {
+        if (capacity < 2 || capacity > 1 << 24) {
+            throw new IllegalArgumentException("capacity must be between 2 and " + (1 << 24));
+        }
+        this.capacity = Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = this.capacity - 1;
+        this.meta = new long[this.capacity * META_STRIDE];
+        this.uris = new byte[this.capacity * AccessLogRecord.MAX_URI_LENGTH];
+        this.hosts = new byte[this.capacity * AccessLogRecord.MAX_HOST_LENGTH];
+        this.published = new AtomicLongArray(this.capacity);
+        for (int i = 0; i < this.capacity; i++) {
+            published.set(i, -1);
+        }
+    }
+
+    /**
+     * 写入一条日志
+     *
+     * @param timestamp 结束时间（毫秒时间戳）
+     * @param duration  耗时（纳秒）
+     * @param bytes     响应体字节数，未知时为-1
+     * @param status    响应状态码
+     * @param method    请求方式的编号
+     * @param flags     标志位
+     * @param uri       请求URI
+     * @param host      客户端地址
+     * @return 缓冲区已满时返回false
+     */
+    boolean offer(long timestamp, long duration, long bytes, int status, int method, int flags, String uri, byte[] host) {
+        long sequence;
+        do {
+            sequence = tail.get();
+            if (sequence - head.get() >= capacity) {
+                return false;
+            }
+        } while (!tail.compareAndSet(sequence, sequence + 1));
+        int index = (int) (sequence & mask);
+        // 复制URI，请求行按字节解码为字符，取低8位即可还原
+        int uriLength = Math.min(uri.length(), AccessLogRecord.MAX_URI_LENGTH);
+        if (uriLength < uri.length()) {
+            flags |= AccessLogRecord.FLAG_TRUNCATED;
+        }
+        int uriOffset = index * AccessLogRecord.MAX_URI_LENGTH;
+        for (int i = 0; i < uriLength; i++) {
+            char c = uri.charAt(i);
+            uris[uriOffset + i] = c > 0xFF ? (byte) '?' : (byte) c;
+        }
+        int hostLength = Math.min(host.length, AccessLogRecord.MAX_HOST_LENGTH);
+        System.arraycopy(host, 0, hosts, index * AccessLogRecord.MAX_HOST_LENGTH, hostLength);
+        int metaOffset = index * META_STRIDE;
+        meta[metaOffset] = timestamp;
+        meta[metaOffset + 1] = duration;
+        meta[metaOffset + 2] = bytes;
+        meta[metaOffset + 3] = (status & 0xFFFFL)
+                | (long) (method & 0xFF) << 16
+                | (long) (flags & 0xFF) << 24
+                | (long) uriLength << 32
+                | (long) hostLength << 48;
+        published.lazySet(index, sequence);
+        return true;
+    }
+
+    /**
+     * 读取下一条日志，只能由消费者调用
+     *
+     * @param record 存放日志的对象
+     * @return 没有已发布的日志时返回false
+     */
+    boolean poll(AccessLogRecord record) {
+        long sequence = head.get();
+        int index = (int) (sequence & mask);
+        if (published.get(index) != sequence) {
+            return false;
+        }
+        int metaOffset = index * META_STRIDE;
+        record.timestamp = meta[metaOffset];
+        record.duration = meta[metaOffset + 1];
+        record.bytes = meta[metaOffset + 2];
+        long packed = meta[metaOffset + 3];
+        record.status = (int) (packed & 0xFFFF);
+        record.method = (int) (packed >>> 16 & 0xFF);
+        record.flags = (int) (packed >>> 24 & 0xFF);
+        record.uriLength = (int) (packed >>> 32 & 0xFFFF);
+        record.hostLength = (int) (packed >>> 48 & 0xFF);
+        System.arraycopy(uris, index * AccessLogRecord.MAX_URI_LENGTH, record.uri, 0, record.uriLength);
+        System.arraycopy(hosts, index * AccessLogRecord.MAX_HOST_LENGTH, record.host, 0, record.hostLength);
+        // 读完后才允许生产者覆盖该槽位
+        head.lazySet(sequence + 1);
+        return true;
+    }
+
+    /**
+     * 获取已占用但未被读取的槽位数
+     *
+     * @return 槽位数
+     */
+    int size() {
+        return (int) (tail.get() - head.get());
+    }
+
+    int capacity() {
+        return capacity;
+    }
+}
@@ -0,0 +1,41 @@
+package top.turboweb.http.scheduler.accesslog;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 访问日志的输出目标
+ * <p>
+ * 只会被访问日志的写出线程调用，实现不需要考虑线程安全。
+ * </p>
+ */
+public interface AccessLogSink extends Closeable {
+
+    /**
+     * 写出一批格式化后的日志
+     *
+     * @param bytes  日志内容
+     * @param offset 起始位置
+     * @param length 字节数
+     * @throws IOException 写出失败
+     */
+    void write(byte[] bytes, int offset, int length) throws IOException;
+
+    /**
+     * 刷新缓冲区，在缓冲区中的日志全部写出后调用
+     *
+     * @throws IOException 刷新失败
+     */
+    void flush() throws IOException;
+
+    /**
+     * 获取日志中非 ASCII 字符使用的编码
+     *
+     * @return 字符编码
+     */
+    default Charset charset() {
+        return StandardCharsets.UTF_8;
+    }
+}
@@ -0,0 +1,285 @@
+package top.turboweb.http.scheduler.accesslog;
+
+import io.netty.channel.Channel;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.HttpUtil;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.util.Attribute;
+import io.netty.util.AttributeKey;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneId;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 异步写出的访问日志。
+ * <p>
+ * 请求完成时调用 {@link #log} 把请求信息写入固定大小的环形缓冲区，不格式化字符串、不创建对象、不获取锁，
+ * 可以直接在IO线程中调用。后台的写出线程批量读取缓冲区中的日志，格式化后写出到 {@link AccessLogSink}，
+ * 每批日志只刷新一次输出。
+ * </p>
+ * <p>
+ * 写出线程空闲时逐步延长休眠时间（最长16毫秒），缓冲区使用超过一半时由生产者唤醒；
+ * 缓冲区已满时丢弃新的日志并计数，写出线程定期输出丢弃的数量。
+ * 开启采样后按比例记录成功的请求，发送失败与状态码大于等于500的请求总是记录。
+ * </p>
+ */
+public class AccessLogger implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(AccessLogger.class);
+
+    /**
+     * 每个连接缓存的客户端地址
+     */
+    private static final AttributeKey<byte[]> REMOTE_ADDRESS = AttributeKey.valueOf("turboweb.accessLogRemoteAddress");
+    private static final byte[] UNKNOWN_ADDRESS = new byte[0];
+    private static final String THREAD_NAME = "turboweb-access-log";
+    /**
+     * 默认的缓冲区容量
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+    /**
+     * 格式化的内容超过该字节数时先写出
+     */
+    private static final int BATCH_BYTES = 64 * 1024;
+    private static final long MIN_IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long MAX_IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(16);
+    private static final long DROP_REPORT_INTERVAL = TimeUnit.SECONDS.toNanos(10);
+
+    private final AccessLogRingBuffer ringBuffer;
+    private final AccessLogSink sink;
+    private final AccessLogFormatter formatter;
+    private final double sampleRate;
+    private final LongAdder dropped = new LongAdder();
+    private final Thread writer;
+    private volatile boolean running = true;
+    /**
+     * 写出线程是否处于休眠中
+     */
+    private volatile boolean idle;
+
+    /**
+     * 创建访问日志并启动写出线程
+     *
+     * @param format     日志格式
+     * @param sink       输出目标
+     * @param sampleRate 成功请求的采样率，取值 (0, 1]
+     * @param bufferSize 缓冲区可容纳的日志条数，向上取整为2的幂
+     */
+    public AccessLogger(AccessLogFormat format, AccessLogSink sink, double sampleRate, int bufferSize) {
+        if (format == null || sink == null) {
+            throw new IllegalArgumentException("format and sink can not be null");
+        }
+        if (!(sampleRate > 0 && sampleRate <= 1)) {
+            throw new IllegalArgumentException("sampleRate must be in (0, 1]");
+        }
+        this.ringBuffer = new AccessLogRingBuffer(bufferSize);
+        this.sink = sink;
+        this.formatter = new AccessLogFormatter(format, ZoneId.systemDefault(), sink.charset());
+        this.sampleRate = sampleRate;
+        this.writer = new Thread(this::writeLoop, THREAD_NAME);
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * 获取默认的访问日志：控制台格式，输出到标准输出，不采样
+     *
+     * @return 默认的访问日志
+     */
+    public static AccessLogger defaultLogger() {
+        return DefaultHolder.INSTANCE;
+    }
+
+    private static class DefaultHolder {
+        private static final AccessLogger INSTANCE = new AccessLogger(
+                AccessLogFormat.CONSOLE,
+                new ConsoleAccessLogSink(),
+                1,
+                DEFAULT_BUFFER_SIZE
+        );
+    }
+
+    /**
+     * 记录一次请求
+     *
+     * @param channel   请求所在的连接
+     * @param request   请求对象，只读取请求行，可以是已经释放的请求
+     * @param response  响应对象
+     * @param duration  耗时（纳秒）
+     * @param isSuccess 响应是否成功发送
+     */
+    public void log(Channel channel, HttpRequest request, HttpResponse response, long duration, boolean isSuccess) {
+        if (!running) {
+            return;
+        }
+        int status = response.status().code();
+        if (sampleRate < 1 && isSuccess && status < 500 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return;
+        }
+        int flags = isSuccess ? AccessLogRecord.FLAG_SUCCESS : 0;
+        if (request.protocolVersion() == HttpVersion.HTTP_1_0) {
+            flags |= AccessLogRecord.FLAG_HTTP_1_0;
+        }
+        boolean offered = ringBuffer.offer(
+                System.currentTimeMillis(),
+                duration,
+                contentLength(response),
+                status,
+                AccessLogRecord.methodIndex(request.method()),
+                flags,
+                request.uri(),
+                remoteAddress(channel)
+        );
+        if (!offered) {
+            dropped.increment();
+        }
+        if (idle && ringBuffer.size() > ringBuffer.capacity() >> 1) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    /**
+     * 获取因缓冲区已满被丢弃的日志数
+     *
+     * @return 丢弃的日志数
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * 停止记录，写出缓冲区中剩余的日志后关闭输出目标
+     */
+    @Override
+    public void close() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            sink.close();
+        } catch (IOException e) {
+            log.error("关闭访问日志失败", e);
+        }
+    }
+
+    /**
+     * 读取响应体的长度
+     *
+     * @param response 响应对象
+     * @return 响应体字节数，未知时返回-1
+     */
+    private long contentLength(HttpResponse response) {
+        try {
+            return HttpUtil.getContentLength(response, -1L);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * 获取客户端地址，每个连接只在第一次记录时转换一次
+     *
+     * @param channel 连接
+     * @return 客户端地址的字节
+     */
+    private byte[] remoteAddress(Channel channel) {
+        if (channel == null) {
+            return UNKNOWN_ADDRESS;
+        }
+        Attribute<byte[]> attribute = channel.attr(REMOTE_ADDRESS);
+        byte[] address = attribute.get();
+        if (address == null) {
+            SocketAddress socketAddress = channel.remoteAddress();
+            if (socketAddress instanceof InetSocketAddress inetSocketAddress && inetSocketAddress.getAddress() != null) {
+                address = inetSocketAddress.getAddress().getHostAddress().getBytes(StandardCharsets.US_ASCII);
+            } else {
+                address = UNKNOWN_ADDRESS;
+            }
+            attribute.set(address);
+        }
+        return address;
+    }
+
+    /**
+     * 写出线程的主循环
+     */
+    private void writeLoop() {
+        AccessLogRecord record = new AccessLogRecord();
+        long idleNanos = MIN_IDLE_NANOS;
+        long reportedDropped = 0;
+        long lastReportTime = System.nanoTime();
+        for (; ; ) {
+            // 先读取状态，保证关闭前写入的日志都能被写出
+            boolean stopping = !running;
+            int count = 0;
+            while (ringBuffer.poll(record)) {
+                formatter.append(record);
+                count++;
+                if (formatter.length() >= BATCH_BYTES) {
+                    writeBatch(false);
+                }
+            }
+            if (count > 0) {
+                writeBatch(true);
+            }
+            long now = System.nanoTime();
+            if (now - lastReportTime >= DROP_REPORT_INTERVAL) {
+                long total = dropped.sum();
+                if (total > reportedDropped) {
+                    log.warn("访问日志缓冲区已满，丢弃了{}条日志", total - reportedDropped);
+                    reportedDropped = total;
+                }
+                lastReportTime = now;
+            }
+            if (count > 0) {
+                idleNanos = MIN_IDLE_NANOS;
+                continue;
+            }
+            if (stopping) {
+                return;
+            }
+            idle = true;
+            if (ringBuffer.size() == 0 && running) {
+                LockSupport.parkNanos(this, idleNanos);
+            }
+            idle = false;
+            idleNanos = Math.min(idleNanos << 1, MAX_IDLE_NANOS);
+        }
+    }
+
+    /**
+     * 写出格式化后的日志
+     *
+     * @param flush 是否刷新输出
+     */
+    private void writeBatch(boolean flush) {
+        try {
+            sink.write(formatter.buffer(), 0, formatter.length());
+            if (flush) {
+                sink.flush();
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("写出访问日志失败", e);
+        } finally {
+            formatter.reset();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package top.turboweb.http.scheduler.accesslog;
+
+import java.nio.charset.Charset;
+
+/**
+ * 将访问日志写出到标准输出
+ * <p>
+ * 只由写出线程调用，每批日志只获取一次 {@link System#out} 的锁，IO线程不会再因为输出日志在控制台的锁上排队。
+ * </p>
+ */
+public class ConsoleAccessLogSink implements AccessLogSink {
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) {
+        System.out.write(bytes, offset, length);
+    }
+
+    @Override
+    public void flush() {
+        System.out.flush();
+    }
+
+    @Override
+    public Charset charset() {
+        return System.out.charset();
+    }
+
+    @Override
+    public void close() {
+        System.out.flush();
+    }
+}
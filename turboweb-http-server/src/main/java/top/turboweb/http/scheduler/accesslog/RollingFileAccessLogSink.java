@@ -0,0 +1,103 @@
+package top.turboweb.http.scheduler.accesslog;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 按大小滚动的访问日志文件
+ * <p>
+ * 文件超过 {@code maxFileSize} 后依次重命名为 {@code access.log.1}、{@code access.log.2}……，
+ * 最多保留 {@code maxHistory} 个历史文件，更早的文件被删除。
+ * </p>
+ */
+public class RollingFileAccessLogSink implements AccessLogSink {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path file;
+    private final long maxFileSize;
+    private final int maxHistory;
+    private OutputStream out;
+    private long size;
+
+    /**
+     * 创建滚动日志文件
+     *
+     * @param file        日志文件
+     * @param maxFileSize 单个文件的最大字节数
+     * @param maxHistory  保留的历史文件数
+     * @throws IOException 创建或打开日志文件失败
+     */
+    public RollingFileAccessLogSink(Path file, long maxFileSize, int maxHistory) throws IOException {
+        if (maxFileSize < 1024) {
+            throw new IllegalArgumentException("maxFileSize must be greater than or equal to 1024");
+        }
+        if (maxHistory < 0) {
+            throw new IllegalArgumentException("maxHistory must be greater than or equal to 0");
+        }
+        this.file = file.toAbsolutePath();
+        this.maxFileSize = maxFileSize;
+        this.maxHistory = maxHistory;
+        Files.createDirectories(this.file.getParent());
+        open();
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        if (size > 0 && size + length > maxFileSize) {
+            roll();
+        }
+        out.write(bytes, offset, length);
+        size += length;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    /**
+     * 打开日志文件，已存在时追加写入
+     */
+    private void open() throws IOException {
+        out = new BufferedOutputStream(
+                Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND),
+                BUFFER_SIZE
+        );
+        size = Files.size(file);
+    }
+
+    /**
+     * 滚动日志文件
+     */
+    private void roll() throws IOException {
+        out.close();
+        if (maxHistory == 0) {
+            Files.delete(file);
+        } else {
+            Files.deleteIfExists(history(maxHistory));
+            for (int i = maxHistory - 1; i >= 1; i--) {
+                Path source = history(i);
+                if (Files.exists(source)) {
+                    Files.move(source, history(i + 1), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            Files.move(file, history(1), StandardCopyOption.REPLACE_EXISTING);
+        }
+        open();
+    }
+
+    private Path history(int index) {
+        return file.resolveSibling(file.getFileName() + "." + index);
+    }
+}
@@ -0,0 +1,337 @@
+package top.turboweb.http.scheduler.admission;
+
+import io.netty.handler.codec.http.HttpRequest;
+import top.turboweb.anno.Priority;
+import top.turboweb.http.scheduler.limit.ConcurrencyLimiter;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 按优先级排队的许可准入队列。
+ * <p>
+ * 没有获取到许可的请求按优先级进入不同的先进先出队列，归还许可时按平滑加权轮询从非空队列中选出下一个请求并直接把许可交给它，
+ * 优先级高的队列权重更大，优先级低的队列也不会一直得不到许可。有请求在排队时新到达的请求不能直接获取许可，需要排队。
+ * </p>
+ * <p>
+ * 队列管理参考 CoDel：每个队列记录最近一次为空的时间，队列持续不为空超过 {@code interval} 时认为出现了积压，
+ * 此时等待超过 {@code target} 的请求在出队时直接丢弃，积压消失后只按请求的截止时间丢弃。
+ * 请求的截止时间为最长等待时间与客户端超时时间（通过请求头传递的剩余毫秒数）中较早的一个，超过截止时间的请求不会再获得许可。
+ * </p>
+ */
+public class AdmissionQueue {
+
+    private static final Priority.Level[] LEVELS = Priority.Level.values();
+
+    private static final int WAITING = 0;
+    private static final int GRANTED = 1;
+    private static final int DROPPED = 2;
+    private static final int CANCELLED = 3;
+
+    /**
+     * 等待许可的请求
+     */
+    private static final class Waiter {
+        private final Thread thread;
+        private final long enqueueTime;
+        private final long deadline;
+        /**
+         * 只在持有锁时修改
+         */
+        private volatile int state = WAITING;
+
+        private Waiter(Thread thread, long enqueueTime, long deadline) {
+            this.thread = thread;
+            this.enqueueTime = enqueueTime;
+            this.deadline = deadline;
+        }
+    }
+
+    private final ConcurrencyLimiter limiter;
+    private final PriorityClassifier classifier;
+    private final String deadlineHeader;
+    private final int[] weights;
+    private final long targetNanos;
+    private final long intervalNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    /**
+     * 以下字段只在持有锁时访问
+     */
+    private final ArrayDeque<Waiter>[] queues;
+    private final long[] lastEmptyTime;
+    private final int[] currentWeights;
+
+    /**
+     * 排队中的请求数，不包括已超时取消的请求
+     */
+    private final AtomicInteger queued = new AtomicInteger();
+
+    /**
+     * 创建准入队列
+     *
+     * @param limiter        并发限制器
+     * @param classifier     优先级分类器
+     * @param weights        各优先级的权重，按 {@link Priority.Level} 的顺序排列
+     * @param targetMillis   出现积压时允许的最长排队时间（毫秒）
+     * @param intervalMillis 队列持续不为空多久视为积压（毫秒）
+     * @param deadlineHeader 传递客户端剩余超时时间（毫秒）的请求头，为null时不读取
+     */
+    @SuppressWarnings("unchecked")
+    public AdmissionQueue(ConcurrencyLimiter limiter, PriorityClassifier classifier, int[] weights,
+                          long targetMillis, long intervalMillis, String deadlineHeader) {
+        if (weights.length != LEVELS.length) {
+            throw new IllegalArgumentException("weights length must be " + LEVELS.length);
+        }
+        for (int weight : weights) {
+            if (weight < 1) {
+                throw new IllegalArgumentException("weight must be greater than or equal to 1");
+            }
+        }
+        if (targetMillis < 1 || intervalMillis < targetMillis) {
+            throw new IllegalArgumentException("must satisfy 1 <= targetMillis <= intervalMillis");
+        }
+        this.limiter = limiter;
+        this.classifier = classifier;
+        this.deadlineHeader = deadlineHeader;
+        this.weights = weights.clone();
+        this.targetNanos = TimeUnit.MILLISECONDS.toNanos(targetMillis);
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMillis);
+        this.queues = new ArrayDeque[LEVELS.length];
+        this.lastEmptyTime = new long[LEVELS.length];
+        this.currentWeights = new int[LEVELS.length];
+        long now = System.nanoTime();
+        for (int i = 0; i < LEVELS.length; i++) {
+            queues[i] = new ArrayDeque<>();
+            lastEmptyTime[i] = now;
+        }
+    }
+
+    /**
+     * 获取并发限制器
+     *
+     * @return 并发限制器
+     */
+    public ConcurrencyLimiter getLimiter() {
+        return limiter;
+    }
+
+    /**
+     * 获取请求的优先级
+     *
+     * @param request 请求对象
+     * @return 优先级
+     */
+    public Priority.Level classify(HttpRequest request) {
+        return classifier.classify(request);
+    }
+
+    /**
+     * 计算请求等待许可的截止时间
+     *
+     * @param request     请求对象
+     * @param arrivalTime 请求到达的时间（纳秒）
+     * @param maxWait     最长等待时间（纳秒）
+     * @return 截止时间（纳秒）
+     */
+    public long deadline(HttpRequest request, long arrivalTime, long maxWait) {
+        long deadline = arrivalTime + maxWait;
+        if (deadlineHeader == null) {
+            return deadline;
+        }
+        String value = request.headers().get(deadlineHeader);
+        if (value == null) {
+            return deadline;
+        }
+        try {
+            long millis = Math.max(0, Long.parseLong(value.trim()));
+            return Math.min(deadline, arrivalTime + TimeUnit.MILLISECONDS.toNanos(millis));
+        } catch (NumberFormatException e) {
+            // 格式错误时忽略客户端的超时时间
+            return deadline;
+        }
+    }
+
+    /**
+     * 没有请求排队时尝试立即获取许可
+     *
+     * @return 是否获取成功
+     */
+    public boolean tryAcquire() {
+        return queued.get() == 0 && limiter.tryAcquire();
+    }
+
+    /**
+     * 排队等待许可
+     *
+     * @param level    优先级
+     * @param deadline 截止时间（纳秒）
+     * @return 是否获取到许可，超过截止时间或被丢弃时返回false
+     */
+    public boolean acquire(Priority.Level level, long deadline) {
+        long now = System.nanoTime();
+        if (now >= deadline) {
+            return false;
+        }
+        Waiter waiter = new Waiter(Thread.currentThread(), now, deadline);
+        lock.lock();
+        try {
+            ArrayDeque<Waiter> queue = queues[level.ordinal()];
+            if (queue.isEmpty()) {
+                lastEmptyTime[level.ordinal()] = now;
+            }
+            queue.addLast(waiter);
+            queued.incrementAndGet();
+        } finally {
+            lock.unlock();
+        }
+        // 入队前可能已经有许可被归还
+        dispatch();
+        for (; ; ) {
+            int state = waiter.state;
+            if (state != WAITING) {
+                return state == GRANTED;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                cancel(waiter);
+                continue;
+            }
+            LockSupport.parkNanos(this, remaining);
+            // 中断不影响等待
+            Thread.interrupted();
+        }
+    }
+
+    /**
+     * 归还许可，并将许可交给下一个排队的请求
+     *
+     * @param rttNanos 持有许可期间的执行耗时（纳秒）
+     */
+    public void release(long rttNanos) {
+        limiter.release(rttNanos);
+        dispatch();
+    }
+
+    /**
+     * 获取排队中的请求数
+     *
+     * @return 排队中的请求数
+     */
+    public int getQueued() {
+        return queued.get();
+    }
+
+    /**
+     * 超过截止时间的请求取消排队
+     */
+    private void cancel(Waiter waiter) {
+        lock.lock();
+        try {
+            if (waiter.state == WAITING) {
+                // 留在队列中，出队时跳过
+                waiter.state = CANCELLED;
+                queued.decrementAndGet();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 在有许可时按权重将许可交给排队的请求
+     */
+    private void dispatch() {
+        if (queued.get() == 0) {
+            return;
+        }
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            for (; ; ) {
+                int index = select(now);
+                if (index < 0 || !limiter.tryAcquire()) {
+                    return;
+                }
+                commit(index);
+                Waiter waiter = queues[index].pollFirst();
+                if (queues[index].isEmpty()) {
+                    lastEmptyTime[index] = now;
+                }
+                waiter.state = GRANTED;
+                queued.decrementAndGet();
+                LockSupport.unpark(waiter.thread);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 清理各队列的队首，然后按平滑加权轮询选出下一个出队的队列
+     *
+     * @param now 当前时间
+     * @return 队列下标，所有队列为空时返回-1
+     */
+    private int select(long now) {
+        int best = -1;
+        int bestWeight = 0;
+        for (int i = 0; i < queues.length; i++) {
+            purge(i, now);
+            if (queues[i].isEmpty()) {
+                continue;
+            }
+            int weight = currentWeights[i] + weights[i];
+            if (best < 0 || weight > bestWeight) {
+                best = i;
+                bestWeight = weight;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * 选中的队列出队后更新轮询权重
+     *
+     * @param index 选中的队列
+     */
+    private void commit(int index) {
+        int total = 0;
+        for (int i = 0; i < queues.length; i++) {
+            if (!queues[i].isEmpty()) {
+                currentWeights[i] += weights[i];
+                total += weights[i];
+            }
+        }
+        currentWeights[index] -= total;
+    }
+
+    /**
+     * 移除队首已取消、超过截止时间或积压时排队过久的请求
+     *
+     * @param index 队列下标
+     * @param now   当前时间
+     */
+    private void purge(int index, long now) {
+        ArrayDeque<Waiter> queue = queues[index];
+        boolean backlogged = now - lastEmptyTime[index] > intervalNanos;
+        Waiter waiter;
+        while ((waiter = queue.peekFirst()) != null) {
+            if (waiter.state == CANCELLED) {
+                queue.pollFirst();
+                continue;
+            }
+            if (now < waiter.deadline && (!backlogged || now - waiter.enqueueTime <= targetNanos)) {
+                return;
+            }
+            queue.pollFirst();
+            waiter.state = DROPPED;
+            queued.decrementAndGet();
+            LockSupport.unpark(waiter.thread);
+        }
+        lastEmptyTime[index] = now;
+    }
+}
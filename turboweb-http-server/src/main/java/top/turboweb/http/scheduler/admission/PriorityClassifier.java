@@ -0,0 +1,19 @@
+package top.turboweb.http.scheduler.admission;
+
+import io.netty.handler.codec.http.HttpRequest;
+import top.turboweb.anno.Priority;
+
+/**
+ * 请求优先级分类器，决定没有获取到许可的请求进入哪一个等待队列。
+ */
+@FunctionalInterface
+public interface PriorityClassifier {
+
+    /**
+     * 获取请求的优先级
+     *
+     * @param request 请求对象
+     * @return 优先级，不能为null
+     */
+    Priority.Level classify(HttpRequest request);
+}
@@ -0,0 +1,101 @@
+package top.turboweb.http.scheduler.admission;
+
+import io.netty.handler.codec.http.HttpRequest;
+import top.turboweb.anno.Priority;
+import top.turboweb.commons.struct.trie.PatternUrlTrie;
+import top.turboweb.http.middleware.router.RouterManager;
+
+import java.util.Set;
+
+/**
+ * 根据路径规则与路由注解对请求分类。
+ * <p>
+ * 优先匹配路径规则，多条规则同时命中时取最高的优先级；没有命中规则时使用路由上 {@link Priority} 注解的优先级，
+ * 都没有时为 {@link Priority.Level#NORMAL}。路径规则的写法与 {@code PathLimiter} 相同，支持 {@code *} 与 {@code **}。
+ * </p>
+ */
+public class RoutePriorityClassifier implements PriorityClassifier {
+
+    private final PatternUrlTrie<Priority.Level> pathTrie = new PatternUrlTrie<>();
+    private final RouterManager routerManager;
+    private boolean hasRule;
+
+    /**
+     * 创建分类器
+     *
+     * @param routerManager 路由管理器，为null时只使用路径规则
+     */
+    public RoutePriorityClassifier(RouterManager routerManager) {
+        this.routerManager = routerManager;
+    }
+
+    /**
+     * 添加路径规则，需要在启动阶段调用
+     *
+     * @param path  路径
+     * @param level 优先级
+     */
+    public void addRule(String path, Priority.Level level) {
+        if (path == null || path.isEmpty()) {
+            throw new IllegalArgumentException("path can not be empty");
+        }
+        if (level == null) {
+            throw new IllegalArgumentException("level can not be null");
+        }
+        if (path.endsWith("/") && !"/".equals(path)) {
+            path = path.substring(0, path.length() - 1);
+        }
+        if (path.contains("{") || path.contains("}")) {
+            throw new IllegalArgumentException("path can not contains '{}'");
+        }
+        pathTrie.insert(path, level);
+        hasRule = true;
+    }
+
+    @Override
+    public Priority.Level classify(HttpRequest request) {
+        String uri = request.uri();
+        if (hasRule) {
+            Priority.Level level = matchRule(uri);
+            if (level != null) {
+                return level;
+            }
+        }
+        if (routerManager != null) {
+            Priority.Level level = routerManager.getPriority(request.method(), uri);
+            if (level != null) {
+                return level;
+            }
+        }
+        return Priority.Level.NORMAL;
+    }
+
+    /**
+     * 匹配路径规则
+     *
+     * @param uri 请求URI
+     * @return 命中规则中最高的优先级，没有命中时返回null
+     */
+    private Priority.Level matchRule(String uri) {
+        int end = uri.length();
+        int query = uri.indexOf('?');
+        if (query >= 0) {
+            end = query;
+        }
+        int fragment = uri.indexOf('#');
+        if (fragment >= 0 && fragment < end) {
+            end = fragment;
+        }
+        if (end > 1 && uri.charAt(end - 1) == '/') {
+            end--;
+        }
+        Set<Priority.Level> levels = pathTrie.match(uri.substring(0, end));
+        Priority.Level result = null;
+        for (Priority.Level level : levels) {
+            if (result == null || level.ordinal() < result.ordinal()) {
+                result = level;
+            }
+        }
+        return result;
+    }
+}
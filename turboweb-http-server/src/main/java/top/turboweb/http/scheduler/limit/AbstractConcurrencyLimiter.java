@@ -0,0 +1,140 @@
+package top.turboweb.http.scheduler.limit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 并发限制器的基础实现。
+ * <p>
+ * 许可数量可以在运行时调整，获取许可时通过 CAS 增加正在执行的请求数，不需要加锁；
+ * 只有存在等待许可的线程时，归还许可才会加锁唤醒等待的线程。
+ * </p>
+ */
+public abstract class AbstractConcurrencyLimiter implements ConcurrencyLimiter {
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger waiters = new AtomicInteger();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private volatile int limit;
+
+    /**
+     * 创建并发限制器
+     *
+     * @param initialLimit 初始的许可数量
+     */
+    protected AbstractConcurrencyLimiter(int initialLimit) {
+        if (initialLimit < 1) {
+            throw new IllegalArgumentException("initialLimit must be greater than or equal to 1");
+        }
+        this.limit = initialLimit;
+    }
+
+    @Override
+    public boolean tryAcquire() {
+        for (; ; ) {
+            int n = inFlight.get();
+            if (n >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(n, n + 1)) {
+                onAcquire(n + 1);
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public boolean tryAcquire(long timeout, TimeUnit unit) throws InterruptedException {
+        if (tryAcquire()) {
+            return true;
+        }
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        // 先登记等待再检查许可，归还许可的线程一定能看到等待者
+        waiters.incrementAndGet();
+        try {
+            for (; ; ) {
+                if (tryAcquire()) {
+                    return true;
+                }
+                if (nanos <= 0) {
+                    // 放弃等待时可能已经被唤醒，将唤醒传递给下一个等待者
+                    if (inFlight.get() < limit) {
+                        available.signal();
+                    }
+                    return false;
+                }
+                nanos = available.awaitNanos(nanos);
+            }
+        } finally {
+            waiters.decrementAndGet();
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void release(long rttNanos) {
+        int n = inFlight.decrementAndGet();
+        onRelease(rttNanos, n);
+        signalWaiters(false);
+    }
+
+    @Override
+    public int getLimit() {
+        return limit;
+    }
+
+    @Override
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * 调整许可数量，许可增加时唤醒所有等待的线程
+     *
+     * @param newLimit 新的许可数量
+     */
+    protected void setLimit(int newLimit) {
+        int oldLimit = limit;
+        limit = newLimit;
+        if (newLimit > oldLimit) {
+            signalWaiters(true);
+        }
+    }
+
+    private void signalWaiters(boolean all) {
+        if (waiters.get() == 0) {
+            return;
+        }
+        lock.lock();
+        try {
+            if (all) {
+                available.signalAll();
+            } else {
+                available.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 获取到许可后调用
+     *
+     * @param inFlight 获取许可后正在执行的请求数
+     */
+    protected void onAcquire(int inFlight) {
+    }
+
+    /**
+     * 归还许可后调用
+     *
+     * @param rttNanos 持有许可期间的执行耗时（纳秒）
+     * @param inFlight 归还许可后正在执行的请求数
+     */
+    protected void onRelease(long rttNanos, int inFlight) {
+    }
+}
@@ -0,0 +1,51 @@
+package top.turboweb.http.scheduler.limit;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 并发限制器，控制同时执行业务逻辑的请求数量。
+ * <p>
+ * 每个获取到许可的请求在执行完成后必须调用 {@link #release(long)} 归还许可，并报告本次执行的耗时，
+ * 自适应的实现根据耗时与并发数调整许可数量。
+ * </p>
+ */
+public interface ConcurrencyLimiter {
+
+    /**
+     * 尝试立即获取许可
+     *
+     * @return 是否获取成功
+     */
+    boolean tryAcquire();
+
+    /**
+     * 在超时时间内等待许可
+     *
+     * @param timeout 超时时间
+     * @param unit    时间单位
+     * @return 是否获取成功
+     * @throws InterruptedException 等待时被中断
+     */
+    boolean tryAcquire(long timeout, TimeUnit unit) throws InterruptedException;
+
+    /**
+     * 归还许可
+     *
+     * @param rttNanos 持有许可期间的执行耗时（纳秒）
+     */
+    void release(long rttNanos);
+
+    /**
+     * 获取当前的许可数量
+     *
+     * @return 许可数量
+     */
+    int getLimit();
+
+    /**
+     * 获取正在执行的请求数量
+     *
+     * @return 已被持有的许可数量
+     */
+    int getInFlight();
+}
@@ -0,0 +1,16 @@
+package top.turboweb.http.scheduler.limit;
+
+/**
+ * 固定许可数量的并发限制器
+ */
+public class FixedConcurrencyLimiter extends AbstractConcurrencyLimiter {
+
+    /**
+     * 创建固定许可数量的并发限制器
+     *
+     * @param limit 许可数量
+     */
+    public FixedConcurrencyLimiter(int limit) {
+        super(limit);
+    }
+}
@@ -0,0 +1,141 @@
+package top.turboweb.http.scheduler.limit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 基于延迟梯度的自适应并发限制器（参考 Netflix concurrency-limits 的 Gradient2）。
+ * <p>
+ * 按时间窗口统计请求的平均耗时（短期耗时），并用指数移动平均维护长期耗时。
+ * 每个窗口结束时按 {@code 梯度 = 1.5 * 长期耗时 / 短期耗时}（限制在 0.5 ~ 1.0 之间）调整许可数量：
+ * </p>
+ * <pre>
+ * newLimit = limit * gradient + sqrt(limit)
+ * limit    = limit * (1 - smoothing) + newLimit * smoothing
+ * </pre>
+ * <p>
+ * 依赖变慢时短期耗时升高，梯度小于 1，许可数量下降；耗时恢复后梯度回到 1，许可数量按 {@code sqrt(limit)} 逐步增长。
+ * 窗口内的最大并发数不足许可数量的一半时不增长，避免空闲时许可数量无限增大。
+ * 短期耗时远小于长期耗时时长期耗时逐步衰减，使长期耗时能够跟随依赖性能的恢复。
+ * </p>
+ */
+public class GradientConcurrencyLimiter extends AbstractConcurrencyLimiter {
+
+    /**
+     * 每个窗口最少的样本数
+     */
+    private static final int MIN_WINDOW_SAMPLES = 10;
+    /**
+     * 长期耗时的平滑窗口数
+     */
+    private static final int LONG_WINDOW = 20;
+    /**
+     * 短期耗时允许超出长期耗时的倍数，超出后才减少许可数量
+     */
+    private static final double RTT_TOLERANCE = 1.5;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long windowNanos;
+    private final double smoothing;
+
+    private final LongAdder rttSum = new LongAdder();
+    private final LongAdder rttCount = new LongAdder();
+    private final AtomicInteger windowMaxInFlight = new AtomicInteger();
+    private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+
+    /**
+     * 以下字段只在窗口结束时由一个线程更新
+     */
+    private double estimatedLimit;
+    private double longRtt;
+
+    /**
+     * 创建自适应并发限制器，窗口为100毫秒，平滑系数为0.2
+     *
+     * @param minLimit 最小许可数量，也是初始许可数量
+     * @param maxLimit 最大许可数量
+     */
+    public GradientConcurrencyLimiter(int minLimit, int maxLimit) {
+        this(minLimit, minLimit, maxLimit, 100, 0.2);
+    }
+
+    /**
+     * 创建自适应并发限制器
+     *
+     * @param initialLimit 初始许可数量
+     * @param minLimit     最小许可数量
+     * @param maxLimit     最大许可数量
+     * @param windowMillis 统计窗口（毫秒）
+     * @param smoothing    平滑系数，取值 (0, 1]，越大调整越快
+     */
+    public GradientConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, long windowMillis, double smoothing) {
+        super(initialLimit);
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("limit must satisfy 1 <= minLimit <= initialLimit <= maxLimit");
+        }
+        if (windowMillis < 1) {
+            throw new IllegalArgumentException("windowMillis must be greater than or equal to 1");
+        }
+        if (smoothing <= 0 || smoothing > 1) {
+            throw new IllegalArgumentException("smoothing must be in (0, 1]");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        this.smoothing = smoothing;
+        this.estimatedLimit = initialLimit;
+    }
+
+    @Override
+    protected void onAcquire(int inFlight) {
+        windowMaxInFlight.accumulateAndGet(inFlight, Math::max);
+    }
+
+    @Override
+    protected void onRelease(long rttNanos, int inFlight) {
+        rttSum.add(rttNanos);
+        rttCount.increment();
+        long now = System.nanoTime();
+        long start = windowStart.get();
+        // 窗口结束时由一个线程更新许可数量
+        if (now - start >= windowNanos && rttCount.sum() >= MIN_WINDOW_SAMPLES && windowStart.compareAndSet(start, now)) {
+            update(inFlight);
+        }
+    }
+
+    /**
+     * 根据窗口内的耗时更新许可数量
+     *
+     * @param inFlight 当前正在执行的请求数
+     */
+    private synchronized void update(int inFlight) {
+        long count = rttCount.sumThenReset();
+        long sum = rttSum.sumThenReset();
+        int maxInFlight = windowMaxInFlight.getAndSet(inFlight);
+        if (count == 0 || sum <= 0) {
+            return;
+        }
+        double shortRtt = (double) sum / count;
+        if (longRtt == 0) {
+            longRtt = shortRtt;
+        } else {
+            longRtt += (shortRtt - longRtt) * 2 / (LONG_WINDOW + 1);
+        }
+        // 短期耗时明显下降，说明依赖已经恢复，让长期耗时更快地跟随
+        if (longRtt / shortRtt > 2) {
+            longRtt *= 0.95;
+        }
+        // 请求量不足以用满许可时不调整
+        if (maxInFlight < estimatedLimit / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, RTT_TOLERANCE * longRtt / shortRtt));
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        newLimit = estimatedLimit * (1 - smoothing) + newLimit * smoothing;
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        setLimit((int) estimatedLimit);
+    }
+}
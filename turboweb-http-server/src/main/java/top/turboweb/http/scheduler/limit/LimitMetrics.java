@@ -0,0 +1,17 @@
+package top.turboweb.http.scheduler.limit;
+
+/**
+ * 调度器限流的运行指标快照。
+ *
+ * @param limit     当前的许可数量
+ * @param inFlight  正在执行的请求数
+ * @param suspended 挂起等待许可的请求数
+ * @param rejected  累计拒绝（返回 429）的请求数
+ */
+public record LimitMetrics(
+        int limit,
+        int inFlight,
+        int suspended,
+        long rejected
+) {
+}
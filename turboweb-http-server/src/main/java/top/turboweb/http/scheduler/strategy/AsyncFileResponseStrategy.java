@@ -64,7 +64,7 @@ public class AsyncFileResponseStrategy extends ResponseStrategy {
         ChannelFuture future = null;
         if (response instanceof AsyncFileResponse asyncFileResponse) {
             // 写入响应头
-            future =  session.getChannel().writeAndFlush(asyncFileResponse);
+            future =  session.writeAndFlush(asyncFileResponse);
             future.addListener(f -> {
                if (f.isSuccess()) {
                    WorkStealThreadUtils.execute(() -> handleAsyncFileResponse(asyncFileResponse, session));
@@ -96,7 +96,7 @@ public class AsyncFileResponseStrategy extends ResponseStrategy {
         long remaining = response.getRemaining();
         if (remaining <= 0) {
             // 发送结束信号
-            session.getChannel().writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT);
+            session.writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT);
             closeFileChannel(response);
             return;
         }
@@ -121,7 +121,7 @@ public class AsyncFileResponseStrategy extends ResponseStrategy {
                 // 设置游标
                 response.setPosition(response.getPosition() + result);
                 // 写入响应
-                session.getChannel().writeAndFlush(new DefaultHttpContent(buf)).addListener(future -> {
+                session.writeAndFlush(new DefaultHttpContent(buf)).addListener(future -> {
                     if (future.isSuccess()) {
                         // 继续读取后续分块
                         WorkStealThreadUtils.execute(() -> handleAsyncFileResponse(response, session));
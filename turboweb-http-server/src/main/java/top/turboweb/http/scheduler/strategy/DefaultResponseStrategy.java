@@ -2,6 +2,7 @@ package top.turboweb.http.scheduler.strategy;
 
 import io.netty.channel.ChannelFuture;
 import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpHeaderNames;
 import io.netty.handler.codec.http.HttpResponse;
 import top.turboweb.http.connect.InternalConnectSession;
 
@@ -19,21 +20,21 @@ import top.turboweb.http.connect.InternalConnectSession;
  * </p>
  *
  * <p>
- * 最终通过 {@link InternalConnectSession#getChannel()} 将响应写出并刷新。
+ * 最终通过 {@link InternalConnectSession#writeAndFlush(Object)} 将响应写出并刷新。
  * </p>
  */
 public class DefaultResponseStrategy extends ResponseStrategy {
     @Override
     protected ChannelFuture doHandle(HttpResponse response, InternalConnectSession session) {
         // 判断是否有响应长度
-        if (!response.headers().contains("Content-Length")) {
+        if (!response.headers().contains(HttpHeaderNames.CONTENT_LENGTH)) {
             if (response instanceof FullHttpResponse fullHttpResponse) {
                 // 获取请求体的长度
-                response.headers().set("Content-Length", fullHttpResponse.content().readableBytes());
+                response.headers().setInt(HttpHeaderNames.CONTENT_LENGTH, fullHttpResponse.content().readableBytes());
             } else {
-                response.headers().set("Content-Length", 0);
+                response.headers().setInt(HttpHeaderNames.CONTENT_LENGTH, 0);
             }
         }
-        return session.getChannel().writeAndFlush(response);
+        return session.writeAndFlush(response);
     }
 }
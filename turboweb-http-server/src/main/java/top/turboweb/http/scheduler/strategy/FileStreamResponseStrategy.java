@@ -56,7 +56,7 @@ public class FileStreamResponseStrategy extends ResponseStrategy {
         if (response instanceof FileStreamResponse fileStreamResponse) {
             ChannelPromise promise = session.getChannel().newPromise();
             // 发送响应头
-            session.getChannel().writeAndFlush(fileStreamResponse)
+            session.writeAndFlush(fileStreamResponse)
                     .addListener(f -> {
                         if (!f.isSuccess()) {
                             promise.setFailure(f.cause());
@@ -116,7 +116,7 @@ public class FileStreamResponseStrategy extends ResponseStrategy {
                     @Override
                     protected void hookOnNext(ByteBuf value) {
                         // 将数据发送出去
-                        session.getChannel().writeAndFlush(new DefaultHttpContent(value))
+                        session.writeAndFlush(new DefaultHttpContent(value))
                                 .addListener(f -> {
                                     if (!f.isSuccess()) {
                                         log.error("chunk send error", f.cause());
@@ -137,7 +137,7 @@ public class FileStreamResponseStrategy extends ResponseStrategy {
                     @Override
                     protected void hookOnComplete() {
                         // 发送结束标识
-                        session.getChannel().writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT)
+                        session.writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT)
                                 .addListener(f -> {
                                     if (!f.isSuccess()) {
                                         log.error("chunk send error", f.cause());
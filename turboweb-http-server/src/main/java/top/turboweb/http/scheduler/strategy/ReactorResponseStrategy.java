@@ -115,7 +115,7 @@ public class ReactorResponseStrategy extends ResponseStrategy {
         // 设置特定的响应头
         response.headers().set(HttpHeaderNames.TRANSFER_ENCODING, HttpHeaderValues.CHUNKED);
         response.headers().set(HttpHeaderNames.CONNECTION, HttpHeaderValues.KEEP_ALIVE);
-        return session.getChannel().writeAndFlush(response);
+        return session.writeAndFlush(response);
     }
 
     /**
@@ -183,7 +183,7 @@ public class ReactorResponseStrategy extends ResponseStrategy {
         @Override
         protected void hookOnNext(HttpContent content) {
             // 尝试将ByteBuf写入管道
-            this.connectSession.getChannel().writeAndFlush(content)
+            this.connectSession.writeAndFlush(content)
                     .addListener(future -> {
                        // 判断当前写入是否成功
                        if (!future.isSuccess()) {
@@ -220,7 +220,7 @@ public class ReactorResponseStrategy extends ResponseStrategy {
         @Override
         protected void hookOnComplete() {
             // 当流被正常完成时触发, 写入最后结束分块
-            connectSession.getChannel().writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT, promise);
+            connectSession.writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT, promise);
         }
 
         /**
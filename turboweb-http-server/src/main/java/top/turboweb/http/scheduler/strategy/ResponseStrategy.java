@@ -2,9 +2,9 @@ package top.turboweb.http.scheduler.strategy;
 
 import io.netty.channel.ChannelFuture;
 import io.netty.handler.codec.http.*;
-import top.turboweb.commons.config.GlobalConfig;
 import top.turboweb.commons.utils.base.ErrorStrGenerator;
 import top.turboweb.http.connect.InternalConnectSession;
+import top.turboweb.http.response.ResponseHeaderTemplates;
 
 import java.nio.charset.StandardCharsets;
 
@@ -30,7 +30,7 @@ public abstract class ResponseStrategy {
     /**
      * 执行响应处理的模板方法。
      * <p>
-     * 此方法会捕获所有子类处理中的异常，并自动发送 500 错误响应。
+     * 此方法会补充 Date 响应头，并捕获所有子类处理中的异常，自动发送 500 错误响应。
      * 若子类实现未返回 {@link ChannelFuture}，应确保不会导致调用链中断。
      * </p>
      *
@@ -40,10 +40,14 @@ public abstract class ResponseStrategy {
      */
     public ChannelFuture handle(HttpResponse response, InternalConnectSession session) {
         try {
+            // 补充缓存的 Date 响应头
+            if (!response.headers().contains(HttpHeaderNames.DATE)) {
+                response.headers().set(HttpHeaderNames.DATE, ResponseHeaderTemplates.date());
+            }
             return doHandle(response, session);
         } catch (Throwable e) {
             // 发送错误响应
-            return session.getChannel().writeAndFlush(buildErrResponse(e));
+            return session.writeAndFlush(buildErrResponse(e));
         }
     }
 
@@ -71,11 +75,9 @@ public abstract class ResponseStrategy {
      * @return 带有错误信息的 HTTP 响应对象
      */
     private HttpResponse buildErrResponse(Throwable throwable) {
-        FullHttpResponse response = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.INTERNAL_SERVER_ERROR);
         String errMsg = ErrorStrGenerator.errHtml(500, throwable.getMessage());
-        response.content().writeBytes(errMsg.getBytes(GlobalConfig.getResponseCharset()));
-        response.headers().add(HttpHeaderNames.CONTENT_TYPE, "text/html;charset=" + GlobalConfig.getResponseCharset().name());
-        response.headers().add(HttpHeaderNames.CONTENT_LENGTH, response.content().readableBytes());
+        HttpResponse response = ResponseHeaderTemplates.textHtml(HttpResponseStatus.INTERNAL_SERVER_ERROR, errMsg);
+        response.headers().set(HttpHeaderNames.DATE, ResponseHeaderTemplates.date());
         return response;
     }
 }
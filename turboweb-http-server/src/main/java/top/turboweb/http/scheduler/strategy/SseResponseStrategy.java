@@ -43,7 +43,7 @@ public class SseResponseStrategy extends ResponseStrategy {
     protected ChannelFuture doHandle(HttpResponse response, InternalConnectSession session) {
         if (response instanceof SseResponse sseResponse) {
             // 发送响应头
-            ChannelFuture channelFuture = session.getChannel().writeAndFlush(response);
+            ChannelFuture channelFuture = session.writeAndFlush(response);
             // 调用sse的回调函数
             sseResponse.startSse();
             return channelFuture;
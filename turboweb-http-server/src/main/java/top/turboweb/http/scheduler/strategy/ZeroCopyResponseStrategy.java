@@ -4,12 +4,11 @@ import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelPromise;
 import io.netty.handler.codec.http.HttpResponse;
 import io.netty.handler.codec.http.LastHttpContent;
+import io.netty.util.ReferenceCountUtil;
 import top.turboweb.commons.utils.thread.ThreadAssert;
 import top.turboweb.http.connect.InternalConnectSession;
 import top.turboweb.http.response.ZeroCopyResponse;
 
-import java.util.concurrent.ExecutionException;
-
 /**
  * <p><b>零拷贝文件传输响应策略实现类。</b></p>
  *
@@ -26,6 +25,7 @@ import java.util.concurrent.ExecutionException;
  *     <li>通过 {@link io.netty.channel.DefaultFileRegion} 执行文件内容的零拷贝传输。</li>
  *     <li>写入 {@link LastHttpContent#EMPTY_LAST_CONTENT} 标识响应结束。</li>
  * </ul>
+ * <p>各部分在前一部分写出完成后依次写出，处理线程不会阻塞等待写出结果。</p>
  *
  * <p><b>线程模型：</b></p>
  * 本策略仅允许在虚拟线程（Virtual Thread）中执行，
@@ -35,7 +35,7 @@ import java.util.concurrent.ExecutionException;
  * <p><b>异常处理：</b></p>
  * <ul>
  *     <li>若响应类型非 {@link ZeroCopyResponse}，则抛出 {@link IllegalArgumentException}。</li>
- *     <li>若文件写入或传输过程中发生 {@link InterruptedException} 或 {@link ExecutionException}，将关闭会话并标记失败。</li>
+ *     <li>若响应头、文件内容或结束标识写出失败，将关闭会话并标记失败，后续部分不再写出。</li>
  * </ul>
  */
 public class ZeroCopyResponseStrategy extends ResponseStrategy{
@@ -54,28 +54,47 @@ public class ZeroCopyResponseStrategy extends ResponseStrategy{
         ThreadAssert.assertIsVirtualThread();
         if (response instanceof ZeroCopyResponse zeroCopyResponse) {
             ChannelPromise promise = session.getChannel().newPromise();
-            try {
-                // 写入响应头
-                session.getChannel().writeAndFlush(zeroCopyResponse).get();
+            // 前一部分写出完成后在监听器中写出下一部分，不阻塞等待写出结果
+            // 开启载体线程亲和时虚拟线程运行在IO线程上，阻塞等待 Netty 的 Future 会固定载体线程，导致IO线程等待自己完成写出
+            // 写入响应头
+            session.writeAndFlush(zeroCopyResponse).addListener(headerFuture -> {
+                if (!headerFuture.isSuccess()) {
+                    // 文件内容没有交给 Netty，需要自己释放
+                    ReferenceCountUtil.release(zeroCopyResponse.getFileRegion());
+                    fail(promise, session, headerFuture.cause());
+                    return;
+                }
                 // 写入数据部分
-                session.getChannel().writeAndFlush(zeroCopyResponse.getFileRegion()).get();
-                // 写入结束标识
-                session.getChannel().writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT)
-                        .addListener(future -> {
-                           if (future.isSuccess()) {
-                               promise.setSuccess();
-                           } else {
-                               promise.setFailure(future.cause());
-                               session.close();
-                           }
-                        });
-            } catch (InterruptedException | ExecutionException e) {
-                promise.setFailure(e);
-                session.close();
-            }
+                session.writeAndFlush(zeroCopyResponse.getFileRegion()).addListener(regionFuture -> {
+                    if (!regionFuture.isSuccess()) {
+                        fail(promise, session, regionFuture.cause());
+                        return;
+                    }
+                    // 写入结束标识
+                    session.writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT).addListener(future -> {
+                        if (future.isSuccess()) {
+                            promise.setSuccess();
+                        } else {
+                            fail(promise, session, future.cause());
+                        }
+                    });
+                });
+            });
             return promise;
         } else {
             throw new IllegalArgumentException("Invalid response type:" + response.getClass().getName());
         }
     }
+
+    /**
+     * 写出失败时标记失败并关闭会话
+     *
+     * @param promise 写出结果
+     * @param session 当前连接会话
+     * @param cause   失败原因
+     */
+    private void fail(ChannelPromise promise, InternalConnectSession session, Throwable cause) {
+        promise.tryFailure(cause);
+        session.close();
+    }
 }
@@ -54,4 +54,9 @@ public class BackHoleSessionManager implements SessionManager{
     @Override
     public void expireAt(String sessionId) {
     }
-}
\ No newline at end of file
+
+    @Override
+    public boolean needGlobalLock() {
+        return false;
+    }
+}
@@ -0,0 +1,43 @@
+package top.turboweb.http.session;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 低精度的缓存时钟。
+ * <p>
+ * 由后台守护线程每隔{@link #PRECISION}毫秒刷新一次当前时间，读操作只是一次volatile读取，
+ * 用于会话续期、属性过期判断等高频但对精度要求不高的场景，避免每次读取都调用{@link System#currentTimeMillis()}。
+ * </p>
+ */
+public final class CoarseClock {
+
+    /**
+     * 时钟精度（毫秒）
+     */
+    public static final long PRECISION = 10;
+
+    private static volatile long now = System.currentTimeMillis();
+
+    static {
+        ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "session-coarse-clock");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(() -> now = System.currentTimeMillis(), PRECISION, PRECISION, TimeUnit.MILLISECONDS);
+    }
+
+    private CoarseClock() {
+    }
+
+    /**
+     * 获取缓存的当前时间戳
+     *
+     * @return 毫秒级时间戳，误差不超过{@link #PRECISION}
+     */
+    public static long currentTimeMillis() {
+        return now;
+    }
+}
@@ -0,0 +1,430 @@
+package top.turboweb.http.session;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * 分层时间轮，会话及会话属性的过期引擎。
+ * <p>
+ * 时间轮共{@link #LEVELS}层，每层{@link #SLOTS}个槽，第n层一个槽覆盖{@code 64^n}个tick。
+ * 定时任务先按到期时间放入合适层级的槽中，高层的槽到期时再逐级下沉，最终在第0层的槽中到期执行，
+ * 因此每个定时任务的插入、取消、到期都是O(1)的，不需要周期性地扫描所有会话。
+ * </p>
+ * <p>
+ * 线程模型：槽位只由时间轮线程访问。其他线程提交和取消任务时只写入无锁队列，
+ * 由时间轮线程在每次tick前统一处理，任务的到期回调也在时间轮线程中执行，回调中可以重新调度自身。
+ * </p>
+ */
+public class HierarchicalTimingWheel {
+
+    private static final Logger log = LoggerFactory.getLogger(HierarchicalTimingWheel.class);
+
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+
+    /**
+     * 时间轮能直接表示的最大tick跨度，超出的任务先放在最高层，下沉时重新计算位置
+     */
+    private static final long MAX_SPAN = 1L << (BITS * LEVELS);
+
+    /**
+     * 时间轮中的定时任务。
+     * <p>
+     * 任务的链表指针只由时间轮线程访问，状态通过CAS流转：
+     * INIT/EXPIRED -> QUEUED -> PENDING -> EXPIRED/CANCELLED。
+     * </p>
+     */
+    public abstract static class Timeout {
+
+        private static final int INIT = 0;
+        private static final int QUEUED = 1;
+        private static final int PENDING = 2;
+        private static final int EXPIRED = 3;
+        private static final int CANCELLED = 4;
+
+        private static final AtomicIntegerFieldUpdater<Timeout> STATE =
+                AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "state");
+
+        private volatile int state = INIT;
+        private volatile HierarchicalTimingWheel wheel;
+        private long deadline;
+        private Bucket bucket;
+        private Timeout prev;
+        private Timeout next;
+
+        /**
+         * 任务到期时由时间轮线程调用
+         *
+         * @param wheel 所在的时间轮，可用于重新调度
+         */
+        protected abstract void expire(HierarchicalTimingWheel wheel);
+
+        /**
+         * 取消任务，已到期或未调度的任务取消无效果
+         *
+         * @return true：取消成功
+         */
+        public boolean cancel() {
+            for (;;) {
+                int s = state;
+                if (s == QUEUED) {
+                    if (STATE.compareAndSet(this, QUEUED, CANCELLED)) {
+                        return true;
+                    }
+                } else if (s == PENDING) {
+                    if (STATE.compareAndSet(this, PENDING, CANCELLED)) {
+                        wheel.cancelledTimeouts.add(this);
+                        return true;
+                    }
+                } else {
+                    return false;
+                }
+            }
+        }
+
+        /**
+         * 获取任务的到期时间
+         *
+         * @return 毫秒级时间戳
+         */
+        public long deadline() {
+            return deadline;
+        }
+    }
+
+    /**
+     * 时间轮的槽，双向链表
+     */
+    private static class Bucket {
+        private Timeout head;
+        private Timeout tail;
+
+        void add(Timeout timeout) {
+            timeout.bucket = this;
+            timeout.prev = tail;
+            timeout.next = null;
+            if (tail == null) {
+                head = timeout;
+            } else {
+                tail.next = timeout;
+            }
+            tail = timeout;
+        }
+
+        void remove(Timeout timeout) {
+            if (timeout.prev == null) {
+                head = timeout.next;
+            } else {
+                timeout.prev.next = timeout.next;
+            }
+            if (timeout.next == null) {
+                tail = timeout.prev;
+            } else {
+                timeout.next.prev = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+
+        /**
+         * 取出槽中的全部任务并清空槽
+         *
+         * @return 链表头
+         */
+        Timeout drain() {
+            Timeout first = head;
+            head = null;
+            tail = null;
+            return first;
+        }
+    }
+
+    private final Bucket[][] buckets = new Bucket[LEVELS][SLOTS];
+    private final Queue<Timeout> newTimeouts = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout> cancelledTimeouts = new ConcurrentLinkedQueue<>();
+    private final long tickMillis;
+    private final String threadName;
+    private long startTime;
+    private long currentTick;
+    private ScheduledExecutorService worker;
+
+    private volatile long pending;
+    private volatile long tickCount;
+    private volatile long expiredCount;
+    private volatile long cancelledCount;
+    private volatile long lastTickNanos;
+    private volatile long maxTickNanos;
+
+    /**
+     * 创建时间轮
+     *
+     * @param tickMillis 一个tick的时长（毫秒），即任务到期的精度
+     * @param threadName 时间轮线程的名称
+     */
+    public HierarchicalTimingWheel(long tickMillis, String threadName) {
+        if (tickMillis < 1) {
+            throw new IllegalArgumentException("tickMillis必须大于0");
+        }
+        this.tickMillis = tickMillis;
+        this.threadName = threadName;
+        for (int level = 0; level < LEVELS; level++) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                buckets[level][slot] = new Bucket();
+            }
+        }
+    }
+
+    /**
+     * 启动时间轮线程
+     */
+    public synchronized void start() {
+        if (worker != null) {
+            return;
+        }
+        startTime = System.currentTimeMillis();
+        worker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, threadName);
+            thread.setDaemon(true);
+            return thread;
+        });
+        worker.scheduleAtFixedRate(() -> {
+            try {
+                tick();
+            } catch (Throwable e) {
+                log.error("时间轮执行异常", e);
+            }
+        }, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 停止时间轮线程，未到期的任务不再执行
+     */
+    public synchronized void stop() {
+        if (worker != null) {
+            worker.shutdownNow();
+            worker = null;
+        }
+    }
+
+    /**
+     * 调度任务，线程安全
+     * <p>
+     * 同一个任务在到期或被取消之前不能重复调度，到期回调中可以重新调度自身。
+     * </p>
+     *
+     * @param timeout  定时任务
+     * @param deadline 到期时间（毫秒级时间戳）
+     */
+    public void schedule(Timeout timeout, long deadline) {
+        int s = timeout.state;
+        if ((s != Timeout.INIT && s != Timeout.EXPIRED) || !Timeout.STATE.compareAndSet(timeout, s, Timeout.QUEUED)) {
+            throw new IllegalStateException("timeout already scheduled");
+        }
+        timeout.deadline = deadline;
+        timeout.wheel = this;
+        newTimeouts.add(timeout);
+    }
+
+    /**
+     * 推进时间轮到当前时间
+     */
+    private void tick() {
+        long start = System.nanoTime();
+        long targetTick = (System.currentTimeMillis() - startTime) / tickMillis;
+        transferCancelled();
+        transferNew();
+        while (currentTick < targetTick) {
+            currentTick++;
+            cascade();
+            expireBucket(buckets[0][(int) (currentTick & MASK)]);
+            tickCount++;
+        }
+        long cost = System.nanoTime() - start;
+        lastTickNanos = cost;
+        if (cost > maxTickNanos) {
+            maxTickNanos = cost;
+        }
+    }
+
+    /**
+     * 将新提交的任务放入槽中
+     */
+    private void transferNew() {
+        Timeout timeout;
+        while ((timeout = newTimeouts.poll()) != null) {
+            if (Timeout.STATE.compareAndSet(timeout, Timeout.QUEUED, Timeout.PENDING)) {
+                place(timeout);
+                pending++;
+            } else {
+                cancelledCount++;
+            }
+        }
+    }
+
+    /**
+     * 将已取消的任务从槽中移除
+     */
+    private void transferCancelled() {
+        Timeout timeout;
+        while ((timeout = cancelledTimeouts.poll()) != null) {
+            Bucket bucket = timeout.bucket;
+            if (bucket != null) {
+                bucket.remove(timeout);
+                pending--;
+                cancelledCount++;
+            }
+        }
+    }
+
+    /**
+     * 当低层转完一圈时，将高层对应槽中的任务下沉到低层
+     */
+    private void cascade() {
+        long tick = currentTick;
+        for (int level = 1; level < LEVELS; level++) {
+            if ((tick & MASK) != 0) {
+                return;
+            }
+            tick >>>= BITS;
+            Timeout timeout = buckets[level][(int) (tick & MASK)].drain();
+            while (timeout != null) {
+                Timeout next = timeout.next;
+                timeout.prev = null;
+                timeout.next = null;
+                timeout.bucket = null;
+                place(timeout);
+                timeout = next;
+            }
+        }
+    }
+
+    /**
+     * 执行第0层槽中的到期任务
+     *
+     * @param bucket 当前tick对应的槽
+     */
+    private void expireBucket(Bucket bucket) {
+        Timeout timeout = bucket.drain();
+        while (timeout != null) {
+            Timeout next = timeout.next;
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+            if (toTick(timeout.deadline) > currentTick) {
+                // 超出时间轮跨度的任务，重新放置
+                place(timeout);
+            } else {
+                pending--;
+                if (Timeout.STATE.compareAndSet(timeout, Timeout.PENDING, Timeout.EXPIRED)) {
+                    expiredCount++;
+                    try {
+                        timeout.expire(this);
+                    } catch (Throwable e) {
+                        log.error("定时任务执行异常", e);
+                    }
+                } else {
+                    cancelledCount++;
+                }
+            }
+            timeout = next;
+        }
+    }
+
+    /**
+     * 根据到期时间将任务放入对应层级的槽中
+     *
+     * @param timeout 定时任务
+     */
+    private void place(Timeout timeout) {
+        long deadlineTick = Math.max(toTick(timeout.deadline), currentTick + 1);
+        long delta = deadlineTick - currentTick;
+        if (delta >= MAX_SPAN) {
+            deadlineTick = currentTick + MAX_SPAN - 1;
+            delta = MAX_SPAN - 1;
+        }
+        int level = 0;
+        while (delta >= (1L << (BITS * (level + 1)))) {
+            level++;
+        }
+        int slot = (int) ((deadlineTick >>> (BITS * level)) & MASK);
+        buckets[level][slot].add(timeout);
+    }
+
+    /**
+     * 将时间戳换算为tick，向上取整，保证任务不会提前到期
+     *
+     * @param timeMillis 毫秒级时间戳
+     * @return tick
+     */
+    private long toTick(long timeMillis) {
+        long elapsed = timeMillis - startTime;
+        if (elapsed <= 0) {
+            return 0;
+        }
+        return (elapsed + tickMillis - 1) / tickMillis;
+    }
+
+    /**
+     * 获取等待到期的任务数量（不含尚未处理的新提交任务）
+     *
+     * @return 任务数量
+     */
+    public long getPending() {
+        return pending;
+    }
+
+    /**
+     * 获取时间轮已推进的tick数
+     *
+     * @return tick数
+     */
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    /**
+     * 获取累计到期执行的任务数
+     *
+     * @return 任务数
+     */
+    public long getExpiredCount() {
+        return expiredCount;
+    }
+
+    /**
+     * 获取累计被取消的任务数
+     *
+     * @return 任务数
+     */
+    public long getCancelledCount() {
+        return cancelledCount;
+    }
+
+    /**
+     * 获取最近一次推进的耗时（纳秒）
+     *
+     * @return 耗时
+     */
+    public long getLastTickNanos() {
+        return lastTickNanos;
+    }
+
+    /**
+     * 获取单次推进的最大耗时（纳秒）
+     *
+     * @return 耗时
+     */
+    public long getMaxTickNanos() {
+        return maxTickNanos;
+    }
+}
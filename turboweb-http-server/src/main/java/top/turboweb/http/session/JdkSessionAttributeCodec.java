@@ -0,0 +1,31 @@
+package top.turboweb.http.session;
+
+import top.turboweb.commons.exception.TurboSessionException;
+
+import java.io.*;
+
+/**
+ * 基于JDK序列化的会话属性编解码器，属性值需实现{@link Serializable}。
+ */
+public class JdkSessionAttributeCodec implements SessionAttributeCodec {
+
+    @Override
+    public byte[] encode(Object value) {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream(128);
+        try (ObjectOutputStream oos = new ObjectOutputStream(bos)) {
+            oos.writeObject(value);
+        } catch (IOException e) {
+            throw new TurboSessionException("session attribute encode error", e);
+        }
+        return bos.toByteArray();
+    }
+
+    @Override
+    public <T> T decode(byte[] bytes, Class<T> type) {
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return type.cast(ois.readObject());
+        } catch (IOException | ClassNotFoundException e) {
+            throw new TurboSessionException("session attribute decode error", e);
+        }
+    }
+}
@@ -2,40 +2,88 @@ package top.turboweb.http.session;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import top.turboweb.commons.lock.Locks;
-import top.turboweb.commons.lock.SegmentLock;
 
-import java.util.Iterator;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
-import java.util.concurrent.*;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * 基于内存的会话管理器实现，适用于单机环境下的会话存储与管理。
  * <p>
- * 采用{@link ConcurrentHashMap}作为底层存储容器，支持高并发场景下的会话操作；
- * 通过分段锁（{@link SegmentLock}）减少会话创建时的并发冲突；内置定时垃圾回收机制，
- * 定期清理过期会话及属性，避免内存泄漏。该实现不适用于分布式环境，仅推荐在单机部署场景中使用。
+ * 会话按sessionId的哈希分布到多个{@link ConcurrentHashMap}分片中，支持高并发场景下的会话操作；
+ * 会话及带过期时间的属性由{@link HierarchicalTimingWheel}驱动过期，每次到期的处理都是O(1)的，
+ * 过期会话逐条通过CAS回收（见{@link MemorySessionMap#tryReclaim(long)}），不存在周期性的全量扫描，
+ * 也不持有任何全局锁，请求线程不会因垃圾回收而阻塞。该实现不适用于分布式环境，仅推荐在单机部署场景中使用。
  * </p>
  */
-public class MemorySessionManager implements SessionManager {
+public class MemorySessionManager implements SnapshotSessionManager {
 
     private static final Logger log = LoggerFactory.getLogger(MemorySessionManager.class);
 
     /**
-     * 会话容器，键为sessionId，值为会话属性的映射对象（{@link MemorySessionMap}）。
-     * 使用{@link ConcurrentHashMap}保证高并发场景下的线程安全。
+     * 默认的分片数量
      */
-    private final Map<String, MemorySessionMap> sessionContainer = new ConcurrentHashMap<>();
+    private static final int DEFAULT_SHARD_NUM = 16;
 
     /**
-     * 分段锁，用于会话创建时的并发控制。通过将不同sessionId映射到不同的锁段，
-     * 减少锁竞争，提高并发性能。此处锁段数量为64。
+     * 会话容器的分片，键为sessionId，值为会话属性的映射对象（{@link MemorySessionMap}）。
+     * 每个分片使用{@link ConcurrentHashMap}保证高并发场景下的线程安全。
      */
-    private final SegmentLock segmentLock = new SegmentLock(64);
+    private final Map<String, MemorySessionMap>[] shards;
+
+    /**
+     * 时间轮一个tick的时长（毫秒）
+     */
+    private static final long WHEEL_TICK = 100;
+
+    /**
+     * 会话及属性的过期时间轮，启动垃圾回收前为null
+     */
+    private volatile HierarchicalTimingWheel wheel;
+
+    /**
+     * 会话的最大未使用时长（毫秒）
+     */
+    private volatile long maxNotUseTime;
+
+    /**
+     * 会话数量低于该阈值时不回收会话
+     */
+    private volatile long sessionNumThreshold;
+
+    /**
+     * 会话数量不足阈值时，会话重新检查的间隔（毫秒）
+     */
+    private volatile long checkTime;
+
+    /**
+     * 累计回收的会话数
+     */
+    private final AtomicLong reclaimedNum = new AtomicLong();
+
+    /**
+     * 是否记录会话的变化，供快照导出
+     */
+    private volatile boolean trackChanges = false;
+
+    /**
+     * 自上次快照以来发生变化的会话
+     */
+    private final Queue<MemorySessionMap> changedSessions = new ConcurrentLinkedQueue<>();
+
+    /**
+     * 自上次快照以来被回收的会话id
+     */
+    private final Queue<String> removedSessions = new ConcurrentLinkedQueue<>();
+
+    /**
+     * 快照中属性值的编解码器
+     */
+    private SessionAttributeCodec snapshotCodec = new JdkSessionAttributeCodec();
 
     /**
      * 用于标识垃圾回收线程是否已启动的原子布尔值，避免重复启动多个GC线程。
@@ -43,10 +91,30 @@ public class MemorySessionManager implements SessionManager {
      */
     private final AtomicBoolean isStartGC = new AtomicBoolean(false);
 
+    public MemorySessionManager() {
+        this(DEFAULT_SHARD_NUM);
+    }
+
+    /**
+     * 创建指定分片数量的会话管理器
+     *
+     * @param shardNum 分片数量，必须大于0
+     */
+    @SuppressWarnings("unchecked")
+    public MemorySessionManager(int shardNum) {
+        if (shardNum < 1) {
+            throw new IllegalArgumentException("shardNum必须大于0");
+        }
+        this.shards = new Map[shardNum];
+        for (int i = 0; i < shardNum; i++) {
+            this.shards[i] = new ConcurrentHashMap<>();
+        }
+    }
+
     /**
      * 为指定会话设置属性（无过期时间）。
      * <p>
-     * 若会话不存在（即sessionId未在{@link #sessionContainer}中），则该操作无任何效果。
+     * 若会话不存在（即sessionId未在容器中或已被回收），则该操作无任何效果。
      * 属性值会被存储在对应的{@link MemorySessionMap}中，永久有效（直到会话过期或被删除）。
      * </p>
      *
@@ -56,7 +124,7 @@ public class MemorySessionManager implements SessionManager {
      */
     @Override
     public void setAttr(String sessionId, String key, Object value) {
-        MemorySessionMap sessionMap = sessionContainer.get(sessionId);
+        MemorySessionMap sessionMap = getSession(sessionId);
         Optional.ofNullable(sessionMap).ifPresent(session -> sessionMap.setAttr(key, value));
     }
 
@@ -74,7 +142,7 @@ public class MemorySessionManager implements SessionManager {
      */
     @Override
     public void setAttr(String sessionId, String key, Object value, long timeout) {
-        MemorySessionMap sessionMap = sessionContainer.get(sessionId);
+        MemorySessionMap sessionMap = getSession(sessionId);
         Optional.ofNullable(sessionMap).ifPresent(session -> sessionMap.setAttr(key, value, timeout));
     }
 
@@ -91,7 +159,7 @@ public class MemorySessionManager implements SessionManager {
      */
     @Override
     public Object getAttr(String sessionId, String key) {
-        MemorySessionMap sessionMap = sessionContainer.get(sessionId);
+        MemorySessionMap sessionMap = getSession(sessionId);
         if (sessionMap == null) {
             return null;
         }
@@ -114,7 +182,7 @@ public class MemorySessionManager implements SessionManager {
      */
     @Override
     public <T> T getAttr(String sessionId, String key, Class<T> clazz) {
-        MemorySessionMap sessionMap = sessionContainer.get(sessionId);
+        MemorySessionMap sessionMap = getSession(sessionId);
         if (sessionMap == null) {
             return null;
         }
@@ -132,15 +200,15 @@ public class MemorySessionManager implements SessionManager {
      */
     @Override
     public void remAttr(String sessionId, String key) {
-        MemorySessionMap sessionMap = sessionContainer.get(sessionId);
+        MemorySessionMap sessionMap = getSession(sessionId);
         Optional.ofNullable(sessionMap).ifPresent(session -> sessionMap.remAttr(key));
     }
 
     /**
      * 判断指定会话是否存在。
      * <p>
-     * 会话存在的判定标准为：sessionId在{@link #sessionContainer}中存在对应的{@link MemorySessionMap}实例，
-     * 且该实例未被标记为过期（具体由{@link MemorySessionMap#isTimeout(long)}决定）。
+     * 会话存在的判定标准为：sessionId在容器中存在对应的{@link MemorySessionMap}实例，
+     * 且该实例未被回收（具体由{@link MemorySessionMap#isReclaimed()}决定）。
      * </p>
      *
      * @param sessionId 会话的唯一标识，非空字符串
@@ -148,14 +216,16 @@ public class MemorySessionManager implements SessionManager {
      */
     @Override
     public boolean exist(String sessionId) {
-        return sessionContainer.containsKey(sessionId);
+        return getSession(sessionId) != null;
     }
 
     /**
      * 创建会话映射对象（{@link MemorySessionMap}）。
      * <p>
-     * 若会话已存在（sessionId已在容器中），则返回false；否则创建新的{@link MemorySessionMap}并添加到容器中，返回true。
-     * 采用分段锁保证并发安全，避免同一sessionId被重复创建。
+     * 若会话已存在且未被回收，则返回false；否则创建新的{@link MemorySessionMap}并添加到容器中，返回true。
+     * 通过{@link ConcurrentHashMap#compute}原子地完成检查与写入，保证同一sessionId不会被重复创建，
+     * 已被回收但尚未从分片中移除的会话会被直接替换。
+     * 垃圾回收已启动时，新会话会被注册到时间轮中等待过期。
      * </p>
      *
      * @param sessionId 会话的唯一标识，非空字符串
@@ -163,33 +233,34 @@ public class MemorySessionManager implements SessionManager {
      */
     @Override
     public boolean createSessionMap(String sessionId) {
-        if (sessionContainer.containsKey(sessionId)) {
+        HierarchicalTimingWheel wheel = this.wheel;
+        MemorySessionMap sessionMap = new MemorySessionMap(sessionId, this, wheel);
+        // 已被回收但尚未从分片中移除的会话视为不存在，直接替换
+        MemorySessionMap current = shardOf(sessionId).compute(sessionId,
+                (id, old) -> old == null || old.isReclaimed() ? sessionMap : old);
+        if (current != sessionMap) {
             return false;
         }
-        // 尝试加锁
-        segmentLock.lock(sessionId);
-        try {
-            if (sessionContainer.containsKey(sessionId)) {
-                return false;
-            }
-            sessionContainer.put(sessionId, new MemorySessionMap());
-            return true;
-        } finally {
-            segmentLock.unlock(sessionId);
+        if (wheel != null) {
+            wheel.schedule(sessionMap, sessionMap.getLastUseTime() + maxNotUseTime);
         }
+        onSessionChanged(sessionMap);
+        return true;
     }
 
     /**
-     * 启动会话垃圾回收机制，定期清理过期会话及属性。
+     * 启动会话垃圾回收机制。
      * <p>
-     * 该方法仅会启动一次GC线程（由{@link #isStartGC}控制），线程会按照指定的间隔时间执行以下操作：
-     * 1. 当会话总数达到{@code sessionNumThreshold}时，触发清理；
-     * 2. 遍历所有会话，移除已过期的会话（超过{@code maxNotUseTime}未使用）；
-     * 3. 对未过期的会话，清理其内部已过期的属性。
-     * 清理过程使用全局写锁（{@link Locks#SESSION_LOCK}）保证线程安全，避免并发修改冲突。
+     * 该方法仅会启动一次时间轮（由{@link #isStartGC}控制）。会话创建时按{@code maxNotUseTime}注册过期任务，
+     * 任务到期时：
+     * 1. 若会话总数未达到{@code sessionNumThreshold}，则在{@code checkTime}后重新检查；
+     * 2. 若会话在此期间被续期，则按最新的使用时间重新调度；
+     * 3. 否则通过CAS回收会话，并取消其属性的过期任务。
+     * 带过期时间的属性同样注册在时间轮中，到期后直接从会话中移除。
+     * 整个过程不持有任何全局锁，与请求线程并发执行。
      * </p>
      *
-     * @param checkTime          垃圾回收的检查间隔时间（单位：毫秒）
+     * @param checkTime          会话数量不足阈值时的重新检查间隔（单位：毫秒）
      * @param maxNotUseTime      会话的最大未使用时长（单位：毫秒），超过此时长的会话将被清理
      * @param checkForSessionNums 触发垃圾回收的会话数量阈值，低于该值时不执行清理
      */
@@ -198,44 +269,194 @@ public class MemorySessionManager implements SessionManager {
         if (!isStartGC.compareAndSet(false, true)) {
             return;
         }
-        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1, new ThreadFactory() {
-            private final AtomicLong count = new AtomicLong(0);
-
-            @Override
-            public Thread newThread(Runnable r) {
-                count.compareAndSet(Long.MAX_VALUE, 0);
-                String threadName = "session-gc-thread-" + count.getAndIncrement();
-                Thread thread = new Thread(r, threadName);
-                thread.setDaemon(true);
-                return thread;
+        this.checkTime = checkTime;
+        this.maxNotUseTime = maxNotUseTime;
+        this.sessionNumThreshold = checkForSessionNums;
+        HierarchicalTimingWheel wheel = new HierarchicalTimingWheel(WHEEL_TICK, "session-gc-thread");
+        wheel.start();
+        this.wheel = wheel;
+    }
+
+    /**
+     * 会话的过期任务到期，由时间轮线程调用
+     *
+     * @param sessionMap 到期的会话
+     * @param wheel      所在的时间轮
+     */
+    void onSessionTimeout(MemorySessionMap sessionMap, HierarchicalTimingWheel wheel) {
+        if (sessionNum() < sessionNumThreshold) {
+            wheel.schedule(sessionMap, CoarseClock.currentTimeMillis() + checkTime);
+            return;
+        }
+        if (sessionMap.tryReclaim(maxNotUseTime)) {
+            shardOf(sessionMap.getSessionId()).remove(sessionMap.getSessionId(), sessionMap);
+            sessionMap.clearAttrs();
+            reclaimedNum.incrementAndGet();
+            if (trackChanges) {
+                removedSessions.add(sessionMap.getSessionId());
             }
-        });
-        scheduler.scheduleAtFixedRate(() -> {
-            // 判断是否到达检查条件
-            if (sessionContainer.size() < checkForSessionNums) {
-                return;
+            return;
+        }
+        // 会话已被续期，按最新的使用时间重新调度
+        wheel.schedule(sessionMap, sessionMap.getLastUseTime() + maxNotUseTime + 1);
+    }
+
+    /**
+     * 会话被续期，最后使用时间进入新的{@link SessionSnapshotter#touchStep(long)}区间时记录变化，
+     * 保证快照中的最后使用时间落后不超过一个区间
+     *
+     * @param sessionMap  被续期的会话
+     * @param lastUseTime 续期前的最后使用时间
+     * @param now         续期后的最后使用时间
+     */
+    void onSessionTouched(MemorySessionMap sessionMap, long lastUseTime, long now) {
+        if (!trackChanges) {
+            return;
+        }
+        long step = SessionSnapshotter.touchStep(maxNotUseTime);
+        if (lastUseTime / step != now / step) {
+            onSessionChanged(sessionMap);
+        }
+    }
+
+    /**
+     * 会话被创建或属性被修改
+     *
+     * @param sessionMap 发生变化的会话
+     */
+    void onSessionChanged(MemorySessionMap sessionMap) {
+        if (trackChanges && sessionMap.markChanged()) {
+            changedSessions.add(sessionMap);
+        }
+    }
+
+    /**
+     * 设置快照中属性值的编解码器，需在快照启动前设置
+     *
+     * @param snapshotCodec 属性的编解码器
+     */
+    public void setSnapshotCodec(SessionAttributeCodec snapshotCodec) {
+        this.snapshotCodec = snapshotCodec;
+    }
+
+    @Override
+    public void trackChanges() {
+        this.trackChanges = true;
+    }
+
+    @Override
+    public void collectChanges(SessionSnapshotSink sink) {
+        String removedId;
+        while ((removedId = removedSessions.poll()) != null) {
+            if (SessionIds.isValid(removedId)) {
+                sink.remove(SessionIds.high(removedId), SessionIds.low(removedId));
             }
-            long start = System.currentTimeMillis();
-            // 获取session的写锁
-            Locks.SESSION_LOCK.writeLock().lock();
-            try {
-                log.debug("session垃圾回收器触发");
-                Iterator<Map.Entry<String, MemorySessionMap>> iterator = sessionContainer.entrySet().iterator();
-                while (iterator.hasNext()) {
-                    Map.Entry<String, MemorySessionMap> entry = iterator.next();
-                    MemorySessionMap sessionMap = entry.getValue();
-                    if (sessionMap.isTimeout(maxNotUseTime)) {
-                        iterator.remove();
-                    } else {
-                        sessionMap.timeoutValGC();
-                    }
-                }
-            } finally {
-                Locks.SESSION_LOCK.writeLock().unlock();
-                long end = System.currentTimeMillis();
-                log.info("session垃圾回收器检查结束，耗时：{}ms", end - start);
+        }
+        MemorySessionMap sessionMap;
+        while ((sessionMap = changedSessions.poll()) != null) {
+            sessionMap.clearChanged();
+            export(sessionMap, sink);
+        }
+    }
+
+    @Override
+    public void collectAll(SessionSnapshotSink sink) {
+        for (Map<String, MemorySessionMap> shard : shards) {
+            for (MemorySessionMap sessionMap : shard.values()) {
+                export(sessionMap, sink);
             }
-        }, checkTime, checkTime, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 导出单个会话的当前状态，已回收的会话导出删除
+     *
+     * @param sessionMap 会话
+     * @param sink       快照的写入目标
+     */
+    private void export(MemorySessionMap sessionMap, SessionSnapshotSink sink) {
+        String sessionId = sessionMap.getSessionId();
+        if (!SessionIds.isValid(sessionId)) {
+            return;
+        }
+        long high = SessionIds.high(sessionId);
+        long low = SessionIds.low(sessionId);
+        long lastUseTime = sessionMap.getLastUseTime();
+        if (sessionMap.isReclaimed()) {
+            sink.remove(high, low);
+            return;
+        }
+        sink.put(high, low, lastUseTime, sessionMap.encodeAttrs(snapshotCodec));
+    }
+
+    /**
+     * 从快照中恢复会话，会话保留快照中的最后使用时间。
+     * <p>
+     * 垃圾回收已启动时，停机期间已经超过最大未使用时长的会话不再恢复（已存在的同名会话也会被删除），
+     * 其余会话按恢复的最后使用时间注册到时间轮中，只在剩余的时长后过期。
+     * </p>
+     */
+    @Override
+    public void restoreSession(long idHigh, long idLow, long lastUseTime, byte[] attrs) {
+        HierarchicalTimingWheel wheel = this.wheel;
+        long now = CoarseClock.currentTimeMillis();
+        // 快照来自时钟更快的机器时，不允许会话的最后使用时间晚于当前时间
+        lastUseTime = Math.min(lastUseTime, now);
+        if (wheel != null && maxNotUseTime > 0 && now - lastUseTime > maxNotUseTime) {
+            restoreRemove(idHigh, idLow);
+            return;
+        }
+        String sessionId = SessionIds.toSessionId(idHigh, idLow);
+        MemorySessionMap sessionMap = new MemorySessionMap(sessionId, this, wheel, lastUseTime);
+        sessionMap.restoreAttrs(attrs, snapshotCodec);
+        MemorySessionMap old = shardOf(sessionId).put(sessionId, sessionMap);
+        if (old != null) {
+            old.cancel();
+            old.clearAttrs();
+        }
+        if (wheel != null) {
+            wheel.schedule(sessionMap, sessionMap.getLastUseTime() + maxNotUseTime);
+        }
+    }
+
+    @Override
+    public void restoreRemove(long idHigh, long idLow) {
+        MemorySessionMap old = shardOf(SessionIds.toSessionId(idHigh, idLow)).remove(SessionIds.toSessionId(idHigh, idLow));
+        if (old != null) {
+            old.cancel();
+            old.clearAttrs();
+        }
+    }
+
+    /**
+     * 获取当前的会话总数
+     *
+     * @return 会话总数
+     */
+    public long sessionNum() {
+        long num = 0;
+        for (Map<String, MemorySessionMap> shard : shards) {
+            num += shard.size();
+        }
+        return num;
+    }
+
+    /**
+     * 获取累计回收的会话数
+     *
+     * @return 会话数
+     */
+    public long getReclaimedNum() {
+        return reclaimedNum.get();
+    }
+
+    /**
+     * 获取会话及属性的过期时间轮，可用于观察待过期任务数、单次推进耗时等指标
+     *
+     * @return 时间轮，垃圾回收未启动时返回null
+     */
+    public HierarchicalTimingWheel getTimingWheel() {
+        return wheel;
     }
 
     /**
@@ -258,9 +479,45 @@ public class MemorySessionManager implements SessionManager {
      */
     @Override
     public void expireAt(String sessionId) {
-        MemorySessionMap sessionMap = sessionContainer.get(sessionId);
+        MemorySessionMap sessionMap = getSession(sessionId);
         if (sessionMap != null) {
             sessionMap.expireAt();
         }
     }
+
+    /**
+     * 获取sessionId对应的分片
+     *
+     * @param sessionId 会话id
+     * @return 分片
+     */
+    private Map<String, MemorySessionMap> shardOf(String sessionId) {
+        int h = sessionId.hashCode();
+        h ^= (h >>> 16);
+        return shards[(h & 0x7fffffff) % shards.length];
+    }
+
+    /**
+     * 获取未被回收的会话
+     *
+     * @param sessionId 会话id
+     * @return 会话，不存在或已被回收时返回null
+     */
+    private MemorySessionMap getSession(String sessionId) {
+        MemorySessionMap sessionMap = shardOf(sessionId).get(sessionId);
+        if (sessionMap == null || sessionMap.isReclaimed()) {
+            return null;
+        }
+        return sessionMap;
+    }
+
+    /**
+     * 会话的回收通过CAS逐条完成，请求线程无需持有全局会话锁
+     *
+     * @return 固定返回false
+     */
+    @Override
+    public boolean needGlobalLock() {
+        return false;
+    }
 }
@@ -2,43 +2,63 @@ package top.turboweb.http.session;
 
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 
 /**
  * 基于内存的会话属性存储实现，实现{@link HttpSessionStore}接口。
  * <p>
  * 该类使用{@link ConcurrentHashMap}作为底层容器存储会话属性，支持属性级别的过期时间管理。
- * 每个属性通过{@link SessionAttributeDefinition}封装值和过期时间戳，提供属性过期判断及自动清理功能。
- * 同时维护会话的最后使用时间，支持会话级别的过期判断（基于最大不活跃时长）。
+ * 每个属性通过{@link SessionAttributeDefinition}封装值和过期时间戳，带过期时间的属性会被注册到
+ * {@link HierarchicalTimingWheel}中，到期后由时间轮直接移除，无需周期性扫描。
+ * 会话本身也是时间轮中的定时任务，到期时由{@link MemorySessionManager}判断是否回收。
  * </p>
  * <p>
  * 线程安全说明：底层容器采用线程安全的{@link ConcurrentHashMap}，保证并发场景下的属性操作安全性；
- * 最后使用时间通过volatile修饰，确保多线程间的可见性。
+ * 最后使用时间通过CAS更新，回收时将其置为{@link #RECLAIMED}，续期与回收互斥，
+ * 因此垃圾回收无需任何全局锁，也不会回收一个正在被续期的会话。
+ * 时间判断均使用{@link CoarseClock}，读操作不会调用{@link System#currentTimeMillis()}。
  * </p>
  */
-public class MemorySessionMap implements HttpSessionStore {
+public class MemorySessionMap extends HierarchicalTimingWheel.Timeout implements HttpSessionStore {
 
     /**
      * 会话属性的内部封装类，包含属性值和过期时间戳。
      * <p>
-     * 提供{@link #isTimeout()}方法判断属性是否过期，过期时间戳为null表示属性永久有效。
+     * 提供{@link #isTimeout()}方法判断属性是否过期，过期时间戳为0表示属性永久有效。
+     * 带过期时间的属性到期时由时间轮从所属会话中移除。
      * </p>
      */
-    private static class SessionAttributeDefinition {
+    private static class SessionAttributeDefinition extends HierarchicalTimingWheel.Timeout {
 
         private final Object value;
 
         /**
-         * 属性过期时间戳（毫秒级），null表示永久有效
+         * 属性过期时间戳（毫秒级），0表示永久有效
          */
-        private final Long timeoutTimestamp;
+        private final long timeoutTimestamp;
+
+        /**
+         * 属性名，到期时用于从会话中移除
+         */
+        private final String key;
+
+        /**
+         * 属性所属的会话
+         */
+        private final MemorySessionMap owner;
 
         /**
          * 构造属性定义实例
          *
-         * @param value           属性值
-         * @param timeoutTimestamp 过期时间戳（毫秒级），null表示永久有效
+         * @param owner            属性所属的会话
+         * @param key              属性名
+         * @param value            属性值
+         * @param timeoutTimestamp 过期时间戳（毫秒级），0表示永久有效
          */
-        public SessionAttributeDefinition(Object value, Long timeoutTimestamp) {
+        public SessionAttributeDefinition(MemorySessionMap owner, String key, Object value, long timeoutTimestamp) {
+            this.owner = owner;
+            this.key = key;
             this.value = value;
             this.timeoutTimestamp = timeoutTimestamp;
         }
@@ -58,30 +78,88 @@ public class MemorySessionMap implements HttpSessionStore {
          * @return true：已过期；false：未过期或永久有效
          */
         public boolean isTimeout() {
-            if (timeoutTimestamp == null) {
+            if (timeoutTimestamp == 0) {
                 return false;
             }
-            long timeMillis = System.currentTimeMillis();
-            return timeMillis > timeoutTimestamp;
+            return CoarseClock.currentTimeMillis() > timeoutTimestamp;
+        }
+
+        /**
+         * 属性到期，从所属会话中移除（若未被覆盖）
+         *
+         * @param wheel 所在的时间轮
+         */
+        @Override
+        protected void expire(HierarchicalTimingWheel wheel) {
+            owner.sessionMap.remove(key, this);
         }
     }
 
+    /**
+     * 会话已被回收的标记值
+     */
+    private static final long RECLAIMED = -1;
+
+    private static final AtomicLongFieldUpdater<MemorySessionMap> LAST_USE_TIME =
+            AtomicLongFieldUpdater.newUpdater(MemorySessionMap.class, "lastUseTime");
+
+    private static final AtomicIntegerFieldUpdater<MemorySessionMap> CHANGED =
+            AtomicIntegerFieldUpdater.newUpdater(MemorySessionMap.class, "changed");
 
     /**
-     * 会话最后一次被使用的时间戳（毫秒级），用于判断会话是否过期
+     * 会话最后一次被使用的时间戳（毫秒级），用于判断会话是否过期，值为{@link #RECLAIMED}时表示会话已被回收
      */
     private volatile long lastUseTime;
 
+    /**
+     * 会话自上次快照以来是否发生变化，1表示已进入待导出队列
+     */
+    private volatile int changed;
+
     /**
      * 存储会话属性的容器，键为属性名，值为属性定义对象
      */
     private final Map<String, SessionAttributeDefinition> sessionMap = new ConcurrentHashMap<>();
 
+    /**
+     * 会话的唯一标识
+     */
+    private final String sessionId;
+
+    /**
+     * 会话所属的管理器，会话到期时回调
+     */
+    private final MemorySessionManager manager;
+
+    /**
+     * 属性过期使用的时间轮，为null时属性只在读取时判断过期
+     */
+    private final HierarchicalTimingWheel wheel;
+
     /**
      * 构造方法，初始化会话最后使用时间为当前时间
+     *
+     * @param sessionId 会话的唯一标识
+     * @param manager   会话所属的管理器
+     * @param wheel     属性过期使用的时间轮，可为null
      */
-    public MemorySessionMap() {
-        this.expireAt();
+    public MemorySessionMap(String sessionId, MemorySessionManager manager, HierarchicalTimingWheel wheel) {
+        this(sessionId, manager, wheel, CoarseClock.currentTimeMillis());
+    }
+
+    /**
+     * 构造方法，使用指定的最后使用时间，用于从快照中恢复会话
+     *
+     * @param sessionId   会话的唯一标识
+     * @param manager     会话所属的管理器
+     * @param wheel       属性过期使用的时间轮，可为null
+     * @param lastUseTime 会话最后使用时间
+     */
+    MemorySessionMap(String sessionId, MemorySessionManager manager, HierarchicalTimingWheel wheel, long lastUseTime) {
+        this.sessionId = sessionId;
+        this.manager = manager;
+        this.wheel = wheel;
+        this.lastUseTime = lastUseTime;
     }
 
     /**
@@ -92,7 +170,8 @@ public class MemorySessionMap implements HttpSessionStore {
      */
     @Override
     public void setAttr(String key, Object value) {
-        sessionMap.put(key, new SessionAttributeDefinition(value, null));
+        replace(key, new SessionAttributeDefinition(this, key, value, 0));
+        manager.onSessionChanged(this);
     }
 
     /**
@@ -104,8 +183,26 @@ public class MemorySessionMap implements HttpSessionStore {
      */
     @Override
     public void setAttr(String key, Object value, long timeout) {
-        timeout = System.currentTimeMillis() + timeout;
-        sessionMap.put(key, new SessionAttributeDefinition(value, timeout));
+        long timeoutTimestamp = CoarseClock.currentTimeMillis() + timeout;
+        SessionAttributeDefinition definition = new SessionAttributeDefinition(this, key, value, timeoutTimestamp);
+        replace(key, definition);
+        if (wheel != null) {
+            wheel.schedule(definition, timeoutTimestamp);
+        }
+        manager.onSessionChanged(this);
+    }
+
+    /**
+     * 替换属性，并取消被覆盖属性的过期任务
+     *
+     * @param key        属性的唯一标识
+     * @param definition 新的属性定义
+     */
+    private void replace(String key, SessionAttributeDefinition definition) {
+        SessionAttributeDefinition old = sessionMap.put(key, definition);
+        if (old != null) {
+            old.cancel();
+        }
     }
 
     /**
@@ -149,15 +246,71 @@ public class MemorySessionMap implements HttpSessionStore {
      */
     @Override
     public void remAttr(String key) {
-        sessionMap.remove(key);
+        SessionAttributeDefinition old = sessionMap.remove(key);
+        if (old != null) {
+            old.cancel();
+            manager.onSessionChanged(this);
+        }
+    }
+
+    /**
+     * 清空会话中的所有属性，并取消属性的过期任务，会话被回收时调用
+     */
+    void clearAttrs() {
+        for (SessionAttributeDefinition definition : sessionMap.values()) {
+            definition.cancel();
+        }
+        sessionMap.clear();
+    }
+
+    /**
+     * 标记会话已发生变化
+     *
+     * @return true：首次标记，调用方需要将会话放入待导出队列
+     */
+    boolean markChanged() {
+        return changed == 0 && CHANGED.compareAndSet(this, 0, 1);
+    }
+
+    /**
+     * 清除变化标记，在导出会话状态之前调用，以便导出期间的修改能再次被标记
+     */
+    void clearChanged() {
+        changed = 0;
+    }
+
+    /**
+     * 将未过期的属性编码为快照的属性记录
+     *
+     * @param codec 属性的编解码器
+     * @return 属性记录
+     */
+    byte[] encodeAttrs(SessionAttributeCodec codec) {
+        SessionRecords.Builder builder = new SessionRecords.Builder();
+        for (Map.Entry<String, SessionAttributeDefinition> entry : sessionMap.entrySet()) {
+            SessionAttributeDefinition definition = entry.getValue();
+            if (!definition.isTimeout()) {
+                builder.add(entry.getKey(), definition.timeoutTimestamp, codec.encode(definition.getValue()));
+            }
+        }
+        return builder.build();
     }
 
     /**
-     * 清理会话中所有已过期的属性
+     * 从快照的属性记录中恢复属性，已过期的属性会被忽略
+     *
+     * @param record 属性记录
+     * @param codec  属性的编解码器
      */
-    public void timeoutValGC() {
-        sessionMap.entrySet()
-                .removeIf(entry -> entry.getValue().isTimeout());
+    void restoreAttrs(byte[] record, SessionAttributeCodec codec) {
+        long now = CoarseClock.currentTimeMillis();
+        SessionRecords.forEach(record, (key, expireAt, value) -> {
+            if (expireAt == 0) {
+                setAttr(key, codec.decode(value, Object.class));
+            } else if (expireAt > now) {
+                setAttr(key, codec.decode(value, Object.class), expireAt - now);
+            }
+        });
     }
 
     /**
@@ -165,7 +318,29 @@ public class MemorySessionMap implements HttpSessionStore {
      */
     @Override
     public void expireAt() {
-        this.lastUseTime = System.currentTimeMillis();
+        touch();
+    }
+
+    /**
+     * 续期会话，与{@link #tryReclaim(long)}互斥
+     *
+     * @return true：续期成功；false：会话已被回收
+     */
+    public boolean touch() {
+        long now = CoarseClock.currentTimeMillis();
+        for (;;) {
+            long last = lastUseTime;
+            if (last == RECLAIMED) {
+                return false;
+            }
+            if (last >= now) {
+                return true;
+            }
+            if (LAST_USE_TIME.compareAndSet(this, last, now)) {
+                manager.onSessionTouched(this, last, now);
+                return true;
+            }
+        }
     }
 
     /**
@@ -175,7 +350,67 @@ public class MemorySessionMap implements HttpSessionStore {
      * @return true：已过期；false：未过期
      */
     public boolean isTimeout(long maxNotUseTime) {
-        long timeMillis = System.currentTimeMillis();
-        return timeMillis - lastUseTime > maxNotUseTime;
+        long last = lastUseTime;
+        if (last == RECLAIMED) {
+            return true;
+        }
+        return CoarseClock.currentTimeMillis() - last > maxNotUseTime;
+    }
+
+    /**
+     * 若会话已过期则将其标记为已回收
+     * <p>
+     * 标记通过CAS完成，若期间会话被续期则回收失败，被标记的会话不可再续期。
+     * </p>
+     *
+     * @param maxNotUseTime 最大不活跃时长（毫秒级）
+     * @return true：会话已被回收；false：会话仍然有效
+     */
+    public boolean tryReclaim(long maxNotUseTime) {
+        long last = lastUseTime;
+        if (last == RECLAIMED) {
+            return true;
+        }
+        if (CoarseClock.currentTimeMillis() - last <= maxNotUseTime) {
+            return false;
+        }
+        return LAST_USE_TIME.compareAndSet(this, last, RECLAIMED);
+    }
+
+    /**
+     * 判断会话是否已被回收
+     *
+     * @return true：已回收
+     */
+    public boolean isReclaimed() {
+        return lastUseTime == RECLAIMED;
+    }
+
+    /**
+     * 获取会话最后一次被使用的时间戳
+     *
+     * @return 毫秒级时间戳，会话已回收时返回{@link #RECLAIMED}
+     */
+    public long getLastUseTime() {
+        return lastUseTime;
+    }
+
+    /**
+     * 获取会话的唯一标识
+     *
+     * @return sessionId
+     */
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    /**
+     * 会话的过期任务到期，交由管理器判断是否回收或重新调度
+     *
+     * @param wheel 所在的时间轮
+     */
+    @Override
+    protected void expire(HierarchicalTimingWheel wheel) {
+        manager.onSessionTimeout(this, wheel);
     }
 }
@@ -0,0 +1,766 @@
+package top.turboweb.http.session;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import top.turboweb.commons.exception.TurboSessionException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 基于堆外内存的紧凑会话管理器实现，适用于会话数量巨大的单机场景。
+ * <p>
+ * 与{@link MemorySessionManager}为每个会话维护一个{@link java.util.concurrent.ConcurrentHashMap}及若干属性对象不同，
+ * 该实现不为会话创建任何堆上对象：
+ * <ul>
+ *     <li>sessionId（32位十六进制字符串）被解析为两个long作为16字节的键，存放在分片内的基本类型数组中（开放寻址哈希表）</li>
+ *     <li>会话的全部属性经{@link SessionAttributeCodec}编码后，作为一条记录存放在堆外的{@link OffHeapSlab}中</li>
+ * </ul>
+ * 因此每个会话在堆上只占用约32字节的数组空间，垃圾回收器无需遍历会话数据。
+ * </p>
+ * <p>
+ * 会话按键的哈希分布到多个分片中，每个分片由独立的锁保护，临界区内只做数组查找和内存拷贝，
+ * 属性的编解码在锁外完成。垃圾回收每次只清理一个分片，请求线程不需要全局锁。
+ * 属性的修改采用写时复制：重写整条记录并释放旧记录，因此适合读多写少、属性较小的会话数据。
+ * </p>
+ * <p>
+ * 该实现只接受由{@link DefaultHttpSession}生成的32位十六进制sessionId，其他格式的sessionId视为不存在。
+ * 属性记录在堆外的格式与快照格式一致，因此快照的导出和恢复只需拷贝内存，不需要编解码。
+ * </p>
+ */
+public class OffHeapSessionManager implements SnapshotSessionManager {
+
+    private static final Logger log = LoggerFactory.getLogger(OffHeapSessionManager.class);
+
+    /**
+     * 默认的分片数量
+     */
+    private static final int DEFAULT_STRIPE_NUM = 64;
+
+    /**
+     * 每个分片申请直接内存的块大小
+     */
+    private static final int CHUNK_SIZE = 256 * 1024;
+
+    /**
+     * 垃圾回收每次持有分片锁时最多检查的槽位数
+     */
+    private static final int SWEEP_BATCH = 1024;
+
+    /**
+     * 会话没有任何属性时的句柄
+     */
+    private static final long NO_RECORD = -1;
+
+    /**
+     * 永不过期属性的过期时间
+     */
+    private static final long NEVER_EXPIRE = 0;
+
+    private final Stripe[] stripes;
+    private final SessionAttributeCodec codec;
+    private final AtomicBoolean isStartGC = new AtomicBoolean(false);
+
+    /**
+     * 会话的最大未使用时长（毫秒），启动垃圾回收前为-1
+     */
+    private volatile long maxNotUseTime = -1;
+
+    /**
+     * 下一次清理的分片下标，仅由GC线程访问
+     */
+    private int sweepCursor = 0;
+
+    public OffHeapSessionManager() {
+        this(new JdkSessionAttributeCodec());
+    }
+
+    public OffHeapSessionManager(SessionAttributeCodec codec) {
+        this(codec, DEFAULT_STRIPE_NUM);
+    }
+
+    /**
+     * 创建堆外会话管理器
+     *
+     * @param codec     属性的编解码器
+     * @param stripeNum 分片数量，会被向上取整为2的幂
+     */
+    public OffHeapSessionManager(SessionAttributeCodec codec, int stripeNum) {
+        if (stripeNum < 1) {
+            throw new IllegalArgumentException("stripeNum必须大于0");
+        }
+        this.codec = codec;
+        int num = Integer.highestOneBit(stripeNum - 1 == 0 ? 1 : (stripeNum - 1) << 1);
+        this.stripes = new Stripe[num];
+        for (int i = 0; i < num; i++) {
+            this.stripes[i] = new Stripe();
+        }
+    }
+
+    @Override
+    public void setAttr(String sessionId, String key, Object value) {
+        putAttr(sessionId, key, value, NEVER_EXPIRE);
+    }
+
+    @Override
+    public void setAttr(String sessionId, String key, Object value, long timeout) {
+        putAttr(sessionId, key, value, CoarseClock.currentTimeMillis() + timeout);
+    }
+
+    @Override
+    public Object getAttr(String sessionId, String key) {
+        return getAttr(sessionId, key, Object.class);
+    }
+
+    @Override
+    public <T> T getAttr(String sessionId, String key, Class<T> clazz) {
+        if (!SessionIds.isValid(sessionId)) {
+            return null;
+        }
+        long hi = SessionIds.high(sessionId);
+        long lo = SessionIds.low(sessionId);
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        byte[] value = stripeOf(hi, lo).readAttr(hi, lo, keyBytes);
+        if (value == null) {
+            return null;
+        }
+        return codec.decode(value, clazz);
+    }
+
+    @Override
+    public void remAttr(String sessionId, String key) {
+        if (!SessionIds.isValid(sessionId)) {
+            return;
+        }
+        long hi = SessionIds.high(sessionId);
+        long lo = SessionIds.low(sessionId);
+        stripeOf(hi, lo).writeAttr(hi, lo, key.getBytes(StandardCharsets.UTF_8), null, NEVER_EXPIRE);
+    }
+
+    @Override
+    public boolean exist(String sessionId) {
+        if (!SessionIds.isValid(sessionId)) {
+            return false;
+        }
+        long hi = SessionIds.high(sessionId);
+        long lo = SessionIds.low(sessionId);
+        return stripeOf(hi, lo).exist(hi, lo);
+    }
+
+    @Override
+    public boolean createSessionMap(String sessionId) {
+        if (!SessionIds.isValid(sessionId)) {
+            throw new TurboSessionException("invalid sessionId: " + sessionId);
+        }
+        long hi = SessionIds.high(sessionId);
+        long lo = SessionIds.low(sessionId);
+        return stripeOf(hi, lo).create(hi, lo);
+    }
+
+    /**
+     * 启动会话垃圾回收机制，每隔{@code checkTime / 分片数}清理一个分片。
+     *
+     * @param checkTime           垃圾回收的检查间隔时间（单位：毫秒）
+     * @param maxNotUseTime       会话的最大未使用时长（单位：毫秒）
+     * @param sessionNumThreshold 触发垃圾回收的会话数量阈值，低于该值时不执行清理
+     */
+    @Override
+    public void sessionGC(long checkTime, long maxNotUseTime, long sessionNumThreshold) {
+        if (!isStartGC.compareAndSet(false, true)) {
+            return;
+        }
+        this.maxNotUseTime = maxNotUseTime;
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "offheap-session-gc-thread");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1, checkTime / stripes.length);
+        scheduler.scheduleAtFixedRate(() -> {
+            try {
+                if (sessionNum() < sessionNumThreshold) {
+                    return;
+                }
+                int index = sweepCursor;
+                sweepCursor = (index + 1) % stripes.length;
+                long start = System.nanoTime();
+                int reclaimed = stripes[index].sweep(maxNotUseTime);
+                log.debug("session分片{}清理结束，回收：{}，耗时：{}us", index, reclaimed, (System.nanoTime() - start) / 1000);
+            } catch (Throwable e) {
+                log.error("session垃圾回收器执行异常", e);
+            }
+        }, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public String sessionManagerName() {
+        return "off-heap session manager";
+    }
+
+    @Override
+    public void expireAt(String sessionId) {
+        if (!SessionIds.isValid(sessionId)) {
+            return;
+        }
+        long hi = SessionIds.high(sessionId);
+        long lo = SessionIds.low(sessionId);
+        stripeOf(hi, lo).touch(hi, lo, SessionSnapshotter.touchStep(maxNotUseTime));
+    }
+
+    @Override
+    public boolean needGlobalLock() {
+        return false;
+    }
+
+    @Override
+    public void trackChanges() {
+        for (Stripe stripe : stripes) {
+            stripe.tracking = true;
+        }
+    }
+
+    @Override
+    public void collectChanges(SessionSnapshotSink sink) {
+        for (Stripe stripe : stripes) {
+            long[] removed;
+            long[] changed;
+            stripe.lock.lock();
+            try {
+                removed = Arrays.copyOf(stripe.removedKeys, stripe.removedSize);
+                changed = Arrays.copyOf(stripe.changedKeys, stripe.changedSize);
+                stripe.removedSize = 0;
+                stripe.changedSize = 0;
+            } finally {
+                stripe.lock.unlock();
+            }
+            for (int i = 0; i < removed.length; i += 2) {
+                sink.remove(removed[i], removed[i + 1]);
+            }
+            for (int i = 0; i < changed.length; i += 2) {
+                stripe.export(changed[i], changed[i + 1], sink);
+            }
+        }
+    }
+
+    @Override
+    public void collectAll(SessionSnapshotSink sink) {
+        for (Stripe stripe : stripes) {
+            stripe.exportAll(sink);
+        }
+    }
+
+    /**
+     * 从快照中恢复会话，会话保留快照中的最后使用时间。
+     * <p>
+     * 垃圾回收已启动时，停机期间已经超过最大未使用时长的会话不再恢复（已存在的同名会话也会被删除），
+     * 其余会话由分片清理按恢复的最后使用时间判断过期。
+     * </p>
+     */
+    @Override
+    public void restoreSession(long idHigh, long idLow, long lastUseTime, byte[] attrs) {
+        long now = CoarseClock.currentTimeMillis();
+        lastUseTime = Math.min(lastUseTime, now);
+        long maxNotUseTime = this.maxNotUseTime;
+        if (maxNotUseTime > 0 && now - lastUseTime > maxNotUseTime) {
+            stripeOf(idHigh, idLow).remove(idHigh, idLow);
+            return;
+        }
+        stripeOf(idHigh, idLow).restore(idHigh, idLow, lastUseTime, attrs);
+    }
+
+    @Override
+    public void restoreRemove(long idHigh, long idLow) {
+        stripeOf(idHigh, idLow).remove(idHigh, idLow);
+    }
+
+    /**
+     * 获取当前的会话总数
+     *
+     * @return 会话总数
+     */
+    public long sessionNum() {
+        long num = 0;
+        for (Stripe stripe : stripes) {
+            num += stripe.size;
+        }
+        return num;
+    }
+
+    /**
+     * 获取已申请的直接内存总量
+     *
+     * @return 字节数
+     */
+    public long reservedOffHeapBytes() {
+        long bytes = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                bytes += stripe.slab.reservedBytes();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * 写入或删除属性
+     *
+     * @param sessionId 会话id
+     * @param key       属性名
+     * @param value     属性值
+     * @param expireAt  过期时间戳，{@link #NEVER_EXPIRE}表示永不过期
+     */
+    private void putAttr(String sessionId, String key, Object value, long expireAt) {
+        if (!SessionIds.isValid(sessionId)) {
+            return;
+        }
+        long hi = SessionIds.high(sessionId);
+        long lo = SessionIds.low(sessionId);
+        byte[] encoded = codec.encode(value);
+        stripeOf(hi, lo).writeAttr(hi, lo, key.getBytes(StandardCharsets.UTF_8), encoded, expireAt);
+    }
+
+    private Stripe stripeOf(long hi, long lo) {
+        return stripes[(int) (mix(hi, lo) >>> 32) & (stripes.length - 1)];
+    }
+
+    private static long mix(long hi, long lo) {
+        long h = hi * 0x9E3779B97F4A7C15L ^ lo;
+        h ^= (h >>> 29);
+        h *= 0xBF58476D1CE4E5B9L;
+        return h ^ (h >>> 32);
+    }
+
+    /**
+     * 会话分片：线性探测的开放寻址哈希表，键和会话元信息保存在基本类型数组中，属性记录保存在堆外。
+     * <p>
+     * 属性记录的格式为若干个连续的条目：[short 键长度][键][long 过期时间][int 值长度][值]。
+     * </p>
+     */
+    private static class Stripe {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final OffHeapSlab slab = new OffHeapSlab(CHUNK_SIZE);
+        private long[] his = new long[64];
+        private long[] los = new long[64];
+        private long[] handles = new long[64];
+        /**
+         * 会话最后使用时间，0表示槽位为空
+         */
+        private long[] lastUse = new long[64];
+        private int mask = 63;
+        private volatile int size;
+        /**
+         * 是否记录会话的变化，供快照导出
+         */
+        private volatile boolean tracking;
+        /**
+         * 发生变化的会话键，每两个元素为一个键
+         */
+        private long[] changedKeys = new long[32];
+        private int changedSize;
+        /**
+         * 被回收的会话键，每两个元素为一个键
+         */
+        private long[] removedKeys = new long[32];
+        private int removedSize;
+
+        boolean exist(long hi, long lo) {
+            lock.lock();
+            try {
+                return find(hi, lo) >= 0;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        boolean create(long hi, long lo) {
+            lock.lock();
+            try {
+                if (find(hi, lo) >= 0) {
+                    return false;
+                }
+                if ((size + 1) * 4L > (mask + 1) * 3L) {
+                    resize();
+                }
+                int index = insertIndex(hi, lo);
+                his[index] = hi;
+                los[index] = lo;
+                handles[index] = NO_RECORD;
+                lastUse[index] = Math.max(1, CoarseClock.currentTimeMillis());
+                size++;
+                markChanged(hi, lo);
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * 续期会话，最后使用时间进入新的区间时记录变化
+         *
+         * @param step 记录变化的时间区间（毫秒）
+         */
+        void touch(long hi, long lo, long step) {
+            lock.lock();
+            try {
+                int index = find(hi, lo);
+                if (index >= 0) {
+                    long last = lastUse[index];
+                    long now = CoarseClock.currentTimeMillis();
+                    if (now > last) {
+                        lastUse[index] = now;
+                        if (last / step != now / step) {
+                            markChanged(hi, lo);
+                        }
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        byte[] readAttr(long hi, long lo, byte[] key) {
+            byte[] record;
+            lock.lock();
+            try {
+                int index = find(hi, lo);
+                if (index < 0 || handles[index] == NO_RECORD) {
+                    return null;
+                }
+                record = slab.read(handles[index]);
+            } finally {
+                lock.unlock();
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(record);
+            long now = CoarseClock.currentTimeMillis();
+            while (buffer.hasRemaining()) {
+                int keyLen = buffer.getShort() & 0xFFFF;
+                int keyPos = buffer.position();
+                buffer.position(keyPos + keyLen);
+                long expireAt = buffer.getLong();
+                int valLen = buffer.getInt();
+                int valPos = buffer.position();
+                buffer.position(valPos + valLen);
+                if (keyLen == key.length && Arrays.equals(record, keyPos, keyPos + keyLen, key, 0, keyLen)) {
+                    if (expireAt != NEVER_EXPIRE && now > expireAt) {
+                        return null;
+                    }
+                    return Arrays.copyOfRange(record, valPos, valPos + valLen);
+                }
+            }
+            return null;
+        }
+
+        /**
+         * 写入属性，value为null时删除属性，同时清除已过期的属性；删除不存在的属性时不做任何修改
+         */
+        void writeAttr(long hi, long lo, byte[] key, byte[] value, long expireAt) {
+            if (key.length > 0xFFFF) {
+                throw new TurboSessionException("session attribute key too long");
+            }
+            lock.lock();
+            try {
+                int index = find(hi, lo);
+                if (index < 0) {
+                    return;
+                }
+                long oldHandle = handles[index];
+                if (value == null && oldHandle == NO_RECORD) {
+                    return;
+                }
+                ByteArrayOutputStream bos = new ByteArrayOutputStream();
+                DataOutputStream out = new DataOutputStream(bos);
+                boolean found = oldHandle != NO_RECORD && copyEntries(slab.read(oldHandle), key, out);
+                if (value == null && !found) {
+                    // 删除不存在的属性，不重写记录也不记录变化
+                    return;
+                }
+                if (value != null) {
+                    out.writeShort(key.length);
+                    out.write(key);
+                    out.writeLong(expireAt);
+                    out.writeInt(value.length);
+                    out.write(value);
+                }
+                handles[index] = bos.size() == 0 ? NO_RECORD : slab.write(bos.toByteArray(), bos.size());
+                if (oldHandle != NO_RECORD) {
+                    slab.free(oldHandle);
+                }
+                markChanged(hi, lo);
+            } catch (IOException e) {
+                throw new TurboSessionException("session attribute write error", e);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * 复制记录中除指定键及已过期之外的条目
+         *
+         * @return 记录中是否存在未过期的指定键
+         */
+        private static boolean copyEntries(byte[] record, byte[] skipKey, DataOutputStream out) throws IOException {
+            boolean found = false;
+            ByteBuffer buffer = ByteBuffer.wrap(record);
+            long now = CoarseClock.currentTimeMillis();
+            while (buffer.hasRemaining()) {
+                int start = buffer.position();
+                int keyLen = buffer.getShort() & 0xFFFF;
+                int keyPos = buffer.position();
+                buffer.position(keyPos + keyLen);
+                long expireAt = buffer.getLong();
+                int valLen = buffer.getInt();
+                buffer.position(buffer.position() + valLen);
+                boolean expired = expireAt != NEVER_EXPIRE && now > expireAt;
+                boolean same = keyLen == skipKey.length && Arrays.equals(record, keyPos, keyPos + keyLen, skipKey, 0, keyLen);
+                if (!expired && !same) {
+                    out.write(record, start, buffer.position() - start);
+                }
+                found |= !expired && same;
+            }
+            return found;
+        }
+
+        /**
+         * 清理已过期的会话，每检查{@link #SWEEP_BATCH}个槽位释放一次分片锁，避免长时间阻塞该分片上的请求。
+         * 两批之间哈希表可能被扩容或移动，期间漏掉的会话在下一轮清理中回收。
+         *
+         * @return 回收的会话数
+         */
+        int sweep(long maxNotUseTime) {
+            int reclaimed = 0;
+            int i = 0;
+            for (;;) {
+                lock.lock();
+                try {
+                    if (i > mask) {
+                        return reclaimed;
+                    }
+                    long now = CoarseClock.currentTimeMillis();
+                    int end = Math.min(mask + 1, i + SWEEP_BATCH);
+                    while (i < end) {
+                        if (lastUse[i] != 0 && now - lastUse[i] > maxNotUseTime) {
+                            if (handles[i] != NO_RECORD) {
+                                slab.free(handles[i]);
+                            }
+                            if (tracking) {
+                                removedKeys = append(removedKeys, removedSize, his[i], los[i]);
+                                removedSize += 2;
+                            }
+                            removeAt(i);
+                            size--;
+                            reclaimed++;
+                            // 后移删除可能将后续元素移动到当前位置，需要重新检查
+                            continue;
+                        }
+                        i++;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+
+        /**
+         * 导出单个会话的当前状态，会话不存在时导出删除
+         */
+        void export(long hi, long lo, SessionSnapshotSink sink) {
+            long lastUseTime;
+            byte[] record;
+            lock.lock();
+            try {
+                int index = find(hi, lo);
+                if (index < 0) {
+                    record = null;
+                    lastUseTime = 0;
+                } else {
+                    lastUseTime = lastUse[index];
+                    record = handles[index] == NO_RECORD ? new byte[0] : slab.read(handles[index]);
+                }
+            } finally {
+                lock.unlock();
+            }
+            if (record == null) {
+                sink.remove(hi, lo);
+            } else {
+                sink.put(hi, lo, lastUseTime, record);
+            }
+        }
+
+        /**
+         * 导出分片内的全部会话，锁内只拷贝数据，写入在锁外进行
+         */
+        void exportAll(SessionSnapshotSink sink) {
+            long[] keys;
+            long[] times;
+            byte[][] records;
+            lock.lock();
+            try {
+                keys = new long[size * 2];
+                times = new long[size];
+                records = new byte[size][];
+                int n = 0;
+                for (int i = 0; i <= mask && n < times.length; i++) {
+                    if (lastUse[i] != 0) {
+                        keys[n * 2] = his[i];
+                        keys[n * 2 + 1] = los[i];
+                        times[n] = lastUse[i];
+                        records[n] = handles[i] == NO_RECORD ? new byte[0] : slab.read(handles[i]);
+                        n++;
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+            for (int i = 0; i < times.length; i++) {
+                if (records[i] != null) {
+                    sink.put(keys[i * 2], keys[i * 2 + 1], times[i], records[i]);
+                }
+            }
+        }
+
+        /**
+         * 从快照中恢复会话
+         */
+        void restore(long hi, long lo, long lastUseTime, byte[] record) {
+            lock.lock();
+            try {
+                int index = find(hi, lo);
+                if (index < 0) {
+                    if ((size + 1) * 4L > (mask + 1) * 3L) {
+                        resize();
+                    }
+                    index = insertIndex(hi, lo);
+                    his[index] = hi;
+                    los[index] = lo;
+                    size++;
+                } else if (handles[index] != NO_RECORD) {
+                    slab.free(handles[index]);
+                }
+                lastUse[index] = Math.max(1, lastUseTime);
+                handles[index] = record.length == 0 ? NO_RECORD : slab.write(record, record.length);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * 删除会话
+         */
+        void remove(long hi, long lo) {
+            lock.lock();
+            try {
+                int index = find(hi, lo);
+                if (index < 0) {
+                    return;
+                }
+                if (handles[index] != NO_RECORD) {
+                    slab.free(handles[index]);
+                }
+                removeAt(index);
+                size--;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void markChanged(long hi, long lo) {
+            if (tracking) {
+                changedKeys = append(changedKeys, changedSize, hi, lo);
+                changedSize += 2;
+            }
+        }
+
+        private static long[] append(long[] keys, int size, long hi, long lo) {
+            if (size + 2 > keys.length) {
+                keys = Arrays.copyOf(keys, keys.length << 1);
+            }
+            keys[size] = hi;
+            keys[size + 1] = lo;
+            return keys;
+        }
+
+        private int home(long hi, long lo) {
+            return (int) mix(hi, lo) & mask;
+        }
+
+        private int find(long hi, long lo) {
+            int index = home(hi, lo);
+            while (lastUse[index] != 0) {
+                if (his[index] == hi && los[index] == lo) {
+                    return index;
+                }
+                index = (index + 1) & mask;
+            }
+            return -1;
+        }
+
+        private int insertIndex(long hi, long lo) {
+            int index = home(hi, lo);
+            while (lastUse[index] != 0) {
+                index = (index + 1) & mask;
+            }
+            return index;
+        }
+
+        /**
+         * 后移删除，保持线性探测序列的连续性
+         */
+        private void removeAt(int hole) {
+            int j = hole;
+            for (;;) {
+                lastUse[hole] = 0;
+                for (;;) {
+                    j = (j + 1) & mask;
+                    if (lastUse[j] == 0) {
+                        return;
+                    }
+                    int k = home(his[j], los[j]);
+                    boolean between = hole <= j ? (hole < k && k <= j) : (hole < k || k <= j);
+                    if (!between) {
+                        break;
+                    }
+                }
+                his[hole] = his[j];
+                los[hole] = los[j];
+                handles[hole] = handles[j];
+                lastUse[hole] = lastUse[j];
+                hole = j;
+            }
+        }
+
+        private void resize() {
+            long[] oldHis = his;
+            long[] oldLos = los;
+            long[] oldHandles = handles;
+            long[] oldLastUse = lastUse;
+            int capacity = (mask + 1) << 1;
+            his = new long[capacity];
+            los = new long[capacity];
+            handles = new long[capacity];
+            lastUse = new long[capacity];
+            mask = capacity - 1;
+            for (int i = 0; i < oldLastUse.length; i++) {
+                if (oldLastUse[i] != 0) {
+                    int index = insertIndex(oldHis[i], oldLos[i]);
+                    his[index] = oldHis[i];
+                    los[index] = oldLos[i];
+                    handles[index] = oldHandles[i];
+                    lastUse[index] = oldLastUse[i];
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package top.turboweb.http.session;
+
+import top.turboweb.commons.exception.TurboSessionException;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 堆外内存的slab分配器，为{@link OffHeapSessionManager}存储序列化后的会话属性。
+ * <p>
+ * 内存以固定大小的直接内存块（chunk）为单位向操作系统申请，块内按2的幂大小分级（64B ~ 64KB）切分，
+ * 释放的内存进入对应级别的空闲链表以供复用，不会归还给操作系统。每个记录的前4个字节保存记录长度。
+ * 分配结果以long句柄表示：高8位为级别，中间24位为块下标，低32位为块内偏移。
+ * </p>
+ * <p>
+ * 该类不是线程安全的，由调用方（分片锁）保证互斥访问。
+ * </p>
+ */
+class OffHeapSlab {
+
+    /**
+     * 最小的分级大小
+     */
+    private static final int MIN_CLASS_SHIFT = 6;
+
+    /**
+     * 分级数量，最大分级为64KB
+     */
+    private static final int CLASS_NUM = 11;
+
+    /**
+     * 单条记录的最大长度（不含长度头）
+     */
+    static final int MAX_RECORD_SIZE = (1 << (MIN_CLASS_SHIFT + CLASS_NUM - 1)) - Integer.BYTES;
+
+    private final int chunkSize;
+    private final List<ByteBuffer> chunks = new ArrayList<>();
+    private final long[][] freeLists = new long[CLASS_NUM][];
+    private final int[] freeSizes = new int[CLASS_NUM];
+    private ByteBuffer current;
+    private int currentIndex = -1;
+    private long usedBytes;
+
+    /**
+     * 创建分配器
+     *
+     * @param chunkSize 每个直接内存块的大小，不能小于最大分级
+     */
+    OffHeapSlab(int chunkSize) {
+        if (chunkSize < (1 << (MIN_CLASS_SHIFT + CLASS_NUM - 1))) {
+            throw new IllegalArgumentException("chunkSize不能小于64KB");
+        }
+        this.chunkSize = chunkSize;
+        for (int i = 0; i < CLASS_NUM; i++) {
+            freeLists[i] = new long[16];
+        }
+    }
+
+    /**
+     * 分配内存并写入记录
+     *
+     * @param data   记录内容
+     * @param length 记录长度
+     * @return 记录句柄
+     */
+    long write(byte[] data, int length) {
+        if (length > MAX_RECORD_SIZE) {
+            throw new TurboSessionException("session data too large: " + length);
+        }
+        int cls = classOf(length + Integer.BYTES);
+        long handle = allocate(cls);
+        ByteBuffer chunk = chunks.get(chunkIndex(handle));
+        int offset = offset(handle);
+        chunk.putInt(offset, length);
+        chunk.put(offset + Integer.BYTES, data, 0, length);
+        usedBytes += 1L << (cls + MIN_CLASS_SHIFT);
+        return handle;
+    }
+
+    /**
+     * 读取记录
+     *
+     * @param handle 记录句柄
+     * @return 记录内容
+     */
+    byte[] read(long handle) {
+        ByteBuffer chunk = chunks.get(chunkIndex(handle));
+        int offset = offset(handle);
+        byte[] data = new byte[chunk.getInt(offset)];
+        chunk.get(offset + Integer.BYTES, data);
+        return data;
+    }
+
+    /**
+     * 释放记录占用的内存
+     *
+     * @param handle 记录句柄
+     */
+    void free(long handle) {
+        int cls = (int) (handle >>> 56);
+        long[] list = freeLists[cls];
+        if (freeSizes[cls] == list.length) {
+            list = freeLists[cls] = Arrays.copyOf(list, list.length << 1);
+        }
+        list[freeSizes[cls]++] = handle;
+        usedBytes -= 1L << (cls + MIN_CLASS_SHIFT);
+    }
+
+    /**
+     * 获取已申请的直接内存总量
+     *
+     * @return 字节数
+     */
+    long reservedBytes() {
+        return (long) chunks.size() * chunkSize;
+    }
+
+    /**
+     * 获取正在使用的内存总量（按分级大小计算）
+     *
+     * @return 字节数
+     */
+    long usedBytes() {
+        return usedBytes;
+    }
+
+    private long allocate(int cls) {
+        if (freeSizes[cls] > 0) {
+            return freeLists[cls][--freeSizes[cls]];
+        }
+        int size = 1 << (cls + MIN_CLASS_SHIFT);
+        if (current == null || current.capacity() - current.position() < size) {
+            current = ByteBuffer.allocateDirect(chunkSize);
+            chunks.add(current);
+            currentIndex++;
+        }
+        int offset = current.position();
+        current.position(offset + size);
+        return ((long) cls << 56) | ((long) currentIndex << 32) | offset;
+    }
+
+    private static int classOf(int size) {
+        int shift = 32 - Integer.numberOfLeadingZeros(size - 1);
+        return Math.max(0, shift - MIN_CLASS_SHIFT);
+    }
+
+    private static int chunkIndex(long handle) {
+        return (int) ((handle >>> 32) & 0xFFFFFF);
+    }
+
+    private static int offset(long handle) {
+        return (int) handle;
+    }
+}
@@ -0,0 +1,29 @@
+package top.turboweb.http.session;
+
+/**
+ * 会话属性的编解码器，用于将属性值序列化后存储到堆外内存中。
+ * <p>
+ * {@link OffHeapSessionManager}不在堆上保存属性对象，属性写入时经由编解码器编码为字节数组，
+ * 读取时再解码为对象。可根据属性类型替换为JSON、Protobuf等更紧凑的实现。
+ * </p>
+ */
+public interface SessionAttributeCodec {
+
+    /**
+     * 将属性值编码为字节数组
+     *
+     * @param value 属性值，可为null
+     * @return 编码后的字节数组
+     */
+    byte[] encode(Object value);
+
+    /**
+     * 将字节数组解码为属性值
+     *
+     * @param bytes 编码后的字节数组
+     * @param type  期望的属性类型，未指定类型时为{@link Object}
+     * @param <T>   属性类型的泛型参数
+     * @return 解码后的属性值
+     */
+    <T> T decode(byte[] bytes, Class<T> type);
+}
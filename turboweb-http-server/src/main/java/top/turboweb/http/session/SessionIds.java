@@ -0,0 +1,80 @@
+package top.turboweb.http.session;
+
+/**
+ * sessionId与16字节键之间的转换工具。
+ * <p>
+ * {@link DefaultHttpSession}生成的sessionId是32位十六进制字符串，可以无损地表示为两个long，
+ * 用于紧凑存储（{@link OffHeapSessionManager}）及会话快照（{@link SessionSnapshotter}）。
+ * </p>
+ */
+final class SessionIds {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private SessionIds() {
+    }
+
+    /**
+     * 判断sessionId是否为32位十六进制字符串
+     *
+     * @param sessionId 会话id
+     * @return true：合法
+     */
+    static boolean isValid(String sessionId) {
+        if (sessionId == null || sessionId.length() != 32) {
+            return false;
+        }
+        for (int i = 0; i < 32; i++) {
+            if (Character.digit(sessionId.charAt(i), 16) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 获取键的高64位
+     *
+     * @param sessionId 合法的会话id
+     * @return 高64位
+     */
+    static long high(String sessionId) {
+        return parseHex(sessionId, 0);
+    }
+
+    /**
+     * 获取键的低64位
+     *
+     * @param sessionId 合法的会话id
+     * @return 低64位
+     */
+    static long low(String sessionId) {
+        return parseHex(sessionId, 16);
+    }
+
+    /**
+     * 将16字节键还原为sessionId
+     *
+     * @param high 高64位
+     * @param low  低64位
+     * @return 32位小写十六进制字符串
+     */
+    static String toSessionId(long high, long low) {
+        char[] chars = new char[32];
+        for (int i = 15; i >= 0; i--) {
+            chars[i] = HEX[(int) (high & 0xF)];
+            chars[i + 16] = HEX[(int) (low & 0xF)];
+            high >>>= 4;
+            low >>>= 4;
+        }
+        return new String(chars);
+    }
+
+    private static long parseHex(String s, int from) {
+        long v = 0;
+        for (int i = from; i < from + 16; i++) {
+            v = (v << 4) | Character.digit(s.charAt(i), 16);
+        }
+        return v;
+    }
+}
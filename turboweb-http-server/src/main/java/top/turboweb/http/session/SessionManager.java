@@ -101,4 +101,17 @@ public interface SessionManager {
      * @param sessionId 会话的唯一标识（非空）
      */
     void expireAt(String sessionId);
+
+    /**
+     * 请求处理期间是否需要持有全局会话读锁（{@link top.turboweb.commons.lock.Locks#SESSION_LOCK}）
+     * <p>
+     * 依赖全局写锁来暂停所有请求进行会话清理的实现应返回true（默认行为）；
+     * 能够在不阻塞请求线程的情况下完成清理的实现应返回false，以避免请求线程竞争全局锁。
+     * </p>
+     *
+     * @return true：需要全局读锁；false：不需要
+     */
+    default boolean needGlobalLock() {
+        return true;
+    }
 }
@@ -0,0 +1,73 @@
+package top.turboweb.http.session;
+
+import top.turboweb.commons.exception.TurboSessionException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 会话属性记录的编解码工具，记录格式见{@link SessionSnapshotSink}。
+ */
+final class SessionRecords {
+
+    /**
+     * 属性条目的消费者
+     */
+    interface EntryConsumer {
+        void accept(String key, long expireAt, byte[] value);
+    }
+
+    /**
+     * 属性记录的构建器
+     */
+    static final class Builder {
+
+        private final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        private final DataOutputStream out = new DataOutputStream(bos);
+
+        Builder add(String key, long expireAt, byte[] value) {
+            byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+            if (keyBytes.length > 0xFFFF) {
+                throw new TurboSessionException("session attribute key too long");
+            }
+            try {
+                out.writeShort(keyBytes.length);
+                out.write(keyBytes);
+                out.writeLong(expireAt);
+                out.writeInt(value.length);
+                out.write(value);
+            } catch (IOException e) {
+                throw new TurboSessionException("session record write error", e);
+            }
+            return this;
+        }
+
+        byte[] build() {
+            return bos.toByteArray();
+        }
+    }
+
+    private SessionRecords() {
+    }
+
+    /**
+     * 遍历属性记录中的全部条目
+     *
+     * @param record   属性记录
+     * @param consumer 条目的消费者
+     */
+    static void forEach(byte[] record, EntryConsumer consumer) {
+        ByteBuffer buffer = ByteBuffer.wrap(record);
+        while (buffer.hasRemaining()) {
+            byte[] key = new byte[buffer.getShort() & 0xFFFF];
+            buffer.get(key);
+            long expireAt = buffer.getLong();
+            byte[] value = new byte[buffer.getInt()];
+            buffer.get(value);
+            consumer.accept(new String(key, StandardCharsets.UTF_8), expireAt, value);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package top.turboweb.http.session;
+
+/**
+ * 会话快照的写入目标，由{@link SnapshotSessionManager}在导出会话时回调。
+ * <p>
+ * 会话以16字节键（两个long）标识，属性记录的格式为若干个连续的条目：
+ * [short 键长度][键(UTF-8)][long 过期时间，0表示永不过期][int 值长度][值(经{@link SessionAttributeCodec}编码)]。
+ * </p>
+ */
+public interface SessionSnapshotSink {
+
+    /**
+     * 写入会话的当前状态
+     *
+     * @param idHigh      会话键的高64位
+     * @param idLow       会话键的低64位
+     * @param lastUseTime 会话最后使用时间
+     * @param attrs       会话的属性记录，没有属性时为空数组
+     */
+    void put(long idHigh, long idLow, long lastUseTime, byte[] attrs);
+
+    /**
+     * 写入会话的删除
+     *
+     * @param idHigh 会话键的高64位
+     * @param idLow  会话键的低64位
+     */
+    void remove(long idHigh, long idLow);
+}
@@ -0,0 +1,359 @@
+package top.turboweb.http.session;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import top.turboweb.commons.exception.TurboSessionException;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 会话快照器，将{@link SnapshotSessionManager}中的会话持久化到内存映射的追加写文件中，并在启动时恢复。
+ * <p>
+ * 快照文件由8字节的文件头（魔数 + 版本）和若干条记录组成：
+ * <ul>
+ *     <li>PUT：[byte 1][long 键高位][long 键低位][long 最后使用时间][int 属性长度][属性记录]</li>
+ *     <li>REMOVE：[byte 2][long 键高位][long 键低位]</li>
+ * </ul>
+ * 类型为0的字节表示文件的逻辑结尾（映射扩展出的区域由操作系统填充为0），因此进程崩溃后已写入页缓存的记录依然可以恢复。
+ * </p>
+ * <p>
+ * 快照线程周期性地调用{@link SnapshotSessionManager#collectChanges(SessionSnapshotSink)}，只追加发生变化的会话，
+ * 导出过程不持有任何全局锁，不会暂停请求线程。当文件中的过时记录过多时，会导出全部会话写入新文件并原子替换旧文件。
+ * </p>
+ */
+public class SessionSnapshotter implements SessionSnapshotSink {
+
+    private static final Logger log = LoggerFactory.getLogger(SessionSnapshotter.class);
+
+    private static final int MAGIC = 0x54575353;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    private static final byte TYPE_END = 0;
+    private static final byte TYPE_PUT = 1;
+    private static final byte TYPE_REMOVE = 2;
+    private static final int PUT_HEADER_SIZE = 1 + 8 + 8 + 8 + 4;
+    private static final int REMOVE_SIZE = 1 + 8 + 8;
+
+    /**
+     * 每次映射的区域大小
+     */
+    private static final long REGION_SIZE = 16L * 1024 * 1024;
+
+    /**
+     * 触发压缩的最小文件长度
+     */
+    private static final long COMPACT_MIN_SIZE = 64L * 1024 * 1024;
+
+    /**
+     * 会话续期时记录变化的最小时间区间（毫秒）
+     */
+    private static final long MIN_TOUCH_STEP = 1000;
+
+    /**
+     * 未设置最大未使用时长时，会话续期记录变化的时间区间（毫秒）
+     */
+    private static final long DEFAULT_TOUCH_STEP = 60000;
+
+    private final SnapshotSessionManager sessionManager;
+    private final Path file;
+    private final long interval;
+    private ScheduledExecutorService scheduler;
+
+    private FileChannel channel;
+    private MappedByteBuffer region;
+    private long regionStart;
+
+    /**
+     * 上次压缩后的文件长度
+     */
+    private long compactedSize;
+
+    /**
+     * 创建会话快照器
+     *
+     * @param sessionManager 支持快照的会话管理器
+     * @param file           快照文件路径
+     * @param interval       增量快照的间隔（毫秒）
+     */
+    public SessionSnapshotter(SnapshotSessionManager sessionManager, Path file, long interval) {
+        this.sessionManager = sessionManager;
+        this.file = file;
+        this.interval = interval;
+    }
+
+    /**
+     * 从快照文件中恢复会话，需在{@link #start()}之前调用
+     *
+     * @return 恢复的记录数
+     */
+    public long restore() {
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        long start = System.currentTimeMillis();
+        long count = 0;
+        try (FileChannel readChannel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = readChannel.size();
+            if (size < HEADER_SIZE) {
+                return 0;
+            }
+            MappedByteBuffer buffer = readChannel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(size, REGION_SIZE));
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                log.warn("session快照文件格式不正确，忽略：{}", file);
+                return 0;
+            }
+            long base = 0;
+            for (;;) {
+                // 保证当前区域中至少包含一个完整的记录头，否则从当前位置重新映射
+                if (buffer.remaining() < PUT_HEADER_SIZE && base + buffer.position() < size) {
+                    base += buffer.position();
+                    buffer = readChannel.map(FileChannel.MapMode.READ_ONLY, base, Math.min(size - base, REGION_SIZE));
+                }
+                if (!buffer.hasRemaining()) {
+                    break;
+                }
+                int recordStart = buffer.position();
+                byte type = buffer.get();
+                if (type == TYPE_END || buffer.remaining() < REMOVE_SIZE - 1) {
+                    break;
+                }
+                long high = buffer.getLong();
+                long low = buffer.getLong();
+                if (type == TYPE_REMOVE) {
+                    sessionManager.restoreRemove(high, low);
+                } else if (type == TYPE_PUT) {
+                    if (buffer.remaining() < 12) {
+                        break;
+                    }
+                    long lastUseTime = buffer.getLong();
+                    int length = buffer.getInt();
+                    if (buffer.remaining() < length) {
+                        if (base + recordStart + PUT_HEADER_SIZE + length > size) {
+                            // 记录不完整
+                            break;
+                        }
+                        base += recordStart;
+                        buffer = readChannel.map(FileChannel.MapMode.READ_ONLY, base, Math.min(size - base, Math.max(REGION_SIZE, PUT_HEADER_SIZE + length)));
+                        buffer.position(PUT_HEADER_SIZE);
+                    }
+                    byte[] attrs = new byte[length];
+                    buffer.get(attrs);
+                    sessionManager.restoreSession(high, low, lastUseTime, attrs);
+                } else {
+                    log.warn("session快照文件在{}处损坏，停止恢复", base + recordStart);
+                    break;
+                }
+                count++;
+            }
+        } catch (IOException e) {
+            throw new TurboSessionException("session snapshot restore error", e);
+        }
+        log.info("session快照恢复完成，记录数：{}，耗时：{}ms", count, System.currentTimeMillis() - start);
+        return count;
+    }
+
+    /**
+     * 开始记录会话变化，并启动周期性的增量快照
+     */
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        sessionManager.trackChanges();
+        // 恢复后先压缩一次，丢弃旧文件中的过时记录
+        compact();
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "session-snapshot-thread");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.MILLISECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(this::stop, "session-snapshot-shutdown"));
+    }
+
+    /**
+     * 停止快照，写入最后一次增量并刷盘
+     */
+    public synchronized void stop() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(interval, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        scheduler = null;
+        flush();
+        if (region != null) {
+            region.force();
+            long size = position();
+            region = null;
+            try {
+                // 去掉映射区域末尾未使用的部分
+                channel.truncate(size);
+            } catch (IOException e) {
+                log.warn("session快照文件截断失败", e);
+            }
+        }
+        closeChannel();
+    }
+
+    /**
+     * 写入一次增量快照，文件中过时记录过多时进行压缩
+     */
+    private synchronized void flush() {
+        try {
+            sessionManager.collectChanges(this);
+            long size = position();
+            if (size > COMPACT_MIN_SIZE && size > compactedSize * 2) {
+                compact();
+            }
+        } catch (Throwable e) {
+            log.error("session快照写入异常", e);
+        }
+    }
+
+    /**
+     * 将全部会话写入新文件，并原子替换旧文件
+     * <p>
+     * 旧文件在替换成功后才关闭，压缩失败时删除临时文件并继续向旧文件追加写入。
+     * </p>
+     */
+    private synchronized void compact() {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        FileChannel oldChannel = channel;
+        MappedByteBuffer oldRegion = region;
+        long oldRegionStart = regionStart;
+        try {
+            openChannel(tmp);
+            sessionManager.collectAll(this);
+            region.force();
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            if (channel != oldChannel) {
+                closeChannel();
+            }
+            channel = oldChannel;
+            region = oldRegion;
+            regionStart = oldRegionStart;
+            try {
+                Files.deleteIfExists(tmp);
+            } catch (IOException ex) {
+                e.addSuppressed(ex);
+            }
+            throw new TurboSessionException("session snapshot compact error", e);
+        }
+        if (oldChannel != null) {
+            try {
+                oldChannel.close();
+            } catch (IOException e) {
+                log.warn("session快照文件关闭失败", e);
+            }
+        }
+        compactedSize = position();
+        log.debug("session快照压缩完成，文件长度：{}", compactedSize);
+    }
+
+    /**
+     * 获取会话续期时记录变化的时间区间。
+     * <p>
+     * 只修改最后使用时间的续期不需要每次都写入快照，最后使用时间每跨过一个区间才记录一次变化，
+     * 恢复后的会话最多提前一个区间（加一个快照间隔）过期。
+     * </p>
+     *
+     * @param maxNotUseTime 会话的最大未使用时长（毫秒）
+     * @return 时间区间（毫秒）
+     */
+    static long touchStep(long maxNotUseTime) {
+        if (maxNotUseTime <= 0) {
+            return DEFAULT_TOUCH_STEP;
+        }
+        return Math.max(MIN_TOUCH_STEP, maxNotUseTime / 16);
+    }
+
+    @Override
+    public void put(long idHigh, long idLow, long lastUseTime, byte[] attrs) {
+        ensure(PUT_HEADER_SIZE + attrs.length);
+        region.put(TYPE_PUT);
+        region.putLong(idHigh);
+        region.putLong(idLow);
+        region.putLong(lastUseTime);
+        region.putInt(attrs.length);
+        region.put(attrs);
+    }
+
+    @Override
+    public void remove(long idHigh, long idLow) {
+        ensure(REMOVE_SIZE);
+        region.put(TYPE_REMOVE);
+        region.putLong(idHigh);
+        region.putLong(idLow);
+    }
+
+    /**
+     * 打开新的快照文件并写入文件头
+     *
+     * @param path 文件路径
+     */
+    private void openChannel(Path path) throws IOException {
+        FileChannel newChannel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer newRegion;
+        try {
+            newRegion = newChannel.map(FileChannel.MapMode.READ_WRITE, 0, REGION_SIZE);
+        } catch (IOException | RuntimeException e) {
+            newChannel.close();
+            throw e;
+        }
+        newRegion.putInt(MAGIC);
+        newRegion.putInt(VERSION);
+        channel = newChannel;
+        region = newRegion;
+        regionStart = 0;
+    }
+
+    private void closeChannel() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.warn("session快照文件关闭失败", e);
+        }
+        channel = null;
+        region = null;
+    }
+
+    /**
+     * 保证当前映射区域中有足够的空间，不足时从当前位置映射新的区域
+     *
+     * @param size 需要的字节数
+     */
+    private void ensure(int size) {
+        if (region.remaining() > size) {
+            return;
+        }
+        try {
+            regionStart += region.position();
+            region = channel.map(FileChannel.MapMode.READ_WRITE, regionStart, Math.max(REGION_SIZE, size + 1L));
+        } catch (IOException e) {
+            throw new TurboSessionException("session snapshot map error", e);
+        }
+    }
+
+    private long position() {
+        return regionStart + region.position();
+    }
+}
@@ -0,0 +1,48 @@
+package top.turboweb.http.session;
+
+/**
+ * 支持快照的会话管理器。
+ * <p>
+ * 实现类需要记录会话的变化（创建、属性修改、回收），供{@link SessionSnapshotter}周期性地增量导出，
+ * 并支持在启动时从快照中恢复会话。导出过程不能阻塞请求线程。
+ * </p>
+ */
+public interface SnapshotSessionManager extends SessionManager {
+
+    /**
+     * 开始记录会话的变化，在此之前发生的变化不会被{@link #collectChanges(SessionSnapshotSink)}导出
+     */
+    void trackChanges();
+
+    /**
+     * 导出自上次调用以来发生变化的会话
+     *
+     * @param sink 快照的写入目标
+     */
+    void collectChanges(SessionSnapshotSink sink);
+
+    /**
+     * 导出全部会话，用于快照的压缩
+     *
+     * @param sink 快照的写入目标
+     */
+    void collectAll(SessionSnapshotSink sink);
+
+    /**
+     * 从快照中恢复会话，会话已存在时覆盖
+     *
+     * @param idHigh      会话键的高64位
+     * @param idLow       会话键的低64位
+     * @param lastUseTime 会话最后使用时间
+     * @param attrs       会话的属性记录
+     */
+    void restoreSession(long idHigh, long idLow, long lastUseTime, byte[] attrs);
+
+    /**
+     * 从快照中恢复会话的删除
+     *
+     * @param idHigh 会话键的高64位
+     * @param idLow  会话键的低64位
+     */
+    void restoreRemove(long idHigh, long idLow);
+}